@@ -0,0 +1,82 @@
+package ICN.itrc_project.benchmark;
+
+import ICN.itrc_project.domain.LocationEntity;
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.dto.RdbmsLocationResponse;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.*;
+import redis.clients.jedis.search.Document;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO 변환 Hot Path 벤치마크 (요청/결과 1건당 비용)
+ * - LocationResponse.fromDocument   : RediSearch 결과 → 응답 DTO (String.valueOf + Double.parseDouble)
+ * - RdbmsLocationResponse.from      : JPA Entity → 응답 DTO
+ * - LocationRequest.fromGrabDataset : Grab-Posisi 로우 → 요청 DTO
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DtoMappingBenchmark {
+
+    private static final int SAMPLES = 4096;
+
+    private GrabPosisiSamples samples;
+    private Document[] documents;
+    private LocationEntity[] entities;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = new GrabPosisiSamples(SAMPLES);
+        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        documents = new Document[SAMPLES];
+        entities = new LocationEntity[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Redis 응답은 모든 필드가 문자열로 도착
+            documents[i] = new Document("rider:" + samples.trjIds[i], 1.0)
+                    .set("trj_id", samples.trjIds[i])
+                    .set("rawlat", String.valueOf(samples.rawLats[i]))
+                    .set("rawlng", String.valueOf(samples.rawLngs[i]))
+                    .set("h3_index", "89652634c2bffff")
+                    .set("driving_mode", samples.drivingModes[i])
+                    .set("dist", String.valueOf(samples.accuracies[i] * 10));
+
+            entities[i] = LocationEntity.builder()
+                    .userId(samples.trjIds[i])
+                    .location(geometryFactory.createPoint(new Coordinate(samples.rawLngs[i], samples.rawLats[i])))
+                    .speed(samples.speeds[i])
+                    .accuracy(samples.accuracies[i])
+                    .serviceType("TAXI")
+                    .timestamp(samples.pingTimestamps[i] * 1000)
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public LocationResponse locationResponseFromDocument() {
+        return LocationResponse.fromDocument(documents[next()]);
+    }
+
+    @Benchmark
+    public RdbmsLocationResponse rdbmsLocationResponseFrom() {
+        return RdbmsLocationResponse.from(entities[next()]);
+    }
+
+    @Benchmark
+    public LocationRequest locationRequestFromGrabDataset() {
+        int i = next();
+        return LocationRequest.fromGrabDataset(
+                samples.trjIds[i], samples.drivingModes[i], samples.rawLats[i], samples.rawLngs[i],
+                samples.bearings[i], samples.speeds[i], samples.accuracies[i], samples.pingTimestamps[i]);
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SAMPLES - 1);
+    }
+}
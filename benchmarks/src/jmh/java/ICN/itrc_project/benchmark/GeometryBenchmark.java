@@ -0,0 +1,79 @@
+package ICN.itrc_project.benchmark;
+
+import ICN.itrc_project.spatial.GeoMath;
+import com.uber.h3core.H3Core;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.geom.Path2D;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공간 연산 Hot Path 벤치마크 (좌표 1건당 비용)
+ * - haversineDistance    : RedisLocationController PIP 경계 원 계산 (GeoMath.distanceMeter)
+ * - path2dBuildPolygon   : RedisLocationController의 요청당 Path2D 다각형 구성
+ * - path2dContains       : 후보 1건에 대한 Path2D.contains 판별
+ * - h3LatLngToCellAddress: LocationEventProducer의 이벤트당 H3(해상도 9) 주소 변환
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+
+    private static final int SAMPLES = 4096;
+
+    // 도심 구역 형태의 8각형 (k6 PIP 시나리오 크기)
+    private static final List<Double> POLYGON_LATS = List.of(1.2750, 1.2790, 1.2900, 1.3010, 1.3050, 1.3010, 1.2900, 1.2790);
+    private static final List<Double> POLYGON_LNGS = List.of(103.8450, 103.8340, 103.8300, 103.8340, 103.8450, 103.8560, 103.8600, 103.8560);
+
+    private GrabPosisiSamples samples;
+    private H3Core h3;
+    private Path2D polygon;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        samples = new GrabPosisiSamples(SAMPLES);
+        h3 = H3Core.newInstance();
+        polygon = buildPolygon();
+    }
+
+    @Benchmark
+    public double haversineDistance() {
+        int i = next();
+        int j = (i + 1) & (SAMPLES - 1);
+        return GeoMath.distanceMeter(samples.rawLats[i], samples.rawLngs[i], samples.rawLats[j], samples.rawLngs[j]);
+    }
+
+    @Benchmark
+    public Path2D path2dBuildPolygon() {
+        return buildPolygon();
+    }
+
+    @Benchmark
+    public boolean path2dContains() {
+        int i = next();
+        return polygon.contains(samples.rawLngs[i], samples.rawLats[i]);
+    }
+
+    @Benchmark
+    public String h3LatLngToCellAddress() {
+        int i = next();
+        return h3.latLngToCellAddress(samples.rawLats[i], samples.rawLngs[i], 9);
+    }
+
+    private static Path2D buildPolygon() {
+        Path2D path = new Path2D.Double();
+        path.moveTo(POLYGON_LNGS.get(0), POLYGON_LATS.get(0));
+        for (int i = 1; i < POLYGON_LATS.size(); i++) {
+            path.lineTo(POLYGON_LNGS.get(i), POLYGON_LATS.get(i));
+        }
+        path.closePath();
+        return path;
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SAMPLES - 1);
+    }
+}
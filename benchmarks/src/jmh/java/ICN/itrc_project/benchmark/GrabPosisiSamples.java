@@ -0,0 +1,51 @@
+package ICN.itrc_project.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Grab-Posisi(싱가포르) 데이터셋 형태의 합성 Ping 생성기
+ * - trj_id / driving_mode / rawlat / rawlng / bearing / speed(m/s) / accuracy / pingtimestamp(초) 컬럼 분포를 모사
+ * - 시드 고정으로 벤치마크 간 동일 데이터 재현
+ */
+public final class GrabPosisiSamples {
+
+    private static final double MIN_LAT = 1.2400, MAX_LAT = 1.4700;
+    private static final double MIN_LNG = 103.6200, MAX_LNG = 104.0200;
+    private static final long BASE_PING_SEC = 1_554_076_800L; // 2019-04-01 00:00:00 UTC
+
+    public final String[] trjIds;
+    public final String[] drivingModes;
+    public final double[] rawLats;
+    public final double[] rawLngs;
+    public final double[] bearings;
+    public final double[] speeds;
+    public final double[] accuracies;
+    public final long[] pingTimestamps;
+
+    public GrabPosisiSamples(int size) {
+        SplittableRandom random = new SplittableRandom(20190401L);
+        trjIds = new String[size];
+        drivingModes = new String[size];
+        rawLats = new double[size];
+        rawLngs = new double[size];
+        bearings = new double[size];
+        speeds = new double[size];
+        accuracies = new double[size];
+        pingTimestamps = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            trjIds[i] = String.valueOf(random.nextInt(1, 28_000));
+            drivingModes[i] = random.nextInt(10) < 7 ? "car" : "motorcycle";
+            rawLats[i] = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+            rawLngs[i] = MIN_LNG + random.nextDouble() * (MAX_LNG - MIN_LNG);
+            bearings[i] = random.nextInt(0, 360);
+            speeds[i] = random.nextDouble() * 25.0;
+            accuracies[i] = 3.0 + random.nextDouble() * 47.0;
+            pingTimestamps[i] = BASE_PING_SEC + random.nextInt(0, 7 * 24 * 3600);
+        }
+    }
+
+    public int size() {
+        return trjIds.length;
+    }
+}
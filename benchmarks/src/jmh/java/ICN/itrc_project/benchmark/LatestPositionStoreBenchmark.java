@@ -0,0 +1,138 @@
+package ICN.itrc_project.benchmark;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.spatial.OffHeapLocationStore;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.openjdk.jmh.annotations.*;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 최신 위치 저장소 비교: HashMap&lt;String, LocationRequest&gt;(Heap) vs OffHeapLocationStore
+ * - update: Consumer처럼 이벤트마다 새 LocationRequest를 만들어 반영 (Heap은 객체를 보관, Off-Heap은 값만 복사)
+ * - lookup: 임의 사용자 최신 위치 단건 조회
+ * Trial 종료 시 표준 출력으로 저장소 점유량(Heap 증가분 + Direct Buffer)과 GC 정지 시간 분포(p99/max)를 기록
+ *
+ * 실행: ./gradlew :benchmarks:jmh -Pjmh.includes=LatestPositionStore (1천만 건 Heap 기준선은 약 3GB Heap 필요)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g", "-XX:MaxDirectMemorySize=4g"})
+public class LatestPositionStoreBenchmark {
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"1000000", "10000000"})
+    public int entities;
+
+    private Map<String, LocationRequest> heapStore;
+    private OffHeapLocationStore offHeapStore;
+
+    private String[] userIds;
+    private GrabPosisiSamples samples;
+    private long clock;
+
+    private final List<Long> pauseMillis = Collections.synchronizedList(new ArrayList<>());
+    private final List<Runnable> unsubscribe = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = new GrabPosisiSamples(4096);
+        userIds = new String[entities];
+        for (int i = 0; i < entities; i++) userIds[i] = "user_" + i;
+
+        long before = usedHeapAfterGc();
+        if ("heap".equals(store)) {
+            heapStore = new HashMap<>();
+        } else {
+            offHeapStore = new OffHeapLocationStore(entities);
+        }
+        // 저장소가 보관하는 키는 역직렬화된 이벤트처럼 별도 인스턴스
+        for (int i = 0; i < entities; i++) write(new String(userIds[i]), i);
+        long heapBytes = Math.max(0, usedHeapAfterGc() - before);
+        long directBytes = offHeapStore != null ? offHeapStore.offHeapBytes() : 0;
+        System.out.printf("%n[footprint] store=%s entities=%,d | heap=%,d MB | direct=%,d MB | bytes/entity=%.0f%n",
+                store, entities, heapBytes >> 20, directBytes >> 20, (double) (heapBytes + directBytes) / entities);
+
+        subscribeGcPauses();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        unsubscribe.forEach(Runnable::run);
+        List<Long> pauses = new ArrayList<>(pauseMillis);
+        Collections.sort(pauses);
+        long p99 = pauses.isEmpty() ? 0 : pauses.get((int) Math.ceil(pauses.size() * 0.99) - 1);
+        long max = pauses.isEmpty() ? 0 : pauses.get(pauses.size() - 1);
+        System.out.printf("%n[gc] store=%s entities=%,d | pauses=%d | p99=%dms | max=%dms%n",
+                store, entities, pauses.size(), p99, max);
+    }
+
+    @Benchmark
+    public boolean update() {
+        int i = (int) ((clock++ * 0x9E3779B97F4A7C15L >>> 1) % entities);
+        return write(userIds[i], clock);
+    }
+
+    /**
+     * 조회 결과의 값(timestamp)까지 읽어야 같은 작업량 (Heap은 LocationRequest/Long 역참조 포함)
+     */
+    @Benchmark
+    public long lookup() {
+        int i = (int) ((clock++ * 0x9E3779B97F4A7C15L >>> 1) % entities);
+        if (heapStore != null) return heapStore.get(userIds[i]).getTimestamp();
+        return offHeapStore.get(userIds[i]).map(OffHeapLocationStore.StoredLocation::timestamp).orElse(-1L);
+    }
+
+    private boolean write(String userId, long sequence) {
+        int s = (int) (sequence & (samples.size() - 1));
+        LocationRequest request = LocationRequest.fromGrabDataset(userId, samples.drivingModes[s],
+                samples.rawLats[s], samples.rawLngs[s], samples.bearings[s], samples.speeds[s],
+                samples.accuracies[s], samples.pingTimestamps[0] + sequence);
+        if (heapStore != null) {
+            heapStore.put(userId, request);
+            return true;
+        }
+        return offHeapStore.put(userId, request.getLatitude(), request.getLongitude(),
+                request.getSpeed(), request.getAccuracy(), request.getTimestamp());
+    }
+
+    private void subscribeGcPauses() {
+        NotificationListener listener = (notification, handback) -> {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            pauseMillis.add(info.getGcInfo().getDuration());
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // G1 동시 주기(Concurrent Cycle)는 정지 시간이 아니므로 제외
+            if (gc.getName().contains("Concurrent")) continue;
+            NotificationEmitter emitter = (NotificationEmitter) gc;
+            emitter.addNotificationListener(listener, null, null);
+            unsubscribe.add(() -> {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (Exception ignored) {
+                    // 이미 해제된 경우
+                }
+            });
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,118 @@
+package ICN.itrc_project.benchmark;
+
+import ICN.itrc_project.codec.LocationBinaryCodec;
+import ICN.itrc_project.dto.LocationRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 위치 이벤트 Wire Format 벤치마크 (이벤트 1건당 인코딩/디코딩 비용)
+ * - JSON   : Kafka JsonSerializer/JsonDeserializer와 동일한 Jackson 직렬화
+ * - BINARY : LocationBinaryCodec (Kafka LocationBinarySerializer/Deserializer)
+ * - BASE64 : Redis Stream BINARY 필드 인코딩
+ * 이벤트당 평균 바이트 수는 Trial 시작 시 표준 출력으로 기록
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LocationCodecBenchmark {
+
+    private static final int SAMPLES = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private LocationRequest[] requests;
+    private byte[][] jsonPayloads;
+    private byte[][] binaryPayloads;
+    private String[] base64Payloads;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        GrabPosisiSamples samples = new GrabPosisiSamples(SAMPLES);
+        requests = new LocationRequest[SAMPLES];
+        jsonPayloads = new byte[SAMPLES][];
+        binaryPayloads = new byte[SAMPLES][];
+        base64Payloads = new String[SAMPLES];
+
+        long jsonBytes = 0, binaryBytes = 0, base64Bytes = 0, streamFieldBytes = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            requests[i] = LocationRequest.fromGrabDataset(
+                    samples.trjIds[i], samples.drivingModes[i], samples.rawLats[i], samples.rawLngs[i],
+                    samples.bearings[i], samples.speeds[i], samples.accuracies[i], samples.pingTimestamps[i]);
+            jsonPayloads[i] = objectMapper.writeValueAsBytes(requests[i]);
+            binaryPayloads[i] = LocationBinaryCodec.encode(requests[i]);
+            base64Payloads[i] = LocationBinaryCodec.encodeToString(requests[i]);
+
+            jsonBytes += jsonPayloads[i].length;
+            binaryBytes += binaryPayloads[i].length;
+            base64Bytes += base64Payloads[i].length() + "bin".length();
+            streamFieldBytes += streamFieldBytes(requests[i]);
+        }
+        System.out.printf("%n[bytes/event] json=%.1f | binary=%.1f | stream-fields=%.1f | stream-binary(base64)=%.1f%n",
+                (double) jsonBytes / SAMPLES, (double) binaryBytes / SAMPLES,
+                (double) streamFieldBytes / SAMPLES, (double) base64Bytes / SAMPLES);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(requests[next()]);
+    }
+
+    @Benchmark
+    public LocationRequest jsonDecode() throws IOException {
+        return objectMapper.readValue(jsonPayloads[next()], LocationRequest.class);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return LocationBinaryCodec.encode(requests[next()]);
+    }
+
+    @Benchmark
+    public LocationRequest binaryDecode() {
+        return LocationBinaryCodec.decode(binaryPayloads[next()]);
+    }
+
+    @Benchmark
+    public String base64Encode() {
+        return LocationBinaryCodec.encodeToString(requests[next()]);
+    }
+
+    @Benchmark
+    public LocationRequest base64Decode() {
+        return LocationBinaryCodec.decodeFromString(base64Payloads[next()]);
+    }
+
+    /**
+     * FIELDS 인코딩(필드명 + 문자열 값 10쌍)의 바이트 수 (h3_index는 해상도 9 주소 길이 15자로 계산)
+     */
+    private static int streamFieldBytes(LocationRequest r) {
+        String[] pairs = {
+                "trj_id", r.getUserId(),
+                "driving_mode", String.valueOf(r.getServiceType()),
+                "pingtimestamp", String.valueOf(r.getTimestamp()),
+                "rawlat", String.valueOf(r.getLatitude()),
+                "rawlng", String.valueOf(r.getLongitude()),
+                "speed", String.valueOf(r.getSpeed()),
+                "bearing", String.valueOf(r.getHeading()),
+                "accuracy", String.valueOf(r.getAccuracy()),
+                "location", r.getLongitude() + "," + r.getLatitude(),
+                "h3_index", "89652634c2bffff"
+        };
+        int total = 0;
+        for (String value : pairs) total += value.getBytes(StandardCharsets.UTF_8).length;
+        return total;
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SAMPLES - 1);
+    }
+}
@@ -0,0 +1,130 @@
+package ICN.itrc_project.benchmark;
+
+import ICN.itrc_project.search.H3PolygonCover;
+import ICN.itrc_project.spatial.GeoMath;
+import com.uber.h3core.H3Core;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다각형(PIP) 조회 1회당 애플리케이션 측 비용: Bounding Circle 후보 전수 판정 vs H3 Cell Cover
+ * - circleThenFilter: Bounding Box 외접원 안의 후보 전체를 Ray Casting (기존 RedisLocationController 방식)
+ * - h3CoverFilter   : Cover 셀(해상도 9 버킷)의 후보만 순회, 내부 셀은 판정 생략 + 경계 셀만 Ray Casting
+ * - h3CoverBuild    : 요청당 Cover 계산 비용 (경계 밴드 + polyfill)
+ * 후보 조회는 저장소(Redis)가 수행하므로 Setup에서 미리 구하고, 후보 수는 Setup 시 출력
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PolygonSearchBenchmark {
+
+    private static final int POINTS = 131_072;
+    private static final int RESOLUTION = 9;
+
+    // square: 도심 구역 형태의 8각형 (k6 PIP 시나리오), thin: 대각선 도로 축을 따르는 얇은 띠
+    @Param({"square", "thin"})
+    public String shape;
+
+    private H3Core h3;
+    private GrabPosisiSamples samples;
+    private double[] lats;
+    private double[] lngs;
+
+    private int[] circleCandidates;
+    private H3PolygonCover cover;
+    private List<long[]> coverBuckets; // {cell, 포인트 인덱스...}
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        h3 = H3Core.newInstance();
+        samples = new GrabPosisiSamples(POINTS);
+        if ("thin".equals(shape)) {
+            lats = new double[]{1.2800, 1.2810, 1.3610, 1.3600};
+            lngs = new double[]{103.8000, 103.7990, 103.8990, 103.9000};
+        } else {
+            lats = new double[]{1.2750, 1.2790, 1.2900, 1.3010, 1.3050, 1.3010, 1.2900, 1.2790};
+            lngs = new double[]{103.8450, 103.8340, 103.8300, 103.8340, 103.8450, 103.8560, 103.8600, 103.8560};
+        }
+
+        // Bounding Circle 후보 (GEORADIUS 결과에 해당)
+        double minLat = min(lats), maxLat = max(lats), minLng = min(lngs), maxLng = max(lngs);
+        double centerLat = (minLat + maxLat) / 2, centerLng = (minLng + maxLng) / 2;
+        double radius = GeoMath.distanceMeter(minLat, minLng, maxLat, maxLng) * 1.1 / 2;
+        List<Integer> inCircle = new ArrayList<>();
+        for (int i = 0; i < POINTS; i++) {
+            if (GeoMath.distanceMeter(centerLat, centerLng, samples.rawLats[i], samples.rawLngs[i]) <= radius) inCircle.add(i);
+        }
+        circleCandidates = inCircle.stream().mapToInt(Integer::intValue).toArray();
+
+        // H3 Cover 후보 (h3_index 태그 조회 결과에 해당)
+        cover = H3PolygonCover.of(h3, lats, lngs, RESOLUTION);
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int i = 0; i < POINTS; i++) {
+            buckets.computeIfAbsent(h3.latLngToCell(samples.rawLats[i], samples.rawLngs[i], RESOLUTION), c -> new ArrayList<>()).add(i);
+        }
+        coverBuckets = new ArrayList<>();
+        int coverCandidates = 0;
+        int accepted = 0;
+        for (long cell : cover.allCells()) {
+            List<Integer> members = buckets.getOrDefault(cell, List.of());
+            long[] bucket = new long[members.size() + 1];
+            bucket[0] = cell;
+            for (int m = 0; m < members.size(); m++) {
+                int i = members.get(m);
+                bucket[m + 1] = i;
+                if (cover.accepts(cell, samples.rawLats[i], samples.rawLngs[i])) accepted++;
+            }
+            coverBuckets.add(bucket);
+            coverCandidates += members.size();
+        }
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (GeoMath.contains(lats, lngs, samples.rawLats[i], samples.rawLngs[i])) inside++;
+        }
+
+        System.out.printf("%n[%s] inside=%d, h3 accepted=%d | circle candidates=%d | h3 candidates=%d (cells: interior=%d, boundary=%d)%n",
+                shape, inside, accepted, circleCandidates.length, coverCandidates, cover.getInteriorCount(), cover.getBoundaryCount());
+    }
+
+    @Benchmark
+    public void circleThenFilter(Blackhole bh) {
+        for (int i : circleCandidates) {
+            if (GeoMath.contains(lats, lngs, samples.rawLats[i], samples.rawLngs[i])) bh.consume(i);
+        }
+    }
+
+    @Benchmark
+    public void h3CoverFilter(Blackhole bh) {
+        for (long[] bucket : coverBuckets) {
+            boolean interior = cover.isInterior(bucket[0]);
+            for (int m = 1; m < bucket.length; m++) {
+                int i = (int) bucket[m];
+                if (interior || GeoMath.contains(lats, lngs, samples.rawLats[i], samples.rawLngs[i])) bh.consume(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public H3PolygonCover h3CoverBuild() {
+        return H3PolygonCover.of(h3, lats, lngs, RESOLUTION);
+    }
+
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double v : values) min = Math.min(min, v);
+        return min;
+    }
+
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : values) max = Math.max(max, v);
+        return max;
+    }
+}
@@ -0,0 +1,119 @@
+package ICN.itrc_project.benchmark;
+
+import ICN.itrc_project.search.SpatioTemporalSearch;
+import ICN.itrc_project.spatial.GeoMath;
+import ICN.itrc_project.trajectory.TrajectoryBucketFile;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 시공간 질의 ("T1~T2 사이 P에서 R미터 안에 있었던 개체"): Pruning + 병렬 디코딩 vs 전수 디코딩
+ * - 데이터: 사용자 × 8초 주기 랜덤 워크 궤적을 임시 디렉토리의 봉인된 1시간 Bucket 파일로 기록 (성능 가이드 6.18 표와 같은 주기)
+ * - search: SpatioTemporalSearch (Bucket → 파일 요약 → Segment 요약 Pruning 후 남은 Segment만 디코딩)
+ * - bruteForce: 구간과 겹치는 Bucket 파일의 모든 Segment를 디코딩하여 Ping 단위 판정
+ * 질의: 도심 임의 지점, 반경 radiusMeter, 30분 구간
+ *
+ * 실행: ./gradlew :benchmarks:jmh -Pjmh.includes=SpatioTemporalSearch
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class SpatioTemporalSearchBenchmark {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % HOUR;
+    private static final long PERIOD = 8_000L;
+    private static final long WINDOW = 30 * 60_000L;
+
+    @Param({"5000"})
+    public int users;
+
+    @Param({"6"})
+    public int hours;
+
+    @Param({"500"})
+    public double radiusMeter;
+
+    private Path directory;
+    private TrajectoryStore store;
+    private SpatioTemporalSearch search;
+    private double[][] queries; // lat, lng, from
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("trajectory-bench");
+        store = new TrajectoryStore(directory, Duration.ofHours(1), Duration.ZERO, Duration.ofDays(3650), Duration.ofHours(1));
+        search = new SpatioTemporalSearch(store, Runtime.getRuntime().availableProcessors(), new SimpleMeterRegistry());
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int u = 0; u < users; u++) {
+            String userId = "user_" + u;
+            double lat = 1.25 + random.nextDouble(0.2), lng = 103.65 + random.nextDouble(0.35);
+            for (long ts = START; ts < START + hours * HOUR; ts += PERIOD) {
+                lat += random.nextDouble(-1e-4, 1e-4);
+                lng += random.nextDouble(-1e-4, 1e-4);
+                store.append(userId, lat, lng, ts);
+            }
+        }
+        store.sealExpired(START + (hours + 1) * HOUR);
+
+        queries = new double[256][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{1.25 + random.nextDouble(0.2), 103.65 + random.nextDouble(0.35),
+                    START + random.nextLong(hours * HOUR - WINDOW)};
+        }
+
+        SpatioTemporalSearch.Result sample = search.search(queries[0][0], queries[0][1], radiusMeter,
+                (long) queries[0][2], (long) queries[0][2] + WINDOW);
+        System.out.printf("%n[trajectory] pings=%,d | files=%d | bytes=%,d | sample query: segments=%d pruned=%.1f%% visits=%d%n",
+                store.sealedPings(), store.sealedFiles(START, START + hours * HOUR).size(), store.sealedBytes(),
+                sample.segments(), 100.0 * sample.prunedSegments() / Math.max(1, sample.segments()), sample.visits().size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        search.close();
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(path);
+        }
+    }
+
+    @Benchmark
+    public int search() {
+        double[] query = queries[next()];
+        long from = (long) query[2];
+        return search.search(query[0], query[1], radiusMeter, from, from + WINDOW).visits().size();
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        double[] query = queries[next()];
+        long from = (long) query[2], to = from + WINDOW;
+        int[] hits = new int[1];
+        for (TrajectoryBucketFile file : store.sealedFiles(from, to)) {
+            for (TrajectoryBucketFile.Entry entry : file.entries()) {
+                file.decode(entry, from, to, (ts, lat, lng) -> {
+                    if (GeoMath.distanceMeter(query[0], query[1], lat, lng) <= radiusMeter) hits[0]++;
+                });
+            }
+        }
+        return hits[0];
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (queries.length - 1);
+    }
+}
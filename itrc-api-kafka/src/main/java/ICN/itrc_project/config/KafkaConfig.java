@@ -1,9 +1,25 @@
 package ICN.itrc_project.config;
 
+import ICN.itrc_project.kafka.partition.RegionHandoff;
+import ICN.itrc_project.partition.H3RegionPartitioner;
+import ICN.itrc_project.partition.RegionTracker;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.kafka.autoconfigure.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.kafka.autoconfigure.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Kafka Infrastructure Configuration: 실시간 위치 이벤트 처리를 위한 메시지 브로커 설정
@@ -15,19 +31,81 @@ public class KafkaConfig {
      * 위치 데이터 인제스션(Ingestion)을 위한 전용 토픽 정의
      */
     @Bean
-    public NewTopic locationTopic() {
+    public NewTopic locationTopic(@Value("${lbs.kafka.topic.partitions:1}") int partitions,
+                                  @Value("${lbs.kafka.topic.replicas:1}") int replicas) {
         return TopicBuilder.name("location-events")
                 /**
                  * Partitions: 메시지 병렬 처리의 기본 단위
                  * - 컨슈머 그룹 내의 컨슈머 수와 매핑되어 시스템의 처리량(Throughput)을 결정함
+                 * - 리스너 동시성(lbs.kafka.consumer.concurrency)은 파티션 수 이하로 설정해야 유휴 스레드가 생기지 않음
+                 * - 기존 토픽보다 큰 값으로 변경 시 KafkaAdmin이 기동 시점에 파티션을 증설함 (축소 불가)
                  */
-                .partitions(1)
+                .partitions(partitions)
 
                 /**
                  * Replicas: 데이터 고가용성(High Availability) 및 내결함성(Fault Tolerance) 설정
                  * - 브로커 장애 시 데이터 유실 방지를 위한 복제본 수 정의
                  */
-                .replicas(1)
+                .replicas(replicas)
+
+                /**
+                 * LogAppendTime: Record Timestamp를 브로커 적재 시각으로 기록
+                 * - 구간 지연(producer-to-broker / broker-to-consumer) 측정 기준 (신규 생성 토픽에만 적용)
+                 */
+                .config(TopicConfig.MESSAGE_TIMESTAMP_TYPE_CONFIG, "LogAppendTime")
                 .build();
     }
+
+    /**
+     * Geofence 진입/이탈 이벤트 토픽 (lbs.geofence.kafka.enabled=true)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "lbs.geofence.kafka", name = "enabled", havingValue = "true")
+    public NewTopic geofenceTopic(@Value("${lbs.geofence.kafka.topic:geofence-events}") String topic,
+                                  @Value("${lbs.kafka.topic.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic).partitions(1).replicas(replicas).build();
+    }
+
+    /**
+     * 배치 리스너 전용 컨테이너 팩토리 (lbs.kafka.consumer.mode=batch)
+     * - spring.kafka.* 기본 설정을 그대로 적용한 뒤, poll 단위 List 전달과 배치 단위 오프셋 커밋만 변경
+     * - AckMode.BATCH: 리스너가 정상 반환(= Redis Pipeline 응답 확인)한 뒤에만 해당 poll의 오프셋 커밋
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "lbs.kafka.consumer", name = "mode", havingValue = "batch")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * H3 지역 기반 파티셔닝 (lbs.kafka.partitioning.strategy=h3)
+     * - spring.kafka.producer.* 기본 설정 위에 Partitioner와 지역 해상도만 추가 (Key는 그대로 userId)
+     * - 해상도가 낮을수록 Shard당 지역이 넓어져 경계 이동(Handoff)이 줄지만, 지역 수가 적어 파티션 편중이 커짐
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "lbs.kafka.partitioning", name = "strategy", havingValue = "h3")
+    public DefaultKafkaProducerFactoryCustomizer h3RegionPartitionerCustomizer(
+            @Value("${lbs.kafka.partitioning.h3-resolution:6}") int resolution) {
+        return producerFactory -> producerFactory.updateConfigs(Map.<String, Object>of(
+                ProducerConfig.PARTITIONER_CLASS_CONFIG, H3RegionPartitioner.class.getName(),
+                H3RegionPartitioner.RESOLUTION_CONFIG, resolution));
+    }
+
+    /**
+     * 지역 경계 이동 감지 및 이전 Shard 인계: Partitioner와 같은 해상도로 지역 계산
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "lbs.kafka.partitioning", name = "strategy", havingValue = "h3")
+    public RegionHandoff regionHandoff(@Value("${lbs.kafka.partitioning.h3-resolution:6}") int resolution,
+                                       @Value("${lbs.kafka.partitioning.tracked-users:1000000}") long trackedUsers,
+                                       @Value("${lbs.kafka.partitioning.tracking-ttl:30m}") Duration trackingTtl,
+                                       MeterRegistry meterRegistry) {
+        return new RegionHandoff(new H3RegionPartitioner(resolution), new RegionTracker(trackedUsers, trackingTtl), meterRegistry);
+    }
 }
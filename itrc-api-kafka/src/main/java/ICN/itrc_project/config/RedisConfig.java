@@ -1,5 +1,10 @@
 package ICN.itrc_project.config;
 
+import ICN.itrc_project.concurrency.BlockingCallLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -8,6 +13,8 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 // RedisConfig를 통해 데이터를 인메모리에 객체 형태로 저장할 수 있음
 public class RedisConfig {
@@ -44,4 +51,16 @@ public class RedisConfig {
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
         return new StringRedisTemplate(connectionFactory);
     }
+
+    /**
+     * 가상 스레드 실행 시 Redis 조회 동시 호출 상한 (spring.threads.virtual.enabled=true, Java 21 이상)
+     * - Lettuce는 단일 커넥션에 명령을 Pipelining하므로, 상한이 없으면 요청 수만큼 명령이 한 커넥션 대기열에 쌓여 전체 지연이 함께 늘어남
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public BlockingCallLimiter redisCallLimiter(@Value("${lbs.concurrency.redis.permits:128}") int permits,
+                                                @Value("${lbs.concurrency.redis.acquire-timeout:1s}") Duration acquireTimeout,
+                                                MeterRegistry meterRegistry) {
+        return new BlockingCallLimiter("redis", permits, acquireTimeout, meterRegistry);
+    }
 }
@@ -2,11 +2,15 @@ package ICN.itrc_project.controller;
 
 import ICN.itrc_project.dto.LocationRequest;
 import ICN.itrc_project.kafka.producer.LocationProducer;
+import ICN.itrc_project.metrics.PipelineTrace;
+import ICN.itrc_project.metrics.PipelineTracer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,16 +26,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class KafkaLocationController {
 
     private final LocationProducer locationProducer;
+    private final ObjectProvider<PipelineTracer> tracer; // 파이프라인 구간 추적 (lbs.trace.enabled 시)
 
     /**
      * 위치 데이터를 수신하여 Kafka 메시지 브로커로 즉시 위임 (Non-blocking Handoff)
      */
     @PostMapping
-    public ResponseEntity<String> streamLocation(@Valid @RequestBody LocationRequest request) {
+    public ResponseEntity<String> streamLocation(
+            @Valid @RequestBody LocationRequest request,
+            @RequestAttribute(name = PipelineTracer.RECEIVED_ATTRIBUTE, required = false) Long receivedMicros) {
         log.info(">>> [💌 위치 정보 수신] 유저(trj):{}", request.getUserId());
 
         // 1. Kafka Producer 발행: 무거운 처리 로직을 Consumer 레이어로 격리하여 스레드 점유 최소화
-        locationProducer.sendLocation(request);
+        PipelineTracer activeTracer = tracer.getIfAvailable();
+        PipelineTrace trace = activeTracer != null ? activeTracer.start(receivedMicros) : null;
+        locationProducer.sendLocation(request, trace);
 
         /**
          * 2. HTTP 202 Accepted 반환
@@ -0,0 +1,58 @@
+package ICN.itrc_project.controller;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.spatial.OffHeapLocationStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Off-Heap Location Controller: Consumer가 갱신하는 Off-Heap 저장소에서 사용자별 최신 위치를 조회
+ * - Redis 상태 키(mobility:status:{userId})와 같은 정보를 네트워크 왕복 없이 반환
+ */
+@RestController
+@RequestMapping("/api/v1/search/offheap")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.offheap-store", name = "enabled", havingValue = "true")
+public class OffHeapLocationController {
+
+    private static final int MAX_BATCH = 1000;
+
+    private final OffHeapLocationStore store;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<LocationRequest> latest(@PathVariable String userId) {
+        return store.get(userId)
+                .map(OffHeapLocationController::toLocation)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 다건 조회: 저장소에 없는 사용자는 결과에서 제외
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<LocationRequest>> latestAll(@RequestBody List<String> userIds) {
+        if (userIds.size() > MAX_BATCH) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(userIds.stream()
+                .map(store::get)
+                .flatMap(Optional::stream)
+                .map(OffHeapLocationController::toLocation)
+                .toList());
+    }
+
+    private static LocationRequest toLocation(OffHeapLocationStore.StoredLocation stored) {
+        return LocationRequest.builder()
+                .userId(stored.userId())
+                .latitude(stored.latitude())
+                .longitude(stored.longitude())
+                .speed(Double.isNaN(stored.speed()) ? null : stored.speed())
+                .accuracy(Double.isNaN(stored.accuracy()) ? null : stored.accuracy())
+                .timestamp(stored.timestamp())
+                .build();
+    }
+}
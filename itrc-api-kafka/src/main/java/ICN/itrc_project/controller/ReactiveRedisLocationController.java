@@ -0,0 +1,70 @@
+package ICN.itrc_project.controller;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.paging.NdjsonWriter;
+import ICN.itrc_project.search.ReactiveGeoSearch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Reactive Redis 조회 API: /api/v1/search/redis 와 같은 질의를 Lettuce Reactive 명령으로 수행하고 결과를 NDJSON으로 스트리밍
+ * - Spring MVC가 Flux를 비동기 응답으로 구독하므로 Tomcat 스레드는 요청 접수 후 바로 반환되고, 응답 전송 속도에 맞춰 결과를 요청 (Backpressure)
+ * - 질의 캐시/Redis Permit은 적용하지 않음 (블로킹 호출이 없으므로 동시 요청 수가 스레드 수에 묶이지 않음)
+ * - 같은 조건의 Servlet 엔드포인트와 응답 항목이 동일하여 고동시성 부하 테스트에서 두 방식을 비교할 수 있음
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/search/redis/reactive")
+@RequiredArgsConstructor
+public class ReactiveRedisLocationController {
+
+    private final ReactiveGeoSearch reactiveSearch;
+
+    /**
+     * [Range Query] Body: LocationRequest, Query: ?radiusMeter=1000
+     */
+    @PostMapping(value = "/range", produces = NdjsonWriter.MEDIA_TYPE)
+    public Flux<LocationResponse> searchByRange(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "1000") double radiusMeter
+    ) {
+        log.debug(">>> [🔎 Reactive 검색] 반경 내 검색 | 위도: {}, 경도: {} | 반경: {}m",
+                request.getLatitude(), request.getLongitude(), radiusMeter);
+        return reactiveSearch.range(request.getLatitude(), request.getLongitude(), radiusMeter);
+    }
+
+    /**
+     * [KNN Query] Body: LocationRequest, Query: ?n=10
+     */
+    @PostMapping(value = "/knn", produces = NdjsonWriter.MEDIA_TYPE)
+    public Flux<LocationResponse> searchByKnn(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "10") int n
+    ) {
+        log.debug(">>> [🔎 Reactive 검색] 최근접 탐색 | 위도: {}, 경도: {} | 상위 {}명",
+                request.getLatitude(), request.getLongitude(), n);
+        return reactiveSearch.knn(request.getLatitude(), request.getLongitude(), n);
+    }
+
+    /**
+     * [PIP Query] Body: PipRequest (lats 배열, lngs 배열), 전략은 lbs.pip.strategy를 따름
+     */
+    @PostMapping(value = "/pip", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<Flux<LocationResponse>> searchByPolygon(@RequestBody RedisLocationController.PipRequest request) {
+        List<Double> lats = request.getLats();
+        List<Double> lngs = request.getLngs();
+        if (lats == null || lngs == null || lats.size() != lngs.size() || lats.size() < 3) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug(">>> [🔎 Reactive 검색] 다각형 구역 필터링 | 꼭짓점 수: {}개", lats.size());
+        return ResponseEntity.ok(reactiveSearch.polygon(
+                lats.stream().mapToDouble(Double::doubleValue).toArray(),
+                lngs.stream().mapToDouble(Double::doubleValue).toArray()));
+    }
+}
@@ -1,10 +1,19 @@
 package ICN.itrc_project.controller;
 
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.concurrency.BlockingCallLimiter;
 import ICN.itrc_project.dto.LocationRequest;
 import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.paging.CursorPage;
+import ICN.itrc_project.paging.NdjsonWriter;
+import ICN.itrc_project.paging.PageLimits;
+import ICN.itrc_project.search.AdaptiveKnnExecutor;
+import ICN.itrc_project.search.GeoPolygonSearch;
+import ICN.itrc_project.search.GeoRangePager;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.geo.Circle;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.GeoResults;
@@ -12,12 +21,17 @@ import org.springframework.data.geo.Point;
 import org.springframework.data.redis.connection.RedisGeoCommands;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.domain.geo.Metrics;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
-import java.awt.geom.Path2D;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.DoubleFunction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,6 +41,13 @@ import java.util.stream.Collectors;
 public class RedisLocationController {
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectProvider<SpatialQueryCache> queryCache; // 질의 결과 캐시 (lbs.query-cache.enabled 시)
+    private final ObjectProvider<AdaptiveKnnExecutor> knnExecutor; // 반경 확장 KNN (lbs.knn.adaptive 시)
+    private final ObjectProvider<BlockingCallLimiter> redisLimiter; // Redis 동시 호출 상한 (가상 스레드 실행 시)
+    private final GeoPolygonSearch polygonSearch; // 다각형 조회 (lbs.pip.strategy)
+    private final GeoRangePager rangePager;       // 대용량 결과 증분 조회 (/page, /stream)
+    private final PageLimits pageLimits;
+    private final ObjectMapper objectMapper;
     private static final String GEO_KEY = "mobility:locations";
 
     /**
@@ -45,22 +66,7 @@ public class RedisLocationController {
 
         log.info(">>> [🔎 공간 검색] 반경 내 검색 | 위도: {}, 경도: {} | 반경: {}m", dLat, dLng, radiusMeter);
 
-        Circle circle = new Circle(new Point(dLng, dLat), new Distance(radiusMeter, Metrics.METERS));
-        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
-                .includeDistance().includeCoordinates().sortAscending();
-
-        GeoResults<RedisGeoCommands.GeoLocation<String>> results = stringRedisTemplate.opsForGeo().radius(GEO_KEY, circle, args);
-
-        if (results == null) return ResponseEntity.ok(Collections.emptyList());
-
-        List<LocationResponse> response = results.getContent().stream()
-                .map(result -> LocationResponse.builder()
-                        .userId(result.getContent().getName())
-                        .latitude(result.getContent().getPoint().getY())
-                        .longitude(result.getContent().getPoint().getX())
-                        .distanceMeter(result.getDistance().getValue())
-                        .build())
-                .collect(Collectors.toList());
+        List<LocationResponse> response = cachedRange(request, radiusMeter, radius -> geoRadius(dLat, dLng, radius, 0));
 
         log.info(">>> [✅ 검색 결과] 주변 차량 {}대 발견 (소요시간: {}ms)", response.size(), System.currentTimeMillis() - startTime);
         return ResponseEntity.ok(response);
@@ -70,6 +76,8 @@ public class RedisLocationController {
      * [KNN Query] - POST 방식
      * Body: LocationRequest (lat, lng 포함)
      * Query: ?n=10
+     * - Adaptive 모드: 추정 반경에서 시작하여 n개 확보 시까지 GEORADIUS 반경 확장 (기본)
+     * - 고정 모드: 5km 원 안에서 정렬 후 상위 n개 (lbs.knn.adaptive=false)
      */
     @PostMapping("/knn")
     public ResponseEntity<List<LocationResponse>> searchByKnn(
@@ -82,15 +90,57 @@ public class RedisLocationController {
 
         log.info(">>> [🔎 공간 검색] 최근접 탐색 | 위도: {}, 경도: {} | 상위 {}명", dLat, dLng, n);
 
-        Circle circle = new Circle(new Point(dLng, dLat), new Distance(5000, Metrics.METERS));
-        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
-                .includeDistance().includeCoordinates().sortAscending().limit(n);
+        AdaptiveKnnExecutor knn = knnExecutor.getIfAvailable();
+        List<LocationResponse> response = cachedKnn(request, n, count -> knn != null
+                ? knn.nearest("redis-geo", dLat, dLng, count,
+                        (radius, limit) -> geoRadius(dLat, dLng, radius, limit), LocationResponse::getDistanceMeter)
+                : geoRadius(dLat, dLng, 5000, count));
+
+        log.info(">>> [✅ 검색 결과] 최접점 차량 {}대 발견 (소요시간: {}ms)", response.size(), System.currentTimeMillis() - startTime);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 질의 캐시가 활성화된 경우 캐시를 거쳐 조회, 아니면 바로 조회 (캐시 적중 시에는 Redis Permit을 잡지 않음)
+     * - 캐시는 요청보다 넓은 반경/많은 개수로 loader를 호출
+     */
+    private List<LocationResponse> cachedRange(LocationRequest center, double radiusMeter,
+                                               DoubleFunction<List<LocationResponse>> loader) {
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        if (cache == null) return withRedisPermit(() -> loader.apply(radiusMeter));
+        return cache.range(center.getLatitude(), center.getLongitude(), radiusMeter,
+                radius -> withRedisPermit(() -> loader.apply(radius)), LocationResponse.LOCATED);
+    }
+
+    private List<LocationResponse> cachedKnn(LocationRequest center, int k, IntFunction<List<LocationResponse>> loader) {
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        if (cache == null) return withRedisPermit(() -> loader.apply(k));
+        return cache.knn(center.getLatitude(), center.getLongitude(), k,
+                count -> withRedisPermit(() -> loader.apply(count)), LocationResponse.LOCATED);
+    }
 
-        GeoResults<RedisGeoCommands.GeoLocation<String>> results = stringRedisTemplate.opsForGeo().radius(GEO_KEY, circle, args);
+    /**
+     * 가상 스레드 실행 시 동시 Redis 조회 수 제한, 플랫폼 스레드는 Tomcat 스레드 수가 상한이므로 바로 호출
+     */
+    private <T> T withRedisPermit(Supplier<T> call) {
+        BlockingCallLimiter limiter = redisLimiter.getIfAvailable();
+        return limiter != null ? limiter.call(call) : call.get();
+    }
 
-        if (results == null) return ResponseEntity.ok(Collections.emptyList());
+    /**
+     * GEORADIUS 반경 검색 (거리 오름차순, limit 0 이하이면 개수 제한 없음)
+     */
+    private List<LocationResponse> geoRadius(double lat, double lng, double radiusMeter, int limit) {
+        Circle circle = new Circle(new Point(lng, lat), new Distance(radiusMeter, Metrics.METERS));
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                .includeDistance().includeCoordinates().sortAscending();
+        if (limit > 0) args = args.limit(limit);
+        return toResponses(stringRedisTemplate.opsForGeo().radius(GEO_KEY, circle, args));
+    }
 
-        List<LocationResponse> response = results.getContent().stream()
+    private List<LocationResponse> toResponses(GeoResults<RedisGeoCommands.GeoLocation<String>> results) {
+        if (results == null) return Collections.emptyList();
+        return results.getContent().stream()
                 .map(result -> LocationResponse.builder()
                         .userId(result.getContent().getName())
                         .latitude(result.getContent().getPoint().getY())
@@ -98,9 +148,6 @@ public class RedisLocationController {
                         .distanceMeter(result.getDistance().getValue())
                         .build())
                 .collect(Collectors.toList());
-
-        log.info(">>> [✅ 검색 결과] 최접점 차량 {}대 발견 (소요시간: {}ms)", response.size(), System.currentTimeMillis() - startTime);
-        return ResponseEntity.ok(response);
     }
 
     /**
@@ -116,6 +163,8 @@ public class RedisLocationController {
     /**
      * [PIP Query] - POST 방식
      * Body: PipRequest (lats 배열, lngs 배열 포함)
+     * - h3 전략: 다각형 H3 Cell Cover 단위 조회, 경계 셀만 정밀 판정 (기본)
+     * - circle 전략: Bounding Box 외접원 조회 후 전 개체 판정 (lbs.pip.strategy=circle)
      */
     @PostMapping("/pip")
     public ResponseEntity<List<LocationResponse>> searchByPolygon(@RequestBody PipRequest request) {
@@ -129,57 +178,76 @@ public class RedisLocationController {
             return ResponseEntity.badRequest().build();
         }
 
-        double minLat = lats.stream().min(Double::compareTo).orElse(0.0);
-        double maxLat = lats.stream().max(Double::compareTo).orElse(0.0);
-        double minLng = lngs.stream().min(Double::compareTo).orElse(0.0);
-        double maxLng = lngs.stream().max(Double::compareTo).orElse(0.0);
+        double[] latArray = lats.stream().mapToDouble(Double::doubleValue).toArray();
+        double[] lngArray = lngs.stream().mapToDouble(Double::doubleValue).toArray();
+        List<LocationResponse> response = withRedisPermit(() -> polygonSearch.search(latArray, lngArray));
 
-        double centerLat = (minLat + maxLat) / 2;
-        double centerLng = (minLng + maxLng) / 2;
-        double diagonal = calculateDistance(minLat, minLng, maxLat, maxLng) * 1.1;
+        log.info(">>> [✅ 검색 결과] 구역 내 차량 {}대 발견 (소요시간: {}ms)", response.size(), System.currentTimeMillis() - startTime);
+        return ResponseEntity.ok(response);
+    }
 
-        Path2D polygon = new Path2D.Double();
-        polygon.moveTo(lngs.get(0), lats.get(0));
-        for (int i = 1; i < lats.size(); i++) {
-            polygon.lineTo(lngs.get(i), lats.get(i));
-        }
-        polygon.closePath();
+    /**
+     * 대용량 결과 API 그룹: GEO 점수 구간을 페이지 단위로 읽어 NDJSON 스트리밍 또는 Cursor 페이지로 응답
+     * (결과 순서는 거리순이 아닌 Geohash 순)
+     */
 
-        Circle filterArea = new Circle(new Point(centerLng, centerLat), new Distance(diagonal / 2, Metrics.METERS));
-        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
-                .includeDistance().includeCoordinates().sortAscending();
+    @PostMapping(value = "/range/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamByRange(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "1000") double radiusMeter) {
+        return ndjson(GeoRangePager.Area.circle(request.getLatitude(), request.getLongitude(), radiusMeter));
+    }
 
-        GeoResults<RedisGeoCommands.GeoLocation<String>> results = stringRedisTemplate.opsForGeo().radius(GEO_KEY, filterArea, args);
+    @PostMapping("/range/page")
+    public ResponseEntity<CursorPage<LocationResponse>> pageByRange(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "1000") double radiusMeter,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return page(GeoRangePager.Area.circle(request.getLatitude(), request.getLongitude(), radiusMeter), size, cursor);
+    }
 
-        if (results == null) return ResponseEntity.ok(Collections.emptyList());
+    @PostMapping(value = "/pip/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamByPolygon(@RequestBody PipRequest request) {
+        GeoRangePager.Area area = polygonArea(request);
+        return area != null ? ndjson(area) : ResponseEntity.badRequest().build();
+    }
 
-        List<LocationResponse> response = results.getContent().stream()
-                .filter(result -> {
-                    Point p = result.getContent().getPoint();
-                    return p != null && polygon.contains(p.getX(), p.getY());
-                })
-                .map(result -> LocationResponse.builder()
-                        .userId(result.getContent().getName())
-                        .latitude(result.getContent().getPoint().getY())
-                        .longitude(result.getContent().getPoint().getX())
-                        .distanceMeter(result.getDistance().getValue())
-                        .build())
-                .collect(Collectors.toList());
+    @PostMapping("/pip/page")
+    public ResponseEntity<CursorPage<LocationResponse>> pageByPolygon(
+            @RequestBody PipRequest request,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        GeoRangePager.Area area = polygonArea(request);
+        return area != null ? page(area, size, cursor) : ResponseEntity.badRequest().build();
+    }
 
-        log.info(">>> [✅ 검색 결과] 구역 내 차량 {}대 발견 (소요시간: {}ms)", response.size(), System.currentTimeMillis() - startTime);
-        return ResponseEntity.ok(response);
+    private GeoRangePager.Area polygonArea(PipRequest request) {
+        List<Double> lats = request.getLats();
+        List<Double> lngs = request.getLngs();
+        if (lats == null || lngs == null || lats.size() != lngs.size() || lats.size() < 3) return null;
+        return GeoRangePager.Area.polygon(
+                lats.stream().mapToDouble(Double::doubleValue).toArray(),
+                lngs.stream().mapToDouble(Double::doubleValue).toArray());
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371e3;
-        double phi1 = Math.toRadians(lat1);
-        double phi2 = Math.toRadians(lat2);
-        double deltaPhi = Math.toRadians(lat2 - lat1);
-        double deltaLambda = Math.toRadians(lon2 - lon1);
+    /**
+     * 스트리밍은 페이지 조회 사이에 클라이언트 전송을 기다리므로 Redis Permit을 응답 전체 동안 잡지 않음
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(GeoRangePager.Area area) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = pageLimits.ndjson(objectMapper, out);
+            rangePager.forEach(area, pageLimits.streamBatch(), writer::write);
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
 
-        double a = Math.sin(deltaPhi / 2) * Math.sin(deltaPhi / 2) +
-                Math.cos(phi1) * Math.cos(phi2) * Math.sin(deltaLambda / 2) * Math.sin(deltaLambda / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    private ResponseEntity<CursorPage<LocationResponse>> page(GeoRangePager.Area area, Integer size, String cursor) {
+        try {
+            return ResponseEntity.ok(withRedisPermit(() -> rangePager.page(area, pageLimits.clamp(size), cursor)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package ICN.itrc_project.kafka.consumer;
+
+import ICN.itrc_project.dto.LocationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ICN.itrc_project.kafka.consumer.LocationConsumer.GEO_KEY;
+import static ICN.itrc_project.kafka.consumer.LocationConsumer.STATUS_PREFIX;
+import static ICN.itrc_project.kafka.consumer.LocationConsumer.STATUS_TTL;
+
+/**
+ * Redis 최신 위치 반영 (GEOADD + SETEX): 저장된 상태의 timestamp보다 오래된 이벤트는 반영하지 않음
+ * - H3 지역 파티셔닝에서는 같은 사용자의 이벤트가 지역별로 다른 파티션에 실리므로, 지연된 이전 파티션이
+ *   새 파티션이 이미 반영한 위치를 덮어쓸 수 있음 (Handoff 기록은 Producer 인스턴스별이라 인스턴스 간 인계는 누락 가능)
+ * - 비교와 쓰기를 Lua Script 1회로 원자적으로 수행 (여러 사용자를 한 번에 반영하여 배치 모드도 왕복 1회)
+ * - 같은 timestamp는 다시 반영 (재처리 멱등), 상태 키가 만료/손상된 경우에는 그대로 반영
+ */
+@Component
+public class LatestLocationWriter {
+
+    /**
+     * KEYS[1]: GEO 키, KEYS[2..]: 사용자별 상태 키
+     * ARGV[1]: TTL(초), 이후 사용자마다 timestamp, 경도, 위도, 멤버, 상태 JSON 5개씩
+     * 반환: 사용자별 반영 여부 (1: 반영, 0: 더 최신 상태가 있어 생략)
+     */
+    private static final RedisScript<List> WRITE_IF_NEWER = new DefaultRedisScript<>("""
+            local written = {}
+            for i = 2, #KEYS do
+              local base = (i - 2) * 5 + 1
+              local newer = true
+              local stored = redis.call('GET', KEYS[i])
+              if stored then
+                local ok, doc = pcall(cjson.decode, stored)
+                if ok and type(doc) == 'table' and tonumber(doc.timestamp) and tonumber(doc.timestamp) > tonumber(ARGV[base + 1]) then
+                  newer = false
+                end
+              end
+              if newer then
+                redis.call('GEOADD', KEYS[1], ARGV[base + 2], ARGV[base + 3], ARGV[base + 4])
+                redis.call('SET', KEYS[i], ARGV[base + 5], 'EX', ARGV[1])
+                written[#written + 1] = 1
+              else
+                written[#written + 1] = 0
+              end
+            end
+            return written
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisSerializer<Object> valueSerializer; // 상태 JSON (조회 API와 같은 직렬화 형식)
+    private final Counter staleCounter;
+
+    @SuppressWarnings("unchecked")
+    public LatestLocationWriter(RedisTemplate<String, Object> redisTemplate,
+                                StringRedisTemplate stringRedisTemplate,
+                                MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        this.staleCounter = Counter.builder("location.consumer.stale")
+                .description("Redis에 더 최신 위치가 있어 반영하지 않은 이벤트 수 (지역 파티션 간 순서 역전)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return 단건 반영 여부 (false: 더 최신 위치가 이미 반영되어 있음)
+     */
+    public boolean write(String userId, LocationRequest request) {
+        return writeAll(Map.of(userId, request)).isEmpty();
+    }
+
+    /**
+     * @param latestByUser 정제된 사용자 ID → 이벤트 (사용자당 1건)
+     * @return 더 최신 위치가 있어 반영하지 않은 사용자 ID
+     */
+    public Set<String> writeAll(Map<String, LocationRequest> latestByUser) {
+        List<String> userIds = new ArrayList<>(latestByUser.size());
+        List<String> keys = new ArrayList<>(latestByUser.size() + 1);
+        List<Object> args = new ArrayList<>(latestByUser.size() * 5 + 1);
+        keys.add(GEO_KEY);
+        args.add(String.valueOf(STATUS_TTL.toSeconds()));
+        latestByUser.forEach((userId, request) -> {
+            userIds.add(userId);
+            keys.add(STATUS_PREFIX + userId);
+            args.add(String.valueOf(request.getTimestamp()));
+            args.add(String.valueOf(request.getLongitude()));
+            args.add(String.valueOf(request.getLatitude()));
+            args.add(userId);
+            args.add(new String(valueSerializer.serialize(request), StandardCharsets.UTF_8));
+        });
+
+        List<?> written = stringRedisTemplate.execute(WRITE_IF_NEWER, keys, args.toArray());
+        Set<String> stale = new HashSet<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            if (written != null && ((Number) written.get(i)).longValue() == 0) stale.add(userIds.get(i));
+        }
+        if (!stale.isEmpty()) staleCounter.increment(stale.size());
+        return stale;
+    }
+}
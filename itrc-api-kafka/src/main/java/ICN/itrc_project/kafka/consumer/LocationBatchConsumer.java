@@ -0,0 +1,169 @@
+package ICN.itrc_project.kafka.consumer;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.geofence.GeofenceMonitor;
+import ICN.itrc_project.ingest.WriteSuppressionFilter;
+import ICN.itrc_project.kafka.partition.RegionHandoff;
+import ICN.itrc_project.kafka.snapshot.ConsumedOffsets;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import ICN.itrc_project.spatial.OffHeapLocationStore;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ICN.itrc_project.kafka.consumer.LocationConsumer.*;
+
+/**
+ * Kafka Batch Consumer: poll 단위로 수신한 이벤트 묶음을 Redis에 한 번의 Pipeline으로 반영
+ * - 사용자별 최신 timestamp 1건으로 병합 후, GEOADD + SETEX를 Lua Script 1회(단일 왕복)로 전송
+ *   Redis에 더 최신 위치가 있는 사용자는 생략 (LatestLocationWriter: 지역 파티션 간 순서 역전 방어)
+ * - Script 응답을 받은 뒤에만 리스너가 정상 반환하므로, 오프셋은 Redis 반영이 확인된 배치에 대해서만 커밋됨 (AckMode.BATCH)
+ * - 실패 시 예외가 컨테이너로 전파되어 해당 배치가 재처리됨 (GEOADD/SETEX는 멱등)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "lbs.kafka.consumer", name = "mode", havingValue = "batch")
+public class LocationBatchConsumer {
+
+    private final LatestLocationWriter latestWriter;
+    private final ObjectProvider<GridSpatialIndex> localIndex;
+    private final ObjectProvider<OffHeapLocationStore> offHeapStore;
+    private final ObjectProvider<SpatialQueryCache> queryCache;
+    private final ObjectProvider<ConsumedOffsets> consumedOffsets;
+    private final ObjectProvider<WriteSuppressionFilter> writeFilter;
+    private final ObjectProvider<GeofenceMonitor> geofenceMonitor;
+    private final ObjectProvider<TrajectoryStore> trajectoryStore;
+
+    private final FreshnessRecorder freshnessRecorder;
+    private final Timer pipelineTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    public LocationBatchConsumer(LatestLocationWriter latestWriter,
+                                 MeterRegistry meterRegistry,
+                                 FreshnessRecorder freshnessRecorder,
+                                 ObjectProvider<GridSpatialIndex> localIndex,
+                                 ObjectProvider<OffHeapLocationStore> offHeapStore,
+                                 ObjectProvider<SpatialQueryCache> queryCache,
+                                 ObjectProvider<ConsumedOffsets> consumedOffsets,
+                                 ObjectProvider<WriteSuppressionFilter> writeFilter,
+                                 ObjectProvider<GeofenceMonitor> geofenceMonitor,
+                                 ObjectProvider<TrajectoryStore> trajectoryStore) {
+        this.latestWriter = latestWriter;
+        this.localIndex = localIndex;
+        this.offHeapStore = offHeapStore;
+        this.queryCache = queryCache;
+        this.consumedOffsets = consumedOffsets;
+        this.writeFilter = writeFilter;
+        this.geofenceMonitor = geofenceMonitor;
+        this.trajectoryStore = trajectoryStore;
+
+        this.freshnessRecorder = freshnessRecorder;
+        this.pipelineTimer = Timer.builder("location.consumer.pipeline")
+                .description("배치 1회의 Redis 반영(Lua Script: timestamp 비교 + GEOADD + SETEX) 왕복 시간")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("location.consumer.batch.size")
+                .description("poll 1회당 중복 제거 후 Redis에 반영된 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "location-events", groupId = "lbs-group",
+            containerFactory = "batchListenerContainerFactory",
+            concurrency = "${lbs.kafka.consumer.concurrency:1}")
+    public void consumeBatch(List<LocationRequest> requests,
+                             @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> brokerTimestamps,
+                             @Header(KafkaHeaders.RECEIVED_PARTITION) List<Integer> partitions,
+                             @Header(KafkaHeaders.OFFSET) List<Long> offsets,
+                             @Header(KafkaHeaders.BATCH_CONVERTED_HEADERS) List<Map<String, Object>> headers) {
+        long receivedAt = System.currentTimeMillis();
+
+        // 1. 유효성 검증 및 사용자별 최신 이벤트로 병합 (구간 지연 기록용 브로커 적재 시각 유지)
+        Map<String, LocationRequest> latestByUser = new LinkedHashMap<>(requests.size() * 2);
+        Map<String, Long> brokerAtByUser = new HashMap<>(requests.size() * 2);
+        Map<String, Long> handoffAtByUser = null;
+        WriteSuppressionFilter filter = writeFilter.getIfAvailable();
+        TrajectoryStore history = trajectoryStore.getIfAvailable();
+        for (int i = 0; i < requests.size(); i++) {
+            LocationRequest request = requests.get(i);
+            if (isInvalid(request)) continue;
+            String userId = cleanUserId(request.getUserId());
+            // 지역 이동 인계: Redis 반영 없이 로컬 인덱스 제거만 (새 지역 파티션이 반영 담당)
+            if (headers.get(i).containsKey(RegionHandoff.HEADER)) {
+                if (handoffAtByUser == null) handoffAtByUser = new HashMap<>();
+                handoffAtByUser.merge(userId, request.getTimestamp(), Math::max);
+                continue;
+            }
+            // 궤적 이력은 억제/병합/Redis 반영 결과와 무관하게 수신한 모든 Ping 기록 (배치 재처리 시 이미 기록된 timestamp는 거부됨)
+            if (history != null) history.append(userId, request.getLatitude(), request.getLongitude(), request.getTimestamp());
+            // 오프셋 순서대로 판정: 억제된 Ping은 병합 대상에서 제외
+            if (isSuppressed(filter, userId, request)) continue;
+            LocationRequest prev = latestByUser.get(userId);
+            if (prev == null || request.getTimestamp() >= prev.getTimestamp()) {
+                latestByUser.put(userId, request);
+                brokerAtByUser.put(userId, brokerTimestamps.get(i));
+            }
+        }
+        if (handoffAtByUser != null) removeHandedOff(handoffAtByUser);
+        if (latestByUser.isEmpty()) {
+            markProcessed(partitions, offsets);
+            return;
+        }
+
+        // 2. 단일 Script: 사용자별 timestamp 비교 후 GEOADD + SETEX (더 최신 위치가 있는 사용자는 이후 반영에서도 제외)
+        Set<String> stale = pipelineTimer.record(() -> latestWriter.writeAll(latestByUser));
+        latestByUser.keySet().removeAll(stale);
+        if (filter != null) latestByUser.forEach((userId, request) -> commitWritten(filter, userId, request));
+
+        // 3. 로컬 인덱스/질의 캐시/Geofence 반영 및 신선도(Freshness Lag)/구간 지연 기록
+        long storedAt = System.currentTimeMillis();
+        GridSpatialIndex index = localIndex.getIfAvailable();
+        OffHeapLocationStore store = offHeapStore.getIfAvailable();
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        GeofenceMonitor monitor = geofenceMonitor.getIfAvailable();
+        latestByUser.forEach((userId, request) -> {
+            if (index != null) index.update(userId, request.getLatitude(), request.getLongitude(), request.getTimestamp());
+            if (store != null) putLatest(store, userId, request);
+            if (cache != null) cache.recordWrite(request.getLatitude(), request.getLongitude());
+            if (monitor != null) monitor.onLocation(userId, request.getLatitude(), request.getLongitude(), request.getTimestamp());
+            freshnessRecorder.record(request.getTimestamp(), brokerAtByUser.get(userId), receivedAt, storedAt);
+        });
+        markProcessed(partitions, offsets);
+        batchSizeSummary.record(latestByUser.size());
+
+        if (log.isDebugEnabled()) {
+            log.debug(">>> [⚙️ 배치 처리] 수신 {}건 -> 반영 {}건", requests.size(), latestByUser.size());
+        }
+    }
+
+    /**
+     * 이 인스턴스가 새 지역 파티션도 할당받아 더 최신 위치를 이미 반영한 경우에는 유지 (removeIfOlderThan)
+     */
+    private void removeHandedOff(Map<String, Long> handoffAtByUser) {
+        localIndex.ifAvailable(index -> handoffAtByUser.forEach(index::removeIfOlderThan));
+        offHeapStore.ifAvailable(store -> handoffAtByUser.forEach(store::removeIfOlderThan));
+    }
+
+    /**
+     * 배치 전체가 Redis/로컬 상태에 반영된 뒤 파티션별 마지막 offset 기록 (Snapshot 재개 위치)
+     */
+    private void markProcessed(List<Integer> partitions, List<Long> offsets) {
+        ConsumedOffsets tracker = consumedOffsets.getIfAvailable();
+        if (tracker == null) return;
+        for (int i = 0; i < offsets.size(); i++) tracker.processed(partitions.get(i), offsets.get(i));
+    }
+}
@@ -1,68 +1,126 @@
 package ICN.itrc_project.kafka.consumer;
 
 import ICN.itrc_project.dto.LocationRequest;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.geofence.GeofenceMonitor;
+import ICN.itrc_project.ingest.WriteSuppressionFilter;
+import ICN.itrc_project.kafka.partition.RegionHandoff;
+import ICN.itrc_project.kafka.snapshot.ConsumedOffsets;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.metrics.PipelineTrace;
+import ICN.itrc_project.metrics.PipelineTracer;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import ICN.itrc_project.spatial.OffHeapLocationStore;
+import ICN.itrc_project.trajectory.TrajectoryStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.geo.Point;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Kafka Consumer: 수신된 이벤트를 가공하여 Redis 고속 공간 인덱싱 및 상태 동기화 수행
+ * - 단건(single) 모드 리스너: 이벤트 1건당 GEOADD + SET 수행 (배치 모드는 LocationBatchConsumer)
+ * - Redis에 더 최신 위치가 있으면 반영하지 않음 (LatestLocationWriter: 지역 파티션 간 순서 역전 방어)
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.kafka.consumer", name = "mode", havingValue = "single", matchIfMissing = true)
 public class LocationConsumer {
 
-    private final RedisTemplate<String, Object> redisTemplate;  // 상세정보용 (JSON)
-    private final StringRedisTemplate stringRedisTemplate;      // 지도좌표용 (String)
-    private final MeterRegistry meterRegistry;
+    private final LatestLocationWriter latestWriter;            // GEOADD + SETEX (timestamp 비교)
+    private final FreshnessRecorder freshnessRecorder;
+    private final ObjectProvider<GridSpatialIndex> localIndex;  // 로컬 공간 인덱스 (lbs.local-index.enabled 시)
+    private final ObjectProvider<OffHeapLocationStore> offHeapStore; // Off-Heap 최신 위치 (lbs.offheap-store.enabled 시)
+    private final ObjectProvider<SpatialQueryCache> queryCache; // 질의 결과 캐시 (lbs.query-cache.enabled 시)
+    private final ObjectProvider<PipelineTracer> tracer;        // 파이프라인 구간 추적 (lbs.trace.enabled 시)
+    private final ObjectProvider<ConsumedOffsets> consumedOffsets; // 반영 완료 offset (lbs.snapshot.enabled 시)
+    private final ObjectProvider<WriteSuppressionFilter> writeFilter; // 쓰기 억제 필터 (lbs.write-filter.enabled 시)
+    private final ObjectProvider<GeofenceMonitor> geofenceMonitor; // Geofence 진입/이탈 평가 (lbs.geofence.enabled 시)
+    private final ObjectProvider<TrajectoryStore> trajectoryStore; // 궤적 이력 Append (lbs.trajectory.enabled 시)
 
-    private static final String GEO_KEY = "mobility:locations";
-    private static final String STATUS_PREFIX = "mobility:status:";
-    private static final Duration STATUS_TTL = Duration.ofMinutes(30);
+    static final String GEO_KEY = "mobility:locations";
+    static final String STATUS_PREFIX = "mobility:status:";
+    static final Duration STATUS_TTL = Duration.ofMinutes(30);
 
 
     /**
      * 'location-events' 토픽 구독 및 Redis Dual-Write 수행
      * - 고속 공간 검색(Spatial Query)과 개체 상태(Metadata) 관리를 위한 저장소 분리 전략 채택
      */
-    @KafkaListener(topics = "location-events", groupId = "lbs-group")
-    public void consumeLocation(LocationRequest request) {
+    @KafkaListener(topics = "location-events", groupId = "lbs-group",
+            concurrency = "${lbs.kafka.consumer.concurrency:1}")
+    public void consumeLocation(LocationRequest request,
+                                @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long brokerTimestamp,
+                                @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                @Header(KafkaHeaders.OFFSET) long offset,
+                                @Header(name = PipelineTracer.HEADER, required = false) byte[] traceHeader,
+                                @Header(name = RegionHandoff.HEADER, required = false) byte[] handoffHeader) {
+        long receivedAt = System.currentTimeMillis();
+        PipelineTrace trace = traceHeader != null ? PipelineTrace.decode(traceHeader) : null;
+        if (trace != null) trace.hop("poll");
 
         // 1. 페이로드 유효성 검증 및 식별자 정규화
-        if (isInvalid(request)) return;
-        String cleanUserId = request.getUserId().replaceAll("[^a-zA-Z0-9_]", "");
+        if (isInvalid(request)) {
+            markProcessed(partition, offset);
+            return;
+        }
+        String cleanUserId = cleanUserId(request.getUserId());
+
+        // 지역 이동 인계: 새 지역 파티션이 Redis에 반영하므로 이 Shard의 로컬 인덱스에서만 제거
+        if (handoffHeader != null) {
+            localIndex.ifAvailable(index -> index.removeIfOlderThan(cleanUserId, request.getTimestamp()));
+            offHeapStore.ifAvailable(store -> store.removeIfOlderThan(cleanUserId, request.getTimestamp()));
+            markProcessed(partition, offset);
+            return;
+        }
+
+        // 궤적 이력은 수신 시점에 기록: 억제되거나 더 최신 위치에 밀린 Ping(순서 역전/지연 지역)도 이력에는 남김
+        trajectoryStore.ifAvailable(store -> store.append(cleanUserId,
+                request.getLatitude(), request.getLongitude(), request.getTimestamp()));
+
+        // 순서 역전/정지/예측 범위 안의 Ping은 Redis·로컬 상태 모두 건너뜀
+        if (isSuppressed(writeFilter.getIfAvailable(), cleanUserId, request)) {
+            markProcessed(partition, offset);
+            return;
+        }
 
         /**
          * 2. Redis Dual-Write Strategy
          * (1) Spatial Indexing: GEOADD 명령을 통한 인메모리 위경도 인덱스 생성 (주변 검색 최적화)
          * (2) State Persistence: JSON 직렬화 기반의 개체 상세 정보 캐싱 (TTL 적용을 통한 리소스 관리)
+         * 저장된 상태보다 오래된 이벤트(지연된 이전 지역 파티션)는 둘 다 생략
          */
-        stringRedisTemplate.opsForGeo().add(GEO_KEY,
-                new Point(request.getLongitude(), request.getLatitude()),
-                cleanUserId);
+        boolean written = latestWriter.write(cleanUserId, request);
+        if (trace != null) trace.hop("redis-write"); // JSON 직렬화 포함
+        if (!written) {
+            markProcessed(partition, offset);
+            return;
+        }
+        commitWritten(writeFilter.getIfAvailable(), cleanUserId, request); // Redis 반영 후에만 억제 기준 갱신
 
-        redisTemplate.opsForValue().set(STATUS_PREFIX + cleanUserId, request, STATUS_TTL);
+        // (3) Local Indexing: 활성화된 경우 JVM 내부 공간 인덱스에도 반영 (로컬 조회용)
+        localIndex.ifAvailable(index -> index.update(cleanUserId,
+                request.getLatitude(), request.getLongitude(), request.getTimestamp()));
+        offHeapStore.ifAvailable(store -> putLatest(store, cleanUserId, request));
+        queryCache.ifAvailable(cache -> cache.recordWrite(request.getLatitude(), request.getLongitude()));
+        geofenceMonitor.ifAvailable(monitor -> monitor.onLocation(cleanUserId,
+                request.getLatitude(), request.getLongitude(), request.getTimestamp()));
+        markProcessed(partition, offset);
 
-        // 3.  데이터 신선도(Freshness Lag) 측정 및 기록
-        if (request.getTimestamp() > 0) {
-            long lag = System.currentTimeMillis() - request.getTimestamp();
+        // 3.  데이터 신선도(Freshness Lag) 및 구간 지연(생성 → 브로커 → 수신 → Redis 반영) 기록
+        long storedAt = System.currentTimeMillis();
+        freshnessRecorder.record(request.getTimestamp(), brokerTimestamp, receivedAt, storedAt);
+        if (trace != null) tracer.ifAvailable(t -> t.complete(cleanUserId, trace));
 
-            Timer.builder("location.event.freshness")
-                    .description("End-to-End Latency: Creation to Redis Update")
-                    .tags("application", "itrc-api-kafka")
-                    .publishPercentileHistogram() // 🌟 그라파나 히스토그램 필수 설정
-                    .register(meterRegistry)
-                    .record(lag, TimeUnit.MILLISECONDS);
+        if (request.getTimestamp() > 0) {
+            long lag = storedAt - request.getTimestamp();
 
             // 4. 통합 로그 출력
             log.info(">>> [⚙️ 처리] 유저:{} | 정확도:{}m | 지연:{}ms",
@@ -70,7 +128,35 @@ public class LocationConsumer {
         }
     }
 
-    private boolean isInvalid(LocationRequest request) {
+    /**
+     * Redis/로컬 상태 반영이 끝난 offset 기록 (Snapshot 재개 위치)
+     */
+    private void markProcessed(int partition, long offset) {
+        consumedOffsets.ifAvailable(offsets -> offsets.processed(partition, offset));
+    }
+
+    static boolean isSuppressed(WriteSuppressionFilter filter, String userId, LocationRequest request) {
+        return filter != null && !filter.evaluate(userId, request.getLatitude(), request.getLongitude(),
+                request.getSpeed(), request.getHeading(), request.getAccuracy(), request.getTimestamp()).isWrite();
+    }
+
+    static void commitWritten(WriteSuppressionFilter filter, String userId, LocationRequest request) {
+        if (filter != null) filter.commit(userId, request.getLatitude(), request.getLongitude(),
+                request.getSpeed(), request.getHeading(), request.getTimestamp());
+    }
+
+    static void putLatest(OffHeapLocationStore store, String userId, LocationRequest request) {
+        store.put(userId, request.getLatitude(), request.getLongitude(),
+                request.getSpeed() != null ? request.getSpeed() : Double.NaN,
+                request.getAccuracy() != null ? request.getAccuracy() : Double.NaN,
+                request.getTimestamp());
+    }
+
+    static String cleanUserId(String userId) {
+        return userId.replaceAll("[^a-zA-Z0-9_]", "");
+    }
+
+    static boolean isInvalid(LocationRequest request) {
         return request == null || request.getUserId() == null ||
                 request.getLatitude() == null || request.getLongitude() == null ||
                 request.getTimestamp() == null;
@@ -0,0 +1,59 @@
+package ICN.itrc_project.kafka.geofence;
+
+import ICN.itrc_project.geofence.GeofenceEvent;
+import ICN.itrc_project.geofence.GeofenceEventSink;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Geofence 이벤트 Kafka 전달: 진입/이탈 이벤트를 JSON 문자열로 geofence 토픽에 발행 (Key: userId → 사용자별 순서 보장)
+ * - 위치 이벤트용 Producer 설정을 복사하되 Value Serializer만 String으로 교체 (Compact Binary 설정과 무관)
+ * - send는 비동기이므로 Consumer 스레드를 막지 않음 (실패는 로그만 기록)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lbs.geofence.kafka", name = "enabled", havingValue = "true")
+public class GeofenceKafkaSink implements GeofenceEventSink {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public GeofenceKafkaSink(ProducerFactory<String, Object> producerFactory,
+                             ObjectMapper objectMapper,
+                             @Value("${lbs.geofence.kafka.topic:geofence-events}") String topic) {
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory,
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class));
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+
+    @Override
+    public void publish(List<GeofenceEvent> events) {
+        for (GeofenceEvent event : events) {
+            kafkaTemplate.send(topic, event.userId(), objectMapper.writeValueAsString(event))
+                    .whenComplete((result, e) -> {
+                        if (e != null) log.warn("Geofence 이벤트 발행 실패: fence {} | 유저 {}", event.fenceId(), event.userId(), e);
+                    });
+        }
+    }
+
+    /**
+     * 설정 복사로 만든 전용 ProducerFactory 정리
+     */
+    @PreDestroy
+    public void close() {
+        kafkaTemplate.destroy();
+    }
+}
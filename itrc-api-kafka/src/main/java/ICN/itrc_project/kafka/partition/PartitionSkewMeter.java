@@ -0,0 +1,55 @@
+package ICN.itrc_project.kafka.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 파티션 분포 계측: 발행 ACK의 파티션별 이벤트 수와 편중도(최대/평균)
+ * - 파티셔닝 전략(userId Key / H3 지역)에 관계없이 기록하여 같은 부하에서 두 전략의 편중을 비교
+ * - 편중도 1.0 = 완전 균등, N = 가장 바쁜 파티션이 평균의 N배 (해당 파티션의 Consumer가 전체 처리량의 상한)
+ */
+@Component
+public class PartitionSkewMeter {
+
+    private final MeterRegistry meterRegistry;
+    private final int configuredPartitions;
+    private final ConcurrentMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    public PartitionSkewMeter(MeterRegistry meterRegistry,
+                              @Value("${lbs.kafka.topic.partitions:1}") int configuredPartitions) {
+        this.meterRegistry = meterRegistry;
+        this.configuredPartitions = configuredPartitions;
+        Gauge.builder("location.kafka.partition.skew", this, PartitionSkewMeter::skew)
+                .description("파티션별 누적 이벤트 수의 최대/평균 (이벤트가 없는 파티션도 평균에 포함)")
+                .register(meterRegistry);
+    }
+
+    public void record(int partition) {
+        counters.computeIfAbsent(partition, p -> Counter.builder("location.kafka.partition.records")
+                .description("파티션별 발행 이벤트 수 (Handoff 레코드 제외)")
+                .tag("partition", String.valueOf(p))
+                .register(meterRegistry)).increment();
+    }
+
+    double skew() {
+        double total = 0;
+        double max = 0;
+        int highest = -1;
+        for (var entry : counters.entrySet()) {
+            double count = entry.getValue().count();
+            total += count;
+            max = Math.max(max, count);
+            highest = Math.max(highest, entry.getKey());
+        }
+        if (total == 0) return 0;
+        // 토픽이 설정보다 많은 파티션으로 이미 생성된 경우 관측된 최대 번호까지 포함
+        int partitions = Math.max(configuredPartitions, highest + 1);
+        return max / (total / partitions);
+    }
+}
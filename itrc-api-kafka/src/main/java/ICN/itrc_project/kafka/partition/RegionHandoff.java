@@ -0,0 +1,54 @@
+package ICN.itrc_project.kafka.partition;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.partition.H3RegionPartitioner;
+import ICN.itrc_project.partition.RegionTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 지역 경계 이동 처리 (lbs.kafka.partitioning.strategy=h3 시)
+ * - 사용자의 지역이 바뀌면 Producer가 이전 지역 파티션에 Handoff 레코드(같은 이벤트 + lbs-region-handoff Header)를 추가 발행
+ * - 이전 Shard는 Handoff 수신 시 해당 사용자를 로컬 인덱스에서 제거하고 Redis 반영은 생략 (반영은 새 지역 파티션이 담당)
+ * - Handoff는 이전 파티션에서 그 사용자의 앞선 이벤트들 뒤에 놓이므로, 이전 Shard가 앞선 이벤트를 모두 처리한 뒤 제거됨
+ */
+public class RegionHandoff {
+
+    public static final String HEADER = "lbs-region-handoff";
+    public static final byte[] MARKER = {1};
+
+    private final H3RegionPartitioner regions;
+    private final RegionTracker tracker;
+    private final Counter crossings;
+    private final Counter handoffs;
+
+    public RegionHandoff(H3RegionPartitioner regions, RegionTracker tracker, MeterRegistry meterRegistry) {
+        this.regions = regions;
+        this.tracker = tracker;
+        this.crossings = Counter.builder("location.kafka.region.crossings")
+                .description("지역(H3 셀) 경계를 넘은 이벤트 수")
+                .register(meterRegistry);
+        this.handoffs = Counter.builder("location.kafka.region.handoffs")
+                .description("이전 지역 파티션으로 발행한 Handoff 레코드 수 (지역이 같은 파티션에 배정된 경우 제외)")
+                .register(meterRegistry);
+        Gauge.builder("location.kafka.region.tracked.users", tracker, RegionTracker::size)
+                .description("지역 이동 감지를 위해 마지막 지역을 기록 중인 사용자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Handoff를 보낼 이전 지역 파티션 (지역이 그대로거나 이전 지역이 같은 파티션이면 -1)
+     */
+    public int previousPartition(LocationRequest request, int numPartitions) {
+        long region = regions.regionOf(request.getLatitude(), request.getLongitude());
+        Long previous = tracker.move(request.getUserId(), region);
+        if (previous == null) return -1;
+
+        crossings.increment();
+        int from = H3RegionPartitioner.partitionOf(previous, numPartitions);
+        if (from == H3RegionPartitioner.partitionOf(region, numPartitions)) return -1;
+        handoffs.increment();
+        return from;
+    }
+}
@@ -1,8 +1,14 @@
 package ICN.itrc_project.kafka.producer;
 
 import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.kafka.partition.PartitionSkewMeter;
+import ICN.itrc_project.kafka.partition.RegionHandoff;
+import ICN.itrc_project.metrics.PipelineTrace;
+import ICN.itrc_project.metrics.PipelineTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
@@ -15,9 +21,19 @@ import org.springframework.stereotype.Service;
 public class LocationProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectProvider<PipelineTracer> tracer; // 파이프라인 구간 추적 (lbs.trace.enabled 시)
+    private final ObjectProvider<RegionHandoff> regionHandoff; // 지역 경계 이동 인계 (lbs.kafka.partitioning.strategy=h3 시)
+    private final PartitionSkewMeter partitionSkew;
     private static final String TOPIC = "location-events";
 
     public void sendLocation(LocationRequest request) {
+        sendLocation(request, null);
+    }
+
+    /**
+     * @param trace 샘플링된 이벤트의 구간 추적 (null이면 추적 안 함): enqueue 홉 기록 후 lbs-trace Header로 전달
+     */
+    public void sendLocation(LocationRequest request, PipelineTrace trace) {
         // 1. 데이터 정합성 검증
         if (request == null || request.getUserId() == null) {
             log.warn(">>> [⚠️ 발송 실패] 데이터가 유효하지 않습니다.");
@@ -30,12 +46,25 @@ public class LocationProducer {
         /**
          * 3. Kafka 메시지 비동기 전송
          * - Message Key: userId (동일 사용자의 이벤트 순서 보장을 위해 동일 파티션 할당)
+         *   H3 지역 파티셔닝 시에는 지역(좌표의 H3 셀) 단위로 파티션 할당, 같은 지역 안에서만 사용자 순서 보장
          * - Payload: LocationRequest (JSON 직렬화)
          */
-        kafkaTemplate.send(TOPIC, request.getUserId(), request)
+        ProducerRecord<String, Object> record = new ProducerRecord<>(TOPIC, request.getUserId(), request);
+        long enqueuedMicros = 0;
+        if (trace != null) {
+            enqueuedMicros = PipelineTrace.nowMicros();
+            record.headers().add(PipelineTracer.HEADER, trace.hop("enqueue", enqueuedMicros).encodeToBytes());
+        }
+        long sentMicros = enqueuedMicros;
+
+        kafkaTemplate.send(record)
                 .whenComplete((result, ex) -> {
                     if (ex == null) {
+                        // 전송 ACK 대기 구간 (Producer 배치 대기 + 브로커 왕복): Consumer 측에서는 관측 불가하여 직접 기록
+                        if (sentMicros > 0) tracer.ifAvailable(t -> t.recordStage("kafka-send", PipelineTrace.nowMicros() - sentMicros));
+
                         // 4. 전송 성공: 브로커로부터 수신 확인(ACK) 및 파티션 정보 로깅
+                        partitionSkew.record(result.getRecordMetadata().partition());
                         log.info(">>> [🚀 발송] 유저(trj):{} | 서비스:{} | 정확도:{}m({}) | 파티션:{}번",
                                 request.getUserId(),
                                 request.getServiceType(),
@@ -48,6 +77,23 @@ public class LocationProducer {
                                 request.getUserId(), ex.getMessage());
                     }
                 });
+
+        // 6. 지역 경계를 넘은 경우 이전 지역 Shard에 인계 (이전 Shard의 로컬 인덱스에서 제거)
+        regionHandoff.ifAvailable(handoff -> sendHandoff(handoff, request));
+    }
+
+    private void sendHandoff(RegionHandoff handoff, LocationRequest request) {
+        if (request.getLatitude() == null || request.getLongitude() == null) return;
+        int previousPartition = handoff.previousPartition(request, kafkaTemplate.partitionsFor(TOPIC).size());
+        if (previousPartition < 0) return;
+
+        ProducerRecord<String, Object> record = new ProducerRecord<>(TOPIC, previousPartition, request.getUserId(), request);
+        record.headers().add(RegionHandoff.HEADER, RegionHandoff.MARKER);
+        kafkaTemplate.send(record).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn(">>> [⚠️ 인계 실패] 유저:{} | 이전 파티션:{}번 | 사유:{}", request.getUserId(), previousPartition, ex.getMessage());
+            }
+        });
     }
 
     /**
@@ -0,0 +1,34 @@
+package ICN.itrc_project.kafka.serde;
+
+import ICN.itrc_project.codec.LocationBinaryCodec;
+import ICN.itrc_project.dto.LocationRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka Value Deserializer: Compact Binary → LocationRequest
+ * - 첫 바이트가 Binary VERSION이 아니면 JSON으로 간주하여 파싱 (전환 기간 중 기존 JSON 레코드 호환)
+ * - 전환 순서: Consumer를 먼저 배포한 뒤 Producer를 Binary로 변경
+ */
+public class LocationBinaryDeserializer implements Deserializer<LocationRequest> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public LocationRequest deserialize(String topic, byte[] data) {
+        if (data == null) return null;
+        try {
+            if (LocationBinaryCodec.isBinary(data)) {
+                return LocationBinaryCodec.decode(data);
+            }
+            return objectMapper.readValue(data, LocationRequest.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SerializationException("Failed to deserialize location event from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ICN.itrc_project.kafka.serde;
+
+import ICN.itrc_project.codec.LocationBinaryCodec;
+import ICN.itrc_project.dto.LocationRequest;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka Value Serializer: LocationRequest → Compact Binary (LocationBinaryCodec)
+ * - spring.kafka.producer.value-serializer로 지정하여 배포 단위로 전환
+ * - 타입 헤더를 추가하지 않으므로 레코드당 헤더 바이트도 함께 절감
+ */
+public class LocationBinarySerializer implements Serializer<LocationRequest> {
+
+    @Override
+    public byte[] serialize(String topic, LocationRequest data) {
+        return data == null ? null : LocationBinaryCodec.encode(data);
+    }
+}
@@ -0,0 +1,114 @@
+package ICN.itrc_project.kafka.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로컬 상태에 반영이 끝난 소비 위치 (partition → 다음 offset)
+ * - Consumer가 Redis/로컬 상태 반영을 마친 뒤 processed()로 기록 → Snapshot의 재개 위치로 사용
+ * - 현재 할당된 파티션만 기록: 회수(revoked)/유실(lost)된 파티션의 위치는 제거하여 다른 인스턴스로 넘어간 Shard를 Snapshot에 남기지 않음
+ * - 기동 후 첫 할당 세대(generation)에서만 Snapshot에서 복원한 위치로 1회 seek: 커밋 위치와 무관하게 Snapshot 이후 이벤트부터 재생
+ *   (Snapshot 위치 이전 이벤트는 Redis 반영까지 끝난 것이므로 앞으로 건너뛰어도 유실 없음)
+ *   이후 세대에서 처음 할당되는 파티션은 오래된 Snapshot 위치로 되돌아가지 않도록 복원 위치를 폐기
+ *
+ * Boot가 ConsumerAwareRebalanceListener 빈을 모든 리스너 컨테이너(단건/배치)에 적용
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lbs.snapshot", name = "enabled", havingValue = "true")
+public class ConsumedOffsets implements ConsumerAwareRebalanceListener {
+
+    static final String TOPIC = "location-events";
+
+    private final Map<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+    private final Set<Integer> assigned = ConcurrentHashMap.newKeySet();
+    private final Map<TopicPartition, Long> restored = new ConcurrentHashMap<>();
+    private final AtomicInteger restoreGeneration = new AtomicInteger(UNSET);
+
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    public void processed(int partition, long offset) {
+        if (!assigned.contains(partition)) return; // 회수된 파티션의 처리 중이던 레코드
+        nextOffsets.merge(partition, offset + 1, Math::max);
+    }
+
+    /**
+     * Snapshot 재개 위치 ("location-events-0" → "1234"): 현재 할당된 파티션만
+     */
+    Map<String, String> positions() {
+        Map<String, String> positions = new LinkedHashMap<>();
+        nextOffsets.forEach((partition, offset) -> {
+            if (assigned.contains(partition)) {
+                positions.put(new TopicPartition(TOPIC, partition).toString(), Long.toString(offset));
+            }
+        });
+        return positions;
+    }
+
+    /**
+     * Snapshot의 재개 위치 적재 (할당받은 파티션에만 적용되며, 재개 위치 기록은 할당 시점부터 시작)
+     */
+    void restore(Map<String, String> positions) {
+        positions.forEach((key, value) -> {
+            int dash = key.lastIndexOf('-');
+            if (dash <= 0 || !TOPIC.equals(key.substring(0, dash))) return;
+            int partition = Integer.parseInt(key.substring(dash + 1));
+            restored.put(new TopicPartition(TOPIC, partition), Long.parseLong(value));
+        });
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // 같은 세대의 다른 Consumer(concurrency) 할당에도 복원 위치를 적용하고, 이후 세대에서는 폐기
+        int generation = consumer.groupMetadata().generationId();
+        restoreGeneration.compareAndSet(UNSET, generation);
+        boolean firstGeneration = restoreGeneration.get() == generation;
+        if (!firstGeneration && !restored.isEmpty()) restored.clear();
+
+        for (TopicPartition partition : partitions) {
+            if (!TOPIC.equals(partition.topic())) continue;
+            long position = consumer.position(partition);
+            Long target = firstGeneration ? restored.remove(partition) : null;
+            if (target != null && position != target) {
+                consumer.seek(partition, target);
+                log.info(">>> [💾 Snapshot] {} 커밋 위치 {} 대신 Snapshot 위치 {}부터 소비", partition, position, target);
+                position = target;
+            }
+            nextOffsets.put(partition.partition(), position);
+            assigned.add(partition.partition());
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions);
+    }
+
+    /**
+     * 다른 인스턴스로 넘어갔을 수 있는 파티션의 재개 위치/복원 위치 제거 (다시 할당되면 그 시점 위치부터 기록)
+     */
+    private void release(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            if (!TOPIC.equals(partition.topic())) continue;
+            assigned.remove(partition.partition());
+            nextOffsets.remove(partition.partition());
+            restored.remove(partition);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ICN.itrc_project.kafka.snapshot;
+
+import ICN.itrc_project.snapshot.LocationSnapshotFile;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import ICN.itrc_project.spatial.OffHeapLocationStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kafka Consumer 로컬 상태 Snapshot: Off-Heap 최신 위치 저장소/로컬 공간 인덱스 + 반영이 끝난 offset
+ * - 기록: 재개 위치를 먼저 캡처한 뒤 상태를 순회 → 상태는 항상 재개 위치 이상으로 최신 (재생 시 timestamp 비교로 중복 반영 무시)
+ * - 원본 우선순위: Off-Heap 저장소(speed/accuracy 포함) > 로컬 인덱스(speed/accuracy 없음)
+ * - 복원: 기동 시 파일을 활성화된 저장소 모두에 적재하고, 파티션 할당 시 Snapshot offset으로 seek (ConsumedOffsets)
+ *   → 재시작 후 준비 시간은 토픽 이력이 아닌 Snapshot 크기 + 마지막 Snapshot 이후 이벤트 수에 비례
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lbs.snapshot", name = "enabled", havingValue = "true")
+public class LocationStateSnapshotter {
+
+    private final ConsumedOffsets consumedOffsets;
+    private final ObjectProvider<OffHeapLocationStore> offHeapStore;
+    private final ObjectProvider<GridSpatialIndex> localIndex;
+    private final Path path;
+
+    private final Timer writeTimer;
+    private final Timer restoreTimer;
+    private final AtomicLong lastRecords = new AtomicLong();
+
+    public LocationStateSnapshotter(ConsumedOffsets consumedOffsets,
+                                    ObjectProvider<OffHeapLocationStore> offHeapStore,
+                                    ObjectProvider<GridSpatialIndex> localIndex,
+                                    @Value("${lbs.snapshot.path:snapshots/kafka-location-state.snap}") String path,
+                                    MeterRegistry meterRegistry) {
+        this.consumedOffsets = consumedOffsets;
+        this.offHeapStore = offHeapStore;
+        this.localIndex = localIndex;
+        this.path = Path.of(path);
+
+        this.writeTimer = Timer.builder("location.snapshot.write")
+                .description("Snapshot 1회 기록 시간 (상태 순회 + Mapping 기록 + fsync)")
+                .register(meterRegistry);
+        this.restoreTimer = Timer.builder("location.snapshot.restore")
+                .description("기동 시 Snapshot 적재 시간")
+                .register(meterRegistry);
+        Gauge.builder("location.snapshot.records", lastRecords, AtomicLong::get)
+                .description("마지막으로 기록/복원한 Snapshot의 레코드 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void restore() {
+        OffHeapLocationStore store = offHeapStore.getIfAvailable();
+        GridSpatialIndex index = localIndex.getIfAvailable();
+        if (store == null && index == null) {
+            log.warn(">>> [💾 Snapshot] 로컬 상태 저장소가 없어 Snapshot을 사용하지 않음 (lbs.offheap-store / lbs.local-index)");
+            return;
+        }
+        if (!Files.exists(path)) {
+            log.info(">>> [💾 Snapshot] {} 없음: 커밋된 offset부터 소비", path);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            LocationSnapshotFile.Summary summary = LocationSnapshotFile.read(path, (userId, lat, lng, speed, accuracy, timestamp) -> {
+                if (store != null) store.put(userId, lat, lng, speed, accuracy, timestamp);
+                if (index != null) index.update(userId, lat, lng, timestamp);
+            });
+            consumedOffsets.restore(summary.positions());
+            lastRecords.set(summary.records());
+            long elapsed = System.nanoTime() - start;
+            restoreTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info(">>> [💾 Snapshot] 복원 {}건 | 재개 위치 {} | {}ms", summary.records(), summary.positions(), elapsed / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            // 손상된 Snapshot은 무시하고 커밋된 offset부터 재생 (부분 적재된 상태는 재생으로 덮어씀)
+            log.error(">>> [💾 Snapshot] 복원 실패, 커밋된 offset부터 소비: {}", path, e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${lbs.snapshot.interval:60s}", fixedDelayString = "${lbs.snapshot.interval:60s}")
+    public void snapshot() {
+        OffHeapLocationStore store = offHeapStore.getIfAvailable();
+        GridSpatialIndex index = localIndex.getIfAvailable();
+        if (store == null && index == null) return;
+
+        Map<String, String> positions = consumedOffsets.positions();
+        if (positions.isEmpty()) return; // 아직 반영한 이벤트 없음 (기존 Snapshot 유지)
+
+        long start = System.nanoTime();
+        try (LocationSnapshotFile.Writer writer = LocationSnapshotFile.create(path, positions)) {
+            if (store != null) {
+                store.forEach(l -> writer.append(l.userId(), l.latitude(), l.longitude(), l.speed(), l.accuracy(), l.timestamp()));
+            } else {
+                index.forEach(h -> writer.append(h.userId(), h.latitude(), h.longitude(), Double.NaN, Double.NaN, h.timestamp()));
+            }
+            long bytes = writer.commit();
+            long elapsed = System.nanoTime() - start;
+            writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastRecords.set(writer.getRecords());
+            log.info(">>> [💾 Snapshot] 기록 {}건 ({}KB) | 재개 위치 {} | {}ms",
+                    writer.getRecords(), bytes >> 10, positions, elapsed / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error(">>> [💾 Snapshot] 기록 실패: {}", path, e);
+        }
+    }
+
+    /**
+     * 종료 직전 마지막 Snapshot (리스너 컨테이너가 먼저 정지하므로 이후 반영분 없음)
+     */
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+}
@@ -0,0 +1,206 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.spatial.GeoMath;
+import com.uber.h3core.H3Core;
+import com.uber.h3core.util.LatLng;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.domain.geo.Metrics;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis GEO 다각형(PIP) 검색
+ * - h3    : 다각형을 H3 셀로 덮고 셀마다 외접원 GEORADIUS를 Pipeline으로 조회 → 내부 셀 개체는 판정 생략, 경계 셀만 정밀 PIP
+ * - circle: Bounding Box 외접원 1회 조회 후 전 개체 PIP (기존 방식, 비교 실험용)
+ * 두 방식 모두 응답 거리(distanceMeter)는 Bounding Box 중심 기준
+ */
+@Component
+public class GeoPolygonSearch {
+
+    private static final String GEO_KEY = "mobility:locations";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final H3Core h3;
+    private final H3PolygonCoverCache covers;
+    private final String strategy;
+    private final int minResolution;
+    private final int maxResolution;
+    private final int maxCells;
+
+    private final DistributionSummary h3Candidates;
+    private final DistributionSummary circleCandidates;
+
+    public GeoPolygonSearch(StringRedisTemplate stringRedisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${lbs.pip.strategy:h3}") String strategy,
+                            @Value("${lbs.pip.min-resolution:5}") int minResolution,
+                            @Value("${lbs.pip.max-resolution:10}") int maxResolution,
+                            @Value("${lbs.pip.max-cells:64}") int maxCells,
+                            @Value("${lbs.pip.cover-cache-size:256}") long coverCacheSize) throws IOException {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.h3 = H3Core.newInstance();
+        this.covers = new H3PolygonCoverCache(h3, coverCacheSize);
+        this.strategy = strategy;
+        this.minResolution = minResolution;
+        this.maxResolution = maxResolution;
+        this.maxCells = maxCells;
+
+        this.h3Candidates = candidateSummary(meterRegistry, "h3");
+        this.circleCandidates = candidateSummary(meterRegistry, "circle");
+    }
+
+    public List<LocationResponse> search(double[] lats, double[] lngs) {
+        return usesBoundingCircle() ? searchByBoundingCircle(lats, lngs) : searchByH3Cover(lats, lngs);
+    }
+
+    boolean usesBoundingCircle() {
+        return "circle".equalsIgnoreCase(strategy);
+    }
+
+    /**
+     * 예상 셀 수가 maxCells 이하인 가장 세밀한 해상도의 Cover (다각형별 캐시)
+     */
+    H3PolygonCover coverOf(double[] lats, double[] lngs) {
+        int resolution = H3PolygonCover.chooseResolution(h3, lats, lngs, minResolution, maxResolution, maxCells);
+        return covers.get(lats, lngs, resolution);
+    }
+
+    /**
+     * 셀 외접원: 중심 ~ 꼭짓점 최대 거리 (+1m 여유)
+     */
+    Circle cellCircle(long cell) {
+        LatLng center = h3.cellToLatLng(cell);
+        double radius = 0;
+        for (LatLng vertex : h3.cellToBoundary(cell)) {
+            radius = Math.max(radius, GeoMath.distanceMeter(center.lat, center.lng, vertex.lat, vertex.lng));
+        }
+        return new Circle(new Point(center.lng, center.lat), new Distance(radius + 1, Metrics.METERS));
+    }
+
+    boolean accepts(H3PolygonCover cover, Point point) {
+        long cell = h3.latLngToCell(point.getY(), point.getX(), cover.getResolution());
+        return cover.accepts(cell, point.getY(), point.getX());
+    }
+
+    /**
+     * H3 Cover: 셀 외접원(중심~꼭짓점 최대 거리) 단위 GEORADIUS를 Pipeline 1회로 전송 후 셀 분류로 판정
+     */
+    public List<LocationResponse> searchByH3Cover(double[] lats, double[] lngs) {
+        H3PolygonCover cover = coverOf(lats, lngs);
+        Set<Long> cells = cover.allCells();
+
+        byte[] geoKey = GEO_KEY.getBytes(StandardCharsets.UTF_8);
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs().includeCoordinates();
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (long cell : cells) {
+                connection.geoCommands().geoRadius(geoKey, cellCircle(cell), args);
+            }
+            return null;
+        });
+
+        // 인접 셀 외접원이 겹치므로 userId 기준 중복 제거
+        Map<String, Point> candidates = new LinkedHashMap<>();
+        for (Object result : results) {
+            if (!(result instanceof GeoResults<?> geoResults)) continue;
+            for (GeoResult<?> geoResult : geoResults.getContent()) {
+                RedisGeoCommands.GeoLocation<?> location = (RedisGeoCommands.GeoLocation<?>) geoResult.getContent();
+                if (location.getPoint() != null) candidates.putIfAbsent(memberName(location.getName()), location.getPoint());
+            }
+        }
+        h3Candidates.record(candidates.size());
+
+        double[] center = boundingCenter(lats, lngs);
+        List<LocationResponse> response = new ArrayList<>();
+        candidates.forEach((userId, point) -> {
+            if (accepts(cover, point)) {
+                response.add(toResponse(userId, point, center));
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Bounding Circle: Bounding Box 대각선 기반 외접원 1회 조회 후 전 개체 Ray Casting
+     */
+    public List<LocationResponse> searchByBoundingCircle(double[] lats, double[] lngs) {
+        double[] center = boundingCenter(lats, lngs);
+        Circle filterArea = boundingCircle(lats, lngs);
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                .includeCoordinates();
+        GeoResults<RedisGeoCommands.GeoLocation<String>> results = stringRedisTemplate.opsForGeo().radius(GEO_KEY, filterArea, args);
+        if (results == null) return List.of();
+        circleCandidates.record(results.getContent().size());
+
+        List<LocationResponse> response = new ArrayList<>();
+        for (GeoResult<RedisGeoCommands.GeoLocation<String>> result : results.getContent()) {
+            Point point = result.getContent().getPoint();
+            if (point != null && GeoMath.contains(lats, lngs, point.getY(), point.getX())) {
+                response.add(toResponse(result.getContent().getName(), point, center));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Bounding Box 대각선 기반 외접원 (10% 여유)
+     */
+    static Circle boundingCircle(double[] lats, double[] lngs) {
+        double[] center = boundingCenter(lats, lngs);
+        double radius = GeoMath.distanceMeter(min(lats), min(lngs), max(lats), max(lngs)) * 1.1 / 2;
+        return new Circle(new Point(center[1], center[0]), new Distance(radius, Metrics.METERS));
+    }
+
+    static LocationResponse toResponse(String userId, Point point, double[] center) {
+        return LocationResponse.builder()
+                .userId(userId)
+                .latitude(point.getY())
+                .longitude(point.getX())
+                .distanceMeter(GeoMath.distanceMeter(center[0], center[1], point.getY(), point.getX()))
+                .build();
+    }
+
+    static String memberName(Object name) {
+        return name instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(name);
+    }
+
+    static double[] boundingCenter(double[] lats, double[] lngs) {
+        return new double[]{(min(lats) + max(lats)) / 2, (min(lngs) + max(lngs)) / 2};
+    }
+
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double v : values) min = Math.min(min, v);
+        return min;
+    }
+
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : values) max = Math.max(max, v);
+        return max;
+    }
+
+    private static DistributionSummary candidateSummary(MeterRegistry meterRegistry, String strategy) {
+        return DistributionSummary.builder("location.pip.candidates")
+                .description("PIP 1회당 Redis에서 가져온 후보 개체 수")
+                .tags("backend", "redis-geo", "strategy", strategy)
+                .register(meterRegistry);
+    }
+}
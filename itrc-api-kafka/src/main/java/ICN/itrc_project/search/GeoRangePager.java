@@ -0,0 +1,266 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.paging.CursorPage;
+import ICN.itrc_project.paging.PageCursor;
+import ICN.itrc_project.spatial.GeoMath;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Redis GEO 증분 조회: GEORADIUS/GEOSEARCH는 결과 전체를 한 번에 반환하므로, GEO Sorted Set의 Geohash 점수 구간을 직접 나눠 읽음
+ * - 반경을 덮는 Geohash 셀(중심 셀 + 인접 8셀)의 점수 구간을 ZRANGEBYSCORE ... LIMIT으로 페이지 단위 조회 (GEORADIUS 내부와 같은 구간)
+ * - 점수에서 좌표를 복원하여 반경/다각형 조건을 판정하므로, 요청당 메모리는 페이지 크기로 제한됨
+ * - Cursor: (구간 순번, 마지막 점수, 같은 점수 내 건너뛸 개수) → 같은 좌표 점수의 멤버가 여러 개여도 누락/중복 없이 재개
+ *
+ * 결과 순서는 거리순이 아닌 Geohash 순이며, 페이지 사이에 갱신된 위치는 이동 여부에 따라 누락/중복될 수 있음
+ */
+@Component
+public class GeoRangePager {
+
+    private static final String GEO_KEY = "mobility:locations";
+    private static final int MIN_FETCH = 64;
+
+    // Redis GEO Geohash 규격 (geohash.h): 위도는 Web Mercator 범위, 단계당 2bit, 최대 26단계(52bit 점수)
+    private static final double LAT_MIN = -85.05112878;
+    private static final double LAT_MAX = 85.05112878;
+    private static final double LNG_MIN = -180;
+    private static final double LNG_MAX = 180;
+    private static final int STEP_MAX = 26;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public GeoRangePager(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 조회 영역: 원(중심 + 반경) 또는 다각형(Bounding Box 외접원 + PIP 판정)
+     * - 응답 거리(distanceMeter)는 원의 중심 기준 (다각형은 Bounding Box 중심, 기존 PIP 응답과 동일)
+     */
+    public record Area(double lat, double lng, double radiusMeter, double[] polygonLats, double[] polygonLngs) {
+
+        public static Area circle(double lat, double lng, double radiusMeter) {
+            return new Area(lat, lng, radiusMeter, null, null);
+        }
+
+        public static Area polygon(double[] lats, double[] lngs) {
+            double minLat = Arrays.stream(lats).min().orElseThrow();
+            double maxLat = Arrays.stream(lats).max().orElseThrow();
+            double minLng = Arrays.stream(lngs).min().orElseThrow();
+            double maxLng = Arrays.stream(lngs).max().orElseThrow();
+            double radius = GeoMath.distanceMeter(minLat, minLng, maxLat, maxLng) * 1.1 / 2;
+            return new Area((minLat + maxLat) / 2, (minLng + maxLng) / 2, radius, lats, lngs);
+        }
+
+        boolean accepts(double lat, double lng, double distanceMeter) {
+            if (distanceMeter > radiusMeter) return false;
+            return polygonLats == null || GeoMath.contains(polygonLats, polygonLngs, lat, lng);
+        }
+    }
+
+    /**
+     * @param cursor 직전 페이지의 nextCursor (첫 페이지는 null)
+     * @throws IllegalArgumentException 손상된 Cursor
+     */
+    public CursorPage<LocationResponse> page(Area area, int size, String cursor) {
+        long[][] ranges = scoreRanges(area);
+        Position position = cursor == null || cursor.isEmpty() ? Position.start(ranges) : Position.decode(cursor, ranges);
+
+        List<LocationResponse> items = new ArrayList<>(size);
+        position = scan(area, ranges, position, size, items::add);
+        return CursorPage.of(items, position.exhausted(ranges) ? null : position.encode());
+    }
+
+    /**
+     * 영역 내 전체 결과를 batch 단위로 읽어 순서대로 전달 (NDJSON 스트리밍용)
+     */
+    public void forEach(Area area, int batch, Consumer<LocationResponse> sink) {
+        long[][] ranges = scoreRanges(area);
+        Position position = Position.start(ranges);
+        while (!position.exhausted(ranges)) {
+            position = scan(area, ranges, position, batch, sink);
+        }
+    }
+
+    /**
+     * position부터 조건을 만족하는 결과를 최대 limit건 전달하고 다음 재개 위치 반환
+     */
+    private Position scan(Area area, long[][] ranges, Position position, int limit, Consumer<LocationResponse> sink) {
+        ZSetOperations<String, String> zset = stringRedisTemplate.opsForZSet();
+        int fetch = Math.max(limit, MIN_FETCH);
+        int emitted = 0;
+
+        int range = position.range();
+        long score = position.score();
+        long skip = position.skip();
+        while (range < ranges.length) {
+            Set<ZSetOperations.TypedTuple<String>> tuples =
+                    zset.rangeByScoreWithScores(GEO_KEY, score, ranges[range][1] - 1, skip, fetch);
+            int count = tuples != null ? tuples.size() : 0;
+
+            if (count > 0) {
+                for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                    long tupleScore = tuple.getScore().longValue();
+                    if (tupleScore == score) {
+                        skip++;
+                    } else {
+                        score = tupleScore;
+                        skip = 1;
+                    }
+
+                    double[] latLng = decode(tupleScore);
+                    double distance = GeoMath.distanceMeter(area.lat(), area.lng(), latLng[0], latLng[1]);
+                    if (!area.accepts(latLng[0], latLng[1], distance)) continue;
+
+                    sink.accept(LocationResponse.builder()
+                            .userId(tuple.getValue())
+                            .latitude(latLng[0])
+                            .longitude(latLng[1])
+                            .distanceMeter(distance)
+                            .build());
+                    if (++emitted >= limit) return new Position(range, score, skip);
+                }
+            }
+            // 구간 소진 시 다음 구간의 시작 점수부터
+            if (count < fetch) {
+                range++;
+                if (range < ranges.length) {
+                    score = ranges[range][0];
+                    skip = 0;
+                }
+            }
+        }
+        return new Position(range, 0, 0);
+    }
+
+    /**
+     * 반경을 덮는 Geohash 점수 구간 [시작, 끝) 목록 (오름차순, 인접 구간 병합)
+     * - 셀 크기가 반경 이상인 가장 세밀한 단계에서 중심 셀 + 인접 8셀을 선택 (원이 3x3 셀 안에 포함됨)
+     */
+    static long[][] scoreRanges(Area area) {
+        int step = stepFor(area.lat(), area.radiusMeter());
+        long cells = 1L << step;
+        long latIndex = clampIndex((area.lat() - LAT_MIN) / (LAT_MAX - LAT_MIN) * cells, cells);
+        long lngIndex = clampIndex((area.lng() - LNG_MIN) / (LNG_MAX - LNG_MIN) * cells, cells);
+        int shift = (STEP_MAX - step) * 2;
+
+        List<long[]> ranges = new ArrayList<>(9);
+        for (long dLat = -1; dLat <= 1; dLat++) {
+            long lat = latIndex + dLat;
+            if (lat < 0 || lat >= cells) continue;
+            for (long dLng = -1; dLng <= 1; dLng++) {
+                long lng = Math.floorMod(lngIndex + dLng, cells);
+                long hash = interleave(lat, lng);
+                ranges.add(new long[]{hash << shift, (hash + 1) << shift});
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last[1] >= range[0]) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged.toArray(new long[0][]);
+    }
+
+    /**
+     * 셀 높이/너비(극 방향 가장자리 위도 기준)가 모두 반경 이상인 가장 세밀한 단계
+     */
+    private static int stepFor(double lat, double radiusMeter) {
+        double edgeLat = Math.min(Math.abs(lat) + GeoMath.meterToLatDegree(radiusMeter), 89.0);
+        double lngMeterPerDegree = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(edgeLat));
+        for (int step = STEP_MAX; step > 1; step--) {
+            double cellHeight = (LAT_MAX - LAT_MIN) / (1L << step) * GeoMath.METERS_PER_DEGREE;
+            double cellWidth = (LNG_MAX - LNG_MIN) / (1L << step) * lngMeterPerDegree;
+            if (cellHeight >= radiusMeter && cellWidth >= radiusMeter) return step;
+        }
+        return 1;
+    }
+
+    private static long clampIndex(double index, long cells) {
+        return Math.max(0, Math.min(cells - 1, (long) Math.floor(index)));
+    }
+
+    /**
+     * 52bit 점수 → 셀 중심 좌표 (GEOPOS/GEORADIUS가 반환하는 좌표와 같은 방식)
+     */
+    static double[] decode(long score) {
+        long latBits = squash(score);
+        long lngBits = squash(score >>> 1);
+        double cells = 1L << STEP_MAX;
+        double lat = LAT_MIN + (latBits + 0.5) * (LAT_MAX - LAT_MIN) / cells;
+        double lng = LNG_MIN + (lngBits + 0.5) * (LNG_MAX - LNG_MIN) / cells;
+        return new double[]{lat, lng};
+    }
+
+    /**
+     * Redis interleave64: 위도 비트는 짝수 자리, 경도 비트는 홀수 자리
+     */
+    static long interleave(long latBits, long lngBits) {
+        return spread(latBits) | (spread(lngBits) << 1);
+    }
+
+    private static long spread(long x) {
+        x &= 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    private static long squash(long x) {
+        x &= 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return x;
+    }
+
+    /**
+     * 재개 위치: ranges[range]에서 점수 score 이상인 멤버 중 skip개를 건너뛴 지점
+     */
+    private record Position(int range, long score, long skip) {
+
+        static Position start(long[][] ranges) {
+            return new Position(0, ranges.length > 0 ? ranges[0][0] : 0, 0);
+        }
+
+        static Position decode(String cursor, long[][] ranges) {
+            String[] parts = PageCursor.decode(cursor, 3);
+            try {
+                Position position = new Position(Integer.parseInt(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                if (position.range() < 0 || position.range() > ranges.length || position.skip() < 0) {
+                    throw new IllegalArgumentException("Page cursor does not match the query area");
+                }
+                return position;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed page cursor", e);
+            }
+        }
+
+        boolean exhausted(long[][] ranges) {
+            return range >= ranges.length;
+        }
+
+        String encode() {
+            return PageCursor.encode(range, score, skip);
+        }
+    }
+}
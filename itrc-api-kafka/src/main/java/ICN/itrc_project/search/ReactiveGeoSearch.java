@@ -0,0 +1,122 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.spatial.GeoMath;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.domain.geo.Metrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking Redis GEO 조회 (Lettuce Reactive): 결과를 List로 모으지 않고 GeoResult 단위로 흘려보냄
+ * - 요청 스레드는 명령 전송 후 바로 반환되고, 응답 구독자(MVC 비동기 응답)의 요청량만큼 결과가 전달됨 (Backpressure)
+ * - 조회 조건(정렬, PIP 전략/H3 Cover, KNN 반경 범위)은 Servlet 엔드포인트와 동일하여 같은 질의의 응답이 일치함
+ */
+@Component
+public class ReactiveGeoSearch {
+
+    private static final String GEO_KEY = "mobility:locations";
+    private static final int CELL_QUERY_CONCURRENCY = 16; // H3 Cover 셀별 GEORADIUS 동시 전송 수 (단일 커넥션에 Pipelining)
+
+    private final ReactiveStringRedisTemplate reactiveTemplate;
+    private final GeoPolygonSearch polygonSearch;
+    private final boolean knnAdaptive;
+    private final double knnInitialRadiusMeter;
+    private final double knnMaxRadiusMeter;
+    private final double knnGrowthFactor;
+
+    public ReactiveGeoSearch(ReactiveStringRedisTemplate reactiveTemplate,
+                             GeoPolygonSearch polygonSearch,
+                             @Value("${lbs.knn.adaptive:true}") boolean knnAdaptive,
+                             @Value("${lbs.knn.initial-radius-meter:500}") double knnInitialRadiusMeter,
+                             @Value("${lbs.knn.max-radius-meter:50000}") double knnMaxRadiusMeter,
+                             @Value("${lbs.knn.growth-factor:2.0}") double knnGrowthFactor) {
+        this.reactiveTemplate = reactiveTemplate;
+        this.polygonSearch = polygonSearch;
+        this.knnAdaptive = knnAdaptive;
+        this.knnInitialRadiusMeter = knnInitialRadiusMeter;
+        this.knnMaxRadiusMeter = knnMaxRadiusMeter;
+        this.knnGrowthFactor = knnGrowthFactor;
+    }
+
+    /**
+     * 반경 검색 (거리 오름차순)
+     */
+    public Flux<LocationResponse> range(double lat, double lng, double radiusMeter) {
+        return range(lat, lng, radiusMeter, 0);
+    }
+
+    private Flux<LocationResponse> range(double lat, double lng, double radiusMeter, int limit) {
+        return geoRadius(new Circle(new Point(lng, lat), new Distance(radiusMeter, Metrics.METERS)), limit)
+                .map(result -> LocationResponse.builder()
+                        .userId(result.getContent().getName())
+                        .latitude(result.getContent().getPoint().getY())
+                        .longitude(result.getContent().getPoint().getX())
+                        .distanceMeter(result.getDistance().getValue())
+                        .build());
+    }
+
+    /**
+     * KNN: initialRadius에서 시작하여 반경 안에 n개가 모일 때까지 growthFactor 배씩 확장 (lbs.knn.adaptive=false 시 5km 고정)
+     * - AdaptiveKnnExecutor는 동기 Probe 기반이므로 밀도 추정 없이 같은 반경 범위(initial ~ max)의 기하 확장만 적용
+     * - 개수 판정을 위해 단계별 결과는 모아서 확인하지만 최대 n건이므로 메모리는 n에 비례
+     */
+    public Flux<LocationResponse> knn(double lat, double lng, int n) {
+        if (n <= 0) return Flux.empty();
+        if (!knnAdaptive) return range(lat, lng, 5000, n);
+        return probe(lat, lng, n, Math.min(knnInitialRadiusMeter, knnMaxRadiusMeter)).flatMapIterable(found -> found);
+    }
+
+    private Mono<List<LocationResponse>> probe(double lat, double lng, int n, double radiusMeter) {
+        return range(lat, lng, radiusMeter, n)
+                .collectList()
+                .flatMap(found -> found.size() >= n || radiusMeter >= knnMaxRadiusMeter
+                        ? Mono.just(found)
+                        : probe(lat, lng, n, Math.min(knnMaxRadiusMeter, radiusMeter * knnGrowthFactor)));
+    }
+
+    /**
+     * 다각형 검색: lbs.pip.strategy에 따라 Bounding Circle 1회 또는 H3 Cover 셀별 조회를 합쳐 판정 통과 개체만 전달
+     * - H3 Cover는 인접 셀 외접원이 겹치므로 userId 기준 중복 제거 (요청 단위 Set)
+     */
+    public Flux<LocationResponse> polygon(double[] lats, double[] lngs) {
+        double[] center = GeoPolygonSearch.boundingCenter(lats, lngs);
+        if (polygonSearch.usesBoundingCircle()) {
+            return geoRadius(GeoPolygonSearch.boundingCircle(lats, lngs), 0)
+                    .map(GeoResult::getContent)
+                    .filter(location -> location.getPoint() != null
+                            && GeoMath.contains(lats, lngs, location.getPoint().getY(), location.getPoint().getX()))
+                    .map(location -> GeoPolygonSearch.toResponse(location.getName(), location.getPoint(), center));
+        }
+
+        H3PolygonCover cover = polygonSearch.coverOf(lats, lngs);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        return Flux.fromIterable(cover.allCells())
+                .flatMap(cell -> geoRadius(polygonSearch.cellCircle(cell), 0), CELL_QUERY_CONCURRENCY)
+                .map(GeoResult::getContent)
+                .filter(location -> location.getPoint() != null && seen.add(location.getName()))
+                .filter(location -> polygonSearch.accepts(cover, location.getPoint()))
+                .map(location -> GeoPolygonSearch.toResponse(location.getName(), location.getPoint(), center));
+    }
+
+    /**
+     * GEORADIUS (거리 오름차순, limit 0 이하이면 개수 제한 없음)
+     */
+    private Flux<GeoResult<RedisGeoCommands.GeoLocation<String>>> geoRadius(Circle circle, int limit) {
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                .includeDistance().includeCoordinates().sortAscending();
+        if (limit > 0) args = args.limit(limit);
+        return reactiveTemplate.opsForGeo().radius(GEO_KEY, circle, args);
+    }
+}
@@ -2,8 +2,10 @@ package ICN.itrc_project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ItrcRdbmsApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.concurrency.BlockingCallLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 가상 스레드 실행 시 JDBC 동시 호출 상한 (spring.threads.virtual.enabled=true, Java 21 이상)
+ * - 요청 수만큼 가상 스레드가 생기므로 Hikari 풀 대기열(connection-timeout 30s)에 수천 개 요청이 쌓이지 않도록
+ *   풀 크기만큼의 Permit으로 먼저 제한하고, 짧은 대기 후 503으로 응답
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class JdbcConcurrencyConfig {
+
+    @Bean
+    public BlockingCallLimiter jdbcCallLimiter(
+            @Value("${lbs.concurrency.jdbc.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${lbs.concurrency.jdbc.acquire-timeout:2s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        return new BlockingCallLimiter("jdbc", permits, acquireTimeout, meterRegistry);
+    }
+}
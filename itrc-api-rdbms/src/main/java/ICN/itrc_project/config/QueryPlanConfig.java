@@ -0,0 +1,29 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.diagnostics.QueryPlanSampler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 공간 질의 실행 계획 진단 설정: 샘플링한 질의의 EXPLAIN (ANALYZE, BUFFERS) 결과를 노드별 지표로 기록
+ * (lbs.rdbms.explain.enabled=true 일 때만 활성화, 샘플마다 질의가 한 번 더 실행되므로 운영에서는 낮은 비율로 사용)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.rdbms.explain", name = "enabled", havingValue = "true")
+public class QueryPlanConfig {
+
+    @Bean
+    public QueryPlanSampler queryPlanSampler(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${lbs.rdbms.explain.sample-rate:0.01}") double sampleRate,
+            @Value("${lbs.rdbms.explain.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return new QueryPlanSampler(jdbcTemplate, objectMapper, sampleRate, queueCapacity, meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package ICN.itrc_project.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RDBMS Ingestion 설정: 위치 업데이트의 저장 방식(즉시 저장 / Write-Behind 배치 / Binary COPY) 및 배치 파라미터 정의
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "lbs.rdbms.ingest")
+public class RdbmsIngestProperties {
+
+    /**
+     * 저장 모드
+     * - DIRECT: 요청마다 JPA 조회 후 INSERT/UPDATE (기존 방식)
+     * - BATCH : 큐에 적재 후 Micro-batch 단위의 Multi-row Upsert로 일괄 반영
+     * - COPY  : BATCH와 같은 큐/Flush 주기로, Staging 테이블 Binary COPY 후 단일 병합 문장으로 반영
+     */
+    private Mode mode = Mode.DIRECT;
+
+    /**
+     * 1회 Flush 당 최대 처리 건수 (Size Trigger)
+     */
+    private int batchSize = 500;
+
+    /**
+     * 배치가 가득 차지 않아도 Flush를 수행하는 최대 대기 시간 (Time Trigger)
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * 대기 큐의 최대 적재량: 초과 시 요청을 거절하여 Backpressure 적용
+     */
+    private int queueCapacity = 50_000;
+
+    /**
+     * Flush 실패 시 같은 배치의 최대 재시도 횟수: 모두 실패하면 배치를 폐기하고 location.ingest.dropped에 기록
+     */
+    private int flushMaxRetries = 5;
+
+    /**
+     * 첫 재시도 전 대기 시간 (재시도마다 2배, flushRetryMaxBackoff 상한)
+     */
+    private Duration flushRetryBackoff = Duration.ofMillis(100);
+
+    /**
+     * 재시도 대기 시간 상한
+     */
+    private Duration flushRetryMaxBackoff = Duration.ofSeconds(2);
+
+    public enum Mode {
+        DIRECT, BATCH, COPY;
+
+        /**
+         * Write-Behind 큐를 거치는 모드 여부
+         */
+        public boolean isWriteBehind() {
+            return this != DIRECT;
+        }
+    }
+}
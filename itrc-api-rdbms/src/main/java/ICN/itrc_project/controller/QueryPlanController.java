@@ -0,0 +1,28 @@
+package ICN.itrc_project.controller;
+
+import ICN.itrc_project.diagnostics.QueryPlanSampler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 실행 계획 진단 Controller: 질의 종류(range, knn, pip)별 마지막 EXPLAIN (ANALYZE, BUFFERS) 샘플 조회
+ */
+@RestController
+@RequestMapping("api/v1/rdbms/diagnostics")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.rdbms.explain", name = "enabled", havingValue = "true")
+public class QueryPlanController {
+
+    private final QueryPlanSampler queryPlanSampler;
+
+    @GetMapping("/plans")
+    public ResponseEntity<Map<String, QueryPlanSampler.Sample>> plans() {
+        return ResponseEntity.ok(queryPlanSampler.latestSamples());
+    }
+}
@@ -1,11 +1,24 @@
 package ICN.itrc_project.controller;
 
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.config.RdbmsIngestProperties;
 import ICN.itrc_project.domain.LocationEntity;
+import ICN.itrc_project.concurrency.BlockingCallLimiter;
+import ICN.itrc_project.diagnostics.QueryPlanSampler;
 import ICN.itrc_project.dto.LocationRequest;
 import ICN.itrc_project.dto.RdbmsLocationResponse;
+import ICN.itrc_project.ingest.LocationWriteBuffer;
+import ICN.itrc_project.ingest.WriteSuppressionFilter;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.paging.CursorPage;
+import ICN.itrc_project.paging.NdjsonWriter;
+import ICN.itrc_project.paging.PageCursor;
+import ICN.itrc_project.paging.PageLimits;
 import ICN.itrc_project.repository.LocationRepository;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,13 +26,23 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @RestController
@@ -27,51 +50,92 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RdbmsLocationController {
     private final LocationRepository locationRepository;
-    private final MeterRegistry meterRegistry;
+    private final FreshnessRecorder freshnessRecorder;
+    private final RdbmsIngestProperties ingestProperties;
+    private final LocationWriteBuffer writeBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PageLimits pageLimits;
+    private final ObjectProvider<GridSpatialIndex> localIndex;  // 로컬 공간 인덱스 (lbs.local-index.enabled 시)
+    private final ObjectProvider<SpatialQueryCache> queryCache; // 질의 결과 캐시 (lbs.query-cache.enabled 시)
+    private final ObjectProvider<BlockingCallLimiter> jdbcLimiter; // JDBC 동시 호출 상한 (가상 스레드 실행 시)
+    private final ObjectProvider<WriteSuppressionFilter> writeFilter; // 쓰기 억제 필터 (lbs.write-filter.enabled 시)
+    private final ObjectProvider<TrajectoryStore> trajectoryStore; // 궤적 이력 Append (lbs.trajectory.enabled 시)
+    private final ObjectProvider<QueryPlanSampler> planSampler; // 실행 계획 샘플링 (lbs.rdbms.explain.enabled 시)
 
     /** * JTS GeometryFactory: EPSG:4326(WGS84) 좌표계 설정
      */
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
+    /**
+     * Write-Behind 모드: 큐 적재가 아닌 PostGIS 반영 성공 후에 부가 반영 (폐기된 배치는 억제 기준/인덱스에 남지 않음)
+     */
+    @PostConstruct
+    void registerFlushListener() {
+        if (ingestProperties.getMode().isWriteBehind()) {
+            writeBuffer.addFlushListener(rows -> rows.forEach(this::afterWrite));
+        }
+    }
+
     /**
      * 위치 정보 업데이트 및 데이터 신선도(Freshness Lag) 측정
+     * - BATCH/COPY 모드: Write-Behind 큐에 적재 후 즉시 응답, 큐 포화 시 503 + Retry-After로 Backpressure 전달
+     * - 쓰기 억제 필터가 걸러낸 Ping은 저장 없이 200 응답 (클라이언트 재전송 불필요)
      */
     @PostMapping("/update")
-    @Transactional
     public ResponseEntity<String> updateLocation(@Valid @RequestBody LocationRequest request) {
+        long receivedAt = System.currentTimeMillis();
+        // 궤적 이력은 수신 시점에 기록: 억제되거나 Write-Behind 병합/폐기된 Ping도 이력에는 남김 (재전송된 같은 timestamp는 거부됨)
+        trajectoryStore.ifAvailable(store -> store.append(request.getUserId(),
+                request.getLatitude(), request.getLongitude(), request.getTimestamp()));
+        WriteSuppressionFilter.Decision decision = evaluate(request);
+        if (!decision.isWrite()) {
+            return ResponseEntity.ok("Suppressed (" + decision.name().toLowerCase() + ")");
+        }
+        if (ingestProperties.getMode().isWriteBehind()) {
+            if (!writeBuffer.offer(request)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body("Write-Behind queue is full");
+            }
+            return ResponseEntity.ok("Queued (PostGIS " + ingestProperties.getMode().name().toLowerCase() + ")");
+        }
 
         // 1. 위경도 좌표를 JTS Point 객체로 변환
         Point point = geometryFactory.createPoint(new Coordinate(request.getLongitude(), request.getLatitude()));
 
         // 2. Upsert(Insert or Update) 로직 수행
-        LocationEntity entity = locationRepository.findByUserId(request.getUserId());
-
-        if (entity == null) {
-            LocationEntity newEntity = LocationEntity.builder()
-                    .userId(request.getUserId())
-                    .location(point)
-                    .speed(request.getSpeed())
-                    .accuracy(request.getAccuracy())
-                    .serviceType(request.getServiceType())
-                    .timestamp(request.getTimestamp())
-                    .build();
-            locationRepository.save(newEntity);
-        } else {
-            // JPA Dirty Checking을 통한 기존 정보 갱신
-            entity.updateLocation(point, request.getSpeed(), request.getAccuracy(), request.getTimestamp());
-        }
+        // 트랜잭션(커넥션 점유) 범위를 DIRECT 경로로 한정하여 Write-Behind 모드 요청이 커넥션 풀을 소모하지 않도록 함
+        withJdbcPermit(() -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocationEntity entity = locationRepository.findByUserId(request.getUserId());
 
-        // 3. Prometheus 모니터링을 위한 데이터 신선도(Lag) 기록
-        if (request.getTimestamp() > 0) {
-            long now = System.currentTimeMillis();
-            long lagMs = now - request.getTimestamp(); // 밀리초 단위 차이 계산
+                if (entity == null) {
+                    LocationEntity newEntity = LocationEntity.builder()
+                            .userId(request.getUserId())
+                            .location(point)
+                            .speed(request.getSpeed())
+                            .accuracy(request.getAccuracy())
+                            .serviceType(request.getServiceType())
+                            .timestamp(request.getTimestamp())
+                            .build();
+                    locationRepository.save(newEntity);
+                } else {
+                    // JPA Dirty Checking을 통한 기존 정보 갱신
+                    entity.updateLocation(point, request.getSpeed(), request.getAccuracy(), request.getTimestamp());
+                }
+            });
+            return null;
+        });
+        afterWrite(request);
 
-            Timer.builder("location.event.freshness")
-                    .description("데이터 생성 시점부터 DB 저장 완료까지의 지연 시간")
-                    .tags("application", "itrc-api-rdbms")
-                    .publishPercentileHistogram()
-                    .register(meterRegistry)
-                    .record(lagMs, TimeUnit.MILLISECONDS);
+        // 3. Prometheus 모니터링을 위한 데이터 신선도(Lag) 기록 (큐가 없는 DIRECT 모드는 수신 즉시 처리)
+        long storedAt = System.currentTimeMillis();
+        freshnessRecorder.record(request.getTimestamp(), receivedAt, receivedAt, storedAt);
+
+        if (request.getTimestamp() > 0) {
+            long lagMs = storedAt - request.getTimestamp(); // 밀리초 단위 차이 계산
 
             if (log.isDebugEnabled()) {
                 log.debug("사용자: {}, 데이터 신선도 지연(Lag): {}s", request.getUserId(), lagMs / 1000.0);
@@ -81,6 +145,59 @@ public class RdbmsLocationController {
         return ResponseEntity.ok("Saved (PostGIS)");
     }
 
+    private WriteSuppressionFilter.Decision evaluate(LocationRequest request) {
+        WriteSuppressionFilter filter = writeFilter.getIfAvailable();
+        if (filter == null) return WriteSuppressionFilter.Decision.ACCEPTED;
+        return filter.evaluate(request.getUserId(), request.getLatitude(), request.getLongitude(),
+                request.getSpeed(), request.getHeading(), request.getAccuracy(), request.getTimestamp());
+    }
+
+    /**
+     * 활성화된 경우 쓰기 억제 기준 갱신(저장 성공 후: DIRECT는 요청 스레드, Write-Behind는 Flusher 스레드), JVM 내부 공간 인덱스에도 최신 위치 반영 (로컬 조회용)
+     * 및 질의 캐시에 쓰기 위치 기록
+     */
+    private void afterWrite(LocationRequest request) {
+        writeFilter.ifAvailable(filter -> filter.commit(request.getUserId(), request.getLatitude(), request.getLongitude(),
+                request.getSpeed(), request.getHeading(), request.getTimestamp()));
+        localIndex.ifAvailable(index -> index.update(request.getUserId(),
+                request.getLatitude(), request.getLongitude(), request.getTimestamp()));
+        queryCache.ifAvailable(cache -> cache.recordWrite(request.getLatitude(), request.getLongitude()));
+    }
+
+    /**
+     * 질의 캐시가 활성화된 경우 캐시를 거쳐 조회, 아니면 바로 조회 (캐시 적중 시에는 JDBC Permit을 잡지 않음)
+     * - 캐시는 요청보다 넓은 반경/많은 개수로 loader를 호출
+     */
+    private List<RdbmsLocationResponse> cachedRange(LocationRequest center, double radiusMeter,
+                                                    DoubleFunction<List<RdbmsLocationResponse>> loader) {
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        if (cache == null) return withJdbcPermit(() -> loader.apply(radiusMeter));
+        return cache.range(center.getLatitude(), center.getLongitude(), radiusMeter,
+                radius -> withJdbcPermit(() -> loader.apply(radius)), RdbmsLocationResponse.LOCATED);
+    }
+
+    private List<RdbmsLocationResponse> cachedKnn(LocationRequest center, int k, IntFunction<List<RdbmsLocationResponse>> loader) {
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        if (cache == null) return withJdbcPermit(() -> loader.apply(k));
+        return cache.knn(center.getLatitude(), center.getLongitude(), k,
+                count -> withJdbcPermit(() -> loader.apply(count)), RdbmsLocationResponse.LOCATED);
+    }
+
+    /**
+     * 캐시를 거치지 않고 DB에서 실행된 질의만 실행 계획 샘플링 대상 (EXPLAIN은 별도 스레드에서 수행)
+     */
+    private void samplePlan(String queryType, String sql, Map<String, ?> params) {
+        planSampler.ifAvailable(sampler -> sampler.maybeSample(queryType, sql, params));
+    }
+
+    /**
+     * 가상 스레드 실행 시 동시 JDBC 호출을 풀 크기로 제한, 플랫폼 스레드는 Tomcat 스레드 수가 상한이므로 바로 호출
+     */
+    private <T> T withJdbcPermit(Supplier<T> call) {
+        BlockingCallLimiter limiter = jdbcLimiter.getIfAvailable();
+        return limiter != null ? limiter.call(call) : call.get();
+    }
+
     /**
      * 공간 검색 API 그룹 (Range, KNN, PIP)
      */
@@ -90,11 +207,14 @@ public class RdbmsLocationController {
     public ResponseEntity<List<RdbmsLocationResponse>> searchRange(
             @RequestBody LocationRequest request, //
             @RequestParam(defaultValue = "1.0") double radius) {
-        return ResponseEntity.ok(
-                locationRepository.findByRadius(request.getLatitude(), request.getLongitude(), radius).stream()
-                        .map(RdbmsLocationResponse::from)
-                        .collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(cachedRange(request, radius, loadRadius -> {
+            List<RdbmsLocationResponse> found = locationRepository.findByRadius(request.getLatitude(), request.getLongitude(), loadRadius).stream()
+                    .map(RdbmsLocationResponse::from)
+                    .collect(Collectors.toList());
+            samplePlan("range", LocationRepository.RADIUS_SQL,
+                    Map.of("lat", request.getLatitude(), "lng", request.getLongitude(), "radius", loadRadius));
+            return found;
+        }));
     }
 
     // 최근접 검색: "거기서 제일 가까운 사람 10명만!"
@@ -102,20 +222,114 @@ public class RdbmsLocationController {
     public ResponseEntity<List<RdbmsLocationResponse>> searchKnn(
             @RequestBody LocationRequest request,
             @RequestParam(defaultValue = "10") int k) {
-        return ResponseEntity.ok(
-                locationRepository.findNearest(request.getLatitude(), request.getLongitude(), k).stream()
-                        .map(RdbmsLocationResponse::from)
-                        .collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(cachedKnn(request, k, loadK -> {
+            List<RdbmsLocationResponse> found = locationRepository.findNearest(request.getLatitude(), request.getLongitude(), loadK).stream()
+                    .map(RdbmsLocationResponse::from)
+                    .collect(Collectors.toList());
+            samplePlan("knn", LocationRepository.NEAREST_SQL,
+                    Map.of("lat", request.getLatitude(), "lng", request.getLongitude(), "k", loadK));
+            return found;
+        }));
     }
 
     // 구역 검색:	"이 구역 안에 누구 있어?"
     @PostMapping("/search/pip")
     public ResponseEntity<List<RdbmsLocationResponse>> searchPip(@RequestBody String wkt) {
-        return ResponseEntity.ok(
-                locationRepository.findInPolygon(wkt).stream()
-                        .map(RdbmsLocationResponse::from)
-                        .collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(withJdbcPermit(() -> {
+            List<RdbmsLocationResponse> found = locationRepository.findInPolygon(wkt).stream()
+                    .map(RdbmsLocationResponse::from)
+                    .collect(Collectors.toList());
+            samplePlan("pip", LocationRepository.POLYGON_SQL, Map.of("polygonWkt", wkt));
+            return found;
+        }));
+    }
+
+    /**
+     * 대용량 결과 API 그룹: 전체 List를 만들지 않고 NDJSON 스트리밍 또는 Keyset Cursor 페이지로 응답
+     */
+
+    // 반경 검색 스트리밍: JDBC Cursor(Fetch Size 단위)로 읽은 결과를 한 줄씩 전송
+    @PostMapping(value = "/search/range/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamRange(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "1.0") double radius) {
+        return ndjson(() -> locationRepository.streamByRadius(request.getLatitude(), request.getLongitude(), radius));
+    }
+
+    // 반경 검색 페이지: ?size=200&cursor=<직전 응답의 nextCursor>
+    @PostMapping("/search/range/page")
+    public ResponseEntity<CursorPage<RdbmsLocationResponse>> pageRange(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "1.0") double radius,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return keysetPage(size, cursor, (afterId, limit) ->
+                locationRepository.findByRadiusAfter(request.getLatitude(), request.getLongitude(), radius, afterId, limit));
+    }
+
+    // 구역 검색 스트리밍
+    @PostMapping(value = "/search/pip/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamPip(@RequestBody String wkt) {
+        return ndjson(() -> locationRepository.streamInPolygon(wkt));
+    }
+
+    // 구역 검색 페이지
+    @PostMapping("/search/pip/page")
+    public ResponseEntity<CursorPage<RdbmsLocationResponse>> pagePip(
+            @RequestBody String wkt,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return keysetPage(size, cursor, (afterId, limit) -> locationRepository.findInPolygonAfter(wkt, afterId, limit));
+    }
+
+    /**
+     * 읽기 전용 트랜잭션 안에서 Stream을 소비하며 NDJSON 기록
+     * - 기록한 엔티티는 즉시 detach하여 영속성 컨텍스트가 결과 수만큼 커지지 않도록 함
+     * - 클라이언트 연결 종료 시 쓰기 예외로 Stream(JDBC Cursor)과 트랜잭션이 정리됨
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<LocationEntity>> query) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        // 스트리밍 동안 커넥션을 계속 점유하므로 Permit도 응답 종료까지 유지
+        StreamingResponseBody body = out -> withJdbcPermit(() -> {
+            readOnly.executeWithoutResult(status -> {
+                NdjsonWriter writer = pageLimits.ndjson(objectMapper, out);
+                try (Stream<LocationEntity> rows = query.get()) {
+                    rows.forEach(entity -> {
+                        writer.write(RdbmsLocationResponse.from(entity));
+                        entityManager.detach(entity);
+                    });
+                }
+                writer.flush();
+            });
+            return null;
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    /**
+     * limit + 1건을 조회하여 다음 페이지 존재 여부를 판단하고, 마지막 id를 다음 Cursor로 반환
+     */
+    private ResponseEntity<CursorPage<RdbmsLocationResponse>> keysetPage(Integer size, String cursor, KeysetQuery query) {
+        long afterId;
+        try {
+            afterId = PageCursor.decodeLong(cursor, 0L);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int limit = pageLimits.clamp(size);
+
+        List<LocationEntity> rows = withJdbcPermit(() -> query.fetch(afterId, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<LocationEntity> page = hasMore ? rows.subList(0, limit) : rows;
+        String next = hasMore ? PageCursor.encode(page.get(page.size() - 1).getId()) : null;
+
+        return ResponseEntity.ok(CursorPage.of(page.stream().map(RdbmsLocationResponse::from).toList(), next));
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<LocationEntity> fetch(long afterId, int limit);
     }
-}
\ No newline at end of file
+}
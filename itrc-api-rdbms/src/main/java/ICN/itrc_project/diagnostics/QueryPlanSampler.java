@@ -0,0 +1,145 @@
+package ICN.itrc_project.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실행 계획 샘플링: 공간 질의 중 sampleRate 비율만 같은 SQL/파라미터로 EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)을 실행하여
+ * 계획 노드별 시간과 Buffer 사용량을 지표로 기록
+ * - 노드 시간은 자식 노드를 뺀 자체 시간(Actual Total Time × Loops 기준), 태그는 질의 종류 + Node Type(+ 인덱스명)
+ * - 계획에 공간 인덱스 노드가 없으면(Seq Scan 등) index=false 샘플로 집계하여 인덱스 미사용 회귀를 감지
+ * - EXPLAIN ANALYZE는 질의를 한 번 더 실행하므로 요청 스레드와 분리된 단일 스레드에서 수행, 대기열 초과 시 폐기
+ */
+@Slf4j
+public class QueryPlanSampler implements AutoCloseable {
+
+    private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)\n";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final double sampleRate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor explainer;
+    private final Counter droppedCounter;
+    private final Map<String, Sample> latest = new ConcurrentHashMap<>();
+
+    /**
+     * 질의 종류별 마지막 샘플 (진단 API 응답)
+     */
+    public record Sample(Instant sampledAt, double planningMillis, double executionMillis, boolean indexUsed, JsonNode plan) {
+    }
+
+    public QueryPlanSampler(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper, double sampleRate,
+                            int queueCapacity, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.sampleRate = sampleRate;
+        this.meterRegistry = meterRegistry;
+        this.droppedCounter = Counter.builder("location.rdbms.plan.dropped")
+                .description("대기열 초과로 실행하지 못한 EXPLAIN 샘플 수")
+                .register(meterRegistry);
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "query-plan-sampler");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedCounter.increment());
+    }
+
+    /**
+     * @param query  지표 태그 (range, knn, pip)
+     * @param sql    실제 실행한 네이티브 SQL (named parameter)
+     * @param params sql의 파라미터
+     */
+    public void maybeSample(String query, String sql, Map<String, ?> params) {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+        explainer.execute(() -> explain(query, sql, params));
+    }
+
+    public Map<String, Sample> latestSamples() {
+        return Map.copyOf(latest);
+    }
+
+    @Override
+    public void close() {
+        explainer.shutdownNow();
+    }
+
+    private void explain(String query, String sql, Map<String, ?> params) {
+        try {
+            String json = jdbcTemplate.queryForObject(EXPLAIN + sql, params, String.class);
+            JsonNode root = objectMapper.readTree(json).get(0);
+            JsonNode plan = root.get("Plan");
+
+            double planning = root.path("Planning Time").asDouble(0);
+            double execution = root.path("Execution Time").asDouble(0);
+            timer("location.rdbms.plan.planning", "EXPLAIN 샘플의 계획 수립 시간", query).record(toNanos(planning), TimeUnit.NANOSECONDS);
+            timer("location.rdbms.plan.execution", "EXPLAIN 샘플의 실행 시간", query).record(toNanos(execution), TimeUnit.NANOSECONDS);
+            Counter.builder("location.rdbms.plan.buffers").tag("query", query).tag("source", "hit")
+                    .description("EXPLAIN 샘플이 Shared Buffer에서 읽은 Block 수")
+                    .register(meterRegistry).increment(plan.path("Shared Hit Blocks").asLong(0));
+            Counter.builder("location.rdbms.plan.buffers").tag("query", query).tag("source", "read")
+                    .description("EXPLAIN 샘플이 디스크(OS Cache 포함)에서 읽은 Block 수")
+                    .register(meterRegistry).increment(plan.path("Shared Read Blocks").asLong(0));
+
+            boolean indexUsed = recordNode(query, plan);
+            Counter.builder("location.rdbms.plan.samples").tag("query", query).tag("index", String.valueOf(indexUsed))
+                    .description("EXPLAIN 샘플 수 (index=false: 계획에 인덱스 Scan 노드 없음)")
+                    .register(meterRegistry).increment();
+            latest.put(query, new Sample(Instant.now(), planning, execution, indexUsed, root));
+            if (!indexUsed) log.warn(">>> [실행 계획] {} 질의가 인덱스 없이 실행됨 ({}ms)", query, execution);
+        } catch (RuntimeException e) {
+            log.warn(">>> [실행 계획] {} EXPLAIN 실패: {}", query, e.getMessage());
+        }
+    }
+
+    /**
+     * 노드 자체 시간 기록 후 자식 노드 재귀
+     *
+     * @return 이 노드 또는 하위에 인덱스 Scan 노드가 있는지
+     */
+    private boolean recordNode(String query, JsonNode node) {
+        double total = inclusiveMillis(node);
+        double children = 0;
+        boolean indexUsed = node.has("Index Name");
+        for (JsonNode child : node.path("Plans")) {
+            children += inclusiveMillis(child);
+            indexUsed |= recordNode(query, child);
+        }
+        String nodeType = node.path("Node Type").asString();
+        if (node.has("Index Name")) nodeType += " " + node.get("Index Name").asString();
+        Timer.builder("location.rdbms.plan.node")
+                .tag("query", query)
+                .tag("node", nodeType)
+                .description("EXPLAIN 샘플의 계획 노드별 자체 시간 (자식 노드 제외)")
+                .register(meterRegistry)
+                .record(toNanos(Math.max(0, total - children)), TimeUnit.NANOSECONDS);
+        return indexUsed;
+    }
+
+    private static double inclusiveMillis(JsonNode node) {
+        return node.path("Actual Total Time").asDouble(0) * Math.max(1, node.path("Actual Loops").asLong(0));
+    }
+
+    private Timer timer(String name, String description, String query) {
+        return Timer.builder(name).tag("query", query).description(description).register(meterRegistry);
+    }
+
+    private static long toNanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+}
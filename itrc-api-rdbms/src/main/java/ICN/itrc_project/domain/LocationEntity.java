@@ -11,9 +11,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Getter
+// 공간 인덱스(GiST)는 ddl-auto가 만들 수 없으므로 LocationSpatialSchema가 관리
 @Table(name = "location_data", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_location", columnList = "location")
+        @Index(name = "idx_user_id", columnList = "user_id")
 })
 
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -1,5 +1,6 @@
 package ICN.itrc_project.dto;
 
+import ICN.itrc_project.cache.SpatialQueryCache;
 import ICN.itrc_project.domain.LocationEntity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -36,4 +37,24 @@ public class RdbmsLocationResponse {
                 .updatedAt(entity.getUpdatedAt())
                 .build();
     }
+
+    /**
+     * 질의 캐시 재사용 시 좌표 접근 (거리 필드가 없으므로 결과는 그대로 사용)
+     */
+    public static final SpatialQueryCache.Located<RdbmsLocationResponse> LOCATED = new SpatialQueryCache.Located<>() {
+        @Override
+        public double latitude(RdbmsLocationResponse result) {
+            return result.latitude;
+        }
+
+        @Override
+        public double longitude(RdbmsLocationResponse result) {
+            return result.longitude;
+        }
+
+        @Override
+        public RdbmsLocationResponse withDistance(RdbmsLocationResponse result, double distanceMeter) {
+            return result;
+        }
+    };
 }
@@ -0,0 +1,257 @@
+package ICN.itrc_project.ingest;
+
+import ICN.itrc_project.config.RdbmsIngestProperties;
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.repository.LocationBatchWriter;
+import ICN.itrc_project.repository.LocationCopyWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-Behind Buffer: 위치 업데이트를 Bounded Queue에 적재한 뒤 Micro-batch 단위로 PostGIS에 일괄 반영
+ * - 반영 방식: BATCH 모드는 Multi-row Upsert(LocationBatchWriter), COPY 모드는 Binary COPY + 병합(LocationCopyWriter)
+ * - Size Trigger(batchSize) 또는 Time Trigger(flushInterval) 중 먼저 도달한 조건으로 Flush
+ * - 동일 사용자의 중복 이벤트는 배치 내에서 최신 timestamp 1건으로 병합
+ * - 큐가 가득 차면 offer()가 false를 반환하여 호출 측에서 Backpressure 응답을 결정
+ * - Flush 실패 시 같은 배치를 지수 Backoff로 재시도 (재시도 중에는 큐가 차면서 Backpressure로 전달), 소진 시 폐기 건수 기록
+ * - 반영에 성공한 배치만 Flush Listener에 전달 (쓰기 억제 기준, 로컬 인덱스 등은 저장 성공 후에만 갱신)
+ * - 구간 지연: 큐 적재를 브로커 적재, Flush 시작을 Consumer 수신으로 보고 FreshnessRecorder에 기록
+ */
+@Slf4j
+@Component
+public class LocationWriteBuffer {
+
+    private final RdbmsIngestProperties properties;
+    private final LocationBatchWriter batchWriter;
+    private final LocationCopyWriter copyWriter;
+    private final FreshnessRecorder freshnessRecorder;
+    private final BlockingQueue<PendingWrite> queue;
+    private final List<Consumer<List<LocationRequest>>> flushListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter rejectedCounter;
+    private final Counter retryCounter;
+    private final Counter droppedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public LocationWriteBuffer(RdbmsIngestProperties properties, LocationBatchWriter batchWriter,
+                               LocationCopyWriter copyWriter, MeterRegistry meterRegistry,
+                               FreshnessRecorder freshnessRecorder) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.copyWriter = copyWriter;
+        this.freshnessRecorder = freshnessRecorder;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("location.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Write-Behind 큐에 적재된 미반영 이벤트 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("location.ingest.rejected")
+                .description("큐 포화로 거절된 이벤트 수 (Backpressure)")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("location.ingest.flush.retries")
+                .description("Flush 실패 후 같은 배치를 재시도한 횟수")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("location.ingest.dropped")
+                .description("재시도 소진으로 반영하지 못하고 폐기된 로우 수 (이미 수락된 요청)")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("location.ingest.batch.size")
+                .description("Flush 1회당 중복 제거 후 반영된 로우 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("location.ingest.flush")
+                .description("배치 반영(Multi-row Upsert 또는 Binary COPY + 병합) 1회 수행 시간")
+                .tags("writer", properties.getMode() == RdbmsIngestProperties.Mode.COPY ? "copy" : "upsert")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.getMode().isWriteBehind()) return;
+
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "location-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info(">>> [📦 Write-Behind] {} 모드 활성화 | batchSize:{} | flushInterval:{}ms | queueCapacity:{}",
+                properties.getMode(), properties.getBatchSize(), properties.getFlushInterval().toMillis(), properties.getQueueCapacity());
+    }
+
+    /**
+     * 큐 적재 시도 (Non-blocking)
+     *
+     * @return 큐가 가득 차 적재하지 못한 경우 false
+     */
+    public boolean offer(LocationRequest request) {
+        if (queue.offer(new PendingWrite(request, System.currentTimeMillis()))) return true;
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * 배치가 PostGIS에 반영된 직후 Flusher 스레드에서 호출할 Listener 등록 (중복 제거 후 반영된 로우만 전달)
+     */
+    public void addFlushListener(Consumer<List<LocationRequest>> listener) {
+        flushListeners.add(listener);
+    }
+
+    private void runFlushLoop() {
+        List<PendingWrite> drained = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(drained);
+                if (!drained.isEmpty()) flush(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                // 반영 재시도 밖의 예외: 배치를 폐기하고 다음 배치를 계속 처리
+                droppedCounter.increment(drained.size());
+                log.error(">>> [⚠️ Flush 실패] {}건 폐기 | 사유:{}", drained.size(), e.getMessage(), e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    /**
+     * 첫 이벤트를 기다린 뒤, flushInterval이 지나거나 batchSize가 찰 때까지 추가로 수집
+     */
+    private void collectBatch(List<PendingWrite> drained) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        long intervalNanos = properties.getFlushInterval().toNanos();
+
+        PendingWrite first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) return;
+        drained.add(first);
+
+        long deadline = System.nanoTime() + intervalNanos;
+        while (drained.size() < batchSize) {
+            if (queue.drainTo(drained, batchSize - drained.size()) > 0) continue;
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) break;
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            drained.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> drained) throws InterruptedException {
+        long dequeuedAt = System.currentTimeMillis();
+        List<PendingWrite> latest = dedupeByUser(drained);
+        List<LocationRequest> rows = new ArrayList<>(latest.size());
+        for (PendingWrite pending : latest) rows.add(pending.request());
+
+        if (!writeWithRetry(rows)) return;
+        batchSizeSummary.record(rows.size());
+        notifyFlushed(rows);
+
+        long storedAt = System.currentTimeMillis();
+        for (PendingWrite pending : latest) {
+            freshnessRecorder.record(pending.request().getTimestamp(), pending.enqueuedAt(), dequeuedAt, storedAt);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Write-Behind Flush: 수신 {}건 -> 반영 {}건", drained.size(), latest.size());
+        }
+    }
+
+    /**
+     * Listener 실패는 이미 반영된 배치의 재시도 대상이 아니므로 기록만 하고 계속 진행
+     */
+    private void notifyFlushed(List<LocationRequest> rows) {
+        for (Consumer<List<LocationRequest>> listener : flushListeners) {
+            try {
+                listener.accept(rows);
+            } catch (RuntimeException e) {
+                log.warn(">>> [⚠️ Flush Listener 실패] {}건 | 사유:{}", rows.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 중복 제거된 배치를 반영하고, 실패하면 지수 Backoff 후 같은 배치를 재시도
+     * (Upsert/COPY 병합 모두 timestamp 비교 조건이 있어 재실행해도 결과가 같음)
+     *
+     * @return 재시도를 소진하여 배치를 폐기한 경우 false
+     */
+    private boolean writeWithRetry(List<LocationRequest> rows) throws InterruptedException {
+        long backoffMillis = properties.getFlushRetryBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                if (properties.getMode() == RdbmsIngestProperties.Mode.COPY) {
+                    flushTimer.record(() -> copyWriter.copyAll(rows));
+                } else {
+                    flushTimer.record(() -> batchWriter.upsertAll(rows));
+                }
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getFlushMaxRetries()) {
+                    droppedCounter.increment(rows.size());
+                    log.error(">>> [⚠️ Flush 실패] 재시도 {}회 소진, {}건 폐기 | 사유:{}", attempt, rows.size(), e.getMessage(), e);
+                    return false;
+                }
+                retryCounter.increment();
+                log.warn(">>> [⚠️ Flush 실패] {}건, {}ms 후 재시도 ({}/{}) | 사유:{}",
+                        rows.size(), backoffMillis, attempt + 1, properties.getFlushMaxRetries(), e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                droppedCounter.increment(rows.size());
+                throw e;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, properties.getFlushRetryMaxBackoff().toMillis());
+        }
+    }
+
+    /**
+     * 사용자별 최신 timestamp 이벤트만 유지 (동일 문장 내 ON CONFLICT 키 중복 방지)
+     */
+    private List<PendingWrite> dedupeByUser(List<PendingWrite> drained) {
+        Map<String, PendingWrite> latestByUser = new LinkedHashMap<>(drained.size() * 2);
+        for (PendingWrite pending : drained) {
+            latestByUser.merge(pending.request().getUserId(), pending,
+                    (prev, next) -> next.request().getTimestamp() >= prev.request().getTimestamp() ? next : prev);
+        }
+        return new ArrayList<>(latestByUser.values());
+    }
+
+    /**
+     * 종료 시 큐에 남은 이벤트를 모두 반영한 뒤 Flusher 종료
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) return;
+        running = false;
+        flusher.join(properties.getFlushInterval().toMillis() * 10 + 5_000);
+        log.info(">>> [📦 Write-Behind] 종료 | 미반영 잔여:{}건", queue.size());
+    }
+
+    /**
+     * 큐 적재 단위: 구간 지연 측정을 위해 적재 시각(epoch ms)을 함께 보관
+     */
+    private record PendingWrite(LocationRequest request, long enqueuedAt) {
+    }
+}
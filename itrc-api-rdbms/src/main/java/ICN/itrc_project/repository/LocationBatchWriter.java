@@ -0,0 +1,88 @@
+package ICN.itrc_project.repository;
+
+import ICN.itrc_project.dto.LocationRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row Upsert Writer: 최신 위치 묶음을 단일 INSERT ... ON CONFLICT 문으로 location_data에 반영
+ * - JPA의 SELECT + Dirty Checking 왕복을 제거하여 커넥션 점유 시간을 배치 단위로 상각(Amortize)
+ */
+@Repository
+@RequiredArgsConstructor
+public class LocationBatchWriter {
+
+    /**
+     * PostgreSQL 바인딩 파라미터 상한(65,535)을 넘지 않도록 한 문장에 담을 최대 로우 수
+     */
+    private static final int MAX_ROWS_PER_STATEMENT = 5_000;
+    private static final int PARAMS_PER_ROW = 8;
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO location_data (user_id, location, speed, accuracy, service_type, timestamp, updated_at)
+            VALUES
+            """;
+
+    private static final String ROW_VALUES = "(?, ST_SetSRID(ST_MakePoint(?, ?), 4326), ?, ?, ?, ?, ?)";
+
+    /**
+     * 늦게 도착한(Out-of-order) 이벤트가 더 최신 위치를 덮어쓰지 않도록 timestamp 비교 조건 적용
+     */
+    private static final String ON_CONFLICT = """
+
+            ON CONFLICT (user_id) DO UPDATE SET
+                location = EXCLUDED.location,
+                speed = EXCLUDED.speed,
+                accuracy = EXCLUDED.accuracy,
+                service_type = EXCLUDED.service_type,
+                timestamp = EXCLUDED.timestamp,
+                updated_at = EXCLUDED.updated_at
+            WHERE location_data.timestamp IS NULL OR location_data.timestamp <= EXCLUDED.timestamp
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param requests userId 기준으로 중복이 제거된 위치 목록 (동일 문장 내 같은 키가 두 번 나오면 PostgreSQL이 거부함)
+     * @return 반영된 로우 수
+     */
+    public int upsertAll(List<LocationRequest> requests) {
+        int affected = 0;
+        for (int from = 0; from < requests.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<LocationRequest> chunk = requests.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, requests.size()));
+            affected += jdbcTemplate.update(buildSql(chunk.size()), bindArgs(chunk));
+        }
+        return affected;
+    }
+
+    private String buildSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_VALUES.length() + 2) + ON_CONFLICT.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(",\n");
+            sql.append(ROW_VALUES);
+        }
+        return sql.append(ON_CONFLICT).toString();
+    }
+
+    private Object[] bindArgs(List<LocationRequest> chunk) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object> args = new ArrayList<>(chunk.size() * PARAMS_PER_ROW);
+        for (LocationRequest request : chunk) {
+            args.add(request.getUserId());
+            args.add(request.getLongitude());
+            args.add(request.getLatitude());
+            args.add(request.getSpeed());
+            args.add(request.getAccuracy());
+            args.add(request.getServiceType());
+            args.add(request.getTimestamp());
+            args.add(now);
+        }
+        return args.toArray();
+    }
+}
@@ -0,0 +1,174 @@
+package ICN.itrc_project.repository;
+
+import ICN.itrc_project.dto.LocationRequest;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Binary COPY Writer: 최신 위치 묶음을 PgJDBC CopyManager로 Staging 테이블에 Binary COPY한 뒤, 단일 INSERT ... SELECT로 location_data에 병합
+ * - 위치는 EWKB(SRID 포함)로 직접 인코딩하여 서버의 ST_MakePoint/텍스트 파싱 비용 제거
+ * - 바인딩 파라미터가 없으므로 Multi-row Upsert의 65,535개 상한에 따른 문장 분할이 필요 없음
+ * - Staging은 커넥션별 임시 테이블(ON COMMIT DELETE ROWS)이라 COPY와 병합을 한 트랜잭션으로 수행
+ */
+@Repository
+@RequiredArgsConstructor
+public class LocationCopyWriter {
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS location_copy_staging (
+                user_id varchar(255),
+                location geometry(Point, 4326),
+                speed float8,
+                accuracy float8,
+                service_type varchar(255),
+                timestamp int8
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGING = """
+            COPY location_copy_staging (user_id, location, speed, accuracy, service_type, timestamp)
+            FROM STDIN (FORMAT binary)
+            """;
+
+    /**
+     * LocationBatchWriter와 동일한 timestamp 비교 조건 (입력은 호출 측에서 userId 기준으로 중복 제거됨)
+     */
+    private static final String MERGE = """
+            INSERT INTO location_data (user_id, location, speed, accuracy, service_type, timestamp, updated_at)
+            SELECT user_id, location, speed, accuracy, service_type, timestamp, now()
+            FROM location_copy_staging
+            ON CONFLICT (user_id) DO UPDATE SET
+                location = EXCLUDED.location,
+                speed = EXCLUDED.speed,
+                accuracy = EXCLUDED.accuracy,
+                service_type = EXCLUDED.service_type,
+                timestamp = EXCLUDED.timestamp,
+                updated_at = EXCLUDED.updated_at
+            WHERE location_data.timestamp IS NULL OR location_data.timestamp <= EXCLUDED.timestamp
+            """;
+
+    /**
+     * Binary COPY 헤더: 시그니처(11byte) + flags(int32) + 헤더 확장 길이(int32)
+     */
+    private static final byte[] COPY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final short FIELD_COUNT = 6;
+
+    /**
+     * EWKB Point: byte order(1) + type(4, SRID 플래그 포함) + SRID(4) + X(8) + Y(8)
+     */
+    private static final int EWKB_POINT_LENGTH = 25;
+    private static final int EWKB_SRID_FLAG = 0x20000000;
+    private static final int WKB_POINT = 1;
+    private static final int SRID = 4326;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param requests userId 기준으로 중복이 제거된 위치 목록 (같은 키가 두 번 나오면 ON CONFLICT가 거부함)
+     * @return 반영된 로우 수
+     */
+    public int copyAll(List<LocationRequest> requests) {
+        byte[] payload = encode(requests);
+        Integer affected = transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            copy(connection.unwrap(PGConnection.class), payload);
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate(MERGE);
+            }
+        }));
+        return affected != null ? affected : 0;
+    }
+
+    private void copy(PGConnection connection, byte[] payload) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            copyIn.writeToCopy(payload, 0, payload.length);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+    }
+
+    /**
+     * PostgreSQL Binary COPY 형식 인코딩 (모든 정수/실수는 Network Byte Order)
+     */
+    static byte[] encode(List<LocationRequest> requests) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(19 + requests.size() * 110 + 2);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.write(COPY_SIGNATURE);
+            out.writeInt(0);
+            out.writeInt(0);
+
+            for (LocationRequest request : requests) {
+                out.writeShort(FIELD_COUNT);
+                writeText(out, request.getUserId());
+                writeEwkbPoint(out, request.getLongitude(), request.getLatitude());
+                writeFloat8(out, request.getSpeed());
+                writeFloat8(out, request.getAccuracy());
+                writeText(out, request.getServiceType());
+                writeInt8(out, request.getTimestamp());
+            }
+            out.writeShort(-1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void writeText(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * geometry 타입의 Binary 입력(geometry_recv)은 EWKB를 그대로 받음 (Big-endian 표기)
+     */
+    private static void writeEwkbPoint(DataOutputStream out, double x, double y) throws IOException {
+        out.writeInt(EWKB_POINT_LENGTH);
+        out.writeByte(0);
+        out.writeInt(WKB_POINT | EWKB_SRID_FLAG);
+        out.writeInt(SRID);
+        out.writeDouble(x);
+        out.writeDouble(y);
+    }
+
+    private static void writeFloat8(DataOutputStream out, Double value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(Double.BYTES);
+        out.writeDouble(value);
+    }
+
+    private static void writeInt8(DataOutputStream out, Long value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(Long.BYTES);
+        out.writeLong(value);
+    }
+}
@@ -1,51 +1,119 @@
 package ICN.itrc_project.repository;
 
 import ICN.itrc_project.domain.LocationEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface LocationRepository extends JpaRepository<LocationEntity, Long> {
 
     /**
-     * [Range Query] 반경 내 개체 검색
-     * geography 캐스팅을 통해 미터(m) 단위의 정밀한 거리 연산 수행
+     * 스트리밍 조회 시 JDBC Fetch Size: PostgreSQL은 트랜잭션 안(autocommit off)에서만 Cursor로 나눠 가져옴
      */
-    @Query(value = """
-            SELECT * FROM location_data
-            WHERE ST_DWithin(
-                location::geography, 
-                ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography, 
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * 반경 조건: geometry Bounding Box 사전 필터(idx_location GiST) + geography 정밀 거리 판정(idx_location_geography GiST)
+     * - 사전 필터 폭: 반경을 1도 길이의 하한(110,574m × cos(위도))으로 나눈 값이라 원을 항상 포함하는 사각형
+     * - geography 캐스팅 식은 LocationSpatialSchema의 식 인덱스와 같아야 인덱스 조건으로 사용됨
+     * - 네이티브 SQL은 실행 계획 샘플링(QueryPlanSampler)과 공유
+     */
+    String RADIUS_WHERE = """
+            WHERE location && ST_Expand(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326),
+                                        :radius / (110574.0 * cos(radians(least(abs(:lat), 89.0)))))
+              AND ST_DWithin(
+                location::geography,
+                ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
                 :radius
             )
-            """, nativeQuery = true)
+            """;
+
+    String RADIUS_SQL = "SELECT * FROM location_data\n" + RADIUS_WHERE;
+
+    /**
+     * KNN: geography 식 인덱스의 Index-assisted 거리 정렬(<->)로 k개에서 탐색 종료
+     */
+    String NEAREST_SQL = """
+            SELECT * FROM location_data
+            ORDER BY location::geography <-> ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography
+            LIMIT :k
+            """;
+
+    String POLYGON_WHERE = """
+            WHERE ST_Contains(
+                ST_GeomFromText(:polygonWkt, 4326),
+                location
+            )
+            """;
+
+    String POLYGON_SQL = "SELECT * FROM location_data\n" + POLYGON_WHERE;
+
+    /**
+     * [Range Query] 반경 내 개체 검색
+     * geography 캐스팅을 통해 미터(m) 단위의 정밀한 거리 연산 수행 (Bounding Box 사전 필터 후)
+     */
+    @Query(value = RADIUS_SQL, nativeQuery = true)
     List<LocationEntity> findByRadius(@Param("lat") double lat, @Param("lng") double lng, @Param("radius") double radiusMeter);
 
     /**
      * [KNN Search] 최근접 k개 개체 검색
      * <-> 연산자를 활용하여 GIST 인덱스 기반의 고속 거리 정렬 수행(geography 기준)
      */
-    @Query(value = """
-            SELECT * FROM location_data
-            ORDER BY location::geography <-> ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography
-              LIMIT :k
-            """, nativeQuery = true)
+    @Query(value = NEAREST_SQL, nativeQuery = true)
     List<LocationEntity> findNearest(@Param("lat") double lat, @Param("lng") double lng, @Param("k") int k);
 
     /**
      * [PIP Search] 특정 영역(Polygon) 내 개체 필터링
      * WKT(Well-Known Text) 기반 폴리곤 내 지점 포함 여부 판별
      */
-    @Query(value = """
-            SELECT * FROM location_data
-            WHERE ST_Contains(
-                ST_GeomFromText(:polygonWkt, 4326), 
-                location
-            )
-            """, nativeQuery = true)
+    @Query(value = POLYGON_SQL, nativeQuery = true)
     List<LocationEntity> findInPolygon(@Param("polygonWkt") String polygonWkt);
 
+    /**
+     * [Range Stream] 반경 내 개체를 JDBC Cursor로 순차 조회 (읽기 전용 트랜잭션 안에서 소비 후 close 필요)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(value = RADIUS_SQL, nativeQuery = true)
+    Stream<LocationEntity> streamByRadius(@Param("lat") double lat, @Param("lng") double lng, @Param("radius") double radiusMeter);
+
+    /**
+     * [Range Page] Keyset 페이지: 직전 페이지 마지막 id 이후부터 id 순으로 limit개 (OFFSET 없이 페이지 깊이와 무관한 비용)
+     */
+    @Query(value = "SELECT * FROM location_data\n" + RADIUS_WHERE + """
+              AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<LocationEntity> findByRadiusAfter(@Param("lat") double lat, @Param("lng") double lng, @Param("radius") double radiusMeter,
+                                           @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * [PIP Stream] 다각형 내 개체를 JDBC Cursor로 순차 조회
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(value = POLYGON_SQL, nativeQuery = true)
+    Stream<LocationEntity> streamInPolygon(@Param("polygonWkt") String polygonWkt);
+
+    /**
+     * [PIP Page] Keyset 페이지
+     */
+    @Query(value = "SELECT * FROM location_data\n" + POLYGON_WHERE + """
+              AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<LocationEntity> findInPolygonAfter(@Param("polygonWkt") String polygonWkt,
+                                            @Param("afterId") long afterId, @Param("limit") int limit);
+
     LocationEntity findByUserId(String userId);
 }
\ No newline at end of file
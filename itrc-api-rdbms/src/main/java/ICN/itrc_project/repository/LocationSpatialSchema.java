@@ -0,0 +1,106 @@
+package ICN.itrc_project.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * location_data 공간 인덱스 관리: ddl-auto의 @Index는 geometry 컬럼에도 B-tree를 만들어
+ * ST_DWithin/ST_Contains/<-> 가 인덱스를 쓰지 못하므로, 기동 시 GiST 인덱스를 직접 보장
+ * - idx_location: geometry GiST (Bounding Box 사전 필터, PIP)
+ * - idx_location_geography: (location::geography) 식 GiST (반경 정밀 판정, KNN 거리 정렬)
+ *   저장 geography 컬럼 대신 식 인덱스를 사용하여 테이블 재작성과 쓰기 경로(JPA/Upsert/COPY) 변경이 없음
+ *
+ * 기존 인덱스가 GiST가 아니거나 이전 빌드가 실패(INVALID)한 경우 교체하며, CONCURRENTLY로 만들어 수신 중인 쓰기를 막지 않음
+ * - 큰 테이블의 빌드가 기동/Readiness를 막지 않도록 별도 스레드에서 수행 (빌드 전까지는 기존 계획으로 조회)
+ * - Rolling 배포에서 여러 인스턴스가 동시에 기동해도 Advisory Lock을 잡은 1개만 관리하고,
+ *   다른 세션이 빌드 중인 인덱스(pg_stat_progress_create_index, 빌드 중에는 INVALID)는 교체하지 않음
+ * (lbs.rdbms.spatial-schema.managed=false 이면 DBA가 관리)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.rdbms.spatial-schema", name = "managed", havingValue = "true", matchIfMissing = true)
+public class LocationSpatialSchema implements ApplicationRunner {
+
+    private static final String TABLE = "location_data";
+    private static final long ADVISORY_LOCK_KEY = 0x4C42535F53504154L; // "LBS_SPAT"
+
+    private static final String INDEX_STATE = """
+            SELECT am.amname AS method, i.indisvalid AS valid,
+                   EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = c.oid) AS building
+            FROM pg_class c
+            JOIN pg_index i ON i.indexrelid = c.oid
+            JOIN pg_am am ON am.oid = c.relam
+            WHERE c.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread builder = new Thread(this::ensureSafely, "spatial-schema");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void ensureSafely() {
+        try {
+            // Session 단위 Advisory Lock이므로 잠금/빌드/해제를 같은 Connection에서 수행 (CONCURRENTLY는 Auto-Commit 필요)
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                ensure(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error(">>> [공간 스키마] 인덱스 보장 실패 (다음 기동 시 재시도)", e);
+        }
+    }
+
+    private void ensure(JdbcTemplate session) {
+        if (session.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, TABLE) != Boolean.TRUE) {
+            log.warn(">>> [공간 스키마] {} 테이블이 없어 인덱스 생성을 건너뜀", TABLE);
+            return;
+        }
+        if (session.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, ADVISORY_LOCK_KEY) != Boolean.TRUE) {
+            log.info(">>> [공간 스키마] 다른 인스턴스가 인덱스를 관리 중이어서 건너뜀");
+            return;
+        }
+        try {
+            boolean changed = ensureGistIndex(session, "idx_location", "location");
+            changed |= ensureGistIndex(session, "idx_location_geography", "(location::geography)");
+            if (changed) session.execute("ANALYZE " + TABLE); // 새 인덱스 기준으로 계획하도록 통계 갱신
+        } finally {
+            session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+        }
+    }
+
+    /**
+     * @return 인덱스를 새로 만든 경우 true
+     */
+    private boolean ensureGistIndex(JdbcTemplate session, String name, String expression) {
+        List<Map<String, Object>> state = session.queryForList(INDEX_STATE, name);
+        if (!state.isEmpty()) {
+            Map<String, Object> index = state.get(0);
+            if (Boolean.TRUE.equals(index.get("building"))) {
+                log.info(">>> [공간 스키마] {} 다른 세션에서 빌드 중이어서 건너뜀", name);
+                return false;
+            }
+            if ("gist".equals(index.get("method")) && Boolean.TRUE.equals(index.get("valid"))) return false;
+            log.info(">>> [공간 스키마] {} 교체 (method:{}, valid:{})", name, index.get("method"), index.get("valid"));
+            session.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        long started = System.currentTimeMillis();
+        session.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + TABLE + " USING GIST (" + expression + ")");
+        log.info(">>> [공간 스키마] {} GiST 생성 완료 ({}ms)", name, System.currentTimeMillis() - started);
+        return true;
+    }
+}
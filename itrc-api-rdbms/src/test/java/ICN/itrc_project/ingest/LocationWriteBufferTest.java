@@ -0,0 +1,117 @@
+package ICN.itrc_project.ingest;
+
+import ICN.itrc_project.config.RdbmsIngestProperties;
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.repository.LocationBatchWriter;
+import ICN.itrc_project.repository.LocationCopyWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocationWriteBufferTest {
+
+    private final LocationBatchWriter batchWriter = mock(LocationBatchWriter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RdbmsIngestProperties properties = new RdbmsIngestProperties();
+    private FreshnessRecorder freshnessRecorder;
+    private LocationWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMode(RdbmsIngestProperties.Mode.BATCH);
+        properties.setFlushInterval(Duration.ofMillis(5));
+        properties.setFlushMaxRetries(2);
+        properties.setFlushRetryBackoff(Duration.ofMillis(1));
+        freshnessRecorder = new FreshnessRecorder(meterRegistry, Duration.ofMinutes(1));
+        buffer = new LocationWriteBuffer(properties, batchWriter, mock(LocationCopyWriter.class), meterRegistry, freshnessRecorder);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.stop();
+        freshnessRecorder.close();
+    }
+
+    @Test
+    void retriesTransientFailureWithoutDropping() throws InterruptedException {
+        when(batchWriter.upsertAll(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("pool timeout"))
+                .thenReturn(1);
+        buffer.start();
+
+        assertThat(buffer.offer(request("u1"))).isTrue();
+        buffer.stop();
+
+        verify(batchWriter, times(2)).upsertAll(anyList());
+        assertThat(meterRegistry.counter("location.ingest.flush.retries").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("location.ingest.dropped").count()).isZero();
+    }
+
+    @Test
+    void countsDedupedRowsWhenRetriesAreExhausted() throws InterruptedException {
+        when(batchWriter.upsertAll(anyList())).thenThrow(new TransientDataAccessResourceException("database down"));
+        buffer.start();
+
+        buffer.offer(request("u1"));
+        buffer.offer(request("u1"));
+        buffer.offer(request("u2"));
+        verify(batchWriter, timeout(5_000).atLeast(3)).upsertAll(anyList());
+        buffer.stop();
+
+        assertThat(meterRegistry.counter("location.ingest.dropped").count()).isEqualTo(2);
+    }
+
+    @Test
+    void notifiesListenersOnlyWithPersistedLatestRows() throws InterruptedException {
+        when(batchWriter.upsertAll(anyList())).thenReturn(2);
+        List<LocationRequest> flushed = new CopyOnWriteArrayList<>();
+        buffer.addFlushListener(flushed::addAll);
+        properties.setFlushInterval(Duration.ofMillis(200)); // 세 건이 한 배치로 모이도록
+        buffer.start();
+
+        LocationRequest older = request("u1");
+        older.setTimestamp(1L);
+        LocationRequest newer = request("u1");
+        newer.setTimestamp(2L);
+        buffer.offer(older);
+        buffer.offer(newer);
+        buffer.offer(request("u2"));
+        buffer.stop();
+
+        assertThat(flushed).doesNotContain(older).contains(newer);
+        assertThat(flushed).extracting(LocationRequest::getUserId).containsOnly("u1", "u2");
+    }
+
+    @Test
+    void skipsListenersForDroppedBatches() throws InterruptedException {
+        when(batchWriter.upsertAll(anyList())).thenThrow(new TransientDataAccessResourceException("database down"));
+        List<LocationRequest> flushed = new CopyOnWriteArrayList<>();
+        buffer.addFlushListener(flushed::addAll);
+        buffer.start();
+
+        buffer.offer(request("u1"));
+        buffer.stop();
+
+        assertThat(flushed).isEmpty();
+        assertThat(meterRegistry.counter("location.ingest.dropped").count()).isEqualTo(1);
+    }
+
+    private static LocationRequest request(String userId) {
+        return LocationRequest.builder().userId(userId).latitude(1.3).longitude(103.8).build();
+    }
+}
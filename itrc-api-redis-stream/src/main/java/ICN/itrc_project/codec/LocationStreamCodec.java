@@ -0,0 +1,65 @@
+package ICN.itrc_project.codec;
+
+import ICN.itrc_project.config.StreamPublishProperties;
+import ICN.itrc_project.dto.LocationRequest;
+import com.uber.h3core.H3Core;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redis Stream 레코드 인코딩 (lbs.stream.publish.codec)
+ * - FIELDS: Grab-Posisi 컬럼명 + RediSearch 전용 필드(location, h3_index)를 문자열로 기록
+ * - BINARY: LocationBinaryCodec 결과(Base64)를 단일 필드에 기록하고, 파생 필드는 Consumer에서 계산
+ */
+@Component
+public class LocationStreamCodec {
+
+    public static final String BINARY_FIELD = LocationStreamFields.BINARY_FIELD;
+    public static final String TRACE_FIELD = "trace"; // 샘플링된 이벤트의 PipelineTrace (저장 문서에서는 제외)
+
+    private final H3Core h3;
+    private final StreamPublishProperties.Codec codec;
+
+    public LocationStreamCodec(StreamPublishProperties properties) throws IOException {
+        this.h3 = H3Core.newInstance();
+        this.codec = properties.getCodec();
+    }
+
+    /**
+     * Producer: LocationRequest → XADD 필드 (설정된 인코딩 적용)
+     */
+    public Map<String, String> encode(LocationRequest request) {
+        if (codec == StreamPublishProperties.Codec.BINARY) {
+            return Map.of(BINARY_FIELD, LocationBinaryCodec.encodeToString(request));
+        }
+        return toFields(request);
+    }
+
+    /**
+     * Consumer: 수신 필드 → 문자열 필드 (BINARY 레코드는 복원 후 변환, FIELDS 레코드는 그대로 반환)
+     *
+     * @throws IllegalArgumentException Binary 필드가 손상된 경우
+     */
+    public Map<String, String> decode(Map<String, String> fields) {
+        String encoded = fields.get(BINARY_FIELD);
+        if (encoded != null) {
+            LocationRequest request = LocationBinaryCodec.decodeFromString(encoded);
+            if (request.getUserId() == null || request.getLatitude() == null || request.getLongitude() == null) {
+                throw new IllegalArgumentException("Binary location record without user id or coordinates");
+            }
+            return toFields(request);
+        }
+        if (!fields.containsKey(TRACE_FIELD)) return fields;
+
+        Map<String, String> withoutTrace = new LinkedHashMap<>(fields);
+        withoutTrace.remove(TRACE_FIELD);
+        return withoutTrace;
+    }
+
+    private Map<String, String> toFields(LocationRequest request) {
+        return LocationStreamFields.toFields(h3, request);
+    }
+}
@@ -2,6 +2,8 @@ package ICN.itrc_project.config;
 
 import ICN.itrc_project.consumer.LocationEventConsumer; // 위치 변경 반영
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -13,6 +15,8 @@ import org.springframework.data.redis.connection.stream.StreamOffset;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.JedisPooled;
 import redis.clients.jedis.UnifiedJedis;
 
 import java.time.Duration;
@@ -29,15 +33,31 @@ public class RedisStreamConfig {
         return factory;
     }
 
+    /**
+     * Jedis 커넥션 풀
+     * - BATCH 모드의 각 Consumer는 XREADGROUP BLOCK 동안 커넥션 1개를 점유하므로,
+     *   풀 크기는 (Consumer 수 + 검색/Pipeline 동시 요청 수) 이상으로 설정
+     * - 소켓 타임아웃은 XREADGROUP BLOCK 시간보다 길어야 함
+     */
     @Bean
-    public UnifiedJedis unifiedJedis() {
-        return new UnifiedJedis("redis://localhost:6379");
+    public UnifiedJedis unifiedJedis(@Value("${lbs.redis.jedis.max-total:64}") int maxTotal,
+                                     @Value("${lbs.redis.jedis.timeout-ms:5000}") int timeoutMs) {
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(maxTotal);
+        poolConfig.setMaxIdle(maxTotal);
+        return new JedisPooled(poolConfig, "localhost", 6379, timeoutMs);
     }
 
+    /**
+     * [LISTENER 모드] 단일 Consumer 기반 StreamMessageListenerContainer (BATCH 모드는 StreamConsumerEngine 사용)
+     */
     @Bean
+    @ConditionalOnProperty(prefix = "lbs.stream.consumer", name = "mode", havingValue = "LISTENER", matchIfMissing = true)
     @SuppressWarnings("unchecked")
     public StreamMessageListenerContainer<String, MapRecord<String, String, String>> container(
-            RedisConnectionFactory factory, LocationEventConsumer consumer) {
+            RedisConnectionFactory factory, LocationEventConsumer consumer,
+            @Value("${lbs.stream.name:lbs_stream}") String streamName,
+            @Value("${lbs.stream.group:lbs_group}") String groupName) {
 
         RedisSerializer<String> s = RedisSerializer.string();
 
@@ -52,12 +72,12 @@ public class RedisStreamConfig {
 
         // 리스너 등록: lbs_group 그룹의 consumer_1 이름으로 메시지 수신
         container.receive(
-                Consumer.from("lbs_group", "consumer_1"),
-                StreamOffset.create("lbs_stream", ReadOffset.lastConsumed()),
+                Consumer.from(groupName, "consumer_1"),
+                StreamOffset.create(streamName, ReadOffset.lastConsumed()),
                 consumer
         );
 
         container.start();
         return container;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package ICN.itrc_project.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Redis Stream 소비 설정: Consumer Group 소비 방식 및 배치/재할당(XAUTOCLAIM) 파라미터 정의
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "lbs.stream.consumer")
+public class StreamConsumerProperties {
+
+    /**
+     * 소비 모드
+     * - LISTENER: StreamMessageListenerContainer 단일 Consumer, 메시지 단건 처리 (기존 방식)
+     * - BATCH   : 인스턴스당 N개 Consumer가 COUNT 단위로 읽고 Pipeline 저장 + 일괄 XACK
+     */
+    private Mode mode = Mode.LISTENER;
+
+    /**
+     * 인스턴스당 Consumer 수 (0 이하이면 가용 CPU 코어 수)
+     */
+    private int consumers = 0;
+
+    /**
+     * XREADGROUP COUNT: 1회 읽기당 최대 메시지 수
+     */
+    private int batchSize = 200;
+
+    /**
+     * XREADGROUP BLOCK: 신규 메시지 대기 시간 (Jedis 소켓 타임아웃보다 짧아야 함)
+     */
+    private Duration block = Duration.ofSeconds(1);
+
+    /**
+     * 이 시간 이상 ACK되지 않은 Pending 메시지를 XAUTOCLAIM으로 회수
+     */
+    private Duration claimMinIdle = Duration.ofSeconds(30);
+
+    /**
+     * Consumer별 XAUTOCLAIM 수행 주기
+     */
+    private Duration claimInterval = Duration.ofSeconds(10);
+
+    /**
+     * Consumer 이름 접두어 (인스턴스별로 고유해야 함, 미지정 시 호스트명-PID 사용)
+     */
+    private String namePrefix;
+
+    public int resolveConsumers() {
+        return consumers > 0 ? consumers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public enum Mode {
+        LISTENER, BATCH
+    }
+}
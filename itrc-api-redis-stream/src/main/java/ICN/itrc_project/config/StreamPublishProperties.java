@@ -0,0 +1,53 @@
+package ICN.itrc_project.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Redis Stream 발행 설정: 요청당 동기 XADD / 비동기 Pipeline 배치 XADD 선택 및 배치 파라미터 정의
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "lbs.stream.publish")
+public class StreamPublishProperties {
+
+    /**
+     * 발행 모드
+     * - SYNC : 요청 스레드에서 XADD 1회 수행 후 응답 (기존 방식)
+     * - ASYNC: 동시 요청의 레코드를 모아 Pipeline XADD로 일괄 전송, 요청은 큐 적재 직후 응답
+     */
+    private Mode mode = Mode.SYNC;
+
+    /**
+     * Pipeline 1회당 최대 XADD 수 (Size Trigger)
+     */
+    private int batchSize = 256;
+
+    /**
+     * 첫 레코드 도착 후 추가 레코드를 기다리는 최대 시간 (Linger Trigger)
+     */
+    private Duration linger = Duration.ofMillis(2);
+
+    /**
+     * 전송 완료(ACK) 전까지 허용하는 최대 레코드 수: 초과 시 요청을 거절하여 Backpressure 적용
+     */
+    private int maxInFlight = 10_000;
+
+    /**
+     * Stream 레코드 인코딩
+     * - FIELDS: Grab-Posisi 컬럼명 기준 문자열 필드 10개 (기존 방식)
+     * - BINARY: LocationBinaryCodec 결과를 단일 필드에 기록 (Consumer는 두 형식 모두 처리)
+     */
+    private Codec codec = Codec.FIELDS;
+
+    public enum Mode {
+        SYNC, ASYNC
+    }
+
+    public enum Codec {
+        FIELDS, BINARY
+    }
+}
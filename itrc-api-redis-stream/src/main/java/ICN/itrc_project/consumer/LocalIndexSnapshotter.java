@@ -0,0 +1,173 @@
+package ICN.itrc_project.consumer;
+
+import ICN.itrc_project.codec.LocationStreamCodec;
+import ICN.itrc_project.snapshot.LocationSnapshotFile;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.resps.StreamEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 로컬 공간 인덱스 Snapshot: GridSpatialIndex 전체 + 반영이 끝난 마지막 Stream Entry ID
+ * - Consumer Group 위치(XACK)는 Redis가 보관하므로 재시작 시 비어 있는 것은 로컬 인덱스뿐
+ * - 복원: Snapshot 적재 후 (마지막 Entry ID - replay-overlap)부터 XRANGE로 끝까지 읽어 로컬 인덱스만 따라잡음
+ *   (RedisJSON 문서는 이미 반영되어 있으므로 재기록하지 않음, 인덱스 갱신은 timestamp 비교로 중복 무시)
+ *   → 재시작 후 준비 시간은 Snapshot 크기 + 마지막 Snapshot 이후 Entry 수에 비례
+ * - MAXLEN 등으로 Snapshot 이후 Entry가 잘린 경우 그 구간은 이후 신규 이벤트로만 채워짐
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lbs.snapshot", name = "enabled", havingValue = "true")
+public class LocalIndexSnapshotter {
+
+    private static final String POSITION_KEY_PREFIX = "stream:";
+
+    private final UnifiedJedis jedis;
+    private final LocationStreamCodec streamCodec;
+    private final ObjectProvider<GridSpatialIndex> localIndex;
+    private final String streamName;
+    private final Path path;
+    private final Duration replayOverlap;
+    private final int replayBatch;
+
+    private final AtomicReference<StreamEntryID> lastProcessed = new AtomicReference<>();
+    private final Timer writeTimer;
+    private final Timer restoreTimer;
+    private final AtomicLong lastRecords = new AtomicLong();
+
+    public LocalIndexSnapshotter(UnifiedJedis jedis,
+                                 LocationStreamCodec streamCodec,
+                                 ObjectProvider<GridSpatialIndex> localIndex,
+                                 @Value("${lbs.stream.name:lbs_stream}") String streamName,
+                                 @Value("${lbs.snapshot.path:snapshots/stream-local-index.snap}") String path,
+                                 @Value("${lbs.snapshot.replay-overlap:5s}") Duration replayOverlap,
+                                 @Value("${lbs.snapshot.replay-batch:1000}") int replayBatch,
+                                 MeterRegistry meterRegistry) {
+        this.jedis = jedis;
+        this.streamCodec = streamCodec;
+        this.localIndex = localIndex;
+        this.streamName = streamName;
+        this.path = Path.of(path);
+        this.replayOverlap = replayOverlap;
+        this.replayBatch = replayBatch;
+
+        this.writeTimer = Timer.builder("location.snapshot.write")
+                .description("Snapshot 1회 기록 시간 (인덱스 순회 + Mapping 기록 + fsync)")
+                .register(meterRegistry);
+        this.restoreTimer = Timer.builder("location.snapshot.restore")
+                .description("기동 시 Snapshot 적재 + Stream 재생 시간")
+                .register(meterRegistry);
+        Gauge.builder("location.snapshot.records", lastRecords, AtomicLong::get)
+                .description("마지막으로 기록/복원한 Snapshot의 레코드 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로컬 인덱스 반영이 끝난 Entry ID 기록 (Snapshot 재개 위치)
+     */
+    public void processed(StreamEntryID id) {
+        lastProcessed.accumulateAndGet(id, (prev, next) -> prev == null || next.compareTo(prev) > 0 ? next : prev);
+    }
+
+    @PostConstruct
+    public void restore() {
+        GridSpatialIndex index = localIndex.getIfAvailable();
+        if (index == null) {
+            log.warn(">>> [💾 Snapshot] 로컬 인덱스가 비활성화되어 Snapshot을 사용하지 않음 (lbs.local-index.enabled)");
+            return;
+        }
+        if (!Files.exists(path)) {
+            log.info(">>> [💾 Snapshot] {} 없음: 신규 이벤트부터 로컬 인덱스 구성", path);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            LocationSnapshotFile.Summary summary = LocationSnapshotFile.read(path,
+                    (userId, lat, lng, speed, accuracy, timestamp) -> index.update(userId, lat, lng, timestamp));
+            String position = summary.positions().get(POSITION_KEY_PREFIX + streamName);
+            long replayed = position != null ? replaySince(index, new StreamEntryID(position)) : 0;
+            lastRecords.set(summary.records());
+            long elapsed = System.nanoTime() - start;
+            restoreTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info(">>> [💾 Snapshot] 복원 {}건 + Stream 재생 {}건 (마지막 ID {}) | {}ms",
+                    summary.records(), replayed, position, elapsed / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error(">>> [💾 Snapshot] 복원 실패, 신규 이벤트부터 로컬 인덱스 구성: {}", path, e);
+        }
+    }
+
+    /**
+     * Snapshot 위치 직전(replay-overlap)부터 스트림 끝까지 로컬 인덱스에만 반영
+     */
+    private long replaySince(GridSpatialIndex index, StreamEntryID snapshotId) {
+        StreamEntryID from = new StreamEntryID(Math.max(0, snapshotId.getTime() - replayOverlap.toMillis()), 0);
+        long replayed = 0;
+        while (true) {
+            List<StreamEntry> entries = jedis.xrange(streamName, from, StreamEntryID.MAXIMUM_ID, replayBatch);
+            for (StreamEntry entry : entries) {
+                try {
+                    Map<String, String> body = streamCodec.decode(entry.getFields());
+                    if (body.get("trj_id") == null) continue;
+                    index.update(body.get("trj_id"), Double.parseDouble(body.get("rawlat")),
+                            Double.parseDouble(body.get("rawlng")), Long.parseLong(body.get("pingtimestamp")));
+                    replayed++;
+                } catch (RuntimeException e) {
+                    // 정상 소비 경로에서도 건너뛰는 메시지
+                }
+            }
+            if (entries.size() < replayBatch) break;
+            StreamEntryID last = entries.get(entries.size() - 1).getID();
+            from = new StreamEntryID(last.getTime(), last.getSequence() + 1);
+        }
+        processed(snapshotId);
+        return replayed;
+    }
+
+    @Scheduled(initialDelayString = "${lbs.snapshot.interval:60s}", fixedDelayString = "${lbs.snapshot.interval:60s}")
+    public void snapshot() {
+        GridSpatialIndex index = localIndex.getIfAvailable();
+        StreamEntryID position = lastProcessed.get();
+        if (index == null || position == null) return;
+
+        long start = System.nanoTime();
+        try (LocationSnapshotFile.Writer writer =
+                     LocationSnapshotFile.create(path, Map.of(POSITION_KEY_PREFIX + streamName, position.toString()))) {
+            index.forEach(h -> writer.append(h.userId(), h.latitude(), h.longitude(), Double.NaN, Double.NaN, h.timestamp()));
+            long bytes = writer.commit();
+            long elapsed = System.nanoTime() - start;
+            writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastRecords.set(writer.getRecords());
+            log.info(">>> [💾 Snapshot] 기록 {}건 ({}KB) | 마지막 ID {} | {}ms",
+                    writer.getRecords(), bytes >> 10, position, elapsed / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error(">>> [💾 Snapshot] 기록 실패: {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+}
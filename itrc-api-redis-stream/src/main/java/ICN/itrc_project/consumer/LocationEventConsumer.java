@@ -1,54 +1,333 @@
 package ICN.itrc_project.consumer;
 
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.codec.LocationStreamCodec;
+import ICN.itrc_project.geofence.GeofenceMonitor;
+import ICN.itrc_project.ingest.WriteSuppressionFilter;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.metrics.PipelineTrace;
+import ICN.itrc_project.metrics.PipelineTracer;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.stream.MapRecord;
 import org.springframework.data.redis.stream.StreamListener;
 import org.springframework.stereotype.Service;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
 import redis.clients.jedis.UnifiedJedis;
 import redis.clients.jedis.json.Path2;
+import redis.clients.jedis.resps.StreamEntry;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LocationEventConsumer implements StreamListener<String, MapRecord<String, String, String>> {
 
     private final UnifiedJedis jedis;
+    private final LocationStreamCodec streamCodec;
+    private final FreshnessRecorder freshnessRecorder;
+    private final ObjectProvider<GridSpatialIndex> localIndex;  // 로컬 공간 인덱스 (lbs.local-index.enabled 시)
+    private final ObjectProvider<SpatialQueryCache> queryCache; // 질의 결과 캐시 (lbs.query-cache.enabled 시)
+    private final ObjectProvider<PipelineTracer> tracer;        // 파이프라인 구간 추적 (lbs.trace.enabled 시)
+    private final ObjectProvider<LocalIndexSnapshotter> snapshotter; // 로컬 인덱스 Snapshot (lbs.snapshot.enabled 시)
+    private final ObjectProvider<WriteSuppressionFilter> writeFilter; // 쓰기 억제 필터 (lbs.write-filter.enabled 시)
+    private final ObjectProvider<GeofenceMonitor> geofenceMonitor; // Geofence 진입/이탈 평가 (lbs.geofence.enabled 시)
+    private final ObjectProvider<TrajectoryStore> trajectoryStore; // 궤적 이력 Append (lbs.trajectory.enabled 시)
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String streamName;
+    private final String groupName;
 
+    public LocationEventConsumer(UnifiedJedis jedis,
+                                 LocationStreamCodec streamCodec,
+                                 FreshnessRecorder freshnessRecorder,
+                                 ObjectProvider<GridSpatialIndex> localIndex,
+                                 ObjectProvider<SpatialQueryCache> queryCache,
+                                 ObjectProvider<PipelineTracer> tracer,
+                                 ObjectProvider<LocalIndexSnapshotter> snapshotter,
+                                 ObjectProvider<WriteSuppressionFilter> writeFilter,
+                                 ObjectProvider<GeofenceMonitor> geofenceMonitor,
+                                 ObjectProvider<TrajectoryStore> trajectoryStore,
+                                 @Value("${lbs.stream.name:lbs_stream}") String streamName,
+                                 @Value("${lbs.stream.group:lbs_group}") String groupName) {
+        this.jedis = jedis;
+        this.streamCodec = streamCodec;
+        this.freshnessRecorder = freshnessRecorder;
+        this.localIndex = localIndex;
+        this.queryCache = queryCache;
+        this.tracer = tracer;
+        this.snapshotter = snapshotter;
+        this.writeFilter = writeFilter;
+        this.geofenceMonitor = geofenceMonitor;
+        this.trajectoryStore = trajectoryStore;
+        this.streamName = streamName;
+        this.groupName = groupName;
+    }
+
+    /**
+     * [LISTENER 모드] 메시지 단건 처리 후 XACK (처리 완료된 메시지가 PEL에 남지 않도록 함)
+     */
     @Override
     public void onMessage(MapRecord<String, String, String> message) {
-        log.info(">>>>>> [Redis Stream 컨슈머] 메시지 수신 성공! ID: {}", message.getId());
+        long receivedAt = System.currentTimeMillis();
+        PipelineTrace trace = PipelineTrace.decode(message.getValue().get(LocationStreamCodec.TRACE_FIELD));
+        if (trace != null) trace.hop("poll");
+        if (log.isDebugEnabled()) {
+            log.debug(">>>>>> [Redis Stream 컨슈머] 메시지 수신 성공! ID: {}", message.getId());
+        }
 
+        StreamEntryID id = new StreamEntryID(message.getId().getValue());
         try {
-            // 1. 스트림에서 수신한 메시지 본문 추출
-            Map<String, String> body = message.getValue();
+            // 1. 스트림에서 수신한 메시지 본문 추출 (BINARY 인코딩 레코드는 문자열 필드로 복원)
+            Map<String, String> body;
+            try {
+                body = streamCodec.decode(message.getValue());
+            } catch (IllegalArgumentException e) {
+                // 손상된 레코드는 재처리해도 같은 결과이므로 XACK (PEL/XAUTOCLAIM 재전달 반복 방지)
+                log.warn("메시지 디코딩 실패 (건너뜀): ID {} | 사유:{}", message.getId(), e.getMessage());
+                jedis.xack(streamName, groupName, id);
+                return;
+            }
+            if (trace != null) trace.hop("decode");
 
-            // 2. 검색 인덱싱을 위한 키 생성 (기존 인덱스 PREFIX 'rider:' 사용)
-            String trjId = body.get("trj_id");
-            String redisKey = "rider:" + trjId;
+            // 궤적 이력은 수신 시점에 기록: 억제되거나 JSON.SET이 실패한 Ping도 이력에는 남김 (재전달 시 같은 timestamp는 거부됨)
+            trajectoryStore.ifAvailable(store -> appendHistory(store, body));
 
-            // 3. RedisJSON 저장을 위해 데이터 타입 변환 (String -> Numeric)
-            Map<String, Object> numericBody = new HashMap<>(body);
-            try {
-                if (body.get("pingtimestamp") != null) numericBody.put("pingtimestamp", Long.parseLong(body.get("pingtimestamp")));
-                if (body.get("speed") != null) numericBody.put("speed", Double.parseDouble(body.get("speed")));
-                if (body.get("bearing") != null) numericBody.put("bearing", Integer.parseInt(body.get("bearing")));
-                if (body.get("accuracy") != null) numericBody.put("accuracy", Double.parseDouble(body.get("accuracy")));
-            } catch (Exception e) {
-                log.warn("데이터 타입 변환 중 경미한 오류 발생 (원본 유지): {}", e.getMessage());
+            // 순서 역전/정지/예측 범위 안의 Ping은 JSON.SET 없이 XACK만 수행
+            if (isSuppressed(writeFilter.getIfAvailable(), body)) {
+                snapshotter.ifAvailable(s -> s.processed(id));
+                jedis.xack(streamName, groupName, id);
+                return;
             }
 
-            // 4. RedisJSON 타입으로 데이터 저장 (검색 인덱스에 자동 반영됨)
-            String jsonString = objectMapper.writeValueAsString(numericBody);
-            jedis.jsonSet(redisKey, Path2.ROOT_PATH, jsonString);
+            // 2~4. RedisJSON 타입으로 데이터 저장 (검색 인덱스에 자동 반영됨)
+            String document = toJsonDocument(body);
+            if (trace != null) trace.hop("serialize");
+            jedis.jsonSet(redisKeyOf(body), Path2.ROOT_PATH, document);
+            if (trace != null) trace.hop("json-set");
+            commitWritten(writeFilter.getIfAvailable(), body); // JSON.SET 성공 후에만 억제 기준 갱신
+
+            // 5. 활성화된 경우 JVM 내부 공간 인덱스 반영 (로컬 조회용), 질의 캐시에 쓰기 위치 기록, Geofence 평가
+            afterWrite(body);
+
+            // 6. 신선도/구간 지연 기록 (Entry ID의 ms 부분 = XADD 적재 시각)
+            freshnessRecorder.record(parseLongOrZero(body.get("pingtimestamp")), message.getId().getTimestamp(),
+                    receivedAt, System.currentTimeMillis());
+            if (trace != null) tracer.ifAvailable(t -> t.complete(body.get("trj_id"), trace));
 
+            snapshotter.ifAvailable(s -> s.processed(id));
+            jedis.xack(streamName, groupName, id);
         } catch (Exception e) {
             log.error("메시지 처리 실패: ID {}", message.getId(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * [BATCH 모드] XREADGROUP COUNT 단위로 읽은 메시지 묶음 처리
+     * - 동일 trj_id는 최신 pingtimestamp 1건만 저장 (배치 내 중복 JSON.SET 제거)
+     * - JSON.SET 전체를 단일 Jedis Pipeline으로 전송하고, 응답마다 성공 여부 확인
+     * - 저장에 실패한 trj_id의 메시지는 XACK하지 않고 PEL에 남겨 XAUTOCLAIM으로 재처리
+     *
+     * @return XACK 대상 ID (저장 성공 메시지 + 디코딩/변환 실패·억제 메시지: 재처리해도 결과가 같으므로 PEL에서 제거)
+     */
+    public StreamEntryID[] handleBatch(List<StreamEntry> entries) {
+        long receivedAt = System.currentTimeMillis();
+        long polledMicros = PipelineTrace.nowMicros();
+        Map<String, Latest> latestByKey = new LinkedHashMap<>(entries.size() * 2);
+        Map<String, List<StreamEntryID>> idsByKey = new HashMap<>(entries.size() * 2);
+        List<StreamEntryID> ackIds = new ArrayList<>(entries.size());
+        WriteSuppressionFilter filter = writeFilter.getIfAvailable();
+        TrajectoryStore history = trajectoryStore.getIfAvailable();
+
+        for (StreamEntry entry : entries) {
+            Map<String, String> body = decodeOrNull(entry);
+            if (body == null || body.get("trj_id") == null) {
+                ackIds.add(entry.getID());
+                continue;
+            }
+            // 궤적 이력은 억제/병합/JSON.SET 결과와 무관하게 수신한 모든 Ping 기록
+            if (history != null) appendHistory(history, body);
+            if (isSuppressed(filter, body)) {
+                ackIds.add(entry.getID());
+                continue;
+            }
+            String key = redisKeyOf(body);
+            idsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getID());
+            latestByKey.merge(key, new Latest(body, entry.getID(), entry.getFields().get(LocationStreamCodec.TRACE_FIELD)),
+                    (prev, next) -> next.timestamp() >= prev.timestamp() ? next : prev);
+        }
+
+        Map<String, Response<String>> responses = new HashMap<>(latestByKey.size() * 2);
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            for (Map.Entry<String, Latest> latest : latestByKey.entrySet()) {
+                try {
+                    responses.put(latest.getKey(), pipeline.jsonSet(latest.getKey(), Path2.ROOT_PATH, toJsonDocument(latest.getValue().body())));
+                } catch (JsonProcessingException e) {
+                    // 직렬화 실패는 재처리해도 같으므로 XACK
+                    log.warn("메시지 직렬화 실패 (건너뜀): key {}", latest.getKey());
+                    ackIds.addAll(idsByKey.get(latest.getKey()));
+                }
+            }
+            pipeline.sync();
+        }
+
+        long storedAt = System.currentTimeMillis();
+        long storedMicros = PipelineTrace.nowMicros();
+        PipelineTracer activeTracer = tracer.getIfAvailable();
+        StreamEntryID firstFailed = null;
+        for (Map.Entry<String, Response<String>> response : responses.entrySet()) {
+            Latest latest = latestByKey.get(response.getKey());
+            List<StreamEntryID> ids = idsByKey.get(response.getKey());
+            try {
+                response.getValue().get();
+            } catch (RuntimeException e) {
+                // 실패한 trj_id는 억제 기준/부가 반영 없이 PEL에 남김 (재전달 시 다시 기록 대상)
+                log.warn("JSON.SET 실패 (재처리 대기): trj_id {} | 사유:{}", latest.body().get("trj_id"), e.getMessage());
+                StreamEntryID oldest = ids.get(0);
+                if (firstFailed == null || oldest.compareTo(firstFailed) < 0) firstFailed = oldest;
+                continue;
+            }
+            ackIds.addAll(ids);
+            commitWritten(filter, latest.body());
+            afterWrite(latest.body());
+            freshnessRecorder.record(latest.timestamp(), latest.id().getTime(), receivedAt, storedAt);
+            if (activeTracer != null && latest.trace() != null) {
+                // 배치 단위 처리이므로 디코딩/직렬화/Pipeline 구간은 json-set 하나로 기록
+                PipelineTrace trace = PipelineTrace.decode(latest.trace());
+                if (trace != null) activeTracer.complete(latest.body().get("trj_id"), trace.hop("poll", polledMicros).hop("json-set", storedMicros));
+            }
+        }
+        markProcessed(entries, firstFailed);
+        return ackIds.toArray(StreamEntryID[]::new);
+    }
+
+    /**
+     * Snapshot 재개 위치는 처음 실패한 메시지 직전까지만 전진 (실패 메시지가 재처리 전 Snapshot에서 누락되지 않도록)
+     */
+    private void markProcessed(List<StreamEntry> entries, StreamEntryID firstFailed) {
+        StreamEntryID last = null;
+        for (StreamEntry entry : entries) {
+            if (firstFailed != null && entry.getID().compareTo(firstFailed) >= 0) continue;
+            if (last == null || entry.getID().compareTo(last) > 0) last = entry.getID();
+        }
+        if (last == null) return;
+        StreamEntryID processed = last;
+        snapshotter.ifAvailable(s -> s.processed(processed));
+    }
+
+    /**
+     * 배치 내 사용자별 최신 메시지 (구간 지연 기록을 위해 Entry ID와 PipelineTrace 유지)
+     */
+    private record Latest(Map<String, String> body, StreamEntryID id, String trace) {
+        long timestamp() {
+            return parseLongOrZero(body.get("pingtimestamp"));
+        }
+    }
+
+    /**
+     * 억제된 Ping도 XACK 대상 (저장할 필요가 없으므로 PEL에서 제거)
+     */
+    private boolean isSuppressed(WriteSuppressionFilter filter, Map<String, String> body) {
+        if (filter == null) return false;
+        try {
+            return !filter.evaluate(body.get("trj_id"), Double.parseDouble(body.get("rawlat")), Double.parseDouble(body.get("rawlng")),
+                    parseDoubleOrNull(body.get("speed")), parseDoubleOrNull(body.get("bearing")),
+                    parseDoubleOrNull(body.get("accuracy")), Long.parseLong(body.get("pingtimestamp"))).isWrite();
+        } catch (RuntimeException e) {
+            return false; // 판정 불가 메시지는 기존 경로로 처리
+        }
+    }
+
+    private void commitWritten(WriteSuppressionFilter filter, Map<String, String> body) {
+        if (filter == null) return;
+        try {
+            filter.commit(body.get("trj_id"), Double.parseDouble(body.get("rawlat")), Double.parseDouble(body.get("rawlng")),
+                    parseDoubleOrNull(body.get("speed")), parseDoubleOrNull(body.get("bearing")),
+                    Long.parseLong(body.get("pingtimestamp")));
+        } catch (RuntimeException e) {
+            // 판정 불가 메시지는 억제 기준에 반영하지 않음
+        }
+    }
+
+    private Map<String, String> decodeOrNull(StreamEntry entry) {
+        if (entry.getFields() == null) return null;
+        try {
+            return streamCodec.decode(entry.getFields());
+        } catch (IllegalArgumentException e) {
+            log.warn("메시지 디코딩 실패 (건너뜀): ID {} | 사유:{}", entry.getID(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 검색 인덱싱을 위한 키 생성 (기존 인덱스 PREFIX 'rider:' 사용)
+     */
+    private String redisKeyOf(Map<String, String> body) {
+        return "rider:" + body.get("trj_id");
+    }
+
+    /**
+     * RedisJSON 저장을 위해 데이터 타입 변환 (String -> Numeric) 후 JSON 직렬화
+     */
+    private String toJsonDocument(Map<String, String> body) throws JsonProcessingException {
+        Map<String, Object> numericBody = new HashMap<>(body);
+        try {
+            if (body.get("pingtimestamp") != null) numericBody.put("pingtimestamp", Long.parseLong(body.get("pingtimestamp")));
+            if (body.get("speed") != null) numericBody.put("speed", Double.parseDouble(body.get("speed")));
+            if (body.get("bearing") != null) numericBody.put("bearing", Integer.parseInt(body.get("bearing")));
+            if (body.get("accuracy") != null) numericBody.put("accuracy", Double.parseDouble(body.get("accuracy")));
+        } catch (Exception e) {
+            log.warn("데이터 타입 변환 중 경미한 오류 발생 (원본 유지): {}", e.getMessage());
+        }
+        return objectMapper.writeValueAsString(numericBody);
+    }
+
+    private void afterWrite(Map<String, String> body) {
+        if (localIndex.getIfAvailable() == null && queryCache.getIfAvailable() == null
+                && geofenceMonitor.getIfAvailable() == null) return;
+        double lat = Double.parseDouble(body.get("rawlat"));
+        double lng = Double.parseDouble(body.get("rawlng"));
+        long timestamp = Long.parseLong(body.get("pingtimestamp"));
+        localIndex.ifAvailable(index -> index.update(body.get("trj_id"), lat, lng, timestamp));
+        queryCache.ifAvailable(cache -> cache.recordWrite(lat, lng));
+        geofenceMonitor.ifAvailable(monitor -> monitor.onLocation(body.get("trj_id"), lat, lng, timestamp));
+    }
+
+    /**
+     * 좌표/시각이 없는 메시지는 궤적 이력에서 제외
+     */
+    private void appendHistory(TrajectoryStore store, Map<String, String> body) {
+        try {
+            store.append(body.get("trj_id"), Double.parseDouble(body.get("rawlat")), Double.parseDouble(body.get("rawlng")),
+                    Long.parseLong(body.get("pingtimestamp")));
+        } catch (RuntimeException e) {
+            log.debug("궤적 이력 기록 제외: trj_id {} | 사유:{}", body.get("trj_id"), e.getMessage());
+        }
+    }
+
+    private static Double parseDoubleOrNull(String value) {
+        try {
+            return value == null ? null : Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null; // 필드 누락 시 "null" 문자열로 기록됨
+        }
+    }
+
+    private static long parseLongOrZero(String value) {
+        try {
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
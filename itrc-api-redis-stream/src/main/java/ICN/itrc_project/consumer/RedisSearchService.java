@@ -1,15 +1,39 @@
 package ICN.itrc_project.consumer;
 
+import ICN.itrc_project.cache.SpatialQueryCache;
 import ICN.itrc_project.dto.LocationRequest;  // common 모듈 DTO
 import ICN.itrc_project.dto.LocationResponse; // common 모듈 DTO
+import ICN.itrc_project.dto.PolygonRequest;
+import ICN.itrc_project.paging.CursorPage;
+import ICN.itrc_project.paging.PageCursor;
+import ICN.itrc_project.search.AdaptiveKnnExecutor;
+import ICN.itrc_project.search.H3PolygonCover;
+import ICN.itrc_project.search.H3PolygonCoverCache;
+import ICN.itrc_project.spatial.GeoMath;
 import com.uber.h3core.H3Core;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.search.Document;
 import redis.clients.jedis.search.Query;
 import redis.clients.jedis.search.SearchResult;
+import redis.clients.jedis.search.aggr.AggregationBuilder;
+import redis.clients.jedis.search.aggr.AggregationResult;
+import redis.clients.jedis.search.aggr.SortedField;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,34 +42,64 @@ public class RedisSearchService {
 
     private final UnifiedJedis jedis;
     private final H3Core h3;
+    private final ObjectProvider<SpatialQueryCache> queryCache; // 질의 결과 캐시 (lbs.query-cache.enabled 시)
+    private final ObjectProvider<AdaptiveKnnExecutor> knnExecutor; // 반경 확장 KNN (lbs.knn.adaptive 시)
 
-    public RedisSearchService(UnifiedJedis jedis) throws Exception {
+    private final H3PolygonCoverCache pipCovers;
+    private final String pipStrategy;
+    private final int pipMaxCells;
+    private final DistributionSummary h3PipCandidates;
+    private final DistributionSummary circlePipCandidates;
+
+    private static final int POLYGON_READ_BATCH = 1_000; // 다각형 전체 조회 시 Cursor 1회 읽기 건수
+    private static final int H3_RESOLUTION = 9; // 저장 시 h3_index 해상도 (LocationStreamCodec)
+    private static final String SEARCH_INDEX = "rider_idx";
+    private static final String[] SCAN_FIELDS = {"@trj_id", "@rawlat", "@rawlng", "@h3_index", "@driving_mode"}; // fromDocument 필드
+    private static final String[] KNN_FIELDS = {"@trj_id", "@rawlat", "@rawlng", "@h3_index", "@driving_mode", "@location"};
+    private static final long CURSOR_MAX_IDLE_MILLIS = 300_000; // 페이지 요청 사이 최대 대기
+
+    public RedisSearchService(UnifiedJedis jedis,
+                              ObjectProvider<SpatialQueryCache> queryCache,
+                              ObjectProvider<AdaptiveKnnExecutor> knnExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${lbs.pip.strategy:h3}") String pipStrategy,
+                              @Value("${lbs.pip.max-cells:2000}") int pipMaxCells,
+                              @Value("${lbs.pip.cover-cache-size:256}") long pipCoverCacheSize) throws Exception {
         this.jedis = jedis;
         this.h3 = H3Core.newInstance();
+        this.pipCovers = new H3PolygonCoverCache(h3, pipCoverCacheSize);
+        this.queryCache = queryCache;
+        this.knnExecutor = knnExecutor;
+        this.pipStrategy = pipStrategy;
+        this.pipMaxCells = pipMaxCells;
+        this.h3PipCandidates = pipCandidateSummary(meterRegistry, "h3");
+        this.circlePipCandidates = pipCandidateSummary(meterRegistry, "circle");
     }
 
     // 1. 반경 검색: @location:[경도 위도 반경 단위] 순서 엄격 준수
     public List<LocationResponse> searchByRange(LocationRequest center, double radiusKm) {
         log.info("Redis Range Search Start - Radius: {}km", radiusKm);
 
-        // @location:[경도 위도 반경 단위]
-        String queryStr = String.format("@location:[%f %f %f km]",
-                center.getLongitude(), center.getLatitude(), radiusKm);
-
-        return executeSearch(new Query(queryStr));
+        // @location:[경도 위도 반경 단위] (질의 캐시는 미터 단위 반경으로 적재)
+        return cachedRange(center, radiusKm * 1000, radiusMeter -> executeSearch(new Query(String.format("@location:[%f %f %f km]",
+                center.getLongitude(), center.getLatitude(), radiusMeter / 1000))));
     }
 
-    // 2. KNN 검색: 특정 범위(50km) 내 필터링 후 거리순 정렬하여 K명 추출
+    // 2. KNN 검색: 추정 반경에서 시작하여 K명 확보 시까지 GeoFilter 반경 확장 (lbs.knn.adaptive=false 시 50km 고정 필터)
     public List<LocationResponse> searchByKnn(LocationRequest center, int k) {
         log.info("Redis KNN Search Start - K: {}", k);
 
+        AdaptiveKnnExecutor knn = knnExecutor.getIfAvailable();
+        if (knn != null) {
+            return cachedKnn(center, k, count -> knn.nearest("redis-search", center.getLatitude(), center.getLongitude(), count,
+                    (radius, limit) -> nearestWithin(center, radius, limit), LocationResponse::getDistanceMeter));
+        }
+
         // 필터링 후 거리순 정렬하여 상위 K개 추출
-        Query query = new Query("*")
+        return cachedKnn(center, k, count -> executeSearch(new Query("*")
                 .addFilter(new Query.GeoFilter("location", center.getLongitude(), center.getLatitude(), 50, "km"))
                 .setSortBy("location", true)
-                .limit(0, k);
-
-        return executeSearch(query);
+                .limit(0, count)));
     }
 
     // 3. H3 구역 검색: 해상도 9 기반 PIP(Point-In-Polygon) 최적화 조회
@@ -59,6 +113,194 @@ public class RedisSearchService {
         return executeSearch(query);
     }
 
+    // 4. 다각형 검색: 저장된 h3_index(해상도 9) 태그로 Cell Cover만 조회 후 경계 셀 개체만 정밀 PIP
+    //    (Cover 셀 수가 max-cells 초과이거나 strategy=circle 이면 Bounding Circle GeoFilter 후 전 개체 PIP)
+    //    후보는 건수 상한 없이 Aggregate Cursor로 끝까지 읽음 (결과가 매우 큰 다각형은 /pip/page, /pip/stream 사용)
+    public List<LocationResponse> searchByPolygon(PolygonRequest polygon) {
+        log.info("Redis Polygon Search Start - Vertices: {}", polygon.latArray().length);
+
+        DocumentScan scan = polygonScan(polygon);
+        List<LocationResponse> found = new ArrayList<>();
+        long candidates = stream(scan, POLYGON_READ_BATCH, found::add);
+        scan.candidates().record(candidates);
+        return found;
+    }
+
+    // 5. 대용량 결과: FT.AGGREGATE WITHCURSOR로 서버 Cursor를 열고 FT.CURSOR READ로 이어 읽어 페이지/스트림으로 전달
+    //    (요청당 메모리는 페이지 크기로 제한, LIMIT offset과 달리 페이지마다 앞부분을 다시 건너뛰지 않고 순서도 Cursor 안에서 고정)
+    //    페이지 Cursor는 서버 Cursor ID이며 CURSOR_MAX_IDLE 동안 다음 페이지 요청이 없으면 서버가 해제함
+    public CursorPage<LocationResponse> pageByRange(LocationRequest center, double radiusKm, int size, String cursor) {
+        return page(rangeScan(center, radiusKm), size, cursor);
+    }
+
+    public void streamByRange(LocationRequest center, double radiusKm, int batch, Consumer<LocationResponse> sink) {
+        stream(rangeScan(center, radiusKm), batch, sink);
+    }
+
+    public CursorPage<LocationResponse> pageByPolygon(PolygonRequest polygon, int size, String cursor) {
+        return page(polygonScan(polygon), size, cursor);
+    }
+
+    public void streamByPolygon(PolygonRequest polygon, int batch, Consumer<LocationResponse> sink) {
+        stream(polygonScan(polygon), batch, sink);
+    }
+
+    private DocumentScan rangeScan(LocationRequest center, double radiusKm) {
+        String queryStr = String.format("@location:[%f %f %f km]", center.getLongitude(), center.getLatitude(), radiusKm);
+        return new DocumentScan(queryStr, UnaryOperator.identity(), null);
+    }
+
+    /**
+     * 해상도 9 예상 셀 수가 max-cells 이하이면 H3 Cover 태그 조회, 아니면(또는 strategy=circle) Bounding Circle 조회 후 판정
+     */
+    private DocumentScan polygonScan(PolygonRequest polygon) {
+        double[] lats = polygon.latArray();
+        double[] lngs = polygon.lngArray();
+        double[] center = boundingCenter(lats, lngs);
+
+        boolean h3Cover = !"circle".equalsIgnoreCase(pipStrategy)
+                && H3PolygonCover.chooseResolution(h3, lats, lngs, H3_RESOLUTION - 1, H3_RESOLUTION, pipMaxCells) == H3_RESOLUTION;
+        if (h3Cover) {
+            H3PolygonCover cover = pipCovers.get(lats, lngs, H3_RESOLUTION);
+            String tags = cover.allCells().stream().map(h3::h3ToString).collect(Collectors.joining("|"));
+            return new DocumentScan("@h3_index:{" + tags + "}", response ->
+                    cover.accepts(h3.stringToH3(response.getH3Index()), response.getLatitude(), response.getLongitude())
+                            ? withDistance(response, center) : null, h3PipCandidates);
+        }
+
+        double radius = GeoMath.distanceMeter(
+                Arrays.stream(lats).min().orElseThrow(), Arrays.stream(lngs).min().orElseThrow(),
+                Arrays.stream(lats).max().orElseThrow(), Arrays.stream(lngs).max().orElseThrow()) * 1.1 / 2;
+        return new DocumentScan(
+                String.format("@location:[%f %f %f m]", center[1], center[0], radius),
+                response -> GeoMath.contains(lats, lngs, response.getLatitude(), response.getLongitude())
+                        ? withDistance(response, center) : null, circlePipCandidates);
+    }
+
+    private CursorPage<LocationResponse> page(DocumentScan scan, int size, String cursor) {
+        long cursorId = PageCursor.decodeLong(cursor, 0L);
+        if (cursorId < 0) throw new IllegalArgumentException("Malformed page cursor");
+        List<LocationResponse> items = new ArrayList<>(size);
+        long next = scan(scan, cursorId, size, items::add).cursorId();
+        return CursorPage.of(items, next != 0 ? PageCursor.encode(next) : null);
+    }
+
+    /**
+     * @return 읽은 후보 수 (판정에서 제외된 결과 포함)
+     */
+    private long stream(DocumentScan scan, int batch, Consumer<LocationResponse> sink) {
+        long cursorId = 0;
+        long rows = 0;
+        try {
+            do {
+                ScanStep step = scan(scan, cursorId, batch, sink);
+                cursorId = step.cursorId();
+                rows += step.rows();
+            } while (cursorId != 0);
+            return rows;
+        } finally {
+            // 전송 중단(클라이언트 연결 종료 등) 시 서버 Cursor를 바로 해제
+            if (cursorId != 0) jedis.ftCursorDel(SEARCH_INDEX, cursorId);
+        }
+    }
+
+    /**
+     * 서버 Cursor(0이면 새로 열기)에서 판정을 통과한 결과를 최대 limit건 전달
+     * - 읽기 건수를 남은 건수로 맞춰, 서버에서 꺼낸 행이 페이지 경계에서 버려지지 않도록 함
+     *
+     * @return 이어 읽을 Cursor ID (남은 결과가 없으면 0)와 읽은 행 수
+     */
+    private ScanStep scan(DocumentScan scan, long cursorId, int limit, Consumer<LocationResponse> sink) {
+        int emitted = 0;
+        int rows = 0;
+        while (true) {
+            int count = Math.max(limit - emitted, 1);
+            AggregationResult result = cursorId == 0
+                    ? jedis.ftAggregate(SEARCH_INDEX, new AggregationBuilder(scan.query()).load(SCAN_FIELDS).cursor(count, CURSOR_MAX_IDLE_MILLIS))
+                    : readCursor(cursorId, count);
+            for (Map<String, Object> row : result.getResults()) {
+                rows++;
+                LocationResponse response = scan.accept().apply(LocationResponse.fromDocument(new Document(null, row)));
+                if (response == null) continue;
+                sink.accept(response);
+                emitted++;
+            }
+            cursorId = result.getCursorId() != null ? result.getCursorId() : 0;
+            if (cursorId == 0 || emitted >= limit) return new ScanStep(cursorId, rows);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 만료(CURSOR_MAX_IDLE 초과)되었거나 존재하지 않는 Cursor
+     */
+    private AggregationResult readCursor(long cursorId, int count) {
+        try {
+            return jedis.ftCursorRead(SEARCH_INDEX, cursorId, count);
+        } catch (JedisDataException e) {
+            throw new IllegalArgumentException("Expired or unknown page cursor", e);
+        }
+    }
+
+    /**
+     * 증분 조회 단위: FT.AGGREGATE 질의 문자열 + 결과 판정/변환 (제외 시 null) + 후보 수 지표 (PIP 전략별, 반경은 null)
+     */
+    private record DocumentScan(String query, UnaryOperator<LocationResponse> accept, DistributionSummary candidates) {
+    }
+
+    private record ScanStep(long cursorId, int rows) {
+    }
+
+    private static double[] boundingCenter(double[] lats, double[] lngs) {
+        return new double[]{
+                (Arrays.stream(lats).min().orElseThrow() + Arrays.stream(lats).max().orElseThrow()) / 2,
+                (Arrays.stream(lngs).min().orElseThrow() + Arrays.stream(lngs).max().orElseThrow()) / 2};
+    }
+
+    private static LocationResponse withDistance(LocationResponse response, double[] center) {
+        response.setDistanceMeter(GeoMath.distanceMeter(center[0], center[1], response.getLatitude(), response.getLongitude()));
+        return response;
+    }
+
+    private static DistributionSummary pipCandidateSummary(MeterRegistry meterRegistry, String strategy) {
+        return DistributionSummary.builder("location.pip.candidates")
+                .description("PIP 1회당 Redis에서 가져온 후보 개체 수")
+                .tags("backend", "redis-search", "strategy", strategy)
+                .register(meterRegistry);
+    }
+
+    /**
+     * GeoFilter 반경 내 개체를 서버에서 중심점 거리(geodistance)로 정렬하여 상위 limit개 반환
+     * - 후보를 건수 상한까지 가져와 클라이언트에서 정렬하면 상한을 넘는 반경에서 임의의 일부만 정렬하게 되므로,
+     *   SORTBY MAX로 서버가 반경 안 전체에서 상위 limit개만 유지 (반경 안 개체 수와 무관하게 정확한 k-최근접)
+     */
+    private List<LocationResponse> nearestWithin(LocationRequest center, double radiusMeter, int limit) {
+        double lat = center.getLatitude();
+        double lng = center.getLongitude();
+        AggregationBuilder aggregation = new AggregationBuilder(String.format("@location:[%f %f %f m]", lng, lat, radiusMeter))
+                .load(KNN_FIELDS)
+                .apply(String.format("geodistance(@location, %f, %f)", lng, lat), "dist")
+                .sortBy(limit, SortedField.asc("@dist"))
+                .limit(0, limit);
+
+        return jedis.ftAggregate(SEARCH_INDEX, aggregation).getResults().stream()
+                .map(row -> LocationResponse.fromDocument(new Document(null, row))) // dist → distanceMeter
+                .collect(Collectors.toList());
+    }
+
+    // 질의 캐시가 활성화된 경우 캐시를 거쳐 조회, 아니면 바로 조회 (캐시는 요청보다 넓은 반경/많은 개수로 loader를 호출)
+    private List<LocationResponse> cachedRange(LocationRequest center, double radiusMeter,
+                                               DoubleFunction<List<LocationResponse>> loader) {
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        if (cache == null) return loader.apply(radiusMeter);
+        return cache.range(center.getLatitude(), center.getLongitude(), radiusMeter, loader, LocationResponse.LOCATED);
+    }
+
+    private List<LocationResponse> cachedKnn(LocationRequest center, int k, IntFunction<List<LocationResponse>> loader) {
+        SpatialQueryCache cache = queryCache.getIfAvailable();
+        if (cache == null) return loader.apply(k);
+        return cache.knn(center.getLatitude(), center.getLongitude(), k, loader, LocationResponse.LOCATED);
+    }
+
     // 공통 검색 실행 로직
     private List<LocationResponse> executeSearch(Query query) {
         // rider_idx 인덱스 사용
@@ -0,0 +1,219 @@
+package ICN.itrc_project.consumer;
+
+import ICN.itrc_project.config.StreamConsumerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.resps.StreamPendingSummary;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream Consumer Engine: 인스턴스당 N개의 Consumer로 Consumer Group을 병렬 소비
+ * - XREADGROUP COUNT/BLOCK으로 배치 단위 수신 → Pipeline JSON.SET → 일괄 XACK
+ * - 주기적으로 XAUTOCLAIM을 수행하여 장애/재시작으로 방치된 Pending 메시지를 회수 (PEL 무한 증가 방지)
+ * - Consumer 이름이 인스턴스별로 고유하므로 인스턴스를 늘리면 같은 그룹 내에서 수평 확장됨
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lbs.stream.consumer", name = "mode", havingValue = "BATCH")
+public class StreamConsumerEngine {
+
+    private static final long ERROR_BACKOFF_MS = 1_000;
+
+    private final UnifiedJedis jedis;
+    private final LocationEventConsumer handler;
+    private final StreamConsumerProperties properties;
+    private final String streamName;
+    private final String groupName;
+
+    private final Counter consumedCounter;
+    private final Counter claimedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicInteger activeConsumers = new AtomicInteger();
+
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public StreamConsumerEngine(UnifiedJedis jedis,
+                                LocationEventConsumer handler,
+                                StreamConsumerProperties properties,
+                                MeterRegistry meterRegistry,
+                                @Value("${lbs.stream.name:lbs_stream}") String streamName,
+                                @Value("${lbs.stream.group:lbs_group}") String groupName) {
+        this.jedis = jedis;
+        this.handler = handler;
+        this.properties = properties;
+        this.streamName = streamName;
+        this.groupName = groupName;
+
+        this.consumedCounter = Counter.builder("location.stream.consumer.consumed")
+                .description("처리 후 XACK된 메시지 수")
+                .register(meterRegistry);
+        this.claimedCounter = Counter.builder("location.stream.consumer.claimed")
+                .description("XAUTOCLAIM으로 회수하여 재처리한 Pending 메시지 수")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("location.stream.consumer.batch.size")
+                .description("XREADGROUP 1회당 수신 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder("location.stream.consumer.pending", pendingCount, AtomicLong::get)
+                .description("Consumer Group의 미확인(PEL) 메시지 수 (XAUTOCLAIM 주기마다 갱신)")
+                .register(meterRegistry);
+        Gauge.builder("location.stream.consumer.active", activeConsumers, AtomicInteger::get)
+                .description("현재 인스턴스에서 실행 중인 Consumer 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ensureGroup();
+
+        int consumers = properties.resolveConsumers();
+        String prefix = Objects.requireNonNullElseGet(properties.getNamePrefix(), StreamConsumerEngine::defaultNamePrefix);
+        running = true;
+        workers = Executors.newFixedThreadPool(consumers, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("stream-consumer-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < consumers; i++) {
+            String consumerName = prefix + "-" + i;
+            workers.submit(() -> runConsumer(consumerName));
+        }
+        log.info(">>> [📥 Stream Engine] {}개 Consumer 시작 | group:{} | COUNT:{} | BLOCK:{}ms",
+                consumers, groupName, properties.getBatchSize(), properties.getBlock().toMillis());
+    }
+
+    private void runConsumer(String consumerName) {
+        activeConsumers.incrementAndGet();
+        XReadGroupParams readParams = XReadGroupParams.xReadGroupParams()
+                .count(properties.getBatchSize())
+                .block((int) properties.getBlock().toMillis());
+        Map<String, StreamEntryID> offsets = Map.of(streamName, StreamEntryID.XREADGROUP_UNDELIVERED_ENTRY);
+        long nextClaimAt = System.nanoTime();
+
+        try {
+            while (running) {
+                try {
+                    if (System.nanoTime() - nextClaimAt >= 0) {
+                        reclaimPending(consumerName);
+                        nextClaimAt = System.nanoTime() + properties.getClaimInterval().toNanos();
+                    }
+
+                    List<Map.Entry<String, List<StreamEntry>>> result = jedis.xreadGroup(groupName, consumerName, readParams, offsets);
+                    if (result == null) continue;
+                    for (Map.Entry<String, List<StreamEntry>> stream : result) {
+                        processAndAck(stream.getValue());
+                    }
+                } catch (Exception e) {
+                    if (!running) break;
+                    log.error(">>> [⚠️ Stream Engine] Consumer {} 처리 실패 | 사유:{}", consumerName, e.getMessage());
+                    sleepQuietly(ERROR_BACKOFF_MS);
+                }
+            }
+        } finally {
+            activeConsumers.decrementAndGet();
+        }
+    }
+
+    /**
+     * minIdle 이상 방치된 Pending 메시지를 현재 Consumer로 가져와 재처리
+     */
+    private void reclaimPending(String consumerName) {
+        XAutoClaimParams claimParams = XAutoClaimParams.xAutoClaimParams().count(properties.getBatchSize());
+        long minIdleMs = properties.getClaimMinIdle().toMillis();
+        StreamEntryID cursor = StreamEntryID.MINIMUM_ID;
+
+        do {
+            Map.Entry<StreamEntryID, List<StreamEntry>> claimed =
+                    jedis.xautoclaim(streamName, groupName, consumerName, minIdleMs, cursor, claimParams);
+            List<StreamEntry> entries = claimed.getValue().stream().filter(Objects::nonNull).toList();
+            if (!entries.isEmpty()) {
+                claimedCounter.increment(entries.size());
+                processAndAck(entries);
+            }
+            cursor = claimed.getKey();
+        } while (running && !StreamEntryID.MINIMUM_ID.equals(cursor));
+
+        StreamPendingSummary summary = jedis.xpending(streamName, groupName);
+        pendingCount.set(summary.getTotal());
+    }
+
+    private void processAndAck(List<StreamEntry> entries) {
+        if (entries == null || entries.isEmpty()) return;
+        batchSizeSummary.record(entries.size());
+
+        // 저장에 실패한 메시지는 XACK 대상에서 빠져 PEL에 남고, claim-min-idle 이후 XAUTOCLAIM으로 재처리
+        StreamEntryID[] ackIds = handler.handleBatch(entries);
+        if (ackIds.length == 0) return;
+        jedis.xack(streamName, groupName, ackIds);
+        consumedCounter.increment(ackIds.length);
+    }
+
+    /**
+     * Consumer Group이 없으면 Stream과 함께 생성 (이미 존재하면 BUSYGROUP 무시)
+     */
+    private void ensureGroup() {
+        try {
+            jedis.xgroupCreate(streamName, groupName, StreamEntryID.XGROUP_LAST_ENTRY, true);
+            log.info(">>> [📥 Stream Engine] Consumer Group 생성 | stream:{} | group:{}", streamName, groupName);
+        } catch (JedisDataException e) {
+            if (!String.valueOf(e.getMessage()).startsWith("BUSYGROUP")) throw e;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (workers == null) return;
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getBlock().toMillis() * 2 + 1_000, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        log.info(">>> [📥 Stream Engine] 종료");
+    }
+
+    /**
+     * 기본 Consumer 이름 접두어: 호스트명-PID (같은 호스트의 여러 인스턴스도 구분)
+     */
+    private static String defaultNamePrefix() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "consumer";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
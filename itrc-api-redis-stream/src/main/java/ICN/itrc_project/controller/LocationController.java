@@ -1,14 +1,31 @@
 package ICN.itrc_project.controller;
 
+import ICN.itrc_project.config.StreamPublishProperties;
 import ICN.itrc_project.dto.LocationRequest;
 import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.dto.PolygonRequest;
 import ICN.itrc_project.consumer.RedisSearchService;
+import ICN.itrc_project.metrics.PipelineTrace;
+import ICN.itrc_project.metrics.PipelineTracer;
+import ICN.itrc_project.paging.CursorPage;
+import ICN.itrc_project.paging.NdjsonWriter;
+import ICN.itrc_project.paging.PageLimits;
 import ICN.itrc_project.producer.LocationEventProducer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,13 +34,33 @@ public class LocationController {
 
     private final RedisSearchService searchService;
     private final LocationEventProducer producer;
+    private final StreamPublishProperties publishProperties;
+    private final ObjectProvider<PipelineTracer> tracer; // 파이프라인 구간 추적 (lbs.trace.enabled 시)
+    private final PageLimits pageLimits;
+    private final ObjectMapper objectMapper;
 
     /**
      * 위치 정보 수신 및 Redis Stream 발행 (Producer 역할)
+     * - ASYNC 모드: 배치 Publisher 큐 적재 직후 응답, In-flight Window 초과 시 503 + Retry-After로 Backpressure 전달
      */
     @PostMapping("/update")
-    public ResponseEntity<Void> receiveLocation(@RequestBody LocationRequest request) {
-        producer.sendLocationEvent(request);
+    public ResponseEntity<Void> receiveLocation(
+            @RequestBody LocationRequest request,
+            @RequestAttribute(name = PipelineTracer.RECEIVED_ATTRIBUTE, required = false) Long receivedMicros) {
+        PipelineTracer activeTracer = tracer.getIfAvailable();
+        PipelineTrace trace = activeTracer != null ? activeTracer.start(receivedMicros) : null;
+
+        if (publishProperties.getMode() == StreamPublishProperties.Mode.ASYNC) {
+            CompletableFuture<RecordId> published = producer.publishAsync(request, trace);
+            if (published.isCompletedExceptionally()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+            return ResponseEntity.ok().build();
+        }
+
+        producer.sendLocationEvent(request, trace);
         return ResponseEntity.ok().build();
     }
 
@@ -46,4 +83,76 @@ public class LocationController {
             @RequestParam(defaultValue = "10") int k) {
         return ResponseEntity.ok(searchService.searchByKnn(center, k));
     }
-}
\ No newline at end of file
+
+    /**
+     * 다각형 검색 (PIP Query): H3 Cell Cover 태그 조회 + 경계 셀만 정밀 판정
+     */
+    @PostMapping("/search/pip")
+    public ResponseEntity<List<LocationResponse>> searchByPolygon(@RequestBody PolygonRequest polygon) {
+        if (!polygon.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(searchService.searchByPolygon(polygon));
+    }
+
+    /**
+     * 대용량 결과 반경 검색: NDJSON 스트리밍 (FT.SEARCH 페이지 단위로 읽어 한 줄씩 전송)
+     */
+    @PostMapping(value = "/search/range/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamByRange(
+            @RequestBody LocationRequest center,
+            @RequestParam(defaultValue = "1.0") double radius) {
+        return ndjson(sink -> searchService.streamByRange(center, radius, pageLimits.streamBatch(), sink));
+    }
+
+    /**
+     * 대용량 결과 반경 검색: Cursor 페이지 (?size=200&cursor=<직전 응답의 nextCursor>)
+     */
+    @PostMapping("/search/range/page")
+    public ResponseEntity<CursorPage<LocationResponse>> pageByRange(
+            @RequestBody LocationRequest center,
+            @RequestParam(defaultValue = "1.0") double radius,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return page(() -> searchService.pageByRange(center, radius, pageLimits.clamp(size), cursor));
+    }
+
+    @PostMapping(value = "/search/pip/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamByPolygon(@RequestBody PolygonRequest polygon) {
+        if (!polygon.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ndjson(sink -> searchService.streamByPolygon(polygon, pageLimits.streamBatch(), sink));
+    }
+
+    @PostMapping("/search/pip/page")
+    public ResponseEntity<CursorPage<LocationResponse>> pageByPolygon(
+            @RequestBody PolygonRequest polygon,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        if (!polygon.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return page(() -> searchService.pageByPolygon(polygon, pageLimits.clamp(size), cursor));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<LocationResponse>> producer) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = pageLimits.ndjson(objectMapper, out);
+            producer.accept(writer::write);
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    /**
+     * 손상된 Cursor는 400으로 응답
+     */
+    private ResponseEntity<CursorPage<LocationResponse>> page(Supplier<CursorPage<LocationResponse>> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
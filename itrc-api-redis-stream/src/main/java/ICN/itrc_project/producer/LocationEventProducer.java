@@ -1,54 +1,102 @@
 package ICN.itrc_project.producer;
 
+import ICN.itrc_project.codec.LocationStreamCodec;
 import ICN.itrc_project.dto.LocationRequest; // 마스터 DTO 사용
-import com.uber.h3core.H3Core;
+import ICN.itrc_project.metrics.PipelineTrace;
+import ICN.itrc_project.metrics.PipelineTracer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.connection.stream.StreamRecords;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 public class LocationEventProducer {
+
     private final RedisTemplate<String, Object> redisTemplate;
-    private final H3Core h3;
+    private final StreamPublishBatcher batcher;
+    private final LocationStreamCodec streamCodec;
+    private final ObjectProvider<PipelineTracer> tracer; // 파이프라인 구간 추적 (lbs.trace.enabled 시)
+    private final String streamName;
+    private final byte[] streamKey;
 
-    public LocationEventProducer(RedisTemplate<String, Object> redisTemplate) throws Exception {
+    public LocationEventProducer(RedisTemplate<String, Object> redisTemplate,
+                                 StreamPublishBatcher batcher,
+                                 LocationStreamCodec streamCodec,
+                                 ObjectProvider<PipelineTracer> tracer,
+                                 @Value("${lbs.stream.name:lbs_stream}") String streamName) {
         this.redisTemplate = redisTemplate;
-        this.h3 = H3Core.newInstance();
+        this.batcher = batcher;
+        this.streamCodec = streamCodec;
+        this.tracer = tracer;
+        this.streamName = streamName;
+        this.streamKey = streamName.getBytes(StandardCharsets.UTF_8);
     }
 
+    /**
+     * [SYNC] 요청 스레드에서 XADD 1회 수행 (Redis 왕복 완료 후 반환)
+     */
     public void sendLocationEvent(LocationRequest request) {
-        log.info("Redis Stream Publish Start - User: {}", request.getUserId());
-
-        // 1. 위경도를 H3 Index(해상도 9)로 변환 (공간 인덱싱 최적화)
-        String h3Index = h3.latLngToCellAddress(request.getLatitude(), request.getLongitude(), 9);
-
-        // 2. Redis Stream에 넣을 메시지 데이터 구성
-        Map<String, String> fields = new HashMap<>();
-        fields.put("trj_id", request.getUserId());
-        fields.put("driving_mode", request.getServiceType());
-        fields.put("pingtimestamp", String.valueOf(request.getTimestamp()));
-        fields.put("rawlat", String.valueOf(request.getLatitude()));
-        fields.put("rawlng", String.valueOf(request.getLongitude()));
-        fields.put("speed", String.valueOf(request.getSpeed()));
-        fields.put("bearing", String.valueOf(request.getHeading()));
-        fields.put("accuracy", String.valueOf(request.getAccuracy()));
-
-        // 3. Redis Search(공간 쿼리)를 위한 전용 필드 추가 (lon,lat 순서 중요)
-        fields.put("location", request.getLongitude() + "," + request.getLatitude());
-        fields.put("h3_index", h3Index);
-
-        // 4. lbs_stream 키로 메시지 발행
-        ObjectRecord<String, Map<String, String>> record = StreamRecords.newRecord()
-                .in("lbs_stream")
-                .ofObject(fields);
-
-        this.redisTemplate.opsForStream().add(record);
-        log.info("Redis Stream Publish Success - ID: {}", request.getUserId());
+        sendLocationEvent(request, null);
+    }
+
+    /**
+     * @param trace 샘플링된 이벤트의 구간 추적 (null이면 추적 안 함): enqueue 홉 기록 후 trace 필드로 전달
+     */
+    public void sendLocationEvent(LocationRequest request, PipelineTrace trace) {
+        long enqueuedMicros = PipelineTrace.nowMicros();
+        MapRecord<String, String, String> record = StreamRecords.newRecord()
+                .in(streamName)
+                .ofMap(encode(request, trace, enqueuedMicros));
+
+        RecordId id = this.redisTemplate.opsForStream().add(record);
+        if (trace != null) recordXadd(enqueuedMicros);
+        if (log.isDebugEnabled()) {
+            log.debug("Redis Stream Publish Success - User: {} | ID: {}", request.getUserId(), id);
+        }
+    }
+
+    /**
+     * [ASYNC] 배치 Publisher에 XADD를 위임하고 즉시 반환
+     * - Pipeline 응답 시 RecordId로 완료되며, In-flight Window 초과 시 즉시 실패한 Future 반환
+     */
+    public CompletableFuture<RecordId> publishAsync(LocationRequest request) {
+        return publishAsync(request, null);
+    }
+
+    public CompletableFuture<RecordId> publishAsync(LocationRequest request, PipelineTrace trace) {
+        long enqueuedMicros = PipelineTrace.nowMicros();
+        Map<String, String> fields = encode(request, trace, enqueuedMicros);
+        Map<byte[], byte[]> raw = new LinkedHashMap<>(fields.size() * 2);
+        fields.forEach((k, v) -> raw.put(k.getBytes(StandardCharsets.UTF_8), v.getBytes(StandardCharsets.UTF_8)));
+
+        CompletableFuture<RecordId> published = batcher.submit(streamKey, raw);
+        if (trace != null) published.thenRun(() -> recordXadd(enqueuedMicros));
+        return published;
+    }
+
+    private Map<String, String> encode(LocationRequest request, PipelineTrace trace, long enqueuedMicros) {
+        Map<String, String> fields = streamCodec.encode(request);
+        if (trace == null) return fields;
+
+        Map<String, String> traced = new LinkedHashMap<>(fields);
+        traced.put(LocationStreamCodec.TRACE_FIELD, trace.hop("enqueue", enqueuedMicros).encode());
+        return traced;
+    }
+
+    /**
+     * XADD 완료 대기 구간 (ASYNC 모드는 배치 Linger 포함): Consumer 측에서는 관측 불가하여 직접 기록
+     */
+    private void recordXadd(long enqueuedMicros) {
+        tracer.ifAvailable(t -> t.recordStage("xadd", PipelineTrace.nowMicros() - enqueuedMicros));
     }
-}
\ No newline at end of file
+}
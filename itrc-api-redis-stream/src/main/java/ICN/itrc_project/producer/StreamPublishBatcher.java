@@ -0,0 +1,174 @@
+package ICN.itrc_project.producer;
+
+import ICN.itrc_project.config.StreamPublishProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream Publish Batcher: 동시 요청에서 들어온 XADD를 모아 단일 Pipeline으로 전송
+ * - Size Trigger(batchSize) 또는 Linger Trigger(linger) 중 먼저 도달한 조건으로 Flush
+ * - 레코드마다 CompletableFuture<RecordId>를 반환하여 호출 측이 전송 완료 여부를 선택적으로 확인
+ * - In-flight Window(Semaphore)로 미전송 레코드 수를 제한하고, 초과 시 즉시 실패한 Future 반환
+ */
+@Slf4j
+@Component
+public class StreamPublishBatcher {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StreamPublishProperties properties;
+    private final BlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private final Semaphore inFlight;
+
+    private final Counter rejectedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread publisher;
+
+    public StreamPublishBatcher(RedisTemplate<String, Object> redisTemplate,
+                                StreamPublishProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+
+        Gauge.builder("location.stream.publish.inflight", inFlight, s -> properties.getMaxInFlight() - s.availablePermits())
+                .description("전송 완료(ACK) 대기 중인 XADD 레코드 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("location.stream.publish.rejected")
+                .description("In-flight Window 초과로 거절된 레코드 수 (Backpressure)")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("location.stream.publish.batch.size")
+                .description("Pipeline 1회당 전송된 XADD 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("location.stream.publish.flush")
+                .description("Pipeline XADD 1회 왕복 시간")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.getMode() != StreamPublishProperties.Mode.ASYNC) return;
+
+        running = true;
+        publisher = new Thread(this::runPublishLoop, "stream-publish-batcher");
+        publisher.setDaemon(true);
+        publisher.start();
+        log.info(">>> [📦 Stream Batcher] 비동기 발행 활성화 | batchSize:{} | linger:{}ms | maxInFlight:{}",
+                properties.getBatchSize(), properties.getLinger().toMillis(), properties.getMaxInFlight());
+    }
+
+    /**
+     * 레코드 발행 예약 (Non-blocking)
+     *
+     * @return Pipeline 응답 시 RecordId로 완료되는 Future (Window 초과 시 RejectedExecutionException으로 즉시 실패)
+     */
+    public CompletableFuture<RecordId> submit(byte[] streamKey, Map<byte[], byte[]> fields) {
+        if (!inFlight.tryAcquire()) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Stream publish in-flight window is full"));
+        }
+        CompletableFuture<RecordId> future = new CompletableFuture<>();
+        future.whenComplete((id, ex) -> inFlight.release());
+        queue.add(new PendingRecord(StreamRecords.rawBytes(fields).withStreamKey(streamKey), future));
+        return future;
+    }
+
+    private void runPublishLoop() {
+        List<PendingRecord> drained = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(drained);
+                if (!drained.isEmpty()) flush(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                log.error(">>> [⚠️ Pipeline XADD 실패] {}건 | 사유:{}", drained.size(), e.getMessage());
+                drained.forEach(pending -> pending.future().completeExceptionally(e));
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    /**
+     * 첫 레코드를 기다린 뒤, linger가 지나거나 batchSize가 찰 때까지 추가로 수집
+     */
+    private void collectBatch(List<PendingRecord> drained) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        long lingerNanos = properties.getLinger().toNanos();
+
+        PendingRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) return;
+        drained.add(first);
+
+        long deadline = System.nanoTime() + lingerNanos;
+        while (drained.size() < batchSize) {
+            if (queue.drainTo(drained, batchSize - drained.size()) > 0) continue;
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            PendingRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            drained.add(next);
+        }
+    }
+
+    private void flush(List<PendingRecord> drained) {
+        List<Object> results = flushTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (PendingRecord pending : drained) {
+                connection.streamCommands().xAdd(pending.record());
+            }
+            return null;
+        }));
+        batchSizeSummary.record(drained.size());
+
+        for (int i = 0; i < drained.size(); i++) {
+            Object result = results != null && i < results.size() ? results.get(i) : null;
+            if (result instanceof RecordId id) {
+                drained.get(i).future().complete(id);
+            } else {
+                drained.get(i).future().completeExceptionally(
+                        new IllegalStateException("Unexpected XADD pipeline result: " + result));
+            }
+        }
+    }
+
+    /**
+     * 종료 시 큐에 남은 레코드를 모두 전송한 뒤 Publisher 종료
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (publisher == null) return;
+        running = false;
+        publisher.join(5_000);
+        log.info(">>> [📦 Stream Batcher] 종료 | 미전송 잔여:{}건", queue.size());
+    }
+
+    private record PendingRecord(ByteRecord record, CompletableFuture<RecordId> future) {
+    }
+}
@@ -0,0 +1,156 @@
+package ICN.itrc_project.consumer;
+
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.codec.LocationStreamCodec;
+import ICN.itrc_project.config.StreamPublishProperties;
+import ICN.itrc_project.geofence.GeofenceMonitor;
+import ICN.itrc_project.ingest.WriteSuppressionFilter;
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import ICN.itrc_project.metrics.PipelineTracer;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import ICN.itrc_project.spatial.SpatialHit;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.json.Path2;
+import redis.clients.jedis.resps.StreamEntry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocationEventConsumerTest {
+
+    private final UnifiedJedis jedis = mock(UnifiedJedis.class);
+    private final AbstractPipeline pipeline = mock(AbstractPipeline.class);
+    private final GridSpatialIndex index = new GridSpatialIndex();
+    private FreshnessRecorder freshnessRecorder;
+    private LocationEventConsumer consumer;
+
+    @TempDir
+    Path dir;
+    private TrajectoryStore history;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jedis.pipelined()).thenReturn(pipeline);
+        freshnessRecorder = new FreshnessRecorder(new SimpleMeterRegistry(), Duration.ofMinutes(1));
+        history = new TrajectoryStore(dir, Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(3650), Duration.ofHours(1));
+        consumer = new LocationEventConsumer(jedis, new LocationStreamCodec(new StreamPublishProperties()), freshnessRecorder,
+                provider(GridSpatialIndex.class, index), provider(SpatialQueryCache.class, null),
+                provider(PipelineTracer.class, null), provider(LocalIndexSnapshotter.class, null),
+                provider(WriteSuppressionFilter.class, null), provider(GeofenceMonitor.class, null),
+                provider(TrajectoryStore.class, history), "lbs_stream", "lbs_group");
+    }
+
+    @AfterEach
+    void tearDown() {
+        freshnessRecorder.close();
+        history.close();
+    }
+
+    @Test
+    void acksOnlyEntriesWhoseWriteSucceeded() {
+        respond("rider:ok", succeeded());
+        respond("rider:fail", failed());
+
+        StreamEntryID[] acked = consumer.handleBatch(List.of(
+                entry(1, "ok", 1_000), entry(2, "fail", 1_000), entry(3, "fail", 2_000), entry(4, "ok", 2_000)));
+
+        // 실패한 trj_id는 배치 내 모든 메시지를 PEL에 남김
+        assertThat(acked).containsExactlyInAnyOrder(id(1), id(4));
+        assertThat(index.knn(1.3, 103.8, 10)).extracting(SpatialHit::userId).containsExactly("ok");
+    }
+
+    @Test
+    void acksUndecodableEntriesWithoutWriting() {
+        respond("rider:ok", succeeded());
+
+        StreamEntryID[] acked = consumer.handleBatch(List.of(
+                new StreamEntry(id(1), Map.of("rawlat", "1.3")),
+                new StreamEntry(id(2), Map.of(LocationStreamCodec.BINARY_FIELD, "broken!")),
+                entry(3, "ok", 1_000)));
+
+        assertThat(acked).containsExactlyInAnyOrder(id(1), id(2), id(3));
+    }
+
+    @Test
+    void returnsNoAckWhenEveryWriteFails() {
+        respond("rider:fail", failed());
+
+        assertThat(consumer.handleBatch(List.of(entry(1, "fail", 1_000)))).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void appendsHistoryForEveryReceivedPingRegardlessOfWriteOutcome() {
+        respond("rider:ok", succeeded());
+        respond("rider:fail", failed());
+
+        consumer.handleBatch(List.of(entry(1, "ok", 1_000), entry(2, "ok", 2_000), entry(3, "fail", 1_000)));
+        // PEL 재전달: 이미 기록된 timestamp는 중복 기록되지 않음
+        consumer.handleBatch(List.of(entry(3, "fail", 1_000)));
+
+        assertThat(history.track("ok", 0, Long.MAX_VALUE)).extracting(TrajectoryStore.Point::timestamp).containsExactly(1_000L, 2_000L);
+        assertThat(history.track("fail", 0, Long.MAX_VALUE)).extracting(TrajectoryStore.Point::timestamp).containsExactly(1_000L);
+    }
+
+    private void respond(String key, Response<String> response) {
+        when(pipeline.jsonSet(eq(key), eq(Path2.ROOT_PATH), anyString())).thenReturn(response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Response<String> succeeded() {
+        Response<String> response = mock(Response.class);
+        when(response.get()).thenReturn("OK");
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Response<String> failed() {
+        Response<String> response = mock(Response.class);
+        when(response.get()).thenThrow(new JedisDataException("OOM command not allowed"));
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(Class<T> type, T bean) {
+        ObjectProvider<T> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(bean);
+        if (bean != null) {
+            doAnswer(invocation -> {
+                ((Consumer<T>) invocation.getArgument(0)).accept(bean);
+                return null;
+            }).when(provider).ifAvailable(any());
+        }
+        return provider;
+    }
+
+    private static StreamEntry entry(long sequence, String userId, long timestamp) {
+        return new StreamEntry(id(sequence), Map.of("trj_id", userId, "rawlat", "1.3", "rawlng", "103.8",
+                "pingtimestamp", String.valueOf(timestamp)));
+    }
+
+    private static StreamEntryID id(long sequence) {
+        return new StreamEntryID(1_700_000_000_000L, sequence);
+    }
+}
@@ -0,0 +1,212 @@
+package ICN.itrc_project.loader;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.loader.sink.LocationSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out 적재 실행기: Reader 스레드 1개가 읽은 배치를 모든 Sink의 대기열에 넣고, Sink별 Worker들이 병렬로 기록
+ * - Sink마다 독립된 대기열/Worker를 두어 Sink 간 처리량이 서로의 지연에 묻히지 않게 측정
+ * - 대기열이 가득 차면 Reader가 대기하므로 메모리 사용량은 (Sink 수 x queueCapacity x batchSize) 로우로 제한
+ * - 배치 실패는 기록 후 계속 진행 (실패 로우 수는 보고에 포함)
+ */
+@Slf4j
+public class BulkLoader {
+
+    private static final List<LocationRequest> END_OF_INPUT = Collections.emptyList();
+
+    private final LoaderOptions options;
+    private final List<SinkRunner> runners = new ArrayList<>();
+    private final LongAdder rowsRead = new LongAdder();
+
+    public BulkLoader(LoaderOptions options, List<LocationSink> sinks) {
+        this.options = options;
+        for (LocationSink sink : sinks) {
+            runners.add(new SinkRunner(sink, options.getParallelism(), options.getQueueCapacity()));
+        }
+    }
+
+    public void run() throws IOException, InterruptedException {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "loader-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startedAt = System.nanoTime();
+        runners.forEach(SinkRunner::start);
+        reporter.scheduleAtFixedRate(new Reporter(startedAt), options.getReportIntervalSeconds(),
+                options.getReportIntervalSeconds(), TimeUnit.SECONDS);
+
+        long skipped;
+        try (GrabCsvReader reader = new GrabCsvReader(options.getFile())) {
+            readAll(reader);
+            skipped = reader.getRowsSkipped();
+        } finally {
+            for (SinkRunner runner : runners) runner.finish();
+            reporter.shutdownNow();
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        log.info(">>> [📦 적재 완료] 읽은 로우 {}건 (건너뜀 {}건) | 소요 {}s", rowsRead.sum(), skipped, String.format("%.1f", elapsedSeconds));
+        for (SinkRunner runner : runners) {
+            log.info(">>> [📦 {}] {}", runner.sink.name(), runner.summary(elapsedSeconds));
+            String report = runner.sink.report();
+            if (report != null) log.info(">>> [📦 {}] {}", runner.sink.name(), report);
+        }
+    }
+
+    private void readAll(GrabCsvReader reader) throws IOException, InterruptedException {
+        long limit = options.getLimit() > 0 ? options.getLimit() : Long.MAX_VALUE;
+        long remaining = limit;
+        while (remaining > 0) {
+            int max = (int) Math.min(options.getBatchSize(), remaining);
+            List<LocationRequest> batch = new ArrayList<>(max);
+            if (reader.read(batch, max) == 0) break;
+
+            // 모든 Sink가 같은 배치를 공유하므로 읽기 전용으로 전달
+            List<LocationRequest> shared = Collections.unmodifiableList(batch);
+            for (SinkRunner runner : runners) runner.queue.put(shared);
+            rowsRead.add(batch.size());
+            remaining -= batch.size();
+        }
+    }
+
+    private static final class SinkRunner {
+
+        private final LocationSink sink;
+        private final BlockingQueue<List<LocationRequest>> queue;
+        private final List<Thread> workers = new ArrayList<>();
+
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder failedRows = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder writeNanos = new LongAdder();
+        private long lastReportedRows;
+
+        private SinkRunner(LocationSink sink, int parallelism, int queueCapacity) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            for (int i = 0; i < parallelism; i++) {
+                Thread worker = new Thread(this::work, "loader-" + sink.name() + "-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+            }
+        }
+
+        private void start() {
+            workers.forEach(Thread::start);
+        }
+
+        private void work() {
+            try (LocationSink.BatchWriter writer = sink.openWriter()) {
+                while (true) {
+                    List<LocationRequest> batch = queue.take();
+                    if (batch == END_OF_INPUT) return;
+                    write(writer, batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Writer 생성 실패(접속 불가 등): 대기열을 계속 비워 Reader가 멈추지 않도록 실패로 집계
+                log.error(">>> [❌ {}] Writer 초기화 실패: {}", sink.name(), e.getMessage(), e);
+                drainAsFailed();
+            }
+        }
+
+        private void write(LocationSink.BatchWriter writer, List<LocationRequest> batch) {
+            long startedAt = System.nanoTime();
+            try {
+                writer.write(batch);
+                rows.add(batch.size());
+            } catch (Exception e) {
+                failedRows.add(batch.size());
+                log.warn(">>> [⚠️ {}] 배치 {}건 적재 실패: {}", sink.name(), batch.size(), e.getMessage());
+            } finally {
+                batches.increment();
+                writeNanos.add(System.nanoTime() - startedAt);
+            }
+        }
+
+        private void drainAsFailed() {
+            try {
+                while (true) {
+                    List<LocationRequest> batch = queue.take();
+                    if (batch == END_OF_INPUT) return;
+                    failedRows.add(batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * 입력 종료 표시 후 모든 Worker 종료 대기 (남은 배치는 모두 기록됨)
+         */
+        private void finish() throws InterruptedException {
+            for (int i = 0; i < workers.size(); i++) queue.put(END_OF_INPUT);
+            for (Thread worker : workers) worker.join();
+            try {
+                sink.close();
+            } catch (Exception e) {
+                log.warn(">>> [⚠️ {}] Sink 종료 실패: {}", sink.name(), e.getMessage());
+            }
+        }
+
+        private String summary(double elapsedSeconds) {
+            long written = rows.sum();
+            long batchCount = Math.max(batches.sum(), 1);
+            return String.format("%,d rows | %,.0f rows/s | 배치 평균 %.1fms | 실패 %,d rows",
+                    written, written / elapsedSeconds, writeNanos.sum() / 1e6 / batchCount, failedRows.sum());
+        }
+    }
+
+    /**
+     * 주기 보고: 구간 처리량(rows/s)과 누적 평균 처리량을 Sink별로 출력
+     */
+    private final class Reporter implements Runnable {
+
+        private final long startedAt;
+        private long lastAt;
+        private long lastRowsRead;
+
+        private Reporter(long startedAt) {
+            this.startedAt = startedAt;
+            this.lastAt = startedAt;
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            double interval = (now - lastAt) / 1e9;
+            double elapsed = (now - startedAt) / 1e9;
+            lastAt = now;
+
+            long read = rowsRead.sum();
+            log.info(">>> [📖 reader] {} rows/s (누적 {}건)", format(read - lastRowsRead, interval), read);
+            lastRowsRead = read;
+
+            for (SinkRunner runner : runners) {
+                long written = runner.rows.sum();
+                log.info(">>> [📊 {}] {} rows/s | 평균 {} rows/s | 누적 {}건 | 대기 배치 {} | 실패 {}건",
+                        runner.sink.name(), format(written - runner.lastReportedRows, interval),
+                        format(written, elapsed), written, runner.queue.size(), runner.failedRows.sum());
+                runner.lastReportedRows = written;
+            }
+        }
+
+        private String format(long rows, double seconds) {
+            return String.format("%,.0f", rows / seconds);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ICN.itrc_project.loader;
+
+import ICN.itrc_project.loader.sink.KafkaBatchSink;
+import ICN.itrc_project.loader.sink.LocationSink;
+import ICN.itrc_project.loader.sink.PostgisCopySink;
+import ICN.itrc_project.loader.sink.RedisGeoSink;
+import ICN.itrc_project.loader.sink.RedisStreamSink;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grab-Posisi Bulk Loader 진입점 (Spring Context 없이 실행)
+ *
+ * <pre>
+ * java -jar itrc-bulk-loader-0.0.1-SNAPSHOT.jar --file=grab_posisi_data.csv \
+ *   --sinks=postgis,kafka,redis-geo,redis-stream --batch-size=2000 --parallelism=2
+ * </pre>
+ */
+public class BulkLoaderApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoaderOptions options = LoaderOptions.parse(args);
+        List<LocationSink> sinks = new ArrayList<>();
+        JedisPooled jedis = null;
+        try {
+            for (String name : options.getSinks()) {
+                switch (name) {
+                    case "postgis" -> sinks.add(new PostgisCopySink(
+                            options.getJdbcUrl(), options.getJdbcUsername(), options.getJdbcPassword()));
+                    case "kafka" -> sinks.add(new KafkaBatchSink(options.getKafkaBootstrapServers(), options.getKafkaTopic(),
+                            options.isKafkaBinary(), options.getKafkaLingerMs(), options.getKafkaBatchBytes(),
+                            options.isKafkaH3Partitioner() ? options.getKafkaH3Resolution() : -1));
+                    case "redis-geo", "redis-stream" -> {
+                        if (jedis == null) jedis = redisPool(options);
+                        sinks.add(name.equals("redis-geo")
+                                ? new RedisGeoSink(jedis)
+                                : new RedisStreamSink(jedis, options.getStreamName(), options.isStreamBinary()));
+                    }
+                    default -> throw new IllegalArgumentException(
+                            "Unknown sink: " + name + " (postgis, kafka, redis-geo, redis-stream)");
+                }
+            }
+            new BulkLoader(options, sinks).run();
+        } finally {
+            if (jedis != null) jedis.close();
+        }
+    }
+
+    /**
+     * Redis Sink Worker 전체가 동시에 Pipeline을 보낼 수 있도록 풀 크기 설정
+     */
+    private static JedisPooled redisPool(LoaderOptions options) {
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(options.getParallelism() * 2);
+        poolConfig.setMaxIdle(options.getParallelism() * 2);
+        return new JedisPooled(poolConfig, options.getRedisHost(), options.getRedisPort());
+    }
+}
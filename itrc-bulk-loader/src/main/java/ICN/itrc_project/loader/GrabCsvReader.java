@@ -0,0 +1,311 @@
+package ICN.itrc_project.loader;
+
+import ICN.itrc_project.dto.LocationRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grab-Posisi CSV Streaming Reader: 파일을 고정 크기 Window 단위로 Memory-map하여 바이트 수준에서 파싱
+ * - 숫자 필드는 String 생성 없이 바이트에서 직접 변환하고, driving_mode는 바이트 비교로 상수 문자열에 매핑
+ * - trj_id는 같은 궤적의 Ping이 연속되므로 직전 로우와 바이트가 같으면 String을 재사용
+ * - 컬럼 순서는 헤더로 판별 (trj_id, driving_mode, pingtimestamp, rawlat, rawlng, speed, bearing, accuracy 필수)
+ *
+ * 단일 스레드 전용 (병렬화는 읽은 배치를 Sink Worker로 분배하여 수행)
+ */
+public final class GrabCsvReader implements Closeable {
+
+    private static final long DEFAULT_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final String[] REQUIRED_COLUMNS =
+            {"trj_id", "driving_mode", "pingtimestamp", "rawlat", "rawlng", "speed", "bearing", "accuracy"};
+    private static final int TRJ_ID = 0, MODE = 1, TIMESTAMP = 2, LAT = 3, LNG = 4, SPEED = 5, BEARING = 6, ACCURACY = 7;
+
+    private static final byte[] CAR = "car".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOTORCYCLE = "motorcycle".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 정수 가수 / 10^n 나눗셈이 정확히 반올림되는 범위 (가수 2^53 미만, n ≤ 22)
+     */
+    private static final double[] POW10 = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowBytes;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+
+    private final int[] columnOf = new int[REQUIRED_COLUMNS.length];  // 필수 컬럼 → 로우 내 필드 순번
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+
+    private byte[] lastTrjIdBytes = new byte[0];
+    private String lastTrjId = "";
+
+    private long rowsSkipped;
+
+    public GrabCsvReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_BYTES);
+    }
+
+    GrabCsvReader(Path path, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowBytes = windowBytes;
+        map(0);
+        readHeader();
+    }
+
+    /**
+     * 최대 max건을 out에 추가 (위경도가 비어 있거나 범위를 벗어난 로우는 건너뜀)
+     *
+     * @return 추가한 건수 (0이면 파일 끝)
+     */
+    public int read(List<LocationRequest> out, int max) throws IOException {
+        int added = 0;
+        while (added < max) {
+            int fields = nextLine();
+            if (fields < 0) break;
+            if (fields == 0) continue;  // 빈 줄
+
+            LocationRequest request = toRequest(fields);
+            if (request == null) {
+                rowsSkipped++;
+                continue;
+            }
+            out.add(request);
+            added++;
+        }
+        return added;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readHeader() throws IOException {
+        int fields = nextLine();
+        if (fields <= 0) throw new IOException("CSV header not found");
+
+        Arrays.fill(columnOf, -1);
+        for (int f = 0; f < fields; f++) {
+            String name = ascii(fieldStart[f], fieldEnd[f]).trim().toLowerCase();
+            for (int c = 0; c < REQUIRED_COLUMNS.length; c++) {
+                if (REQUIRED_COLUMNS[c].equals(name)) columnOf[c] = f;
+            }
+        }
+        for (int c = 0; c < REQUIRED_COLUMNS.length; c++) {
+            if (columnOf[c] < 0) throw new IOException("Missing CSV column: " + REQUIRED_COLUMNS[c]);
+        }
+    }
+
+    private LocationRequest toRequest(int fields) {
+        for (int column : columnOf) {
+            if (column >= fields) return null;
+        }
+        double lat = parseDouble(LAT);
+        double lng = parseDouble(LNG);
+        if (!(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) return null;  // NaN 포함
+
+        return LocationRequest.fromGrabDataset(trjId(), mode(), lat, lng,
+                orZero(parseDouble(BEARING)), orZero(parseDouble(SPEED)), orZero(parseDouble(ACCURACY)),
+                (long) orZero(parseDouble(TIMESTAMP)));
+    }
+
+    /**
+     * 다음 로우의 필드 경계를 fieldStart/fieldEnd에 기록
+     *
+     * @return 필드 수 (빈 줄은 0, 파일 끝은 -1)
+     */
+    private int nextLine() throws IOException {
+        int end = findLineEnd();
+        if (end < 0) return -1;
+
+        int lineEnd = end;
+        if (lineEnd > position && window.get(lineEnd - 1) == '\r') lineEnd--;
+        int fields = 0;
+        if (lineEnd > position) {
+            int start = position;
+            boolean quoted = false;
+            for (int i = position; i <= lineEnd; i++) {
+                byte b = i < lineEnd ? window.get(i) : (byte) ',';
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == ',' && !quoted) {
+                    ensureFieldCapacity(fields);
+                    fieldStart[fields] = start;
+                    fieldEnd[fields] = i;
+                    fields++;
+                    start = i + 1;
+                }
+            }
+        }
+        position = end + 1;
+        return fields;
+    }
+
+    /**
+     * 현재 Window에서 줄 끝('\n' 또는 파일 끝) 위치 탐색, Window 경계에 걸친 줄은 줄 시작부터 다시 매핑
+     */
+    private int findLineEnd() throws IOException {
+        while (true) {
+            int limit = window.limit();
+            for (int i = position; i < limit; i++) {
+                if (window.get(i) == '\n') return i;
+            }
+            long consumed = windowStart + position;
+            if (windowStart + limit >= fileSize) {
+                return position < limit ? limit : -1;  // 마지막 줄(개행 없음) 또는 파일 끝
+            }
+            if (position == 0) throw new IOException("CSV line longer than mapping window at offset " + consumed);
+            map(consumed);
+        }
+    }
+
+    private void map(long start) throws IOException {
+        long length = Math.min(windowBytes, fileSize - start);
+        this.window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        this.windowStart = start;
+        this.position = 0;
+    }
+
+    private void ensureFieldCapacity(int fields) {
+        if (fields < fieldStart.length) return;
+        fieldStart = Arrays.copyOf(fieldStart, fields * 2);
+        fieldEnd = Arrays.copyOf(fieldEnd, fields * 2);
+    }
+
+    private String trjId() {
+        int start = unquotedStart(TRJ_ID);
+        int length = unquotedEnd(TRJ_ID) - start;
+        if (sameBytes(start, length, lastTrjIdBytes)) return lastTrjId;
+
+        byte[] bytes = new byte[length];
+        window.get(start, bytes);
+        lastTrjIdBytes = bytes;
+        lastTrjId = new String(bytes, StandardCharsets.UTF_8);
+        return lastTrjId;
+    }
+
+    private boolean sameBytes(int start, int length, byte[] bytes) {
+        if (length != bytes.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (window.get(start + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * fromGrabDataset의 소문자 비교에 맞춰 상수 문자열 반환 (그 외 값은 UNKNOWN으로 매핑됨)
+     */
+    private String mode() {
+        int start = unquotedStart(MODE);
+        int length = unquotedEnd(MODE) - start;
+        if (equalsIgnoreCase(start, length, CAR)) return "car";
+        if (equalsIgnoreCase(start, length, MOTORCYCLE)) return "motorcycle";
+        return "";
+    }
+
+    private boolean equalsIgnoreCase(int start, int length, byte[] lowerAscii) {
+        if (length != lowerAscii.length) return false;
+        for (int i = 0; i < length; i++) {
+            if ((window.get(start + i) | 0x20) != lowerAscii[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 10진 실수 파싱: 유효 숫자 15자리 이내는 (정수 가수 / 10^n)으로 정확히 반올림된 값을 얻고, 그 외(지수 표기 등)는 Double.parseDouble 사용
+     *
+     * @return 빈 필드는 NaN
+     */
+    private double parseDouble(int column) {
+        int i = unquotedStart(column);
+        int end = unquotedEnd(column);
+        while (i < end && window.get(i) == ' ') i++;
+        while (end > i && window.get(end - 1) == ' ') end--;
+        if (i == end) return Double.NaN;
+
+        int start = i;
+        boolean negative = false;
+        byte first = window.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean dot = false;
+        boolean digits = false;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa >= MAX_EXACT_MANTISSA) return slowParse(start, end);
+                if (dot) fractionDigits++;
+                digits = true;
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                return slowParse(start, end);
+            }
+        }
+        if (!digits || fractionDigits >= POW10.length) return slowParse(start, end);
+
+        double value = fractionDigits == 0 ? mantissa : mantissa / POW10[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double slowParse(int start, int end) {
+        try {
+            return Double.parseDouble(ascii(start, end));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private int unquotedStart(int column) {
+        int start = fieldStart[columnOf[column]];
+        return isQuoted(column) ? start + 1 : start;
+    }
+
+    private int unquotedEnd(int column) {
+        int end = fieldEnd[columnOf[column]];
+        return isQuoted(column) ? end - 1 : end;
+    }
+
+    private boolean isQuoted(int column) {
+        int start = fieldStart[columnOf[column]];
+        int end = fieldEnd[columnOf[column]];
+        return end - start >= 2 && window.get(start) == '"' && window.get(end - 1) == '"';
+    }
+
+    private String ascii(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        window.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static double orZero(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+}
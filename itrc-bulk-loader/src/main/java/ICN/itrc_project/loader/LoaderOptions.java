@@ -0,0 +1,87 @@
+package ICN.itrc_project.loader;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk Loader 실행 옵션 (--key=value 형식, 미지정 시 각 API 모듈의 기본 접속 정보 사용)
+ */
+@Getter
+public class LoaderOptions {
+
+    private final Path file;
+    private final List<String> sinks;
+    private final int batchSize;
+    private final int parallelism;      // Sink당 Worker 스레드 수
+    private final int queueCapacity;    // Sink당 대기 배치 수 (초과 시 Reader가 대기: 가장 느린 Sink 속도로 Backpressure)
+    private final long limit;           // 최대 적재 로우 수 (0 = 전체)
+    private final int reportIntervalSeconds;
+
+    private final String jdbcUrl;
+    private final String jdbcUsername;
+    private final String jdbcPassword;
+
+    private final String kafkaBootstrapServers;
+    private final String kafkaTopic;
+    private final boolean kafkaBinary;
+    private final int kafkaLingerMs;
+    private final int kafkaBatchBytes;
+    private final boolean kafkaH3Partitioner;  // true면 H3RegionPartitioner (API 모듈 lbs.kafka.partitioning.strategy=h3와 동일)
+    private final int kafkaH3Resolution;
+
+    private final String redisHost;
+    private final int redisPort;
+    private final String streamName;
+    private final boolean streamBinary;
+
+    private LoaderOptions(Map<String, String> args) {
+        String file = args.get("file");
+        if (file == null) throw new IllegalArgumentException("--file=<grab_posisi.csv> is required");
+        this.file = Path.of(file);
+        this.sinks = Arrays.stream(args.getOrDefault("sinks", "postgis").split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.batchSize = Integer.parseInt(args.getOrDefault("batch-size", "2000"));
+        this.parallelism = Integer.parseInt(args.getOrDefault("parallelism", "2"));
+        this.queueCapacity = Integer.parseInt(args.getOrDefault("queue-capacity", "8"));
+        this.limit = Long.parseLong(args.getOrDefault("limit", "0"));
+        this.reportIntervalSeconds = Integer.parseInt(args.getOrDefault("report-interval", "5"));
+
+        this.jdbcUrl = args.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/itrcdb");
+        this.jdbcUsername = args.getOrDefault("jdbc-username", "postgres");
+        this.jdbcPassword = args.getOrDefault("jdbc-password", "password");
+
+        this.kafkaBootstrapServers = args.getOrDefault("kafka-bootstrap-servers", "localhost:9092");
+        this.kafkaTopic = args.getOrDefault("kafka-topic", "location-events");
+        this.kafkaBinary = "binary".equalsIgnoreCase(args.getOrDefault("kafka-codec", "json"));
+        this.kafkaLingerMs = Integer.parseInt(args.getOrDefault("kafka-linger-ms", "10"));
+        this.kafkaBatchBytes = Integer.parseInt(args.getOrDefault("kafka-batch-bytes", "262144"));
+        this.kafkaH3Partitioner = "h3".equalsIgnoreCase(args.getOrDefault("kafka-partitioner", "key"));
+        this.kafkaH3Resolution = Integer.parseInt(args.getOrDefault("kafka-h3-resolution", "6"));
+
+        this.redisHost = args.getOrDefault("redis-host", "localhost");
+        this.redisPort = Integer.parseInt(args.getOrDefault("redis-port", "6379"));
+        this.streamName = args.getOrDefault("stream-name", "lbs_stream");
+        this.streamBinary = "binary".equalsIgnoreCase(args.getOrDefault("stream-codec", "fields"));
+
+        if (batchSize <= 0 || parallelism <= 0 || queueCapacity <= 0 || reportIntervalSeconds <= 0 || sinks.isEmpty()) {
+            throw new IllegalArgumentException("batch-size, parallelism, queue-capacity, report-interval and sinks must be positive/non-empty");
+        }
+    }
+
+    public static LoaderOptions parse(String[] args) {
+        Map<String, String> parsed = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unsupported argument (expected --key=value): " + arg);
+            }
+            int eq = arg.indexOf('=');
+            parsed.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoaderOptions(parsed);
+    }
+}
@@ -0,0 +1,112 @@
+package ICN.itrc_project.loader.sink;
+
+import ICN.itrc_project.codec.LocationBinaryCodec;
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.partition.H3RegionPartitioner;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kafka Producer 배치 Sink: 배치 전체를 비동기 send 후 ACK를 한꺼번에 대기
+ * - Producer는 스레드 안전하므로 Worker 간 공유하고, Record Batch 크기/Linger로 브로커 왕복을 묶음
+ * - Key는 API 모듈과 동일하게 userId (같은 사용자의 이벤트 순서 보장)
+ * - ACK의 파티션별 건수를 집계하여 종료 시 파티션 편중도(최대/평균) 보고 (Key / H3 지역 파티셔닝 비교용)
+ */
+public class KafkaBatchSink implements LocationSink {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final KafkaProducer<String, LocationRequest> producer;
+    private final String topic;
+    private final ConcurrentMap<Integer, LongAdder> recordsByPartition = new ConcurrentHashMap<>();
+    private volatile int partitionCount; // 첫 ACK 이후 캐시된 메타데이터에서 조회 (close 이후 보고에 사용)
+
+    /**
+     * @param binary        true면 LocationBinaryCodec, false면 JSON (API 모듈 JsonDeserializer가 기본 타입 LocationRequest로 읽음, Consumer 설정과 일치시킬 것)
+     * @param h3Resolution  0 이상이면 H3RegionPartitioner로 해당 해상도의 지역 단위 배정, 음수면 기본 Key 해시
+     */
+    public KafkaBatchSink(String bootstrapServers, String topic, boolean binary, int lingerMs, int batchSizeBytes,
+                          int h3Resolution) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSizeBytes);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        if (h3Resolution >= 0) {
+            props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, H3RegionPartitioner.class.getName());
+            props.put(H3RegionPartitioner.RESOLUTION_CONFIG, h3Resolution);
+        }
+
+        Serializer<LocationRequest> valueSerializer = binary
+                ? (t, request) -> LocationBinaryCodec.encode(request)
+                : (t, request) -> toJson(request);
+        this.producer = new KafkaProducer<>(props, new StringSerializer(), valueSerializer);
+        this.topic = topic;
+    }
+
+    private static byte[] toJson(LocationRequest request) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("LocationRequest JSON 직렬화 실패", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "kafka";
+    }
+
+    @Override
+    public BatchWriter openWriter() {
+        return batch -> {
+            List<Future<RecordMetadata>> acks = new ArrayList<>(batch.size());
+            for (LocationRequest request : batch) {
+                acks.add(producer.send(new ProducerRecord<>(topic, request.getUserId(), request)));
+            }
+            for (Future<RecordMetadata> ack : acks) {
+                int partition = ack.get().partition();
+                recordsByPartition.computeIfAbsent(partition, p -> new LongAdder()).increment();
+            }
+            if (partitionCount == 0) partitionCount = producer.partitionsFor(topic).size();
+        };
+    }
+
+    /**
+     * 파티션별 건수와 편중도 (이벤트가 없는 파티션도 평균에 포함)
+     */
+    @Override
+    public String report() {
+        int partitions = partitionCount;
+        if (partitions == 0) return null;
+        Map<Integer, Long> counts = new TreeMap<>();
+        recordsByPartition.forEach((partition, count) -> counts.put(partition, count.sum()));
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long max = counts.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        double skew = total > 0 ? max / ((double) total / partitions) : 0;
+        return String.format("파티션 편중도(최대/평균) %.2f | 사용 파티션 %d/%d | 파티션별 %s",
+                skew, counts.size(), partitions, counts);
+    }
+
+    @Override
+    public void close() {
+        producer.close();
+    }
+}
@@ -0,0 +1,46 @@
+package ICN.itrc_project.loader.sink;
+
+import ICN.itrc_project.dto.LocationRequest;
+
+import java.util.List;
+
+/**
+ * 적재 대상 저장소 (PostGIS / Kafka / Redis GEO / Redis Stream)
+ * - Sink 1개당 Worker 스레드 N개가 각자 BatchWriter를 열어 병렬로 배치를 기록
+ * - 공유 자원(Producer, 커넥션 풀)은 Sink가 소유하고 close 시 해제
+ */
+public interface LocationSink extends AutoCloseable {
+
+    /**
+     * 처리량 보고 및 --sinks 옵션에 사용하는 이름
+     */
+    String name();
+
+    /**
+     * Worker 스레드 전용 Writer 생성 (스레드 간 공유하지 않음)
+     */
+    BatchWriter openWriter() throws Exception;
+
+    /**
+     * 종료 요약에 덧붙일 Sink 고유 결과 (없으면 null)
+     */
+    default String report() {
+        return null;
+    }
+
+    @Override
+    default void close() throws Exception {
+    }
+
+    interface BatchWriter extends AutoCloseable {
+
+        /**
+         * 배치 1건을 저장소에 반영하고, 반영이 확인된 뒤 반환 (실패 시 예외)
+         */
+        void write(List<LocationRequest> batch) throws Exception;
+
+        @Override
+        default void close() throws Exception {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ICN.itrc_project.loader.sink;
+
+import ICN.itrc_project.dto.LocationRequest;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * PostGIS COPY Sink: 배치를 임시 Staging 테이블에 COPY로 적재한 뒤, 단일 INSERT ... SELECT로 location_data에 병합
+ * - 로우별 바인딩 파라미터 없이 CSV 스트림 1회로 전송하므로 Multi-row INSERT 대비 파싱/바인딩 비용 제거
+ * - 병합 시 사용자별 최신 1건만 선택(DISTINCT ON)하고, user_id 순으로 잠가 Worker 간 교착(Deadlock)을 방지
+ */
+public class PostgisCopySink implements LocationSink {
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE location_staging (
+                user_id varchar(255), lng float8, lat float8, speed float8,
+                accuracy float8, service_type varchar(255), ts bigint
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGING =
+            "COPY location_staging (user_id, lng, lat, speed, accuracy, service_type, ts) FROM STDIN (FORMAT csv)";
+
+    /**
+     * LocationBatchWriter와 동일한 timestamp 비교 조건으로 늦게 적재된 과거 위치가 최신 위치를 덮어쓰지 않도록 함
+     */
+    private static final String MERGE = """
+            INSERT INTO location_data (user_id, location, speed, accuracy, service_type, timestamp, updated_at)
+            SELECT DISTINCT ON (user_id)
+                   user_id, ST_SetSRID(ST_MakePoint(lng, lat), 4326), speed, accuracy, service_type, ts, now()
+            FROM location_staging
+            ORDER BY user_id, ts DESC
+            ON CONFLICT (user_id) DO UPDATE SET
+                location = EXCLUDED.location,
+                speed = EXCLUDED.speed,
+                accuracy = EXCLUDED.accuracy,
+                service_type = EXCLUDED.service_type,
+                timestamp = EXCLUDED.timestamp,
+                updated_at = EXCLUDED.updated_at
+            WHERE location_data.timestamp IS NULL OR location_data.timestamp <= EXCLUDED.timestamp
+            """;
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    public PostgisCopySink(String jdbcUrl, String username, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public String name() {
+        return "postgis";
+    }
+
+    @Override
+    public BatchWriter openWriter() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+        connection.commit();
+        return new CopyWriter(connection);
+    }
+
+    private static final class CopyWriter implements BatchWriter {
+
+        private final Connection connection;
+        private final CopyManager copyManager;
+        private final StringBuilder csv = new StringBuilder(64 * 1024);
+
+        private CopyWriter(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        }
+
+        @Override
+        public void write(List<LocationRequest> batch) throws SQLException {
+            csv.setLength(0);
+            for (LocationRequest request : batch) {
+                appendQuoted(request.getUserId()).append(',')
+                        .append(request.getLongitude()).append(',')
+                        .append(request.getLatitude()).append(',')
+                        .append(request.getSpeed()).append(',')
+                        .append(request.getAccuracy()).append(',')
+                        .append(request.getServiceType()).append(',')
+                        .append(request.getTimestamp()).append('\n');
+            }
+            byte[] payload = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+            try {
+                CopyIn copyIn = copyManager.copyIn(COPY_STAGING);
+                copyIn.writeToCopy(payload, 0, payload.length);
+                copyIn.endCopy();
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(MERGE);
+                }
+                // ON COMMIT DELETE ROWS: 커밋 시 Staging 테이블이 비워져 다음 배치에 재사용
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+
+        private StringBuilder appendQuoted(String value) {
+            csv.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') csv.append('"');
+                csv.append(c);
+            }
+            return csv.append('"');
+        }
+
+        @Override
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ICN.itrc_project.loader.sink;
+
+import ICN.itrc_project.dto.LocationRequest;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.GeoCoordinate;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis GEO Sink: Kafka Batch Consumer와 같은 형태(다중 멤버 GEOADD 1회 + 사용자별 SETEX)를 Pipeline 1회로 전송
+ * - 상태 값은 API 모듈의 RedisTemplate과 같은 JSON 직렬화를 사용하여 조회 API에서 그대로 읽을 수 있음
+ */
+public class RedisGeoSink implements LocationSink {
+
+    static final String GEO_KEY = "mobility:locations";
+    static final String STATUS_PREFIX = "mobility:status:";
+    static final Duration STATUS_TTL = Duration.ofMinutes(30);
+
+    private final JedisPooled jedis;
+    private final RedisSerializer<Object> valueSerializer = RedisSerializer.json();
+
+    public RedisGeoSink(JedisPooled jedis) {
+        this.jedis = jedis;
+    }
+
+    @Override
+    public String name() {
+        return "redis-geo";
+    }
+
+    @Override
+    public BatchWriter openWriter() {
+        return this::write;
+    }
+
+    private void write(List<LocationRequest> batch) {
+        // 1. 사용자별 최신 timestamp 1건으로 병합 (멤버 ID는 Consumer와 동일하게 정제)
+        Map<String, LocationRequest> latestByUser = new LinkedHashMap<>(batch.size() * 2);
+        for (LocationRequest request : batch) {
+            latestByUser.merge(cleanUserId(request.getUserId()), request,
+                    (prev, next) -> next.getTimestamp() >= prev.getTimestamp() ? next : prev);
+        }
+
+        // 2. 단일 Pipeline: 다중 멤버 GEOADD 1회 + 사용자별 SETEX
+        Map<String, GeoCoordinate> members = new HashMap<>(latestByUser.size() * 2);
+        latestByUser.forEach((userId, request) ->
+                members.put(userId, new GeoCoordinate(request.getLongitude(), request.getLatitude())));
+        long ttlSeconds = STATUS_TTL.toSeconds();
+
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            Response<Long> added = pipeline.geoadd(GEO_KEY, members);
+            latestByUser.forEach((userId, request) -> pipeline.setex(
+                    (STATUS_PREFIX + userId).getBytes(StandardCharsets.UTF_8), ttlSeconds, valueSerializer.serialize(request)));
+            pipeline.sync();
+            added.get(); // 명령 오류(WRONGTYPE 등)를 배치 실패로 전파
+        }
+    }
+
+    /**
+     * LocationConsumer.cleanUserId와 동일 규칙 (정제가 필요 없는 대부분의 ID는 정규식 실행 생략)
+     */
+    static String cleanUserId(String userId) {
+        for (int i = 0; i < userId.length(); i++) {
+            char c = userId.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+            if (!allowed) return userId.replaceAll("[^a-zA-Z0-9_]", "");
+        }
+        return userId;
+    }
+}
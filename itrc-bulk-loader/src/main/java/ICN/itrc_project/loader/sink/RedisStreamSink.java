@@ -0,0 +1,59 @@
+package ICN.itrc_project.loader.sink;
+
+import ICN.itrc_project.codec.LocationBinaryCodec;
+import ICN.itrc_project.codec.LocationStreamFields;
+import ICN.itrc_project.dto.LocationRequest;
+import com.uber.h3core.H3Core;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis Stream Sink: 배치 전체를 XADD Pipeline 1회로 전송 (Stream Consumer가 RediSearch 문서로 반영)
+ * - 레코드 형식은 Stream Producer의 lbs.stream.publish.codec과 동일 (FIELDS / BINARY)
+ */
+public class RedisStreamSink implements LocationSink {
+
+    private final JedisPooled jedis;
+    private final String streamName;
+    private final boolean binary;
+    private final H3Core h3;
+
+    public RedisStreamSink(JedisPooled jedis, String streamName, boolean binary) throws IOException {
+        this.jedis = jedis;
+        this.streamName = streamName;
+        this.binary = binary;
+        this.h3 = H3Core.newInstance();
+    }
+
+    @Override
+    public String name() {
+        return "redis-stream";
+    }
+
+    @Override
+    public BatchWriter openWriter() {
+        return this::write;
+    }
+
+    private void write(List<LocationRequest> batch) {
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            List<Response<StreamEntryID>> responses = new ArrayList<>(batch.size());
+            for (LocationRequest request : batch) {
+                Map<String, String> fields = binary
+                        ? Map.of(LocationStreamFields.BINARY_FIELD, LocationBinaryCodec.encodeToString(request))
+                        : LocationStreamFields.toFields(h3, request);
+                responses.add(pipeline.xadd(streamName, StreamEntryID.NEW_ENTRY, fields));
+            }
+            pipeline.sync();
+            // 개별 명령 오류는 sync()에서 던지지 않으므로 응답을 확인하여 배치 실패로 전파
+            responses.forEach(Response::get);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package ICN.itrc_project.cache;
+
+import ICN.itrc_project.spatial.GeoMath;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 공간 질의 결과 캐시: 같은 영역에 반복되는 Range/KNN 질의를 저장소 왕복 없이 응답
+ * - Key: 질의 유형 + 중심점 Grid Cell + 파라미터(반경/K) 로그 버킷 → 같은 셀·비슷한 반경의 질의는 동일 항목 공유
+ * - 최대 크기(W-TinyLFU)와 신선도 SLO(maxStaleness) 기반 만료로 메모리와 데이터 지연을 함께 제한
+ * - (선택) 쓰기 위치의 무효화 셀 시각을 기록하여, 조회 시 주변 3x3 무효화 셀에 이후 쓰기가 있으면 즉시 재조회
+ *
+ * 정확성: 항목은 요청보다 넓게 적재하고, 적재 영역이 요청 영역을 포함함이 증명될 때만 재사용 (캐시로 인한 누락 없음, 지연만 SLO 이내)
+ * - Range: 반경 × (1 + paramTolerance) + 셀 대각선 길이로 적재 → 같은 셀·같은 버킷 요청의 원을 포함
+ * - KNN  : k × (1 + paramTolerance) × knnOverfetch개 적재 → 실제 중심점 기준 k번째 거리 + 중심점 이동 거리가 적재 반경 이내일 때만 재사용
+ * - 재사용 결과는 실제 중심점 기준으로 거리 재계산·재정렬 후 실제 반경/K 적용, 포함이 증명되지 않으면 다시 조회 (result=uncovered)
+ */
+public class SpatialQueryCache {
+
+    private static final String RANGE = "range";
+    private static final String KNN = "knn";
+    // 저장소별 지구 반경/거리 공식 차이(Redis 6372.8km 등)로 경계 점이 빠지지 않도록 포함 판정에 두는 여유
+    private static final double COVERAGE_SLACK = 0.995;
+
+    private final Cache<Key, Entry> cache;
+    private final double cellSizeDegree;
+    private final double paramTolerance;
+    private final double paramLogBase;
+    private final double knnOverfetch;
+    private final boolean invalidateOnWrite;
+    private final double invalidationCellDegree;
+    private final Map<Long, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> hitCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> missCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> uncoveredCounters = new ConcurrentHashMap<>();
+    private final Counter staleCounter;
+    private final Counter invalidatedCounter;
+    private final Counter sizeEvictionCounter;
+
+    public SpatialQueryCache(long maximumSize, Duration maxStaleness, double cellSizeDegree, double paramTolerance,
+                             double knnOverfetch, boolean invalidateOnWrite, double invalidationCellDegree,
+                             MeterRegistry meterRegistry) {
+        if (cellSizeDegree <= 0 || paramTolerance <= 0 || invalidationCellDegree <= 0) {
+            throw new IllegalArgumentException("cellSizeDegree, paramTolerance and invalidationCellDegree must be positive");
+        }
+        if (knnOverfetch < 1) throw new IllegalArgumentException("knnOverfetch must be at least 1");
+        this.cellSizeDegree = cellSizeDegree;
+        this.paramTolerance = paramTolerance;
+        this.paramLogBase = Math.log1p(paramTolerance);
+        this.knnOverfetch = knnOverfetch;
+        this.invalidateOnWrite = invalidateOnWrite;
+        this.invalidationCellDegree = invalidationCellDegree;
+        this.meterRegistry = meterRegistry;
+
+        this.staleCounter = evictionCounter("stale", "신선도 SLO(max-staleness) 초과로 만료된 항목 수");
+        this.invalidatedCounter = evictionCounter("invalidated", "주변 쓰기 발생으로 무효화된 항목 수");
+        this.sizeEvictionCounter = evictionCounter("size", "최대 크기 초과로 제거된 항목 수");
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStaleness)
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> recordRemoval(cause))
+                .build();
+
+        Gauge.builder("location.query.cache.size", cache, Cache::estimatedSize)
+                .description("공간 질의 캐시 항목 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 결과 항목의 좌표 접근 및 실제 중심점 기준 거리 반영 방식 (거리 필드가 없는 DTO는 그대로 반환)
+     */
+    public interface Located<T> {
+        double latitude(T result);
+
+        double longitude(T result);
+
+        T withDistance(T result, double distanceMeter);
+    }
+
+    /**
+     * 반경 질의: 요청 반경보다 넓게 적재한 항목에서 실제 중심점 기준 반경 이내만 거리순으로 반환
+     *
+     * @param loader 적재 반경(m)으로 저장소를 조회하는 함수 (요청 반경 이상으로 호출됨)
+     */
+    public <T> List<T> range(double lat, double lng, double radiusMeter, DoubleFunction<List<T>> loader, Located<T> located) {
+        double loadRadius = radiusMeter * (1 + paramTolerance) + cellDiagonalMeter(lat);
+        return getOrLoad(RANGE, lat, lng, radiusMeter,
+                () -> loadRange(lat, lng, loadRadius, loader),
+                entry -> answerRange(entry, lat, lng, radiusMeter, located));
+    }
+
+    /**
+     * KNN 질의: 요청 K보다 많이 적재한 항목에서 실제 중심점 기준 K개가 적재 영역 안에 있음이 증명될 때만 재사용
+     *
+     * @param loader 적재 개수로 저장소의 최근접 질의를 수행하는 함수 (요청 K 이상으로 호출됨)
+     */
+    public <T> List<T> knn(double lat, double lng, int k, IntFunction<List<T>> loader, Located<T> located) {
+        if (k <= 0) return List.of();
+        int loadK = (int) Math.ceil(k * (1 + paramTolerance) * knnOverfetch);
+        return getOrLoad(KNN, lat, lng, k,
+                () -> loadKnn(lat, lng, loadK, loader, located),
+                entry -> answerKnn(entry, lat, lng, k, located));
+    }
+
+    /**
+     * 캐시된 항목으로 응답하고, 없거나 무효화되었거나 요청 영역을 포함하지 않으면 다시 적재 (같은 Key의 동시 Miss는 1회만 실행)
+     */
+    private <T> List<T> getOrLoad(String queryType, double lat, double lng, double param,
+                                  Supplier<Entry> loader, Function<Entry, List<T>> answer) {
+        Key key = new Key(queryType, cellOf(lat, lng, cellSizeDegree), paramBucket(param));
+
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && invalidateOnWrite && writtenSince(lat, lng, cached.loadedAtNanos())) {
+            cache.asMap().remove(key, cached);
+            cached = null;
+        }
+        if (cached != null) {
+            List<T> results = answer.apply(cached);
+            if (results != null) {
+                counter(hitCounters, queryType, "hit").increment();
+                return results;
+            }
+            // 적재 영역이 요청 영역을 포함하지 않음: 현재 중심점 기준으로 다시 적재하여 교체
+            counter(uncoveredCounters, queryType, "uncovered").increment();
+            cache.asMap().remove(key, cached);
+        } else {
+            counter(missCounters, queryType, "miss").increment();
+        }
+
+        Entry loaded = cache.get(key, k -> loader.get());
+        List<T> results = answer.apply(loaded);
+        // 동시 Miss에서 다른 중심점의 항목을 받았고 포함되지 않는 경우에만 캐시 없이 직접 조회
+        return results != null ? results : answer.apply(loader.get());
+    }
+
+    private static <T> Entry loadRange(double lat, double lng, double loadRadius, DoubleFunction<List<T>> loader) {
+        // 로드 시작 시각 기준으로 무효화 판단 (로드 중 발생한 쓰기도 반영)
+        long loadedAt = System.nanoTime();
+        List<T> results = loader.apply(loadRadius);
+        return new Entry(List.copyOf(results), lat, lng, loadRadius, loadRadius, loadedAt);
+    }
+
+    private static <T> Entry loadKnn(double lat, double lng, int loadK, IntFunction<List<T>> loader, Located<T> located) {
+        long loadedAt = System.nanoTime();
+        List<T> results = loader.apply(loadK);
+        // loadK개를 채운 경우에만 "가장 먼 결과까지의 원 안 개체는 모두 포함"이 성립 (미달 시 탐색 반경을 알 수 없음)
+        double covered = 0;
+        if (results.size() >= loadK) {
+            for (T result : results) {
+                covered = Math.max(covered, GeoMath.distanceMeter(lat, lng, located.latitude(result), located.longitude(result)));
+            }
+        }
+        return new Entry(List.copyOf(results), lat, lng, loadK, covered, loadedAt);
+    }
+
+    /**
+     * 요청 원(중심 이동 거리 + 반경)이 적재 원 안에 있으면 실제 중심점 기준 반경 이내 결과, 아니면 null
+     */
+    private static <T> List<T> answerRange(Entry entry, double lat, double lng, double radiusMeter, Located<T> located) {
+        double shift = GeoMath.distanceMeter(entry.lat(), entry.lng(), lat, lng);
+        if (shift + radiusMeter > entry.coveredMeter() * COVERAGE_SLACK) return null;
+        List<Hit<T>> hits = recentered(entry, lat, lng, located);
+        List<T> results = new ArrayList<>();
+        for (Hit<T> hit : hits) {
+            if (hit.distance() > radiusMeter) break;
+            results.add(located.withDistance(hit.result(), hit.distance()));
+        }
+        return results;
+    }
+
+    /**
+     * 같은 중심점이면 적재 결과의 상위 K개, 다른 중심점이면 k번째 거리 + 중심 이동 거리가 적재 반경 이내일 때만 상위 K개, 아니면 null
+     */
+    private static <T> List<T> answerKnn(Entry entry, double lat, double lng, int k, Located<T> located) {
+        boolean sameCentre = entry.lat() == lat && entry.lng() == lng;
+        if (k > entry.loadedParam() || (!sameCentre && entry.results().size() < k)) return null;
+        List<Hit<T>> hits = recentered(entry, lat, lng, located);
+        int count = Math.min(k, hits.size());
+        if (!sameCentre) {
+            double shift = GeoMath.distanceMeter(entry.lat(), entry.lng(), lat, lng);
+            if (hits.get(count - 1).distance() + shift > entry.coveredMeter() * COVERAGE_SLACK) return null;
+        }
+        List<T> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(located.withDistance(hits.get(i).result(), hits.get(i).distance()));
+        }
+        return results;
+    }
+
+    private static <T> List<Hit<T>> recentered(Entry entry, double lat, double lng, Located<T> located) {
+        List<T> results = cast(entry.results());
+        List<Hit<T>> hits = new ArrayList<>(results.size());
+        for (T result : results) {
+            hits.add(new Hit<>(result, GeoMath.distanceMeter(lat, lng, located.latitude(result), located.longitude(result))));
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distance));
+        return hits;
+    }
+
+    /**
+     * 중심점 셀 대각선 길이(m): 셀의 적도 쪽 경계(경도 폭이 가장 넓은 위도) 기준 상한
+     */
+    private double cellDiagonalMeter(double lat) {
+        double latMeter = cellSizeDegree * GeoMath.METERS_PER_DEGREE;
+        double nearestToEquator = Math.max(0, Math.abs(lat) - cellSizeDegree);
+        double lngMeter = latMeter * Math.cos(Math.toRadians(nearestToEquator));
+        return Math.hypot(latMeter, lngMeter);
+    }
+
+    /**
+     * 쓰기 경로에서 호출: 위치가 속한 무효화 셀의 최근 쓰기 시각 갱신 (invalidate-on-write 비활성 시 무시)
+     */
+    public void recordWrite(double lat, double lng) {
+        if (!invalidateOnWrite) return;
+        lastWriteNanos.put(cellOf(lat, lng, invalidationCellDegree), System.nanoTime());
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private boolean writtenSince(double lat, double lng, long loadedAtNanos) {
+        int row = rowOf(lat, invalidationCellDegree);
+        int col = colOf(lng, invalidationCellDegree);
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                Long writtenAt = lastWriteNanos.get(pack(r, c));
+                if (writtenAt != null && writtenAt - loadedAtNanos > 0) return true;
+            }
+        }
+        return false;
+    }
+
+    private long paramBucket(double param) {
+        return param > 0 ? Math.round(Math.log(param) / paramLogBase) : Long.MIN_VALUE;
+    }
+
+    private static long cellOf(double lat, double lng, double cellDegree) {
+        return pack(rowOf(lat, cellDegree), colOf(lng, cellDegree));
+    }
+
+    private static int rowOf(double lat, double cellDegree) {
+        return (int) Math.floor((lat + 90.0) / cellDegree);
+    }
+
+    private static int colOf(double lng, double cellDegree) {
+        return (int) Math.floor((lng + 180.0) / cellDegree);
+    }
+
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private void recordRemoval(RemovalCause cause) {
+        switch (cause) {
+            case EXPIRED -> staleCounter.increment();
+            case EXPLICIT -> invalidatedCounter.increment();
+            case SIZE -> sizeEvictionCounter.increment();
+            default -> {
+            }
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String queryType, String result) {
+        return counters.computeIfAbsent(queryType, type -> Counter.builder("location.query.cache.requests")
+                .description("공간 질의 캐시 조회 결과 (hit/miss)")
+                .tags("query", type, "result", result)
+                .register(meterRegistry));
+    }
+
+    private Counter evictionCounter(String cause, String description) {
+        return Counter.builder("location.query.cache.evictions")
+                .description(description)
+                .tags("cause", cause)
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> cast(List<?> results) {
+        return (List<T>) results;
+    }
+
+    private record Key(String queryType, long cell, long paramBucket) {
+    }
+
+    /**
+     * @param loadedParam  적재 시 사용한 반경(m) 또는 개수
+     * @param coveredMeter 적재 중심점에서 이 거리 안의 개체는 결과에 모두 포함됨 (Range: 적재 반경, KNN: 가장 먼 결과 거리)
+     */
+    private record Entry(List<?> results, double lat, double lng, double loadedParam, double coveredMeter,
+                         long loadedAtNanos) {
+    }
+
+    private record Hit<T>(T result, double distance) {
+    }
+}
@@ -0,0 +1,272 @@
+package ICN.itrc_project.codec;
+
+import ICN.itrc_project.dto.LocationRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * LocationRequest 전용 Compact Binary 코덱 (Kafka Value / Redis Stream 필드 공용)
+ * - 필드명 없이 고정 순서로 기록하고, 실수는 스케일 정수로 양자화하여 JSON 대비 크기를 1/5 수준으로 축소
+ *
+ * <pre>
+ * [0]  VERSION (0xB1, JSON '{'와 구분되는 매직 바이트)
+ * [1]  PRESENCE 플래그 (위경도/방향/속도/정확도/시각 유무)
+ * userId      : varint(UTF-8 길이 + 1, 0=null) + UTF-8
+ * serviceType : 1byte 사전 코드 (0=null, 0xFF=문자열 직접 기록)
+ * status      : 1byte 사전 코드 (0=null, 0xFF=문자열 직접 기록)
+ * lat, lng    : int32 (1e-7도 단위, 약 1.1cm 해상도)
+ * timestamp   : zigzag varint (TIMESTAMP_BASE 기준 ms 차이)
+ * heading     : zigzag varint (0.1도 단위)
+ * speed       : zigzag varint (0.01 km/h 단위)
+ * accuracy    : zigzag varint (0.01m 단위)
+ * </pre>
+ */
+public final class LocationBinaryCodec {
+
+    public static final byte VERSION = (byte) 0xB1;
+
+    /**
+     * 시각 차이 기준점 (2017-07-14T02:40:00Z): 현재 시각 기준 약 6byte
+     * - 메시지 간 delta는 파티션 재할당/재처리 시 이전 메시지 없이 복원할 수 없으므로 고정 기준점 사용
+     */
+    static final long TIMESTAMP_BASE = 1_500_000_000_000L;
+
+    private static final double COORD_SCALE = 1e7;
+    private static final double HEADING_SCALE = 10;
+    private static final double SPEED_SCALE = 100;
+    private static final double ACCURACY_SCALE = 100;
+
+    private static final int HAS_COORD = 1;
+    private static final int HAS_HEADING = 1 << 1;
+    private static final int HAS_SPEED = 1 << 2;
+    private static final int HAS_ACCURACY = 1 << 3;
+    private static final int HAS_TIMESTAMP = 1 << 4;
+
+    private static final int LITERAL = 0xFF;
+    private static final String[] SERVICE_TYPES = {null, "TAXI", "BIKE", "UNKNOWN"};
+    private static final String[] STATUSES = {null, "ON_TASK"};
+
+    // VERSION/FLAGS 2 + 사전 코드 2 + 좌표 8 + long varint 최대 10 * 4 + 문자열 길이 varint 최대 5 * 3
+    private static final int MAX_FIXED_BYTES = 2 + 2 + 8 + 10 * 4 + 5 * 3;
+
+    private LocationBinaryCodec() {
+    }
+
+    public static byte[] encode(LocationRequest request) {
+        byte[] userId = utf8(request.getUserId());
+        int serviceTypeCode = codeOf(SERVICE_TYPES, request.getServiceType());
+        int statusCode = codeOf(STATUSES, request.getStatus());
+        byte[] serviceTypeLiteral = serviceTypeCode == LITERAL ? utf8(request.getServiceType()) : null;
+        byte[] statusLiteral = statusCode == LITERAL ? utf8(request.getStatus()) : null;
+
+        Writer out = new Writer(MAX_FIXED_BYTES + length(userId) + length(serviceTypeLiteral) + length(statusLiteral));
+
+        int flags = 0;
+        if (request.getLatitude() != null && request.getLongitude() != null) flags |= HAS_COORD;
+        if (request.getHeading() != null) flags |= HAS_HEADING;
+        if (request.getSpeed() != null) flags |= HAS_SPEED;
+        if (request.getAccuracy() != null) flags |= HAS_ACCURACY;
+        if (request.getTimestamp() != null) flags |= HAS_TIMESTAMP;
+
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        out.writeBytes(userId);
+        out.writeByte(serviceTypeCode);
+        if (serviceTypeLiteral != null) out.writeBytes(serviceTypeLiteral);
+        out.writeByte(statusCode);
+        if (statusLiteral != null) out.writeBytes(statusLiteral);
+
+        if ((flags & HAS_COORD) != 0) {
+            out.writeInt((int) Math.round(request.getLatitude() * COORD_SCALE));
+            out.writeInt((int) Math.round(request.getLongitude() * COORD_SCALE));
+        }
+        if ((flags & HAS_TIMESTAMP) != 0) out.writeSignedVarLong(request.getTimestamp() - TIMESTAMP_BASE);
+        if ((flags & HAS_HEADING) != 0) out.writeSignedVarLong(Math.round(request.getHeading() * HEADING_SCALE));
+        if ((flags & HAS_SPEED) != 0) out.writeSignedVarLong(Math.round(request.getSpeed() * SPEED_SCALE));
+        if ((flags & HAS_ACCURACY) != 0) out.writeSignedVarLong(Math.round(request.getAccuracy() * ACCURACY_SCALE));
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException 버전 불일치, 잘린(Truncated) 데이터 또는 손상된 길이/코드 (디코딩 실패는 모두 이 예외로 변환)
+     */
+    public static LocationRequest decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Unsupported location codec version");
+        }
+        try {
+            Reader in = new Reader(data, 1);
+            int flags = in.readByte();
+
+            LocationRequest request = new LocationRequest();
+            request.setUserId(in.readString());
+            request.setServiceType(in.readCode(SERVICE_TYPES));
+            request.setStatus(in.readCode(STATUSES));
+
+            if ((flags & HAS_COORD) != 0) {
+                request.setLatitude(in.readInt() / COORD_SCALE);
+                request.setLongitude(in.readInt() / COORD_SCALE);
+            }
+            request.setTimestamp((flags & HAS_TIMESTAMP) != 0 ? in.readSignedVarLong() + TIMESTAMP_BASE : null);
+            if ((flags & HAS_HEADING) != 0) request.setHeading(in.readSignedVarLong() / HEADING_SCALE);
+            if ((flags & HAS_SPEED) != 0) request.setSpeed(in.readSignedVarLong() / SPEED_SCALE);
+            if ((flags & HAS_ACCURACY) != 0) request.setAccuracy(in.readSignedVarLong() / ACCURACY_SCALE);
+            return request;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated location payload", e);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed location payload", e);
+        }
+    }
+
+    /**
+     * 첫 바이트로 Binary 포맷 여부 판별 (JSON 등 다른 포맷과 혼재된 토픽/스트림 처리용)
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 1 && data[0] == VERSION;
+    }
+
+    /**
+     * 문자열 필드만 허용하는 저장소(Redis Stream 등)를 위한 Base64 표현
+     */
+    public static String encodeToString(LocationRequest request) {
+        return Base64.getEncoder().withoutPadding().encodeToString(encode(request));
+    }
+
+    public static LocationRequest decodeFromString(String encoded) {
+        return decode(Base64.getDecoder().decode(encoded));
+    }
+
+    private static int codeOf(String[] dictionary, String value) {
+        if (value == null) return 0;
+        for (int i = 1; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) return i;
+        }
+        return LITERAL;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static final class Writer {
+        private final byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * 길이(+1) 접두 바이트열 (null은 길이 0으로 기록)
+         */
+        void writeBytes(byte[] bytes) {
+            if (bytes == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(bytes.length + 1L);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        int readInt() {
+            return (buffer[position++] & 0xFF) << 24
+                    | (buffer[position++] & 0xFF) << 16
+                    | (buffer[position++] & 0xFF) << 8
+                    | (buffer[position++] & 0xFF);
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint in location payload");
+        }
+
+        long readSignedVarLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        /**
+         * 길이 접두를 남은 바이트 수와 먼저 비교하여 손상된 길이로 큰 배열을 만들거나 범위를 벗어나지 않도록 함
+         */
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) return null;
+            // varint는 부호 없는 값이므로 음수(상위 비트 설정)도 손상으로 처리
+            if (length < 0 || length - 1 > remaining()) {
+                throw new IllegalArgumentException("Invalid string length in location payload: " + Long.toUnsignedString(length));
+            }
+            int size = (int) (length - 1);
+            String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        String readCode(String[] dictionary) {
+            int code = readByte();
+            if (code == LITERAL) return readString();
+            if (code >= dictionary.length) throw new IllegalArgumentException("Unknown dictionary code: " + code);
+            return dictionary[code];
+        }
+    }
+}
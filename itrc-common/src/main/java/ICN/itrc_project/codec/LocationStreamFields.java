@@ -0,0 +1,45 @@
+package ICN.itrc_project.codec;
+
+import ICN.itrc_project.dto.LocationRequest;
+import com.uber.h3core.H3Core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redis Stream FIELDS 레코드 구성 (Stream Producer와 Bulk Loader 공용)
+ * - Grab-Posisi 컬럼명 + RediSearch 전용 필드(location, h3_index)를 문자열로 기록
+ */
+public final class LocationStreamFields {
+
+    public static final String BINARY_FIELD = "bin"; // BINARY 레코드의 단일 필드명 (LocationBinaryCodec Base64)
+    public static final int H3_RESOLUTION = 9;
+    private static final int FIELD_COUNT = 10;
+
+    private LocationStreamFields() {
+    }
+
+    /**
+     * LocationRequest → Stream 필드 (Grab-Posisi 컬럼명 + RediSearch 전용 필드)
+     */
+    public static Map<String, String> toFields(H3Core h3, LocationRequest request) {
+        // 1. 위경도를 H3 Index(해상도 9)로 변환 (공간 인덱싱 최적화)
+        String h3Index = h3.latLngToCellAddress(request.getLatitude(), request.getLongitude(), H3_RESOLUTION);
+
+        // 2. Redis Stream에 넣을 메시지 데이터 구성
+        Map<String, String> fields = new LinkedHashMap<>(FIELD_COUNT * 2);
+        fields.put("trj_id", request.getUserId());
+        fields.put("driving_mode", String.valueOf(request.getServiceType()));
+        fields.put("pingtimestamp", String.valueOf(request.getTimestamp()));
+        fields.put("rawlat", String.valueOf(request.getLatitude()));
+        fields.put("rawlng", String.valueOf(request.getLongitude()));
+        fields.put("speed", String.valueOf(request.getSpeed()));
+        fields.put("bearing", String.valueOf(request.getHeading()));
+        fields.put("accuracy", String.valueOf(request.getAccuracy()));
+
+        // 3. Redis Search(공간 쿼리)를 위한 전용 필드 추가 (lon,lat 순서 중요)
+        fields.put("location", request.getLongitude() + "," + request.getLatitude());
+        fields.put("h3_index", h3Index);
+        return fields;
+    }
+}
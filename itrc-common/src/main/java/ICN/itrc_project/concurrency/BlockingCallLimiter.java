@@ -0,0 +1,89 @@
+package ICN.itrc_project.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 블로킹 저장소 호출의 동시 실행 상한 (가상 스레드 실행 시)
+ * - 플랫폼 스레드에서는 Tomcat 스레드 수(기본 200)가 저장소 동시 호출 수를 제한하지만, 가상 스레드는 요청마다 생성되어 이 제한이 사라짐
+ * - 커넥션 풀 크기만큼의 Permit으로 동시 호출을 제한하고, 대기가 acquireTimeout을 넘으면 503으로 부하를 차단
+ * - Semaphore 대기는 가상 스레드를 Carrier 스레드에 고정(Pinning)하지 않음 (synchronized 블록 안의 I/O와 달리)
+ */
+public class BlockingCallLimiter {
+
+    private final String resource;
+    private final int maxPermits;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public BlockingCallLimiter(String resource, int maxPermits, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.resource = resource;
+        this.maxPermits = maxPermits;
+        this.permits = new Semaphore(maxPermits, true); // 공정 모드: 대기 순서대로 획득하여 꼬리 지연 완화
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        this.waitTimer = Timer.builder("location.blocking.permit.wait")
+                .description("저장소 호출 Permit 획득 대기 시간")
+                .tag("resource", resource)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("location.blocking.rejected")
+                .description("Permit 대기 시간 초과로 거절된 호출 수 (503)")
+                .tag("resource", resource)
+                .register(meterRegistry);
+        Gauge.builder("location.blocking.in.use", this, BlockingCallLimiter::inUse)
+                .description("실행 중인 저장소 호출 수")
+                .tag("resource", resource)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws CallLimitExceededException Permit 대기 시간 초과 또는 대기 중 인터럽트
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private void acquire() {
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallLimitExceededException(resource);
+        } finally {
+            waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new CallLimitExceededException(resource);
+        }
+    }
+
+    private int inUse() {
+        return maxPermits - permits.availablePermits();
+    }
+}
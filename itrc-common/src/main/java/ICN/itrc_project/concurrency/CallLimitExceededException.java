@@ -0,0 +1,15 @@
+package ICN.itrc_project.concurrency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 저장소 동시 호출 상한 초과: MVC가 503으로 응답 (클라이언트 재시도 대상)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CallLimitExceededException extends RuntimeException {
+
+    public CallLimitExceededException(String resource) {
+        super("Too many concurrent " + resource + " calls");
+    }
+}
@@ -0,0 +1,23 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.metrics.FreshnessRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 신선도/구간 지연 계측 설정: 세 모듈 공통 (스냅샷 이관 주기는 Prometheus scrape 주기보다 짧게 유지)
+ */
+@Configuration
+public class FreshnessMetricsConfig {
+
+    @Bean(destroyMethod = "close")
+    public FreshnessRecorder freshnessRecorder(
+            MeterRegistry meterRegistry,
+            @Value("${lbs.metrics.freshness.flush-interval:1s}") Duration flushInterval) {
+        return new FreshnessRecorder(meterRegistry, flushInterval);
+    }
+}
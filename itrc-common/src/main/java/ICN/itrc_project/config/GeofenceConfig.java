@@ -0,0 +1,45 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.geofence.GeofenceEventSink;
+import ICN.itrc_project.geofence.GeofenceIndex;
+import ICN.itrc_project.geofence.GeofenceMonitor;
+import ICN.itrc_project.geofence.GeofenceSseBroadcaster;
+import com.uber.h3core.H3Core;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Geofence Standing Query 설정: 등록된 영역을 수신 경로에서 증분 평가하여 진입/이탈만 Push
+ * - SSE는 항상 제공, Kafka 토픽 전달은 Kafka 모듈의 Sink가 추가 (lbs.geofence.enabled=true 일 때만 활성화)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.geofence", name = "enabled", havingValue = "true")
+public class GeofenceConfig {
+
+    @Bean
+    public GeofenceIndex geofenceIndex(
+            @Value("${lbs.geofence.resolution:9}") int resolution,
+            @Value("${lbs.geofence.max-cells:20000}") int maxCells) throws IOException {
+        return new GeofenceIndex(H3Core.newInstance(), resolution, maxCells);
+    }
+
+    @Bean
+    public GeofenceSseBroadcaster geofenceSseBroadcaster(
+            @Value("${lbs.geofence.sse.queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return new GeofenceSseBroadcaster(queueCapacity, meterRegistry);
+    }
+
+    @Bean
+    public GeofenceMonitor geofenceMonitor(GeofenceIndex geofenceIndex,
+                                           ObjectProvider<GeofenceEventSink> sinks,
+                                           MeterRegistry meterRegistry) {
+        return new GeofenceMonitor(geofenceIndex, sinks.orderedStream().toList(), meterRegistry);
+    }
+}
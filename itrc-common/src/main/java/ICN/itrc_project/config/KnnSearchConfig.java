@@ -0,0 +1,27 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.search.AdaptiveKnnExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive KNN 설정: Redis 기반 KNN을 반경 확장 방식으로 수행
+ * (기본 활성화, lbs.knn.adaptive=false 시 기존 고정 반경 방식으로 비교 실험 가능)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.knn", name = "adaptive", havingValue = "true", matchIfMissing = true)
+public class KnnSearchConfig {
+
+    @Bean
+    public AdaptiveKnnExecutor adaptiveKnnExecutor(
+            @Value("${lbs.knn.initial-radius-meter:500}") double initialRadiusMeter,
+            @Value("${lbs.knn.max-radius-meter:50000}") double maxRadiusMeter,
+            @Value("${lbs.knn.growth-factor:2.0}") double growthFactor,
+            @Value("${lbs.knn.density-cell-degree:0.05}") double densityCellDegree,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveKnnExecutor(initialRadiusMeter, maxRadiusMeter, growthFactor, densityCellDegree, meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local Spatial Index 설정: 쓰기 경로에서 최신 위치를 JVM 내부 Grid 인덱스에 반영하여
+ * Range/KNN/PIP 조회를 외부 저장소 왕복 없이 처리 (lbs.local-index.enabled=true 일 때만 활성화)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.local-index", name = "enabled", havingValue = "true")
+public class LocalIndexConfig {
+
+    @Bean
+    public GridSpatialIndex gridSpatialIndex(
+            @Value("${lbs.local-index.cell-size-degree:0.01}") double cellSizeDegree,
+            @Value("${lbs.local-index.stripes:256}") int stripes) {
+        return new GridSpatialIndex(cellSizeDegree, stripes);
+    }
+}
@@ -0,0 +1,38 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.spatial.OffHeapLocationStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Off-Heap 최신 위치 저장소 설정: Consumer가 반영한 사용자별 최신 위치를 Direct Buffer에 보관하여
+ * 단건 조회를 Redis 왕복 없이 처리 (lbs.offheap-store.enabled=true 일 때만 활성화)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.offheap-store", name = "enabled", havingValue = "true")
+public class OffHeapStoreConfig {
+
+    @Bean
+    public OffHeapLocationStore offHeapLocationStore(
+            @Value("${lbs.offheap-store.capacity:1000000}") int capacity,
+            @Value("${lbs.offheap-store.max-key-bytes:31}") int maxKeyBytes,
+            MeterRegistry meterRegistry) {
+        OffHeapLocationStore store = new OffHeapLocationStore(capacity, maxKeyBytes);
+        Gauge.builder("location.offheap.entries", store, OffHeapLocationStore::size)
+                .description("Off-Heap 저장소에 보관 중인 사용자 수")
+                .register(meterRegistry);
+        Gauge.builder("location.offheap.bytes", store, OffHeapLocationStore::offHeapBytes)
+                .description("Off-Heap 저장소가 할당한 Direct Buffer 크기 (색인 테이블 + Slab)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("location.offheap.rejected", store, OffHeapLocationStore::rejectedWrites)
+                .description("키 형식/용량 초과로 Off-Heap 저장소에 반영되지 않은 쓰기 수")
+                .register(meterRegistry);
+        return store;
+    }
+}
@@ -0,0 +1,22 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.paging.PageLimits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 대용량 공간 질의 결과의 Cursor 페이지 / NDJSON 스트리밍 설정 (/page, /stream 엔드포인트 공용)
+ */
+@Configuration
+public class PagingConfig {
+
+    @Bean
+    public PageLimits pageLimits(
+            @Value("${lbs.paging.default-size:200}") int defaultSize,
+            @Value("${lbs.paging.max-size:1000}") int maxSize,
+            @Value("${lbs.paging.stream-batch:500}") int streamBatch,
+            @Value("${lbs.paging.flush-rows:256}") int flushRows) {
+        return new PageLimits(defaultSize, maxSize, streamBatch, flushRows);
+    }
+}
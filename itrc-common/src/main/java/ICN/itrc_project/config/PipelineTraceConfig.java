@@ -0,0 +1,34 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.metrics.PipelineTraceFilter;
+import ICN.itrc_project.metrics.PipelineTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 파이프라인 구간 추적 설정: 샘플링된 이벤트의 홉별 시각을 메시지에 실어 구간별 지연 분해
+ * (lbs.trace.enabled=true 일 때만 활성화)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.trace", name = "enabled", havingValue = "true")
+public class PipelineTraceConfig {
+
+    @Bean
+    public PipelineTracer pipelineTracer(
+            @Value("${lbs.trace.sample-rate:0.01}") double sampleRate,
+            @Value("${lbs.trace.slow-percentile:99.0}") double slowPercentile,
+            @Value("${lbs.trace.threshold-refresh:10s}") Duration thresholdRefresh,
+            MeterRegistry meterRegistry) {
+        return new PipelineTracer(sampleRate, slowPercentile, thresholdRefresh, meterRegistry);
+    }
+
+    @Bean
+    public PipelineTraceFilter pipelineTraceFilter() {
+        return new PipelineTraceFilter();
+    }
+}
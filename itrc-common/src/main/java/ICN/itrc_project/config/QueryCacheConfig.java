@@ -0,0 +1,33 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.cache.SpatialQueryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Query Result Cache 설정: 반복되는 Range/KNN 질의 결과를 신선도 SLO 이내에서 재사용
+ * (lbs.query-cache.enabled=true 일 때만 활성화)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.query-cache", name = "enabled", havingValue = "true")
+public class QueryCacheConfig {
+
+    @Bean
+    public SpatialQueryCache spatialQueryCache(
+            @Value("${lbs.query-cache.maximum-size:10000}") long maximumSize,
+            @Value("${lbs.query-cache.max-staleness:500ms}") Duration maxStaleness,
+            @Value("${lbs.query-cache.cell-size-degree:0.005}") double cellSizeDegree,
+            @Value("${lbs.query-cache.param-tolerance:0.1}") double paramTolerance,
+            @Value("${lbs.query-cache.knn-overfetch:2.0}") double knnOverfetch,
+            @Value("${lbs.query-cache.invalidate-on-write:false}") boolean invalidateOnWrite,
+            @Value("${lbs.query-cache.invalidation-cell-degree:0.05}") double invalidationCellDegree,
+            MeterRegistry meterRegistry) {
+        return new SpatialQueryCache(maximumSize, maxStaleness, cellSizeDegree, paramTolerance, knnOverfetch,
+                invalidateOnWrite, invalidationCellDegree, meterRegistry);
+    }
+}
@@ -0,0 +1,16 @@
+package ICN.itrc_project.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 최신 위치 상태 Snapshot 설정: lbs.snapshot.interval 주기로 로컬 상태와 소비 위치를 파일에 기록하고,
+ * 기동 시 Snapshot을 적재한 뒤 기록된 위치부터 이어서 소비 (lbs.snapshot.enabled=true 일 때만 활성화)
+ * - 주기 기록을 위해 스케줄링만 활성화, 실제 기록/복원은 각 API 모듈의 Snapshotter가 담당
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "lbs.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotConfig {
+}
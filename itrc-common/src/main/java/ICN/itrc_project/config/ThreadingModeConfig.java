@@ -0,0 +1,31 @@
+package ICN.itrc_project.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 요청 처리 스레드 모드(플랫폼/가상) 표시: 모든 지표에 threading 태그를 붙여 같은 대시보드에서 두 모드의 실행 결과를 구분
+ * - spring.threads.virtual.enabled=true라도 Java 21 미만 런타임에서는 플랫폼 스레드로 실행되므로 실제 적용 여부를 기록
+ */
+@Slf4j
+@Configuration
+public class ThreadingModeConfig {
+
+    @Bean
+    public MeterFilter threadingModeTag(Environment environment) {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean active = Threading.VIRTUAL.isActive(environment);
+        if (requested && !active) {
+            log.warn(">>> [⚠️ 스레드 모드] 가상 스레드가 설정되었지만 Java {} 런타임이라 플랫폼 스레드로 실행합니다 (Java 21 이상 필요)",
+                    Runtime.version().feature());
+        } else {
+            log.info(">>> [🧵 스레드 모드] {}", active ? "virtual" : "platform");
+        }
+        return MeterFilter.commonTags(Tags.of("threading", active ? "virtual" : "platform"));
+    }
+}
@@ -0,0 +1,63 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.search.SpatioTemporalSearch;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 궤적 이력 저장소 설정: 최신 위치만 남기는 저장소와 별도로, 수신한 모든 Ping을 시간 Bucket 단위의
+ * 압축 Segment 파일에 Append하여 사용자별 구간 궤적 조회 제공 (lbs.trajectory.enabled=true 일 때만 활성화)
+ * - 종료 시 열린 Bucket을 봉인 (TrajectoryStore.close)
+ * - 같은 Segment로 시공간 질의(구간 × 반경 안에 있었던 개체) 제공 (SpatioTemporalSearch)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.trajectory", name = "enabled", havingValue = "true")
+public class TrajectoryStoreConfig {
+
+    @Bean
+    public TrajectoryStore trajectoryStore(
+            @Value("${lbs.trajectory.path:trajectories}") String path,
+            @Value("${lbs.trajectory.bucket:1h}") Duration bucket,
+            @Value("${lbs.trajectory.seal-grace:5m}") Duration sealGrace,
+            @Value("${lbs.trajectory.retention:7d}") Duration retention,
+            @Value("${lbs.trajectory.seal-interval:30s}") Duration sealInterval,
+            MeterRegistry meterRegistry) throws IOException {
+        TrajectoryStore store = new TrajectoryStore(Path.of(path), bucket, sealGrace, retention, sealInterval);
+        Gauge.builder("location.trajectory.pings", store, TrajectoryStore::sealedPings)
+                .tag("state", "sealed")
+                .description("봉인된 Bucket 파일에 보관 중인 Ping 수")
+                .register(meterRegistry);
+        Gauge.builder("location.trajectory.pings", store, TrajectoryStore::openPings)
+                .tag("state", "open")
+                .description("봉인 전 메모리 Segment에 보관 중인 Ping 수")
+                .register(meterRegistry);
+        Gauge.builder("location.trajectory.bytes", store, TrajectoryStore::sealedBytes)
+                .description("봉인된 Bucket 파일 크기 합 (Directory 포함)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("location.trajectory.rejected", store, TrajectoryStore::rejectedAppends)
+                .description("열린 Segment에 이미 있는 timestamp(중복) 또는 키 길이 초과로 기록하지 않은 Ping 수")
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    public SpatioTemporalSearch spatioTemporalSearch(
+            TrajectoryStore trajectoryStore,
+            @Value("${lbs.trajectory.query.parallelism:0}") int parallelism,
+            MeterRegistry meterRegistry) {
+        // 0: 가용 CPU 수
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new SpatioTemporalSearch(trajectoryStore, threads, meterRegistry);
+    }
+}
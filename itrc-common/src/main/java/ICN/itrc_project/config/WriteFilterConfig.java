@@ -0,0 +1,31 @@
+package ICN.itrc_project.config;
+
+import ICN.itrc_project.ingest.WriteSuppressionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 수신 단계 쓰기 억제 설정: 순서가 뒤바뀐 Ping과 정지/예측 범위 안의 Ping을 저장소에 기록하지 않음
+ * (lbs.write-filter.enabled=true 일 때만 활성화)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lbs.write-filter", name = "enabled", havingValue = "true")
+public class WriteFilterConfig {
+
+    @Bean
+    public WriteSuppressionFilter writeSuppressionFilter(
+            @Value("${lbs.write-filter.maximum-users:1000000}") long maximumUsers,
+            @Value("${lbs.write-filter.max-staleness:30s}") Duration maxStaleness,
+            @Value("${lbs.write-filter.min-displacement-meter:5}") double minDisplacementMeter,
+            @Value("${lbs.write-filter.max-accuracy-meter:50}") double maxAccuracyMeter,
+            @Value("${lbs.write-filter.dead-reckoning:false}") boolean deadReckoning,
+            MeterRegistry meterRegistry) {
+        return new WriteSuppressionFilter(maximumUsers, maxStaleness, minDisplacementMeter,
+                maxAccuracyMeter, deadReckoning, meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package ICN.itrc_project.controller;
+
+import ICN.itrc_project.dto.GeofenceRequest;
+import ICN.itrc_project.geofence.Geofence;
+import ICN.itrc_project.geofence.GeofenceMonitor;
+import ICN.itrc_project.geofence.GeofenceSseBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Geofence Controller: Standing Query 등록/해제와 진입/이탈 이벤트 SSE 구독
+ * - 등록된 Geofence는 Consumer(Kafka/Stream)가 위치를 반영할 때마다 증분 평가됨 (구역 재조회 Polling 불필요)
+ * - 경로 접두사는 모듈별 lbs.api.path-prefix (TrajectoryController와 동일)
+ */
+@RestController
+@RequestMapping("${lbs.api.path-prefix:/api/v1}/geofences")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.geofence", name = "enabled", havingValue = "true")
+public class GeofenceController {
+
+    private final GeofenceMonitor geofenceMonitor;
+    private final GeofenceSseBroadcaster broadcaster;
+
+    @PostMapping
+    public ResponseEntity<?> register(@RequestBody GeofenceRequest request) {
+        try {
+            Geofence fence = request.toGeofence();
+            int cells = geofenceMonitor.getIndex().register(fence);
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", fence.id(), "cells", cells));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Collection<Geofence>> list() {
+        return ResponseEntity.ok(geofenceMonitor.getIndex().fences());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> remove(@PathVariable String id) {
+        return geofenceMonitor.getIndex().remove(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 사용자가 현재 안에 있는 Geofence id
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<Set<String>> membership(@PathVariable String userId) {
+        return ResponseEntity.ok(geofenceMonitor.getIndex().membershipOf(userId));
+    }
+
+    /**
+     * 진입/이탈 이벤트 구독 (SSE event name: enter/exit, fenceId 미지정 시 전체)
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) String fenceId) {
+        return broadcaster.subscribe(fenceId);
+    }
+}
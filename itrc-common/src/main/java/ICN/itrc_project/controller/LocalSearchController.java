@@ -0,0 +1,52 @@
+package ICN.itrc_project.controller;
+
+import ICN.itrc_project.dto.LocationRequest;
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.dto.PolygonRequest;
+import ICN.itrc_project.spatial.GridSpatialIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Local Search Controller: 쓰기 경로(Kafka/Stream Consumer, RDBMS 업데이트 API)가 갱신하는 JVM 내부 공간 인덱스에서 Range/KNN/PIP 조회
+ * - 외부 저장소 조회와 같은 요청 본문/응답 형태로 네트워크 왕복 비용만 제거
+ * - 모든 모듈이 같은 파라미터(radiusMeter: m, n: 개수)를 사용하며 경로 접두사는 모듈별 lbs.api.path-prefix
+ */
+@RestController
+@RequestMapping("${lbs.api.path-prefix:/api/v1}/search/local")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.local-index", name = "enabled", havingValue = "true")
+public class LocalSearchController {
+
+    private final GridSpatialIndex localIndex;
+
+    @PostMapping("/range")
+    public ResponseEntity<List<LocationResponse>> searchByRange(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "1000") double radiusMeter) {
+        return ResponseEntity.ok(localIndex.range(request.getLatitude(), request.getLongitude(), radiusMeter).stream()
+                .map(LocationResponse::fromHit)
+                .toList());
+    }
+
+    @PostMapping("/knn")
+    public ResponseEntity<List<LocationResponse>> searchByKnn(
+            @RequestBody LocationRequest request,
+            @RequestParam(defaultValue = "10") int n) {
+        return ResponseEntity.ok(localIndex.knn(request.getLatitude(), request.getLongitude(), n).stream()
+                .map(LocationResponse::fromHit)
+                .toList());
+    }
+
+    @PostMapping("/pip")
+    public ResponseEntity<List<LocationResponse>> searchByPolygon(@RequestBody PolygonRequest request) {
+        if (!request.isValid()) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(localIndex.polygon(request.latArray(), request.lngArray()).stream()
+                .map(LocationResponse::fromHit)
+                .toList());
+    }
+}
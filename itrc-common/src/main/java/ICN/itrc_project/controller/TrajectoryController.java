@@ -0,0 +1,45 @@
+package ICN.itrc_project.controller;
+
+import ICN.itrc_project.search.SpatioTemporalSearch;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 궤적 이력 Controller: 수신 경로가 Append한 Ping으로 사용자의 구간 궤적 조회
+ * - 봉인된 Bucket 파일과 봉인 전 메모리 Segment를 합쳐 timestamp 오름차순 반환
+ * - 시공간 질의: 구간 안에 중심점 반경 안에 있었던 사용자 (최신 위치만 보관하는 검색 API로는 불가)
+ * - 모든 API 모듈이 공유하며 경로 접두사는 모듈별 lbs.api.path-prefix (Kafka /api/v1, Stream /api/v1/redis, RDBMS /api/v1/rdbms)
+ */
+@RestController
+@RequestMapping("${lbs.api.path-prefix:/api/v1}/trajectories")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lbs.trajectory", name = "enabled", havingValue = "true")
+public class TrajectoryController {
+
+    private final TrajectoryStore trajectoryStore;
+    private final SpatioTemporalSearch spatioTemporalSearch;
+
+    /**
+     * 구간 [from, to]에 (lat, lng)에서 radius(m) 안에 있었던 사용자와 Pruning/디코딩 통계
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> whoWasHere(@RequestParam double lat, @RequestParam double lng, @RequestParam double radius,
+                                        @RequestParam long from, @RequestParam long to) {
+        if (from > to) return ResponseEntity.badRequest().body("from must not be after to");
+        if (radius <= 0) return ResponseEntity.badRequest().body("radius must be positive");
+        return ResponseEntity.ok(spatioTemporalSearch.search(lat, lng, radius, from, to));
+    }
+
+    /**
+     * @param from 구간 시작 (epoch ms, 포함)
+     * @param to   구간 끝 (epoch ms, 포함)
+     */
+    @GetMapping("/{userId}")
+    public ResponseEntity<?> track(@PathVariable String userId, @RequestParam long from, @RequestParam long to) {
+        if (from > to) return ResponseEntity.badRequest().body("from must not be after to");
+        return ResponseEntity.ok(trajectoryStore.track(userId, from, to));
+    }
+}
@@ -0,0 +1,39 @@
+package ICN.itrc_project.dto;
+
+import ICN.itrc_project.geofence.Geofence;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Geofence 등록 요청: lats/lngs(다각형) 또는 centerLat/centerLng/radiusMeter(원) 중 하나
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class GeofenceRequest {
+    private String id;
+    private List<Double> lats;
+    private List<Double> lngs;
+    private Double centerLat;
+    private Double centerLng;
+    private Double radiusMeter;
+
+    /**
+     * @throws IllegalArgumentException id 누락 또는 다각형/원 형식이 아닌 경우
+     */
+    public Geofence toGeofence() {
+        if (id == null || id.isBlank()) throw new IllegalArgumentException("id is required");
+        if (lats != null || lngs != null) {
+            PolygonRequest polygon = new PolygonRequest(lats, lngs);
+            if (!polygon.isValid()) throw new IllegalArgumentException("Polygon needs at least 3 vertices with matching lat/lng arrays");
+            return Geofence.polygon(id, polygon.latArray(), polygon.lngArray());
+        }
+        if (centerLat == null || centerLng == null || radiusMeter == null) {
+            throw new IllegalArgumentException("Either lats/lngs or centerLat/centerLng/radiusMeter is required");
+        }
+        return Geofence.circle(id, centerLat, centerLng, radiusMeter);
+    }
+}
@@ -1,5 +1,7 @@
 package ICN.itrc_project.dto;
 
+import ICN.itrc_project.cache.SpatialQueryCache;
+import ICN.itrc_project.spatial.SpatialHit;
 import lombok.*;
 import redis.clients.jedis.search.Document;
 
@@ -37,4 +39,37 @@ public class LocationResponse {
                 .distanceMeter(doc.get("dist") != null ? Double.parseDouble(String.valueOf(doc.get("dist"))) : 0.0)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * 인메모리 공간 인덱스(GridSpatialIndex)의 조회 결과를 우리 DTO로 변환하는 메서드
+     */
+    public static LocationResponse fromHit(SpatialHit hit) {
+        return LocationResponse.builder()
+                .userId(hit.userId())
+                .latitude(hit.latitude())
+                .longitude(hit.longitude())
+                .distanceMeter(hit.distanceMeter())
+                .build();
+    }
+
+    /**
+     * 질의 캐시 재사용 시 좌표 접근 및 실제 중심점 기준 거리로 다시 계산한 사본 생성
+     */
+    public static final SpatialQueryCache.Located<LocationResponse> LOCATED = new SpatialQueryCache.Located<>() {
+        @Override
+        public double latitude(LocationResponse result) {
+            return result.latitude;
+        }
+
+        @Override
+        public double longitude(LocationResponse result) {
+            return result.longitude;
+        }
+
+        @Override
+        public LocationResponse withDistance(LocationResponse result, double distanceMeter) {
+            return new LocationResponse(result.userId, result.latitude, result.longitude, distanceMeter,
+                    result.h3Index, result.status);
+        }
+    };
+}
@@ -0,0 +1,30 @@
+package ICN.itrc_project.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 다각형(PIP) 조회 요청: 꼭짓점의 위도/경도 배열 (순서대로 연결, 첫 점 반복 불필요)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class PolygonRequest {
+    private List<Double> lats;
+    private List<Double> lngs;
+
+    public boolean isValid() {
+        return lats != null && lngs != null && lats.size() == lngs.size() && lats.size() >= 3;
+    }
+
+    public double[] latArray() {
+        return lats.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    public double[] lngArray() {
+        return lngs.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
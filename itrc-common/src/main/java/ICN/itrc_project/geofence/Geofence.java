@@ -0,0 +1,33 @@
+package ICN.itrc_project.geofence;
+
+import ICN.itrc_project.spatial.GeoMath;
+
+/**
+ * 등록된 Geofence (Standing Query): 다각형(lats/lngs) 또는 원(중심 + 반경) 중 하나
+ */
+public record Geofence(String id, double[] lats, double[] lngs, double centerLat, double centerLng, double radiusMeter) {
+
+    public static Geofence polygon(String id, double[] lats, double[] lngs) {
+        if (lats.length != lngs.length || lats.length < 3) {
+            throw new IllegalArgumentException("Polygon needs at least 3 vertices with matching lat/lng arrays");
+        }
+        return new Geofence(id, lats.clone(), lngs.clone(), Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    public static Geofence circle(String id, double centerLat, double centerLng, double radiusMeter) {
+        if (!(radiusMeter > 0)) throw new IllegalArgumentException("radiusMeter must be positive");
+        return new Geofence(id, null, null, centerLat, centerLng, radiusMeter);
+    }
+
+    public boolean isCircle() {
+        return lats == null;
+    }
+
+    /**
+     * 정밀 포함 판정 (경계 셀에 위치한 개체에만 사용)
+     */
+    public boolean contains(double lat, double lng) {
+        if (isCircle()) return GeoMath.distanceMeter(centerLat, centerLng, lat, lng) <= radiusMeter;
+        return GeoMath.contains(lats, lngs, lat, lng);
+    }
+}
@@ -0,0 +1,11 @@
+package ICN.itrc_project.geofence;
+
+/**
+ * 사용자의 Geofence 소속 변화 1건 (진입/이탈 시점의 위치와 Ping timestamp)
+ */
+public record GeofenceEvent(String fenceId, String userId, Type type, double latitude, double longitude, long timestamp) {
+
+    public enum Type {
+        ENTER, EXIT
+    }
+}
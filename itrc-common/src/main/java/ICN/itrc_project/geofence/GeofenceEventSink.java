@@ -0,0 +1,11 @@
+package ICN.itrc_project.geofence;
+
+import java.util.List;
+
+/**
+ * Geofence 이벤트 전달 경로 (SSE, Kafka 토픽 등): 수신 경로 스레드에서 호출되므로 블로킹 I/O는 비동기로 넘겨야 함
+ */
+public interface GeofenceEventSink {
+
+    void publish(List<GeofenceEvent> events);
+}
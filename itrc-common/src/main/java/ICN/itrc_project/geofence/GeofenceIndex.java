@@ -0,0 +1,178 @@
+package ICN.itrc_project.geofence;
+
+import ICN.itrc_project.search.H3PolygonCover;
+import ICN.itrc_project.spatial.GeoMath;
+import com.uber.h3core.H3Core;
+import com.uber.h3core.LengthUnit;
+import com.uber.h3core.util.LatLng;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 증분 Geofence 평가 인덱스: 등록된 Geofence를 H3 셀(고정 해상도) 단위로 색인하고,
+ * 위치 갱신마다 해당 셀의 Geofence만 판정하여 사용자별 소속이 바뀐 경우에만 진입/이탈 이벤트 생성
+ * - 내부 셀: 셀 전체가 Geofence 안 → 판정 없이 소속 / 경계 셀: 정밀 판정 (다각형은 H3PolygonCover 분류 재사용)
+ * - 비용은 갱신 1건당 O(해당 셀의 Geofence 수): Geofence 수 × 조회 주기에 비례하던 Polling 재조회를 대체
+ * - 소속 상태는 1개 이상 Geofence 안에 있는 사용자만 보관 (모두 이탈하면 제거)
+ *
+ * 같은 사용자의 갱신은 timestamp 순서로 들어온다고 가정 (더 오래된 갱신은 무시, Kafka는 userId Key 파티션 순서)
+ */
+public class GeofenceIndex {
+
+    private final H3Core h3;
+    private final int resolution;
+    private final int maxCells;
+
+    private final Map<String, Registered> fences = new ConcurrentHashMap<>();
+    private volatile Map<Long, CellEntry[]> cellIndex = Map.of();
+    private final Map<String, Membership> memberships = new ConcurrentHashMap<>();
+
+    public GeofenceIndex(H3Core h3, int resolution, int maxCells) {
+        this.h3 = h3;
+        this.resolution = resolution;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * 등록(같은 id는 교체) 후 셀 색인 재구성, 기존 소속 사용자는 다음 갱신 때 재판정
+     *
+     * @return 색인된 셀 수 (내부 + 경계)
+     * @throws IllegalArgumentException 해상도 기준 셀 수가 maxCells를 넘는 경우
+     */
+    public int register(Geofence fence) {
+        Map<Long, Boolean> cells = fence.isCircle() ? circleCells(fence) : polygonCells(fence);
+        if (cells.size() > maxCells) {
+            throw new IllegalArgumentException("Geofence covers " + cells.size() + " cells (max " + maxCells + ") at resolution " + resolution);
+        }
+        synchronized (this) {
+            fences.put(fence.id(), new Registered(fence, cells));
+            rebuild();
+        }
+        return cells.size();
+    }
+
+    /**
+     * 제거된 Geofence는 소속 사용자에게 이탈 이벤트를 보내지 않고 다음 갱신 때 소속에서만 빠짐
+     */
+    public boolean remove(String fenceId) {
+        synchronized (this) {
+            if (fences.remove(fenceId) == null) return false;
+            rebuild();
+            return true;
+        }
+    }
+
+    public Collection<Geofence> fences() {
+        return fences.values().stream().map(Registered::fence).toList();
+    }
+
+    public int size() {
+        return fences.size();
+    }
+
+    public int memberCount() {
+        return memberships.size();
+    }
+
+    /**
+     * 사용자의 현재 소속 Geofence id
+     */
+    public Set<String> membershipOf(String userId) {
+        Membership membership = memberships.get(userId);
+        return membership == null ? Set.of() : Set.copyOf(membership.fenceIds);
+    }
+
+    /**
+     * 위치 갱신 1건 평가: 소속이 바뀐 Geofence에 대해서만 이벤트 반환 (변화 없으면 빈 목록)
+     */
+    public List<GeofenceEvent> update(String userId, double lat, double lng, long timestamp) {
+        CellEntry[] candidates = cellIndex.get(h3.latLngToCell(lat, lng, resolution));
+        if (candidates == null && !memberships.containsKey(userId)) return List.of();
+
+        Set<String> inside = new HashSet<>();
+        if (candidates != null) {
+            for (CellEntry entry : candidates) {
+                if (entry.interior() || entry.fence().contains(lat, lng)) inside.add(entry.fence().id());
+            }
+        }
+
+        List<GeofenceEvent> events = new ArrayList<>(2);
+        memberships.compute(userId, (id, membership) -> {
+            if (membership != null && timestamp < membership.timestamp) return membership;
+            Set<String> previous = membership != null ? membership.fenceIds : Set.of();
+            for (String fenceId : inside) {
+                if (!previous.contains(fenceId)) events.add(new GeofenceEvent(fenceId, userId, GeofenceEvent.Type.ENTER, lat, lng, timestamp));
+            }
+            for (String fenceId : previous) {
+                if (!inside.contains(fenceId) && fences.containsKey(fenceId)) {
+                    events.add(new GeofenceEvent(fenceId, userId, GeofenceEvent.Type.EXIT, lat, lng, timestamp));
+                }
+            }
+            return inside.isEmpty() ? null : new Membership(inside, timestamp);
+        });
+        return events;
+    }
+
+    /**
+     * 셀 → Geofence 목록 색인을 새로 만들어 교체 (등록/제거는 드물고 갱신 경로는 잠금 없이 읽음)
+     */
+    private void rebuild() {
+        Map<Long, List<CellEntry>> building = new HashMap<>();
+        for (Registered registered : fences.values()) {
+            registered.cells().forEach((cell, interior) ->
+                    building.computeIfAbsent(cell, c -> new ArrayList<>(2)).add(new CellEntry(registered.fence(), interior)));
+        }
+        Map<Long, CellEntry[]> rebuilt = new HashMap<>(building.size() * 2);
+        building.forEach((cell, entries) -> rebuilt.put(cell, entries.toArray(CellEntry[]::new)));
+        cellIndex = rebuilt;
+    }
+
+    private Map<Long, Boolean> polygonCells(Geofence fence) {
+        H3PolygonCover cover = H3PolygonCover.of(h3, fence.lats(), fence.lngs(), resolution);
+        Map<Long, Boolean> cells = new HashMap<>();
+        for (long cell : cover.allCells()) cells.put(cell, cover.isInterior(cell));
+        return cells;
+    }
+
+    /**
+     * 원 Cover: 셀 꼭짓점이 모두 반경 안이면 내부, 셀 외접원이 원과 겹치면 경계
+     */
+    private Map<Long, Boolean> circleCells(Geofence fence) {
+        long center = h3.latLngToCell(fence.centerLat(), fence.centerLng(), resolution);
+        // 셀 중심 간격(변 길이 × √3)보다 작은 1.5배로 나누어 링 수를 넉넉히 잡음
+        int rings = (int) Math.ceil(fence.radiusMeter() / (h3.getHexagonEdgeLengthAvg(resolution, LengthUnit.m) * 1.5)) + 1;
+        Map<Long, Boolean> cells = new HashMap<>();
+        for (long cell : h3.gridDisk(center, rings)) {
+            LatLng cellCenter = h3.cellToLatLng(cell);
+            double centerDistance = GeoMath.distanceMeter(fence.centerLat(), fence.centerLng(), cellCenter.lat, cellCenter.lng);
+            double circumradius = 0;
+            double farthestVertex = 0;
+            for (LatLng vertex : h3.cellToBoundary(cell)) {
+                circumradius = Math.max(circumradius, GeoMath.distanceMeter(cellCenter.lat, cellCenter.lng, vertex.lat, vertex.lng));
+                farthestVertex = Math.max(farthestVertex, GeoMath.distanceMeter(fence.centerLat(), fence.centerLng(), vertex.lat, vertex.lng));
+            }
+            if (farthestVertex <= fence.radiusMeter()) {
+                cells.put(cell, true);
+            } else if (centerDistance - circumradius <= fence.radiusMeter()) {
+                cells.put(cell, false);
+            }
+        }
+        return cells;
+    }
+
+    private record Registered(Geofence fence, Map<Long, Boolean> cells) {
+    }
+
+    private record CellEntry(Geofence fence, boolean interior) {
+    }
+
+    private record Membership(Set<String> fenceIds, long timestamp) {
+    }
+}
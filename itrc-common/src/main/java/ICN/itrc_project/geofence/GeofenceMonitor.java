@@ -0,0 +1,58 @@
+package ICN.itrc_project.geofence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 수신 경로의 Geofence 평가 진입점: Consumer가 위치를 반영한 직후 호출하여 진입/이탈 이벤트를 Sink로 전달
+ * - 평가/전달 실패는 로그만 남기고 저장 경로에는 영향을 주지 않음
+ */
+@Slf4j
+public class GeofenceMonitor {
+
+    private final GeofenceIndex index;
+    private final List<GeofenceEventSink> sinks;
+    private final Counter enterCounter;
+    private final Counter exitCounter;
+
+    public GeofenceMonitor(GeofenceIndex index, List<GeofenceEventSink> sinks, MeterRegistry meterRegistry) {
+        this.index = index;
+        this.sinks = List.copyOf(sinks);
+        this.enterCounter = eventCounter(meterRegistry, GeofenceEvent.Type.ENTER);
+        this.exitCounter = eventCounter(meterRegistry, GeofenceEvent.Type.EXIT);
+        Gauge.builder("location.geofence.fences", index, GeofenceIndex::size)
+                .description("등록된 Geofence 수")
+                .register(meterRegistry);
+        Gauge.builder("location.geofence.members", index, GeofenceIndex::memberCount)
+                .description("1개 이상 Geofence 안에 있는 사용자 수")
+                .register(meterRegistry);
+    }
+
+    public void onLocation(String userId, double lat, double lng, long timestamp) {
+        try {
+            List<GeofenceEvent> events = index.update(userId, lat, lng, timestamp);
+            if (events.isEmpty()) return;
+            for (GeofenceEvent event : events) {
+                (event.type() == GeofenceEvent.Type.ENTER ? enterCounter : exitCounter).increment();
+            }
+            for (GeofenceEventSink sink : sinks) sink.publish(events);
+        } catch (RuntimeException e) {
+            log.warn("Geofence 평가 실패 (건너뜀): 유저 {}", userId, e);
+        }
+    }
+
+    public GeofenceIndex getIndex() {
+        return index;
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, GeofenceEvent.Type type) {
+        return Counter.builder("location.geofence.events")
+                .description("Geofence 진입/이탈 이벤트 수")
+                .tag("type", type.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
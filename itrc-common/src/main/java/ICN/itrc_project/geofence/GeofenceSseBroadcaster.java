@@ -0,0 +1,84 @@
+package ICN.itrc_project.geofence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geofence 이벤트 SSE 전달: 구독자(Geofence id 필터 선택)마다 SseEmitter로 Push
+ * - 전송은 단일 전달 스레드에서 수행 (느린 구독자가 Consumer 스레드를 막지 않음), 대기열 초과 시 이벤트 폐기 후 집계
+ */
+public class GeofenceSseBroadcaster implements GeofenceEventSink, AutoCloseable {
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor sender;
+    private final Counter droppedCounter;
+
+    public GeofenceSseBroadcaster(int queueCapacity, MeterRegistry meterRegistry) {
+        this.droppedCounter = Counter.builder("location.geofence.sse.dropped")
+                .description("전달 대기열 초과로 SSE 구독자에게 보내지 못한 이벤트 묶음 수")
+                .register(meterRegistry);
+        this.sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "geofence-sse");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedCounter.increment());
+        Gauge.builder("location.geofence.sse.subscribers", subscriptions, List::size)
+                .description("Geofence SSE 구독자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param fenceId null이면 모든 Geofence 이벤트 구독
+     */
+    public SseEmitter subscribe(String fenceId) {
+        SseEmitter emitter = new SseEmitter(0L); // 만료 없음 (연결 종료 시 정리)
+        Subscription subscription = new Subscription(emitter, fenceId);
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<GeofenceEvent> events) {
+        if (subscriptions.isEmpty()) return;
+        sender.execute(() -> send(events));
+    }
+
+    private void send(List<GeofenceEvent> events) {
+        for (Subscription subscription : subscriptions) {
+            for (GeofenceEvent event : events) {
+                if (subscription.fenceId() != null && !subscription.fenceId().equals(event.fenceId())) continue;
+                try {
+                    subscription.emitter().send(SseEmitter.event().name(event.type().name().toLowerCase()).data(event));
+                } catch (IOException | IllegalStateException e) {
+                    // 끊긴 구독자: 이후 이벤트부터 제외
+                    subscriptions.remove(subscription);
+                    subscription.emitter().completeWithError(e);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        sender.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+    }
+
+    private record Subscription(SseEmitter emitter, String fenceId) {
+    }
+}
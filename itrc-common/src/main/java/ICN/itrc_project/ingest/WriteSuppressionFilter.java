@@ -0,0 +1,140 @@
+package ICN.itrc_project.ingest;
+
+import ICN.itrc_project.spatial.GeoMath;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 수신 단계 쓰기 억제 필터: 저장소에 마지막으로 기록한 위치와 비교하여 의미 없는 쓰기를 걸러냄
+ * - 순서 역전: 이미 기록한 Ping보다 같거나 이전 timestamp → 폐기 (저장소의 최신 위치가 과거로 되돌아가지 않음)
+ * - 정지: 마지막 기록 위치와의 거리가 보고된 accuracy(하한 minDisplacement, 상한 maxAccuracy) 이내 → 억제
+ * - 추측 항법(선택): 마지막 기록의 speed/heading으로 예측한 위치와의 거리가 같은 허용 오차 이내 → 억제
+ * - 마지막 기록 후 maxStaleness가 지나면 위 조건과 무관하게 기록 (TTL/신선도 유지)
+ *
+ * 사용자당 상태는 좌표 2개 + speed/heading(float) + timestamp 2개, maximumUsers 초과 시 오래 쓰지 않은 사용자부터 제거
+ * (제거된 사용자의 다음 Ping은 항상 기록되므로 안전)
+ *
+ * 판정(evaluate)은 상태를 바꾸지 않고, 저장소 쓰기가 성공한 뒤 호출 측이 commit으로 기록 상태를 갱신
+ * → 쓰기 실패 후 재전송/재처리된 같은 Ping은 다시 ACCEPTED로 판정됨
+ */
+public class WriteSuppressionFilter {
+
+    public enum Decision {
+        ACCEPTED, OUT_OF_ORDER, STATIONARY, PREDICTED;
+
+        public boolean isWrite() {
+            return this == ACCEPTED;
+        }
+    }
+
+    private final Cache<String, State> states;
+    private final long maxStalenessMillis;
+    private final double minDisplacementMeter;
+    private final double maxAccuracyMeter;
+    private final boolean deadReckoning;
+    private final Map<Decision, Counter> counters = new EnumMap<>(Decision.class);
+
+    public WriteSuppressionFilter(long maximumUsers, Duration maxStaleness, double minDisplacementMeter,
+                                  double maxAccuracyMeter, boolean deadReckoning, MeterRegistry meterRegistry) {
+        if (minDisplacementMeter < 0 || maxAccuracyMeter < minDisplacementMeter) {
+            throw new IllegalArgumentException("0 <= minDisplacementMeter <= maxAccuracyMeter required");
+        }
+        this.states = Caffeine.newBuilder().maximumSize(maximumUsers).build();
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.minDisplacementMeter = minDisplacementMeter;
+        this.maxAccuracyMeter = maxAccuracyMeter;
+        this.deadReckoning = deadReckoning;
+
+        for (Decision decision : Decision.values()) {
+            counters.put(decision, Counter.builder("location.ingest.writes")
+                    .description("수신 Ping의 쓰기 억제 판정 수 (accepted만 저장소에 기록)")
+                    .tag("decision", decision.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("location.ingest.filter.users", states, Cache::estimatedSize)
+                .description("쓰기 억제 필터가 마지막 기록 상태를 보관 중인 사용자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param speedKmh  LocationRequest.speed 단위 (km/h), null 허용
+     * @param heading   진행 방향 (북쪽 기준 시계방향 도), null 허용
+     * @param accuracy  GPS 정확도 (m), null이면 minDisplacement 사용
+     */
+    public Decision evaluate(String userId, double lat, double lng, Double speedKmh, Double heading,
+                             Double accuracy, long timestamp) {
+        State state = states.getIfPresent(userId);
+        Decision decision = Decision.ACCEPTED;
+        if (state != null) {
+            synchronized (state) {
+                decision = decide(state, lat, lng, accuracy, timestamp);
+            }
+        }
+        counters.get(decision).increment();
+        return decision;
+    }
+
+    /**
+     * 저장소 쓰기 성공 후 기록 상태 갱신 (이미 더 최신 Ping이 기록되어 있으면 무시)
+     */
+    public void commit(String userId, double lat, double lng, Double speedKmh, Double heading, long timestamp) {
+        State state = states.get(userId, k -> new State());
+        synchronized (state) {
+            if (timestamp <= state.writtenAt) return;
+            state.lat = lat;
+            state.lng = lng;
+            state.speedMps = speedKmh != null && speedKmh > 0 ? (float) (speedKmh / 3.6) : 0f;
+            state.heading = heading != null ? heading.floatValue() : Float.NaN;
+            state.writtenAt = timestamp;
+        }
+    }
+
+    private Decision decide(State state, double lat, double lng, Double accuracy, long timestamp) {
+        if (timestamp <= state.writtenAt) return Decision.OUT_OF_ORDER;
+        if (timestamp - state.writtenAt < maxStalenessMillis) {
+            double tolerance = toleranceOf(accuracy);
+            if (GeoMath.distanceMeter(state.lat, state.lng, lat, lng) <= tolerance) return Decision.STATIONARY;
+            if (deadReckoning && predicts(state, lat, lng, timestamp, tolerance)) return Decision.PREDICTED;
+        }
+        return Decision.ACCEPTED;
+    }
+
+    /**
+     * 마지막 기록 위치에서 기록 당시 속도/방향으로 경과 시간만큼 이동한 예측 위치와 비교 (등속 직선 가정)
+     */
+    private static boolean predicts(State state, double lat, double lng, long timestamp, double tolerance) {
+        if (state.speedMps <= 0 || Float.isNaN(state.heading)) return false;
+        double meters = state.speedMps * (timestamp - state.writtenAt) / 1000.0;
+        double radians = Math.toRadians(state.heading);
+        double predictedLat = state.lat + GeoMath.meterToLatDegree(meters * Math.cos(radians));
+        double predictedLng = state.lng + GeoMath.meterToLngDegree(meters * Math.sin(radians), state.lat);
+        return GeoMath.distanceMeter(predictedLat, predictedLng, lat, lng) <= tolerance;
+    }
+
+    private double toleranceOf(Double accuracy) {
+        if (accuracy == null || accuracy.isNaN()) return minDisplacementMeter;
+        return Math.min(maxAccuracyMeter, Math.max(minDisplacementMeter, accuracy));
+    }
+
+    public long trackedUsers() {
+        return states.estimatedSize();
+    }
+
+    /**
+     * 사용자별 마지막 기록 상태 (commit된 쓰기 기준)
+     */
+    private static final class State {
+        private double lat;
+        private double lng;
+        private float speedMps;
+        private float heading = Float.NaN;
+        private long writtenAt = Long.MIN_VALUE;
+    }
+}
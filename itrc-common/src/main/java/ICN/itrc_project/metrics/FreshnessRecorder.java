@@ -0,0 +1,200 @@
+package ICN.itrc_project.metrics;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 데이터 신선도(Freshness) 및 구간별 지연(Lag) 계측: 세 모듈이 같은 지표 이름/구간 정의로 기록하여 대시보드에서 동일 기준 비교
+ * - location.event.freshness          : 이벤트 생성 → 저장 완료 (End-to-End)
+ * - location.event.lag{stage=...}     : producer-to-broker / broker-to-consumer / consumer-to-store
+ *
+ * 이벤트 경로에서는 HdrHistogram Recorder(Wait-free, 무할당)에만 기록하고,
+ * 백그라운드 스레드가 flushInterval마다 구간 스냅샷을 집계하여 그대로 노출 (이벤트 수가 아닌 버킷 수에 비례하는 비용)
+ * - FunctionTimer: 누적 건수/합계 (Prometheus _count/_sum)
+ * - TimeGauge {name}.percentile{phi} / {name}.max: 최근 PERCENTILE_WINDOW 구간의 분위수/최댓값
+ */
+@Slf4j
+public class FreshnessRecorder implements AutoCloseable {
+
+    /**
+     * 지연 구간 (브로커가 없는 RDBMS는 API 수신 → Write-Behind 큐 → DB 커밋으로 대응)
+     */
+    public enum Stage {
+        PRODUCER_TO_BROKER("producer-to-broker"), // 이벤트 생성 → 브로커 적재 (Kafka Record Timestamp, Stream Entry ID 시각)
+        BROKER_TO_CONSUMER("broker-to-consumer"), // 브로커 적재 → Consumer 수신
+        CONSUMER_TO_STORE("consumer-to-store");   // Consumer 수신 → 저장소 반영 완료
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private static final long HIGHEST_TRACKABLE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 2; // 버킷 오차 1% 이내
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+    // 분위수 집계 구간: Micrometer Timer 기본값(2분, 버퍼 3개)과 같이 구간을 3등분하여 순환
+    private static final long PERCENTILE_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final int WINDOW_SLOTS = 3;
+
+    private final Channel freshness;
+    private final Map<Stage, Channel> stages = new EnumMap<>(Stage.class);
+    private final ScheduledExecutorService drainer;
+
+    public FreshnessRecorder(MeterRegistry meterRegistry, Duration flushInterval) {
+        this.freshness = new Channel(meterRegistry, "location.event.freshness",
+                "End-to-End Latency: 이벤트 생성 시점부터 저장 완료까지의 지연 시간", Tags.empty());
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Channel(meterRegistry, "location.event.lag",
+                    "이벤트 처리 구간별 지연 시간", Tags.of("stage", stage.getTag())));
+        }
+
+        this.drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "freshness-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        drainer.scheduleAtFixedRate(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 이벤트 1건의 구간 시각(epoch ms)을 기록 (0 이하인 시각은 미측정으로 간주하여 해당 구간 생략)
+     *
+     * @param createdAt  이벤트 생성 시각 (클라이언트 timestamp)
+     * @param brokerAt   브로커 적재 시각 (Kafka Record Timestamp, Stream Entry ID, Write-Behind 큐 적재 시각)
+     * @param receivedAt Consumer 수신 시각
+     * @param storedAt   저장소 반영 완료 시각
+     */
+    public void record(long createdAt, long brokerAt, long receivedAt, long storedAt) {
+        if (createdAt > 0) {
+            freshness.record(storedAt - createdAt);
+            if (brokerAt > 0) stages.get(Stage.PRODUCER_TO_BROKER).record(brokerAt - createdAt);
+        }
+        if (brokerAt > 0 && receivedAt > 0) stages.get(Stage.BROKER_TO_CONSUMER).record(receivedAt - brokerAt);
+        if (receivedAt > 0) stages.get(Stage.CONSUMER_TO_STORE).record(storedAt - receivedAt);
+    }
+
+    /**
+     * 구간 스냅샷을 누적 건수/합계와 분위수 구간에 반영
+     */
+    void drain() {
+        try {
+            freshness.drain();
+            stages.values().forEach(Channel::drain);
+        } catch (Exception e) {
+            log.warn("신선도 지표 집계 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 종료 시 남은 구간 스냅샷까지 반영
+     */
+    @Override
+    public void close() {
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    /**
+     * 지표 1개의 Recorder와 노출 상태 (집계는 drainer 스레드, 조회는 scrape 스레드)
+     */
+    private static final class Channel {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MILLIS, SIGNIFICANT_DIGITS);
+        private Histogram interval; // drainer 스레드 전용 (재사용)
+        private final Histogram[] slots = new Histogram[WINDOW_SLOTS];
+        private final Histogram window = newHistogram(); // 분위수 계산용 (slots 합산, 재사용)
+        private int currentSlot;
+        private long slotStartedNanos = System.nanoTime();
+
+        private volatile long count;
+        private volatile double totalMillis;
+        private volatile double[] percentileMillis = new double[PERCENTILES.length];
+        private volatile double maxMillis;
+
+        private Channel(MeterRegistry meterRegistry, String name, String description, Tags tags) {
+            for (int i = 0; i < WINDOW_SLOTS; i++) slots[i] = newHistogram();
+            FunctionTimer.builder(name, this, channel -> channel.count, channel -> channel.totalMillis, TimeUnit.MILLISECONDS)
+                    .description(description)
+                    .tags(tags)
+                    .register(meterRegistry);
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                int index = i;
+                TimeGauge.builder(name + ".percentile", this, TimeUnit.MILLISECONDS, channel -> channel.percentileMillis[index])
+                        .description(description + " (최근 2분 분위수)")
+                        .tags(tags)
+                        .tag("phi", String.valueOf(PERCENTILES[i]))
+                        .register(meterRegistry);
+            }
+            TimeGauge.builder(name + ".max", this, TimeUnit.MILLISECONDS, channel -> channel.maxMillis)
+                    .description(description + " (최근 2분 최댓값)")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        private static Histogram newHistogram() {
+            return new Histogram(HIGHEST_TRACKABLE_MILLIS, SIGNIFICANT_DIGITS);
+        }
+
+        // 시계 오차로 인한 음수는 0, 추적 상한 초과는 상한으로 보정
+        private void record(long lagMillis) {
+            recorder.recordValue(Math.max(0, Math.min(lagMillis, HIGHEST_TRACKABLE_MILLIS)));
+        }
+
+        /**
+         * 건수/합계는 누적, 분위수/최댓값은 순환 구간 전체로 다시 계산 (빈 구간이 이어지면 0으로 감쇠)
+         * - 합계는 버킷 중앙값 기준 (SIGNIFICANT_DIGITS 오차 이내)
+         */
+        private synchronized void drain() {
+            interval = recorder.getIntervalHistogram(interval);
+            long now = System.nanoTime();
+            if (now - slotStartedNanos >= PERCENTILE_WINDOW_NANOS / WINDOW_SLOTS) {
+                currentSlot = (currentSlot + 1) % WINDOW_SLOTS;
+                slots[currentSlot].reset();
+                slotStartedNanos = now;
+            } else if (interval.getTotalCount() == 0) {
+                return;
+            }
+            long intervalCount = interval.getTotalCount();
+            if (intervalCount > 0) {
+                totalMillis += interval.getMean() * intervalCount;
+                count += intervalCount;
+                slots[currentSlot].add(interval);
+            }
+
+            window.reset();
+            for (Histogram slot : slots) window.add(slot);
+            double[] percentiles = new double[PERCENTILES.length];
+            if (window.getTotalCount() > 0) {
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    percentiles[i] = window.getValueAtPercentile(PERCENTILES[i] * 100);
+                }
+            }
+            percentileMillis = percentiles;
+            maxMillis = window.getTotalCount() > 0 ? window.getMaxValue() : 0;
+        }
+    }
+}
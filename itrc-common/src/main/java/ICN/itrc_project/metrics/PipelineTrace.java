@@ -0,0 +1,106 @@
+package ICN.itrc_project.metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 이벤트 1건의 홉(Hop)별 통과 시각 기록: Kafka Header / Redis Stream 필드로 프로세스 간 전달
+ * - 홉 시각은 epoch 마이크로초 (JVM 기동 시 epoch 기준점 + nanoTime 경과, 같은 JVM 안에서 단조 증가)
+ * - 구간(Stage) = 직전 홉 → 해당 홉, 구간 이름은 도착 홉 이름 (예: received → deserialize = "deserialize")
+ * - 직렬화 형식: "received=1712000000000000;deserialize=1712000000000150;..."
+ */
+public final class PipelineTrace {
+
+    private static final long EPOCH_BASE_MICROS = System.currentTimeMillis() * 1_000;
+    private static final long NANO_BASE = System.nanoTime();
+    private static final int INITIAL_HOPS = 8;
+
+    private String[] names = new String[INITIAL_HOPS];
+    private long[] micros = new long[INITIAL_HOPS];
+    private int size;
+
+    public static long nowMicros() {
+        return EPOCH_BASE_MICROS + (System.nanoTime() - NANO_BASE) / 1_000;
+    }
+
+    public PipelineTrace hop(String name) {
+        return hop(name, nowMicros());
+    }
+
+    public PipelineTrace hop(String name, long atMicros) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            micros = Arrays.copyOf(micros, size * 2);
+        }
+        names[size] = name;
+        micros[size] = atMicros;
+        size++;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String nameAt(int index) {
+        return names[index];
+    }
+
+    public long microsAt(int index) {
+        return micros[index];
+    }
+
+    /**
+     * 첫 홉부터 마지막 홉까지의 전체 소요 시간 (홉 2개 미만이면 0)
+     */
+    public long totalMicros() {
+        return size < 2 ? 0 : micros[size - 1] - micros[0];
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(size * 24);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(';');
+            sb.append(names[i]).append('=').append(micros[i]);
+        }
+        return sb.toString();
+    }
+
+    public byte[] encodeToBytes() {
+        return encode().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return 형식이 잘못된 홉은 건너뛰고 복원 (null/빈 값이면 null)
+     */
+    public static PipelineTrace decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) return null;
+        PipelineTrace trace = new PipelineTrace();
+        for (String hop : encoded.split(";")) {
+            int eq = hop.indexOf('=');
+            if (eq <= 0) continue;
+            try {
+                trace.hop(hop.substring(0, eq), Long.parseLong(hop.substring(eq + 1)));
+            } catch (NumberFormatException ignored) {
+                // 손상된 홉만 제외
+            }
+        }
+        return trace.size == 0 ? null : trace;
+    }
+
+    public static PipelineTrace decode(byte[] encoded) {
+        return encoded == null ? null : decode(new String(encoded, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 로그 출력용 구간 분해: "deserialize=0.15ms, enqueue=0.02ms, ..."
+     */
+    public String breakdown() {
+        StringBuilder sb = new StringBuilder(size * 20);
+        for (int i = 1; i < size; i++) {
+            if (i > 1) sb.append(", ");
+            sb.append(names[i]).append('=').append(String.format("%.2fms", (micros[i] - micros[i - 1]) / 1_000.0));
+        }
+        return sb.toString();
+    }
+}
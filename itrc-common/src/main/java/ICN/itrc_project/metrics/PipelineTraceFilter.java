@@ -0,0 +1,22 @@
+package ICN.itrc_project.metrics;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+
+/**
+ * HTTP 수신 시각 기록: 요청 본문 역직렬화 이전 시점을 PipelineTrace의 첫 홉(received)으로 사용
+ */
+public class PipelineTraceFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        request.setAttribute(PipelineTracer.RECEIVED_ATTRIBUTE, PipelineTrace.nowMicros());
+        chain.doFilter(request, response);
+    }
+}
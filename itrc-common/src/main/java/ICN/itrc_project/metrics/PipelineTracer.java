@@ -0,0 +1,122 @@
+package ICN.itrc_project.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 샘플링 기반 파이프라인 구간 추적 (lbs.trace.enabled=true 일 때만 활성화)
+ * - Producer: 샘플링된 이벤트에 PipelineTrace를 생성하여 HTTP 수신/역직렬화/발행 홉을 기록하고 메시지와 함께 전달
+ * - Consumer: 수신 후 홉을 이어서 기록한 뒤 complete() → 구간별 Timer(location.pipeline.stage{stage}) 기록
+ * - Slow Event Dump: 전체 소요 시간이 최근 구간의 slow-percentile 값을 넘는 이벤트는 구간 분해와 함께 WARN 로그 출력
+ * - 한쪽 프로세스에서만 측정 가능한 구간(Kafka ACK, XADD 왕복 등)은 recordStage()로 직접 기록
+ */
+@Slf4j
+public class PipelineTracer {
+
+    /**
+     * HTTP 수신 시각(epoch μs)을 담는 Request Attribute (PipelineTraceFilter가 기록)
+     */
+    public static final String RECEIVED_ATTRIBUTE = "lbs.trace.received";
+    public static final String HEADER = "lbs-trace";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final double sampleRate;
+    private final double slowPercentile;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Timer totalTimer;
+
+    private final Recorder totalRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 2);
+    private final long refreshIntervalNanos;
+    private volatile long slowThresholdMicros = Long.MAX_VALUE; // 첫 갱신 전에는 Dump 안 함
+    private volatile long nextRefreshNanos;
+    private Histogram interval;
+
+    public PipelineTracer(double sampleRate, double slowPercentile, Duration thresholdRefresh, MeterRegistry meterRegistry) {
+        if (sampleRate < 0 || sampleRate > 1 || slowPercentile <= 0 || slowPercentile >= 100) {
+            throw new IllegalArgumentException("sampleRate must be in [0, 1] and slowPercentile in (0, 100)");
+        }
+        this.sampleRate = sampleRate;
+        this.slowPercentile = slowPercentile;
+        this.meterRegistry = meterRegistry;
+        this.refreshIntervalNanos = thresholdRefresh.toNanos();
+        this.nextRefreshNanos = System.nanoTime() + refreshIntervalNanos;
+        this.totalTimer = Timer.builder("location.pipeline.total")
+                .description("샘플링된 이벤트의 첫 홉(HTTP 수신)부터 저장 완료까지의 소요 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Producer 진입점: 샘플링 대상이면 수신/역직렬화 홉을 기록한 Trace 반환, 아니면 null
+     *
+     * @param receivedMicros PipelineTraceFilter가 기록한 HTTP 수신 시각 (없으면 null)
+     */
+    public PipelineTrace start(Long receivedMicros) {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) return null;
+        PipelineTrace trace = new PipelineTrace();
+        if (receivedMicros != null) trace.hop("received", receivedMicros);
+        return trace.hop("deserialize");
+    }
+
+    /**
+     * 단일 프로세스 구간 기록 (예: kafka-send ACK 대기, xadd 왕복)
+     */
+    public void recordStage(String stage, long micros) {
+        timerOf(stage).record(Math.max(0, micros), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Consumer 종료점: 구간별/전체 소요 시간 기록 및 Slow Event Dump
+     */
+    public void complete(String eventId, PipelineTrace trace) {
+        if (trace == null || trace.size() < 2) return;
+        for (int i = 1; i < trace.size(); i++) {
+            recordStage(trace.nameAt(i), trace.microsAt(i) - trace.microsAt(i - 1));
+        }
+        long total = Math.max(0, trace.totalMicros());
+        totalTimer.record(total, TimeUnit.MICROSECONDS);
+        totalRecorder.recordValue(Math.min(total, HIGHEST_TRACKABLE_MICROS));
+
+        refreshThresholdIfDue();
+        if (total > slowThresholdMicros) {
+            log.warn(">>> [🐢 Slow Event] 이벤트:{} | 총 {}ms (p{} 기준 {}ms 초과) | {}",
+                    eventId, String.format("%.2f", total / 1_000.0), slowPercentile,
+                    String.format("%.2f", slowThresholdMicros / 1_000.0), trace.breakdown());
+        }
+    }
+
+    /**
+     * 최근 구간의 전체 소요 시간 분포로 Slow 기준값 갱신 (갱신 주기당 1개 스레드만 수행)
+     */
+    private void refreshThresholdIfDue() {
+        long now = System.nanoTime();
+        if (now - nextRefreshNanos < 0) return;
+        synchronized (totalRecorder) {
+            if (now - nextRefreshNanos < 0) return;
+            nextRefreshNanos = now + refreshIntervalNanos;
+            interval = totalRecorder.getIntervalHistogram(interval);
+            if (interval.getTotalCount() > 0) {
+                slowThresholdMicros = interval.getValueAtPercentile(slowPercentile);
+            }
+        }
+    }
+
+    private Timer timerOf(String stage) {
+        return stageTimers.computeIfAbsent(stage, s -> Timer.builder("location.pipeline.stage")
+                .description("샘플링된 이벤트의 파이프라인 구간별 소요 시간")
+                .tags("stage", s)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,14 @@
+package ICN.itrc_project.paging;
+
+import java.util.List;
+
+/**
+ * Cursor 기반 페이지 응답: nextCursor를 다음 요청의 cursor 파라미터로 전달 (마지막 페이지면 null)
+ * - 같은 질의 조건(중심점/반경/다각형)으로 이어서 요청해야 하며, 요청당 메모리는 페이지 크기로 제한됨
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static <T> CursorPage<T> of(List<T> items, String nextCursor) {
+        return new CursorPage<>(items, nextCursor);
+    }
+}
@@ -0,0 +1,56 @@
+package ICN.itrc_project.paging;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * NDJSON(줄 단위 JSON) 스트리밍 작성기: 결과를 한 건씩 직렬화하여 응답 스트림에 바로 기록
+ * - 전체 List를 만들지 않으므로 결과 수와 무관하게 메모리 사용량이 일정하고, 첫 바이트가 바로 전송됨
+ * - flushEvery 건마다 flush하여 Chunked 전송 단위를 만듦 (매 건 flush 시 시스템 콜 비용 증가)
+ */
+public final class NdjsonWriter {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectMapper mapper;
+    private final OutputStream out;
+    private final int flushEvery;
+    private int pending;
+    private long written;
+
+    public NdjsonWriter(ObjectMapper mapper, OutputStream out, int flushEvery) {
+        this.mapper = mapper;
+        this.out = out;
+        this.flushEvery = Math.max(flushEvery, 1);
+    }
+
+    /**
+     * @throws UncheckedIOException 클라이언트 연결 종료 등으로 쓰기에 실패한 경우 (호출 측 스트림/커서 정리 유도)
+     */
+    public void write(Object item) {
+        try {
+            out.write(mapper.writeValueAsBytes(item));
+            out.write('\n');
+            written++;
+            if (++pending >= flushEvery) flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+            pending = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+}
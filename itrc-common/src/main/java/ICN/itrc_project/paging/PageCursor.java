@@ -0,0 +1,50 @@
+package ICN.itrc_project.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 불투명(Opaque) Cursor 인코딩: 저장소별 재개 위치(ID, 점수, 오프셋 등)를 URL-safe Base64 문자열로 전달
+ * - 클라이언트가 내부 위치 형식에 의존하지 않도록 하여, 저장소별 페이지 방식이 바뀌어도 API 형태 유지
+ */
+public final class PageCursor {
+
+    private static final char SEPARATOR = '\u001F';  // Unit Separator: 사용자 ID 등에 나타나지 않는 구분자
+
+    private PageCursor() {
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) joined.append(SEPARATOR);
+            joined.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param expectedParts encode 시 전달한 값의 개수
+     * @throws IllegalArgumentException 손상되었거나 형식이 다른 Cursor
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = joined.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != expectedParts) throw new IllegalArgumentException("Malformed page cursor");
+        return parts;
+    }
+
+    /**
+     * 단일 정수 Cursor (RDBMS Keyset ID, RediSearch Aggregate Cursor ID)
+     *
+     * @return cursor가 없으면 defaultValue
+     */
+    public static long decodeLong(String cursor, long defaultValue) {
+        if (cursor == null || cursor.isEmpty()) return defaultValue;
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed page cursor", e);
+        }
+    }
+}
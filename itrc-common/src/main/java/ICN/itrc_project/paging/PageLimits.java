@@ -0,0 +1,34 @@
+package ICN.itrc_project.paging;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+
+/**
+ * 대용량 공간 질의 결과의 페이지/스트림 단위 설정
+ *
+ * @param defaultSize 페이지 크기 미지정 시 사용
+ * @param maxSize     요청당 최대 페이지 크기 (요청당 메모리 상한)
+ * @param streamBatch 스트리밍 시 저장소에서 한 번에 가져오는 건수 (JDBC Fetch Size, Redis 페이지 크기)
+ * @param flushRows   NDJSON flush 간격 (건)
+ */
+public record PageLimits(int defaultSize, int maxSize, int streamBatch, int flushRows) {
+
+    public PageLimits {
+        if (defaultSize <= 0 || maxSize < defaultSize || streamBatch <= 0 || flushRows <= 0) {
+            throw new IllegalArgumentException("Invalid paging limits");
+        }
+    }
+
+    /**
+     * 요청 크기를 [1, maxSize] 범위로 제한 (미지정 시 defaultSize)
+     */
+    public int clamp(Integer requested) {
+        if (requested == null || requested <= 0) return defaultSize;
+        return Math.min(requested, maxSize);
+    }
+
+    public NdjsonWriter ndjson(ObjectMapper mapper, OutputStream out) {
+        return new NdjsonWriter(mapper, out, flushRows);
+    }
+}
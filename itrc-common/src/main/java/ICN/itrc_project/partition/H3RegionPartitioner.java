@@ -0,0 +1,94 @@
+package ICN.itrc_project.partition;
+
+import ICN.itrc_project.dto.LocationRequest;
+import com.uber.h3core.H3Core;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.utils.Utils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * H3 지역 기반 Kafka Partitioner: 위치 이벤트를 좌표가 속한 저해상도 H3 셀(지역) 단위로 파티션에 배정
+ * - 같은 지역의 이벤트가 같은 파티션에 모이므로, 파티션을 할당받은 Consumer 인스턴스가 지리적 Shard를 담당 (로컬 인덱스/캐시의 공간 지역성)
+ * - 지역 → 파티션은 셀 ID 해시로 결정하므로 지역 수가 파티션 수보다 충분히 많아야 분포가 고름 (location.kafka.partition.skew로 확인)
+ * - 값이 LocationRequest가 아니거나 좌표가 없으면 기본 Partitioner와 같은 Key(murmur2) 해시로 배정
+ *
+ * 설정: partitioner.class=ICN.itrc_project.partition.H3RegionPartitioner, lbs.partition.h3-resolution=6
+ */
+public class H3RegionPartitioner implements Partitioner {
+
+    public static final String RESOLUTION_CONFIG = "lbs.partition.h3-resolution";
+    public static final int DEFAULT_RESOLUTION = 6;
+
+    private H3Core h3;
+    private int resolution = DEFAULT_RESOLUTION;
+
+    /**
+     * Kafka Producer가 생성 후 configure 호출
+     */
+    public H3RegionPartitioner() {
+    }
+
+    /**
+     * Producer 밖에서 같은 지역/파티션 계산이 필요할 때 (지역 이동 감지 등)
+     */
+    public H3RegionPartitioner(int resolution) {
+        configure(Map.of(RESOLUTION_CONFIG, resolution));
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object configured = configs.get(RESOLUTION_CONFIG);
+        if (configured != null) {
+            resolution = Integer.parseInt(configured.toString().trim());
+        }
+        if (resolution < 0 || resolution > 15) {
+            throw new ConfigException(RESOLUTION_CONFIG, configured, "H3 resolution must be between 0 and 15");
+        }
+        try {
+            h3 = H3Core.newInstance();
+        } catch (IOException e) {
+            throw new KafkaException("Failed to load H3 native library", e);
+        }
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int numPartitions = cluster.partitionsForTopic(topic).size();
+        if (value instanceof LocationRequest request && request.getLatitude() != null && request.getLongitude() != null) {
+            return partitionOf(regionOf(request.getLatitude(), request.getLongitude()), numPartitions);
+        }
+        if (keyBytes == null) {
+            return ThreadLocalRandom.current().nextInt(numPartitions);
+        }
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+    }
+
+    /**
+     * 좌표가 속한 지역 (설정 해상도의 H3 셀 ID)
+     */
+    public long regionOf(double lat, double lng) {
+        return h3.latLngToCell(lat, lng, resolution);
+    }
+
+    /**
+     * 지역 → 파티션: 저해상도 셀 ID는 하위 비트가 모두 1(미사용 자릿수)이므로 곱셈 해시의 상위 비트 사용
+     */
+    public static int partitionOf(long region, int numPartitions) {
+        int hash = (int) ((region * 0x9E3779B97F4A7C15L) >>> 32);
+        return Utils.toPositive(hash) % numPartitions;
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public void close() {
+    }
+}
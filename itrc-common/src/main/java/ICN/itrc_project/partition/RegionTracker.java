@@ -0,0 +1,40 @@
+package ICN.itrc_project.partition;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * 사용자별 마지막 지역(H3 셀) 기록: 지역 경계를 넘은 이벤트를 감지하여 이전 지역 Shard에 인계(Handoff)할 수 있게 함
+ * - 최근 활동 사용자만 유지 (expireAfterAccess), 만료 후 다시 들어온 사용자는 새로 진입한 것으로 간주 (인계 없음)
+ */
+public class RegionTracker {
+
+    private final Cache<String, Long> lastRegion;
+
+    public RegionTracker(long maximumSize, Duration expireAfterAccess) {
+        this.lastRegion = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * 사용자의 현재 지역 갱신
+     *
+     * @return 지역이 바뀐 경우 이전 지역, 처음 보거나 그대로면 null
+     */
+    public Long move(String userId, long region) {
+        Long[] previous = new Long[1];
+        lastRegion.asMap().compute(userId, (id, prev) -> {
+            if (prev != null && prev != region) previous[0] = prev;
+            return region;
+        });
+        return previous[0];
+    }
+
+    public long size() {
+        return lastRegion.estimatedSize();
+    }
+}
@@ -0,0 +1,133 @@
+package ICN.itrc_project.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Adaptive KNN Executor: 고정 반경(5km/50km) 후보 정렬 대신, 밀도 추정 반경에서 시작하여 k개가 확보될 때까지 반경을 확장
+ * - 반경 안에서 k개를 찾으면 반경 밖의 개체는 모두 더 멀기 때문에 결과가 정확한 k-최근접임이 보장됨
+ * - 초기 반경: 중심점이 속한 밀도 셀의 최근 관측 밀도(EWMA)로 k개를 담을 반경을 추정 (관측 전에는 initialRadius)
+ * - 확장: 부족분 비율로 필요한 반경을 추정하되 최소 growthFactor 배 확장, maxRadius 도달 시 중단 (k개 미만 반환)
+ * 후보 수가 지역 밀도가 아닌 k에 비례하므로, 밀집 지역에서도 지연 시간이 k에 따라 증가
+ */
+public class AdaptiveKnnExecutor {
+
+    private static final double SAFETY_FACTOR = 1.5;   // 추정 반경 여유 (면적 기준 약 2.25배 후보)
+    private static final double DENSITY_ALPHA = 0.3;   // 밀도 EWMA 가중치
+
+    private final double initialRadiusMeter;
+    private final double maxRadiusMeter;
+    private final double growthFactor;
+    private final double densityCellDegree;
+    private final Map<Long, Double> densityPerSquareMeter = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public AdaptiveKnnExecutor(double initialRadiusMeter, double maxRadiusMeter, double growthFactor,
+                               double densityCellDegree, MeterRegistry meterRegistry) {
+        if (initialRadiusMeter <= 0 || maxRadiusMeter < initialRadiusMeter || growthFactor <= 1 || densityCellDegree <= 0) {
+            throw new IllegalArgumentException("Invalid adaptive KNN parameters");
+        }
+        this.initialRadiusMeter = initialRadiusMeter;
+        this.maxRadiusMeter = maxRadiusMeter;
+        this.growthFactor = growthFactor;
+        this.densityCellDegree = densityCellDegree;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param backend    지표 태그 (예: redis-geo, redis-search)
+     * @param distanceOf 결과의 중심점 기준 거리(m) 추출 함수
+     * @return 가까운 순 최대 k개 (maxRadius 안에 k개 미만이면 존재하는 전부)
+     */
+    public <T> List<T> nearest(String backend, double lat, double lng, int k,
+                               RadiusProbe<T> probe, ToDoubleFunction<T> distanceOf) {
+        if (k <= 0) return List.of();
+        long densityCell = densityCellOf(lat, lng);
+        double radius = initialRadius(densityCell, k);
+
+        int probes = 0;
+        List<T> found;
+        while (true) {
+            probes++;
+            found = probe.nearestWithin(radius, k);
+            if (found.size() >= k || radius >= maxRadiusMeter) break;
+            radius = nextRadius(radius, found.size(), k);
+        }
+
+        Meters m = metersOf(backend);
+        m.probes().record(probes);
+        m.radius().record(radius);
+        if (found.size() < k) m.shortfall().increment();
+
+        observeDensity(densityCell, found, k, radius, distanceOf);
+        return found.size() > k ? found.subList(0, k) : found;
+    }
+
+    private double initialRadius(long densityCell, int k) {
+        Double density = densityPerSquareMeter.get(densityCell);
+        if (density == null || density <= 0) return initialRadiusMeter;
+        double estimated = Math.sqrt(k / (Math.PI * density)) * SAFETY_FACTOR;
+        return clamp(estimated);
+    }
+
+    /**
+     * 부족분만큼 면적을 늘리는 반경 (관측 0건이면 growthFactor 배)
+     */
+    private double nextRadius(double radius, int found, int k) {
+        double needed = found > 0 ? radius * Math.sqrt((double) k / found) * SAFETY_FACTOR : radius * growthFactor;
+        return clamp(Math.max(needed, radius * growthFactor));
+    }
+
+    /**
+     * k개 확보 시 k번째 거리로, 미확보 시 최종 반경 면적으로 밀도 추정 후 EWMA 반영
+     */
+    private <T> void observeDensity(long densityCell, List<T> found, int k, double radius, ToDoubleFunction<T> distanceOf) {
+        double observed;
+        if (found.size() >= k) {
+            double kthDistance = Math.max(distanceOf.applyAsDouble(found.get(k - 1)), 1.0);
+            observed = k / (Math.PI * kthDistance * kthDistance);
+        } else {
+            observed = Math.max(found.size(), 1) / (Math.PI * radius * radius);
+        }
+        densityPerSquareMeter.merge(densityCell, observed,
+                (prev, next) -> prev * (1 - DENSITY_ALPHA) + next * DENSITY_ALPHA);
+    }
+
+    private double clamp(double radius) {
+        return Math.max(1.0, Math.min(maxRadiusMeter, radius));
+    }
+
+    private long densityCellOf(double lat, double lng) {
+        long row = (long) Math.floor((lat + 90.0) / densityCellDegree);
+        long col = (long) Math.floor((lng + 180.0) / densityCellDegree);
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private Meters metersOf(String backend) {
+        return meters.computeIfAbsent(backend, b -> new Meters(
+                DistributionSummary.builder("location.knn.probes")
+                        .description("KNN 1회당 반경 질의(Probe) 횟수")
+                        .tags("backend", b)
+                        .register(meterRegistry),
+                DistributionSummary.builder("location.knn.radius")
+                        .description("KNN 종료 시점의 탐색 반경")
+                        .baseUnit("meters")
+                        .tags("backend", b)
+                        .register(meterRegistry),
+                Counter.builder("location.knn.shortfall")
+                        .description("최대 반경 내 개체가 k개 미만이었던 KNN 요청 수")
+                        .tags("backend", b)
+                        .register(meterRegistry)));
+    }
+
+    private record Meters(DistributionSummary probes, DistributionSummary radius, Counter shortfall) {
+    }
+}
@@ -0,0 +1,192 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.spatial.GeoMath;
+import com.uber.h3core.AreaUnit;
+import com.uber.h3core.H3Core;
+import com.uber.h3core.LengthUnit;
+import com.uber.h3core.util.LatLng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 다각형의 H3 Cell Cover: 다각형과 겹치는 셀만 조회하고, 경계 셀의 개체만 정밀 PIP 판정
+ * - Interior: 다각형 경계와 교차하지 않고 중심이 다각형 내부인 셀 → 셀 전체가 다각형 내부이므로 판정 생략
+ * - Boundary: 다각형 변이 지나가거나 꼭짓점을 포함하는 셀 → 개체마다 Ray Casting 판정
+ * 변을 따라 샘플링한 셀 + 인접 1링(경계 밴드)에서 경계 셀을 고르므로, 얇고 긴 다각형도 변이 지나는 셀이 누락되지 않음
+ */
+public final class H3PolygonCover {
+
+    private final int resolution;
+    private final double[] lats;
+    private final double[] lngs;
+    private final Set<Long> interiorCells;
+    private final Set<Long> boundaryCells;
+
+    private H3PolygonCover(int resolution, double[] lats, double[] lngs, Set<Long> interiorCells, Set<Long> boundaryCells) {
+        this.resolution = resolution;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.interiorCells = interiorCells;
+        this.boundaryCells = boundaryCells;
+    }
+
+    /**
+     * 지정 해상도에서 Cover 계산
+     */
+    public static H3PolygonCover of(H3Core h3, double[] lats, double[] lngs, int resolution) {
+        if (lats.length != lngs.length || lats.length < 3) {
+            throw new IllegalArgumentException("Polygon needs at least 3 vertices with matching lat/lng arrays");
+        }
+
+        // 1. 경계 밴드: 변을 셀 반 변 길이 간격으로 샘플링한 셀 + 인접 1링 (샘플 사이로 스치는 셀 보완)
+        double step = h3.getHexagonEdgeLengthAvg(resolution, LengthUnit.m) / 2;
+        Set<Long> edgeCells = new HashSet<>();
+        for (int i = 0; i < lats.length; i++) {
+            int j = (i + 1) % lats.length;
+            int samples = (int) Math.ceil(GeoMath.distanceMeter(lats[i], lngs[i], lats[j], lngs[j]) / step);
+            for (int s = 0; s <= samples; s++) {
+                double t = samples == 0 ? 0 : (double) s / samples;
+                edgeCells.add(h3.latLngToCell(lats[i] + (lats[j] - lats[i]) * t, lngs[i] + (lngs[j] - lngs[i]) * t, resolution));
+            }
+        }
+        Set<Long> band = new HashSet<>(edgeCells.size() * 7);
+        for (long cell : edgeCells) {
+            band.addAll(h3.gridDisk(cell, 1));
+        }
+
+        // 2. 밴드 밖 polyfill 셀은 변과 겹칠 수 없으므로 바로 내부
+        List<LatLng> outline = new ArrayList<>(lats.length);
+        for (int i = 0; i < lats.length; i++) {
+            outline.add(new LatLng(lats[i], lngs[i]));
+        }
+        Set<Long> interior = new HashSet<>(h3.polygonToCells(outline, List.of(), resolution));
+        interior.removeAll(band);
+
+        // 3. 밴드 셀 분류: 셀 경계와 다각형 변이 교차(또는 꼭짓점이 셀 안)하면 경계, 아니면 셀 전체가 안/밖이므로 중심점으로 판정
+        Set<Long> boundary = new HashSet<>();
+        for (long cell : band) {
+            if (crosses(h3.cellToBoundary(cell), lats, lngs)) {
+                boundary.add(cell);
+            } else {
+                LatLng center = h3.cellToLatLng(cell);
+                if (GeoMath.contains(lats, lngs, center.lat, center.lng)) interior.add(cell);
+            }
+        }
+
+        return new H3PolygonCover(resolution, lats.clone(), lngs.clone(),
+                Collections.unmodifiableSet(interior), Collections.unmodifiableSet(boundary));
+    }
+
+    /**
+     * 예상 셀 수(면적 / 셀 면적 + 둘레 / 셀 변 길이 * 3)가 maxCells 이하인 가장 세밀한 해상도 선택
+     */
+    public static int chooseResolution(H3Core h3, double[] lats, double[] lngs, int minResolution, int maxResolution, int maxCells) {
+        double area = areaSquareMeter(lats, lngs);
+        double perimeter = 0;
+        for (int i = 0; i < lats.length; i++) {
+            int j = (i + 1) % lats.length;
+            perimeter += GeoMath.distanceMeter(lats[i], lngs[i], lats[j], lngs[j]);
+        }
+
+        for (int res = maxResolution; res > minResolution; res--) {
+            double estimated = area / h3.getHexagonAreaAvg(res, AreaUnit.m2)
+                    + perimeter / h3.getHexagonEdgeLengthAvg(res, LengthUnit.m) * 3;
+            if (estimated <= maxCells) return res;
+        }
+        return minResolution;
+    }
+
+    /**
+     * 셀 분류 기반 포함 판정: 내부 셀은 즉시 포함, 경계 셀만 정밀 PIP, 그 외 셀은 제외
+     */
+    public boolean accepts(long cell, double lat, double lng) {
+        if (interiorCells.contains(cell)) return true;
+        return boundaryCells.contains(cell) && GeoMath.contains(lats, lngs, lat, lng);
+    }
+
+    public Set<Long> allCells() {
+        Set<Long> all = new HashSet<>((interiorCells.size() + boundaryCells.size()) * 2);
+        all.addAll(interiorCells);
+        all.addAll(boundaryCells);
+        return all;
+    }
+
+    public boolean isInterior(long cell) {
+        return interiorCells.contains(cell);
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    public int getInteriorCount() {
+        return interiorCells.size();
+    }
+
+    public int getBoundaryCount() {
+        return boundaryCells.size();
+    }
+
+    /**
+     * 셀 경계(해상도 9 기준 변 ~170m, 평면 근사)와 다각형 경계의 교차 여부
+     */
+    private static boolean crosses(List<LatLng> hexagon, double[] lats, double[] lngs) {
+        int n = hexagon.size();
+        double[] hexLats = new double[n];
+        double[] hexLngs = new double[n];
+        for (int k = 0; k < n; k++) {
+            hexLats[k] = hexagon.get(k).lat;
+            hexLngs[k] = hexagon.get(k).lng;
+        }
+        // 다각형 꼭짓점이 셀 안에 있으면 변이 셀 내부에서 꺾이므로 경계
+        for (int i = 0; i < lats.length; i++) {
+            if (GeoMath.contains(hexLats, hexLngs, lats[i], lngs[i])) return true;
+        }
+        for (int i = 0; i < lats.length; i++) {
+            int j = (i + 1) % lats.length;
+            for (int k = 0; k < n; k++) {
+                int l = (k + 1) % n;
+                if (segmentsIntersect(lats[i], lngs[i], lats[j], lngs[j], hexLats[k], hexLngs[k], hexLats[l], hexLngs[l])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(double ay, double ax, double by, double bx,
+                                             double cy, double cx, double dy, double dx) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        // 접촉(0)도 교차로 취급하여 경계 쪽으로 보수적 분류
+        return ((d1 >= 0 && d2 <= 0) || (d1 <= 0 && d2 >= 0)) && ((d3 >= 0 && d4 <= 0) || (d3 <= 0 && d4 >= 0));
+    }
+
+    private static double cross(double ox, double oy, double px, double py, double qx, double qy) {
+        return (px - ox) * (qy - oy) - (py - oy) * (qx - ox);
+    }
+
+    /**
+     * 등장방형 근사 Shoelace 면적 (도시 규모 다각형 기준)
+     */
+    private static double areaSquareMeter(double[] lats, double[] lngs) {
+        double meanLat = 0;
+        for (double lat : lats) meanLat += lat;
+        meanLat /= lats.length;
+        double lngScale = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(meanLat));
+
+        double sum = 0;
+        for (int i = 0; i < lats.length; i++) {
+            int j = (i + 1) % lats.length;
+            sum += (lngs[i] * lngScale) * (lats[j] * GeoMath.METERS_PER_DEGREE)
+                    - (lngs[j] * lngScale) * (lats[i] * GeoMath.METERS_PER_DEGREE);
+        }
+        return Math.abs(sum) / 2;
+    }
+}
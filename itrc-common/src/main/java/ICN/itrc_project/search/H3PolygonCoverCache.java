@@ -0,0 +1,41 @@
+package ICN.itrc_project.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uber.h3core.H3Core;
+
+import java.util.Arrays;
+
+/**
+ * 다각형별 H3 Cell Cover 캐시: 같은 구역(행정동, 서비스 구역 등)에 반복되는 PIP 요청의 Cover 재계산 생략
+ * (Cover 계산은 셀 경계 조회가 JNI 호출이라 요청당 ms 단위로, 후보 판정보다 비쌈)
+ */
+public class H3PolygonCoverCache {
+
+    private final H3Core h3;
+    private final Cache<Key, H3PolygonCover> cache;
+
+    public H3PolygonCoverCache(H3Core h3, long maximumSize) {
+        this.h3 = h3;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public H3PolygonCover get(double[] lats, double[] lngs, int resolution) {
+        return cache.get(new Key(lats.clone(), lngs.clone(), resolution),
+                key -> H3PolygonCover.of(h3, key.lats, key.lngs, key.resolution));
+    }
+
+    private record Key(double[] lats, double[] lngs, int resolution) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && resolution == other.resolution
+                    && Arrays.equals(lats, other.lats) && Arrays.equals(lngs, other.lngs);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Arrays.hashCode(lats) + Arrays.hashCode(lngs)) + resolution;
+        }
+    }
+}
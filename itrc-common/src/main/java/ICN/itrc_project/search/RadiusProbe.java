@@ -0,0 +1,13 @@
+package ICN.itrc_project.search;
+
+import java.util.List;
+
+/**
+ * 저장소별 반경 질의: 중심점 기준 radiusMeter 이내의 개체를 가까운 순으로 최대 limit개 반환
+ * - 반경 안에 limit개 이상 존재하면 반드시 가장 가까운 limit개를 반환해야 함 (AdaptiveKnnExecutor 정확성 전제)
+ */
+@FunctionalInterface
+public interface RadiusProbe<T> {
+
+    List<T> nearestWithin(double radiusMeter, int limit);
+}
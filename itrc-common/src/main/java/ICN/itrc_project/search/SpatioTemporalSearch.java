@@ -0,0 +1,241 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.spatial.GeoMath;
+import ICN.itrc_project.trajectory.TrajectoryBucketFile;
+import ICN.itrc_project.trajectory.TrajectorySegment;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시공간 질의 ("T1~T2 사이 P에서 R미터 안에 있었던 개체"): 최신 위치만 보관하는 저장소 대신 궤적 이력 Segment를 조회
+ * - Pruning 1단계: 시간 Bucket (구간과 겹치는 Bucket 파일만)
+ * - Pruning 2단계: Bucket 파일 요약 (파일 내 전체 시간 범위/Bounding Box가 원의 외접 사각형과 겹치지 않으면 Directory도 보지 않음)
+ * - Pruning 3단계: Segment 요약 (Directory의 사용자별 시간 범위/Bounding Box)
+ * - 남은 Segment만 ForkJoinPool에서 분할 병렬 디코딩 후 Ping 단위 거리 판정, 사용자별로 병합
+ *
+ * 봉인 전 메모리 Segment도 같은 조건으로 걸러 인코딩 사본을 함께 디코딩
+ */
+public class SpatioTemporalSearch implements Closeable {
+
+    private static final int SPLIT_THRESHOLD = 8; // 작업 1개가 직접 디코딩하는 최대 Segment 수
+
+    private final TrajectoryStore store;
+    private final ForkJoinPool pool;
+
+    private final Timer queryTimer;
+    private final Timer pruneTimer;
+    private final Timer decodeTimer;
+    private final Counter prunedSegments;
+    private final Counter decodedSegments;
+
+    /**
+     * 방문 1건: 구간 안에서 반경 안에 있었던 사용자별 첫/마지막 시각, Ping 수, 최단 거리
+     */
+    public record Visit(String userId, long firstSeen, long lastSeen, int pings, double closestMeter) {
+    }
+
+    /**
+     * @param prunedSegments  요약만으로 제외한 Segment 수 (Bucket 파일 단위로 제외된 Segment 포함)
+     * @param pruneMicros     Pruning(후보 Segment 선정) 소요 시간
+     * @param decodeMicros    병렬 디코딩/판정 소요 시간 (Wall Clock)
+     */
+    public record Result(List<Visit> visits, int bucketFiles, int prunedFiles, int segments, int prunedSegments,
+                         int decodedSegments, long decodedPings, long pruneMicros, long decodeMicros) {
+    }
+
+    public SpatioTemporalSearch(TrajectoryStore store, int parallelism, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("trajectory-search-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        this.queryTimer = Timer.builder("location.trajectory.query")
+                .description("시공간 질의 1회 처리 시간 (Pruning + 병렬 디코딩)")
+                .register(meterRegistry);
+        this.pruneTimer = Timer.builder("location.trajectory.query.prune")
+                .description("질의 1회의 Segment Pruning 시간 (Bucket 파일/Directory 요약 비교)")
+                .register(meterRegistry);
+        this.decodeTimer = Timer.builder("location.trajectory.query.decode")
+                .description("Segment 1개의 디코딩 및 Ping 거리 판정 시간")
+                .register(meterRegistry);
+        this.prunedSegments = Counter.builder("location.trajectory.query.segments")
+                .tag("result", "pruned")
+                .description("요약만으로 디코딩 없이 제외한 Segment 수")
+                .register(meterRegistry);
+        this.decodedSegments = Counter.builder("location.trajectory.query.segments")
+                .tag("result", "decoded")
+                .description("Pruning 후 디코딩한 Segment 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return 반경 안에 있었던 사용자 (최단 거리 오름차순)
+     */
+    public Result search(double lat, double lng, double radiusMeter, long from, long to) {
+        long started = System.nanoTime();
+        double latDelta = GeoMath.meterToLatDegree(radiusMeter);
+        double lngDelta = GeoMath.meterToLngDegree(radiusMeter, lat);
+        double minLat = lat - latDelta, maxLat = lat + latDelta;
+        double minLng = lng - lngDelta, maxLng = lng + lngDelta;
+
+        // 1. Pruning: 시간 Bucket → 파일 요약 → Segment 요약
+        List<Candidate> candidates = new ArrayList<>();
+        int bucketFiles = 0, prunedFiles = 0, segments = 0, pruned = 0;
+        for (TrajectoryBucketFile file : store.sealedFiles(from, to)) {
+            bucketFiles++;
+            int fileSegments = file.entries().size();
+            segments += fileSegments;
+            if (!file.overlaps(from, to, minLat, maxLat, minLng, maxLng)) {
+                prunedFiles++;
+                pruned += fileSegments;
+                continue;
+            }
+            for (TrajectoryBucketFile.Entry entry : file.entries()) {
+                if (entry.overlaps(from, to) && entry.intersects(minLat, maxLat, minLng, maxLng)) {
+                    candidates.add(new Candidate(entry.userId(), handler -> file.decode(entry, from, to, handler)));
+                } else {
+                    pruned++;
+                }
+            }
+        }
+        for (Map.Entry<String, TrajectorySegment.Encoded> open : store.openSegments(from, to, minLat, maxLat, minLng, maxLng)) {
+            segments++;
+            candidates.add(new Candidate(open.getKey(), handler -> TrajectorySegment.decode(open.getValue(), from, to, handler)));
+        }
+        long prunedAt = System.nanoTime();
+        pruneTimer.record(prunedAt - started, TimeUnit.NANOSECONDS);
+        prunedSegments.increment(pruned);
+
+        // 2. 남은 Segment 병렬 디코딩 및 Ping 단위 거리 판정
+        Scan scan = candidates.isEmpty() ? new Scan()
+                : pool.invoke(new ScanTask(candidates, 0, candidates.size(), lat, lng, radiusMeter));
+        decodedSegments.increment(candidates.size());
+        long finished = System.nanoTime();
+        queryTimer.record(finished - started, TimeUnit.NANOSECONDS);
+
+        List<Visit> visits = new ArrayList<>(scan.visits.size());
+        scan.visits.values().forEach(visit -> visits.add(visit.toVisit()));
+        visits.sort(Comparator.comparingDouble(Visit::closestMeter));
+        return new Result(visits, bucketFiles, prunedFiles, segments, pruned, candidates.size(), scan.pings,
+                TimeUnit.NANOSECONDS.toMicros(prunedAt - started), TimeUnit.NANOSECONDS.toMicros(finished - prunedAt));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * 디코딩 대상 Segment (봉인 파일 / 메모리 사본 공통)
+     */
+    private record Candidate(String userId, Decoder decoder) {
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        int decode(TrajectorySegment.PointHandler handler);
+    }
+
+    /**
+     * 후보 구간을 절반씩 나누어 병렬 처리, SPLIT_THRESHOLD 이하면 직접 디코딩
+     */
+    private final class ScanTask extends RecursiveTask<Scan> {
+        private final List<Candidate> candidates;
+        private final int start, end;
+        private final double lat, lng, radiusMeter;
+
+        private ScanTask(List<Candidate> candidates, int start, int end, double lat, double lng, double radiusMeter) {
+            this.candidates = candidates;
+            this.start = start;
+            this.end = end;
+            this.lat = lat;
+            this.lng = lng;
+            this.radiusMeter = radiusMeter;
+        }
+
+        @Override
+        protected Scan compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                Scan scan = new Scan();
+                for (int i = start; i < end; i++) scanSegment(candidates.get(i), scan);
+                return scan;
+            }
+            int mid = (start + end) >>> 1;
+            ScanTask left = new ScanTask(candidates, start, mid, lat, lng, radiusMeter);
+            left.fork();
+            Scan right = new ScanTask(candidates, mid, end, lat, lng, radiusMeter).compute();
+            return left.join().merge(right);
+        }
+
+        private void scanSegment(Candidate candidate, Scan scan) {
+            long started = System.nanoTime();
+            scan.pings += candidate.decoder().decode((ts, pingLat, pingLng) -> {
+                double distance = GeoMath.distanceMeter(lat, lng, pingLat, pingLng);
+                if (distance <= radiusMeter) {
+                    scan.visits.computeIfAbsent(candidate.userId(), VisitBuilder::new).add(ts, distance);
+                }
+            });
+            decodeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 작업 1개의 부분 결과 (사용자별 방문 + 디코딩한 Ping 수)
+     */
+    private static final class Scan {
+        private final Map<String, VisitBuilder> visits = new HashMap<>();
+        private long pings;
+
+        private Scan merge(Scan other) {
+            other.visits.forEach((userId, visit) -> visits.merge(userId, visit, VisitBuilder::merge));
+            pings += other.pings;
+            return this;
+        }
+    }
+
+    private static final class VisitBuilder {
+        private final String userId;
+        private long firstSeen = Long.MAX_VALUE;
+        private long lastSeen = Long.MIN_VALUE;
+        private int pings;
+        private double closestMeter = Double.MAX_VALUE;
+
+        private VisitBuilder(String userId) {
+            this.userId = userId;
+        }
+
+        private void add(long timestamp, double distance) {
+            firstSeen = Math.min(firstSeen, timestamp);
+            lastSeen = Math.max(lastSeen, timestamp);
+            closestMeter = Math.min(closestMeter, distance);
+            pings++;
+        }
+
+        private VisitBuilder merge(VisitBuilder other) {
+            firstSeen = Math.min(firstSeen, other.firstSeen);
+            lastSeen = Math.max(lastSeen, other.lastSeen);
+            closestMeter = Math.min(closestMeter, other.closestMeter);
+            pings += other.pings;
+            return this;
+        }
+
+        private Visit toVisit() {
+            return new Visit(userId, firstSeen, lastSeen, pings, closestMeter);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package ICN.itrc_project.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 최신 위치 상태 Snapshot 파일 (Memory-Mapped I/O)
+ * - 구성: [Header: magic | version | 생성 시각 | 재개 위치(키/값 문자열 쌍)] [레코드 ...] [종료 표시(0)] [Footer: 레코드 수 | magic]
+ * - 레코드: userId 길이(1) + userId(UTF-8) + lat/lng/speed/accuracy(double) + timestamp(long)
+ * - 재개 위치: 상태에 반영이 끝난 소비 위치 (Kafka: topic-partition → 다음 offset, Redis Stream: stream → 마지막 Entry ID)
+ * - 임시 파일에 64MB 단위로 Mapping하여 기록 후 force + 원자적 rename: 읽는 쪽은 완성된 파일만 보게 됨
+ *
+ * 복원 시간은 토픽/스트림 이력이 아닌 Snapshot 크기(레코드 수)에 비례
+ */
+public final class LocationSnapshotFile {
+
+    private static final long MAGIC = 0x4C4253534E415031L; // "LBSSNAP1"
+    private static final int VERSION = 1;
+    private static final int FOOTER_BYTES = 2 * Long.BYTES;
+    private static final int MAP_CHUNK = 64 << 20;
+    private static final int MAX_KEY_BYTES = 255;
+    private static final int MAX_RECORD_BYTES = 1 + MAX_KEY_BYTES + 4 * Double.BYTES + Long.BYTES;
+
+    private LocationSnapshotFile() {
+    }
+
+    /**
+     * 레코드 1건 수신 (복원 대상 저장소에 반영, speed/accuracy가 없던 레코드는 NaN)
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(String userId, double lat, double lng, double speed, double accuracy, long timestamp);
+    }
+
+    /**
+     * 읽기 결과: 생성 시각, 재개 위치, 레코드 수
+     */
+    public record Summary(long createdAt, Map<String, String> positions, long records) {
+    }
+
+    public static Writer create(Path target, Map<String, String> positions) throws IOException {
+        return new Writer(target, positions);
+    }
+
+    /**
+     * Footer로 완결성을 확인한 뒤 모든 레코드를 handler로 전달
+     *
+     * @throws IOException 파일 손상/형식 불일치 (호출 측은 Snapshot 없이 기동)
+     */
+    public static Summary read(Path file, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 32 + FOOTER_BYTES) throw new IOException("Snapshot too small: " + file);
+
+            MappedByteBuffer footer = map(channel, FileChannel.MapMode.READ_ONLY, size - FOOTER_BYTES, FOOTER_BYTES);
+            long expectedRecords = footer.getLong();
+            if (footer.getLong() != MAGIC) throw new IOException("Snapshot footer missing: " + file);
+
+            MappedRegion region = new MappedRegion(channel, FileChannel.MapMode.READ_ONLY, 0, size - FOOTER_BYTES);
+            try {
+                if (region.buffer.getLong() != MAGIC || region.buffer.getInt() != VERSION) {
+                    throw new IOException("Unsupported snapshot format: " + file);
+                }
+                long createdAt = region.buffer.getLong();
+                int positionCount = region.buffer.getInt();
+                Map<String, String> positions = new LinkedHashMap<>();
+                for (int i = 0; i < positionCount; i++) {
+                    region.ensure(2 * (Short.BYTES + Short.MAX_VALUE));
+                    positions.put(readShortString(region), readShortString(region));
+                }
+
+                long records = 0;
+                byte[] key = new byte[MAX_KEY_BYTES];
+                while (true) {
+                    region.ensure(MAX_RECORD_BYTES);
+                    int keyLength = region.buffer.get() & 0xFF;
+                    if (keyLength == 0) break;
+                    region.buffer.get(key, 0, keyLength);
+                    handler.accept(new String(key, 0, keyLength, StandardCharsets.UTF_8),
+                            region.buffer.getDouble(), region.buffer.getDouble(),
+                            region.buffer.getDouble(), region.buffer.getDouble(), region.buffer.getLong());
+                    records++;
+                }
+                if (records != expectedRecords) {
+                    throw new IOException("Snapshot record count mismatch: " + records + " != " + expectedRecords);
+                }
+                return new Summary(createdAt, positions, records);
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated snapshot: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Snapshot 기록기: append 후 commit 해야 대상 경로에 반영됨 (commit 없이 close 시 임시 파일 삭제)
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final MappedRegion region;
+        private long records;
+        private boolean committed;
+
+        private Writer(Path target, Map<String, String> positions) throws IOException {
+            this.target = target;
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.region = new MappedRegion(channel, FileChannel.MapMode.READ_WRITE, 0, Long.MAX_VALUE);
+
+            region.ensure(Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES);
+            region.buffer.putLong(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putInt(positions.size());
+            for (Map.Entry<String, String> position : positions.entrySet()) {
+                region.ensure(2 * (Short.BYTES + Short.MAX_VALUE));
+                writeShortString(region, position.getKey());
+                writeShortString(region, position.getValue());
+            }
+        }
+
+        /**
+         * 저장소 순회(forEach) 콜백에서 호출되므로 I/O 오류는 UncheckedIOException으로 전달
+         *
+         * @return 기록 여부 (빈 키 또는 255byte 초과 키는 건너뜀)
+         */
+        public boolean append(String userId, double lat, double lng, double speed, double accuracy, long timestamp) {
+            byte[] key = userId.getBytes(StandardCharsets.UTF_8);
+            if (key.length == 0 || key.length > MAX_KEY_BYTES) return false;
+            region.ensureUnchecked(MAX_RECORD_BYTES);
+            region.buffer.put((byte) key.length).put(key)
+                    .putDouble(lat).putDouble(lng).putDouble(speed).putDouble(accuracy).putLong(timestamp);
+            records++;
+            return true;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * 종료 표시/Footer 기록 → 디스크 동기화 → 대상 경로로 원자적 교체
+         *
+         * @return 파일 크기(byte)
+         */
+        public long commit() throws IOException {
+            region.ensure(1);
+            region.buffer.put((byte) 0);
+            long end = region.position();
+            region.release();
+
+            MappedByteBuffer footer = map(channel, FileChannel.MapMode.READ_WRITE, end, FOOTER_BYTES);
+            footer.putLong(records).putLong(MAGIC);
+            footer.force();
+            channel.truncate(end + FOOTER_BYTES);
+            channel.force(true);
+            channel.close();
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return end + FOOTER_BYTES;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            region.release();
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 파일을 MAP_CHUNK 단위로 이어서 Mapping: 남은 공간이 부족하면 현재 위치부터 다시 Mapping
+     */
+    private static final class MappedRegion {
+
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long limit;
+        private long base;
+        private MappedByteBuffer buffer;
+
+        private MappedRegion(FileChannel channel, FileChannel.MapMode mode, long base, long limit) throws IOException {
+            this.channel = channel;
+            this.mode = mode;
+            this.limit = limit;
+            this.base = base;
+            this.buffer = map(channel, mode, base, Math.min(MAP_CHUNK, limit - base));
+        }
+
+        long position() {
+            return base + buffer.position();
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return;
+            long position = position();
+            if (mode == FileChannel.MapMode.READ_WRITE) buffer.force();
+            base = position;
+            buffer = map(channel, mode, base, Math.min(MAP_CHUNK, limit - base));
+        }
+
+        void ensureUnchecked(int bytes) {
+            try {
+                ensure(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void release() {
+            if (mode == FileChannel.MapMode.READ_WRITE) buffer.force();
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static void writeShortString(MappedRegion region, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) throw new IllegalArgumentException("Snapshot position too long");
+        region.buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String readShortString(MappedRegion region) {
+        byte[] bytes = new byte[region.buffer.getShort()];
+        region.buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
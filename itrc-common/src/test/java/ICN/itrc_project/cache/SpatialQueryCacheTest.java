@@ -0,0 +1,143 @@
+package ICN.itrc_project.cache;
+
+import ICN.itrc_project.dto.LocationResponse;
+import ICN.itrc_project.spatial.GeoMath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SpatialQueryCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SpatialQueryCache cache = new SpatialQueryCache(1_000, Duration.ofMinutes(1), 0.005, 0.1, 2.0,
+            false, 0.05, meterRegistry);
+    private final List<LocationResponse> drivers = randomDrivers(5_000, 11);
+
+    @Test
+    void rangeHitsMatchLinearScanForAnyCentreAndRadiusInTheBucket() {
+        SplittableRandom random = new SplittableRandom(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2_000; i++) {
+            // 소수의 셀에 질의를 모아 다른 중심점/반경의 적중이 자주 일어나도록 함
+            double lat = 1.300 + random.nextInt(3) * 0.005 + random.nextDouble(0.005);
+            double lng = 103.800 + random.nextInt(3) * 0.005 + random.nextDouble(0.005);
+            double radius = 500 * (1 + random.nextDouble(-0.04, 0.04));
+
+            List<LocationResponse> cached = cache.range(lat, lng, radius, loadRadius -> {
+                loads.incrementAndGet();
+                assertThat(loadRadius).isGreaterThan(radius);
+                return scanRange(lat, lng, loadRadius);
+            }, LocationResponse.LOCATED);
+
+            assertSameResults(cached, scanRange(lat, lng, radius), lat, lng);
+        }
+        assertThat(loads.get()).isLessThan(100);
+        assertThat(requests("range", "hit")).isGreaterThan(1_900);
+    }
+
+    @Test
+    void knnHitsMatchLinearScanOrReload() {
+        SplittableRandom random = new SplittableRandom(2);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2_000; i++) {
+            double lat = 1.300 + random.nextInt(3) * 0.005 + random.nextDouble(0.005);
+            double lng = 103.800 + random.nextInt(3) * 0.005 + random.nextDouble(0.005);
+            int k = 10 + random.nextInt(2);
+
+            List<LocationResponse> cached = cache.knn(lat, lng, k, count -> {
+                loads.incrementAndGet();
+                assertThat(count).isGreaterThanOrEqualTo(k);
+                return scanKnn(lat, lng, count);
+            }, LocationResponse.LOCATED);
+
+            assertSameResults(cached, scanKnn(lat, lng, k), lat, lng);
+        }
+        // 포함이 증명되지 않는 중심점은 재조회 (결과 누락 대신 uncovered로 집계)
+        assertThat(requests("knn", "hit")).isPositive();
+        assertThat(requests("knn", "uncovered")).isPositive();
+        assertThat(loads.get()).isEqualTo((int) (requests("knn", "miss") + requests("knn", "uncovered")));
+    }
+
+    @Test
+    void underfilledKnnIsReusedOnlyForTheSameCentre() {
+        List<LocationResponse> sparse = drivers.subList(0, 5);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (double lng : new double[]{103.8001, 103.8001, 103.8002}) {
+            List<LocationResponse> cached = cache.knn(1.3001, lng, 10, count -> {
+                loads.incrementAndGet();
+                return sparse;
+            }, LocationResponse.LOCATED);
+            assertThat(cached).hasSize(5);
+        }
+
+        // 적재 개수 미달: 탐색 반경을 알 수 없으므로 다른 중심점은 재조회
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void recomputesDistancesWithoutChangingTheCachedEntry() {
+        cache.range(1.3001, 103.8001, 300, radius -> scanRange(1.3001, 103.8001, radius), LocationResponse.LOCATED);
+
+        List<LocationResponse> moved = cache.range(1.3004, 103.8029, 300,
+                radius -> {
+                    throw new AssertionError("같은 셀의 다른 중심점은 적재 영역 안에서 응답");
+                }, LocationResponse.LOCATED);
+        List<LocationResponse> original = cache.range(1.3001, 103.8001, 300,
+                radius -> scanRange(1.3001, 103.8001, radius), LocationResponse.LOCATED);
+
+        assertSameResults(moved, scanRange(1.3004, 103.8029, 300), 1.3004, 103.8029);
+        assertSameResults(original, scanRange(1.3001, 103.8001, 300), 1.3001, 103.8001);
+    }
+
+    private double requests(String query, String result) {
+        var counter = meterRegistry.find("location.query.cache.requests").tags("query", query, "result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private List<LocationResponse> scanRange(double lat, double lng, double radiusMeter) {
+        List<LocationResponse> found = new ArrayList<>();
+        for (LocationResponse driver : drivers) {
+            if (GeoMath.distanceMeter(lat, lng, driver.getLatitude(), driver.getLongitude()) <= radiusMeter) found.add(driver);
+        }
+        return found;
+    }
+
+    private List<LocationResponse> scanKnn(double lat, double lng, int k) {
+        return drivers.stream()
+                .sorted(Comparator.comparingDouble(d -> GeoMath.distanceMeter(lat, lng, d.getLatitude(), d.getLongitude())))
+                .limit(k)
+                .toList();
+    }
+
+    private static void assertSameResults(List<LocationResponse> actual, List<LocationResponse> expected, double lat, double lng) {
+        assertThat(actual).extracting(LocationResponse::getUserId)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().map(LocationResponse::getUserId).toList());
+        assertThat(actual).isSortedAccordingTo(Comparator.comparingDouble(LocationResponse::getDistanceMeter));
+        for (LocationResponse response : actual) {
+            assertThat(response.getDistanceMeter()).isCloseTo(
+                    GeoMath.distanceMeter(lat, lng, response.getLatitude(), response.getLongitude()), within(1e-6));
+        }
+    }
+
+    private static List<LocationResponse> randomDrivers(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<LocationResponse> drivers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drivers.add(LocationResponse.builder().userId("driver_" + i)
+                    .latitude(1.28 + random.nextDouble(0.06)).longitude(103.78 + random.nextDouble(0.06)).build());
+        }
+        return drivers;
+    }
+}
@@ -0,0 +1,163 @@
+package ICN.itrc_project.codec;
+
+import ICN.itrc_project.dto.LocationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LocationBinaryCodecTest {
+
+    @Test
+    void roundTripsGrabRow() {
+        LocationRequest request = LocationRequest.fromGrabDataset("70348", "car", 1.3153589, 103.7766924,
+                295.0, 12.5, 3.9, 1_554_912_000L);
+
+        LocationRequest decoded = LocationBinaryCodec.decode(LocationBinaryCodec.encode(request));
+
+        assertSameLocation(decoded, request);
+    }
+
+    @Test
+    void roundTripsLiteralsNullsAndNonAsciiIds() {
+        LocationRequest request = LocationRequest.builder()
+                .userId("기사-🚕-01")
+                .serviceType("SCOOTER")
+                .status("OFF_DUTY")
+                .latitude(-33.8688197)
+                .longitude(-151.2092955)
+                .timestamp(1_400_000_000_000L) // 기준점 이전 (음수 차이)
+                .build();
+
+        LocationRequest decoded = LocationBinaryCodec.decode(LocationBinaryCodec.encode(request));
+
+        assertSameLocation(decoded, request);
+        assertThat(decoded.getHeading()).isNull();
+        assertThat(decoded.getSpeed()).isNull();
+        assertThat(decoded.getAccuracy()).isNull();
+    }
+
+    @Test
+    void roundTripsCoordinateExtremesAndMissingFields() {
+        for (double[] coord : new double[][]{{90, 180}, {-90, -180}, {0, 0}, {-0.0000001, 0.0000001}}) {
+            LocationRequest request = LocationRequest.builder().userId("u").latitude(coord[0]).longitude(coord[1])
+                    .heading(359.9).speed(0.0).accuracy(0.01).build();
+            assertSameLocation(LocationBinaryCodec.decode(LocationBinaryCodec.encode(request)), request);
+        }
+
+        LocationRequest empty = new LocationRequest();
+        empty.setTimestamp(null); // @Builder.Default는 기본 생성자에도 적용됨
+        LocationRequest decoded = LocationBinaryCodec.decode(LocationBinaryCodec.encode(empty));
+        assertThat(decoded.getUserId()).isNull();
+        assertThat(decoded.getLatitude()).isNull();
+        assertThat(decoded.getTimestamp()).isNull();
+    }
+
+    @Test
+    void roundTripsThroughBase64() {
+        LocationRequest request = LocationRequest.fromGrabDataset("1", "motorcycle", 1.29, 103.85, 10.0, 5.0, 8.0, 1_554_912_345L);
+
+        String encoded = LocationBinaryCodec.encodeToString(request);
+
+        assertThat(encoded).doesNotContain("=");
+        assertSameLocation(LocationBinaryCodec.decodeFromString(encoded), request);
+    }
+
+    @Test
+    void encodesFarSmallerThanJson() throws Exception {
+        LocationRequest request = LocationRequest.fromGrabDataset("70348", "car", 1.3153589, 103.7766924,
+                295.0, 12.5, 3.9, 1_554_912_000L);
+
+        byte[] binary = LocationBinaryCodec.encode(request);
+        byte[] json = new ObjectMapper().writeValueAsBytes(request);
+
+        assertThat(LocationBinaryCodec.isBinary(binary)).isTrue();
+        assertThat(LocationBinaryCodec.isBinary(json)).isFalse();
+        assertThat(binary.length).isLessThanOrEqualTo(32);
+        assertThat(binary.length * 5).isLessThan(json.length);
+    }
+
+    @Test
+    void rejectsForeignAndEmptyPayloads() {
+        for (byte[] payload : new byte[][]{null, {}, {LocationBinaryCodec.VERSION},
+                "{\"userId\":\"1\"}".getBytes(StandardCharsets.UTF_8)}) {
+            assertThatThrownBy(() -> LocationBinaryCodec.decode(payload)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsEveryTruncationWithIllegalArgument() {
+        byte[] full = LocationBinaryCodec.encode(LocationRequest.builder()
+                .userId("driver-1").serviceType("SCOOTER").status("ON_TASK")
+                .latitude(1.3).longitude(103.8).heading(90.0).speed(30.0).accuracy(5.0).build());
+
+        for (int length = 2; length < full.length; length++) {
+            byte[] truncated = Arrays.copyOf(full, length);
+            assertThatThrownBy(() -> LocationBinaryCodec.decode(truncated))
+                    .as("truncated to %d of %d bytes", length, full.length)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsCorruptLengthsAndCodes() {
+        // 문자열 길이가 남은 바이트보다 큼
+        byte[] oversized = {LocationBinaryCodec.VERSION, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F, 0, 0};
+        // 상위 비트가 설정된 10byte varint (음수 길이)
+        byte[] negative = {LocationBinaryCodec.VERSION, 0, (byte) 0x81, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 0, 0};
+        // 끝나지 않는 varint
+        byte[] endless = new byte[16];
+        Arrays.fill(endless, (byte) 0x80);
+        endless[0] = LocationBinaryCodec.VERSION;
+        endless[1] = 0;
+        // 사전에 없는 serviceType 코드
+        byte[] unknownCode = {LocationBinaryCodec.VERSION, 0, 0, 0x10, 0};
+
+        for (byte[] payload : new byte[][]{oversized, negative, endless, unknownCode}) {
+            assertThatThrownBy(() -> LocationBinaryCodec.decode(payload)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void randomCorruptionFailsOnlyWithIllegalArgument() {
+        byte[] valid = LocationBinaryCodec.encode(LocationRequest.fromGrabDataset("70348", "car", 1.3153589, 103.7766924,
+                295.0, 12.5, 3.9, 1_554_912_000L));
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            byte[] payload = i % 2 == 0 ? valid.clone() : new byte[random.nextInt(2, 48)];
+            if (i % 2 == 0) {
+                for (int flips = random.nextInt(1, 4); flips > 0; flips--) {
+                    payload[random.nextInt(1, payload.length)] = (byte) random.nextInt(256);
+                }
+            } else {
+                for (int b = 1; b < payload.length; b++) payload[b] = (byte) random.nextInt(256);
+                payload[0] = LocationBinaryCodec.VERSION;
+            }
+            try {
+                LocationBinaryCodec.decode(payload);
+            } catch (IllegalArgumentException expected) {
+                // 손상 감지: 허용되는 유일한 실패
+            }
+        }
+    }
+
+    private static void assertSameLocation(LocationRequest actual, LocationRequest expected) {
+        assertThat(actual.getUserId()).isEqualTo(expected.getUserId());
+        assertThat(actual.getServiceType()).isEqualTo(expected.getServiceType());
+        assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+        assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+        assertThat(actual.getLatitude()).isCloseTo(expected.getLatitude(), within(0.5e-7));
+        assertThat(actual.getLongitude()).isCloseTo(expected.getLongitude(), within(0.5e-7));
+        if (expected.getHeading() != null) assertThat(actual.getHeading()).isCloseTo(expected.getHeading(), within(0.05));
+        if (expected.getSpeed() != null) assertThat(actual.getSpeed()).isCloseTo(expected.getSpeed(), within(0.005));
+        if (expected.getAccuracy() != null) assertThat(actual.getAccuracy()).isCloseTo(expected.getAccuracy(), within(0.005));
+    }
+}
@@ -0,0 +1,80 @@
+package ICN.itrc_project.metrics;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FreshnessRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FreshnessRecorder recorder = new FreshnessRecorder(meterRegistry, Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+    }
+
+    @Test
+    void exportsIntervalHistogramWithinBucketError() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] lags = new long[200_000];
+        long now = 10_000_000L;
+        for (int i = 0; i < lags.length; i++) {
+            lags[i] = (long) (random.nextDouble() < 0.98 ? random.nextDouble(5, 400) : random.nextDouble(400, 30_000));
+            recorder.record(now - lags[i], 0, 0, now);
+        }
+        recorder.drain();
+
+        FunctionTimer timer = meterRegistry.get("location.event.freshness").functionTimer();
+        assertThat(timer.count()).isEqualTo(lags.length);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isCloseTo(Arrays.stream(lags).sum(), within(Arrays.stream(lags).sum() * 0.01));
+
+        Arrays.sort(lags);
+        for (double phi : new double[]{0.5, 0.95, 0.99}) {
+            long exact = lags[(int) Math.ceil(phi * lags.length) - 1];
+            assertThat(percentileMillis("location.event.freshness", phi)).isCloseTo(exact, within(exact * 0.01 + 1));
+        }
+        assertThat(meterRegistry.get("location.event.freshness.max").timeGauge().value(TimeUnit.MILLISECONDS))
+                .isCloseTo(lags[lags.length - 1], within(lags[lags.length - 1] * 0.01));
+    }
+
+    @Test
+    void accumulatesCountsAcrossDrainsPerStage() {
+        recorder.record(1_000, 1_100, 1_400, 1_500);
+        recorder.drain();
+        recorder.record(2_000, 2_300, 2_400, 2_500);
+        recorder.drain();
+        recorder.drain(); // 빈 구간은 누적값/분위수를 바꾸지 않음
+
+        FunctionTimer producerToBroker = meterRegistry.get("location.event.lag").tag("stage", "producer-to-broker").functionTimer();
+        assertThat(producerToBroker.count()).isEqualTo(2);
+        assertThat(producerToBroker.totalTime(TimeUnit.MILLISECONDS)).isCloseTo(400, within(4.0));
+        assertThat(meterRegistry.get("location.event.lag").tag("stage", "broker-to-consumer").functionTimer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("location.event.lag.max").tag("stage", "broker-to-consumer").timeGauge()
+                .value(TimeUnit.MILLISECONDS)).isCloseTo(300, within(3.0));
+        assertThat(meterRegistry.get("location.event.freshness").functionTimer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void clampsNegativeAndOverflowingLags() {
+        recorder.record(5_000, 0, 0, 4_000);                                 // 시계 오차 (음수)
+        recorder.record(1, 0, 0, 1 + TimeUnit.HOURS.toMillis(3));            // 추적 상한 초과
+        recorder.drain();
+
+        assertThat(meterRegistry.get("location.event.freshness").functionTimer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("location.event.freshness.max").timeGauge().value(TimeUnit.HOURS)).isCloseTo(1.0, within(0.01));
+    }
+
+    private double percentileMillis(String name, double phi) {
+        return meterRegistry.get(name + ".percentile").tag("phi", String.valueOf(phi)).timeGauge().value(TimeUnit.MILLISECONDS);
+    }
+}
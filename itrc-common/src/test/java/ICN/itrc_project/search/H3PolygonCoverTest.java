@@ -0,0 +1,145 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.spatial.GeoMath;
+import com.uber.h3core.H3Core;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class H3PolygonCoverTest {
+
+    // 사각형 (싱가포르 도심)
+    private static final double[][] SQUARE = {
+            {1.28, 1.28, 1.32, 1.32},
+            {103.82, 103.86, 103.86, 103.82}};
+    // 오목 다각형 (U자)
+    private static final double[][] CONCAVE = {
+            {1.30, 1.30, 1.36, 1.36, 1.32, 1.32, 1.36, 1.36},
+            {103.80, 103.90, 103.90, 103.88, 103.88, 103.82, 103.82, 103.80}};
+    // 길고 좁은 다각형 (간선도로 축, 폭이 셀 몇 개 수준)
+    private static final double[][] THIN = {
+            {1.2800, 1.2850, 1.3600, 1.3550},
+            {103.8500, 103.8550, 103.8300, 103.8250}};
+    // 남반구/서반구 (음수 좌표)
+    private static final double[][] SOUTH_WEST = {
+            {-34.62, -34.58, -34.57, -34.63},
+            {-58.40, -58.42, -58.36, -58.35}};
+
+    private static H3Core h3;
+
+    @BeforeAll
+    static void loadH3() throws IOException {
+        h3 = H3Core.newInstance();
+    }
+
+    @Test
+    void acceptsExactlyThePointsInsideThePolygon() {
+        for (double[][] polygon : new double[][][]{SQUARE, CONCAVE, THIN, SOUTH_WEST}) {
+            for (int resolution : new int[]{7, 8, 9}) {
+                H3PolygonCover cover = H3PolygonCover.of(h3, polygon[0], polygon[1], resolution);
+                assertMatchesRayCasting(cover, polygon, resolution, 20_000);
+            }
+        }
+    }
+
+    @Test
+    void coverContainsEveryCellOfAnInsidePoint() {
+        H3PolygonCover cover = H3PolygonCover.of(h3, CONCAVE[0], CONCAVE[1], 9);
+        Set<Long> cells = cover.allCells();
+        SplittableRandom random = new SplittableRandom(3);
+
+        int inside = 0;
+        for (int i = 0; i < 20_000; i++) {
+            double lat = random.nextDouble(1.29, 1.37), lng = random.nextDouble(103.79, 103.91);
+            if (!GeoMath.contains(CONCAVE[0], CONCAVE[1], lat, lng)) continue;
+            inside++;
+            assertThat(cells).contains(h3.latLngToCell(lat, lng, 9));
+        }
+        assertThat(inside).isGreaterThan(1000);
+    }
+
+    @Test
+    void classifiesInteriorAndBoundaryCellsDisjointly() {
+        H3PolygonCover cover = H3PolygonCover.of(h3, SQUARE[0], SQUARE[1], 9);
+
+        assertThat(cover.getInteriorCount()).isPositive();
+        assertThat(cover.getBoundaryCount()).isPositive();
+        assertThat(cover.allCells()).hasSize(cover.getInteriorCount() + cover.getBoundaryCount());
+
+        // 다각형 중심 셀은 내부, 꼭짓점 셀은 경계
+        assertThat(cover.isInterior(h3.latLngToCell(1.30, 103.84, 9))).isTrue();
+        assertThat(cover.isInterior(h3.latLngToCell(1.28, 103.82, 9))).isFalse();
+        assertThat(cover.allCells()).contains(h3.latLngToCell(1.28, 103.82, 9));
+    }
+
+    @Test
+    void thinPolygonKeepsEveryEdgeCell() {
+        // 변을 따라 촘촘히 걸은 점의 셀은 모두 Cover 안 (샘플링 사이로 빠지는 셀 없음)
+        for (int resolution : new int[]{9, 10}) {
+            Set<Long> cells = H3PolygonCover.of(h3, THIN[0], THIN[1], resolution).allCells();
+            Set<Long> missing = new HashSet<>();
+            for (int i = 0; i < THIN[0].length; i++) {
+                int j = (i + 1) % THIN[0].length;
+                for (int s = 0; s <= 2000; s++) {
+                    double t = s / 2000.0;
+                    long cell = h3.latLngToCell(THIN[0][i] + (THIN[0][j] - THIN[0][i]) * t,
+                            THIN[1][i] + (THIN[1][j] - THIN[1][i]) * t, resolution);
+                    if (!cells.contains(cell)) missing.add(cell);
+                }
+            }
+            assertThat(missing).as("resolution %d", resolution).isEmpty();
+        }
+    }
+
+    @Test
+    void choosesFinestResolutionWithinCellBudget() {
+        int fine = H3PolygonCover.chooseResolution(h3, SQUARE[0], SQUARE[1], 5, 11, 20_000);
+        int coarse = H3PolygonCover.chooseResolution(h3, SQUARE[0], SQUARE[1], 5, 11, 200);
+
+        assertThat(fine).isBetween(5, 11);
+        assertThat(coarse).isLessThan(fine);
+        assertThat(H3PolygonCover.of(h3, SQUARE[0], SQUARE[1], coarse).allCells().size()).isLessThanOrEqualTo(200);
+        assertThat(H3PolygonCover.chooseResolution(h3, SQUARE[0], SQUARE[1], 5, 11, 1)).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsDegeneratePolygons() {
+        assertThatThrownBy(() -> H3PolygonCover.of(h3, new double[]{1, 2}, new double[]{1, 2}, 9))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> H3PolygonCover.of(h3, new double[]{1, 2, 3}, new double[]{1, 2}, 9))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 외접 사각형(+여유) 안 임의 점에 대해 Cover 판정 == 다각형 전체 Ray Casting
+     */
+    private static void assertMatchesRayCasting(H3PolygonCover cover, double[][] polygon, int resolution, int samples) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, minLng = Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+        for (int i = 0; i < polygon[0].length; i++) {
+            minLat = Math.min(minLat, polygon[0][i]);
+            maxLat = Math.max(maxLat, polygon[0][i]);
+            minLng = Math.min(minLng, polygon[1][i]);
+            maxLng = Math.max(maxLng, polygon[1][i]);
+        }
+        double margin = 0.01;
+        SplittableRandom random = new SplittableRandom(resolution);
+        int inside = 0;
+        for (int i = 0; i < samples; i++) {
+            double lat = random.nextDouble(minLat - margin, maxLat + margin);
+            double lng = random.nextDouble(minLng - margin, maxLng + margin);
+            boolean expected = GeoMath.contains(polygon[0], polygon[1], lat, lng);
+            if (expected) inside++;
+            assertThat(cover.accepts(h3.latLngToCell(lat, lng, resolution), lat, lng))
+                    .as("(%f, %f) at resolution %d", lat, lng, resolution)
+                    .isEqualTo(expected);
+        }
+        assertThat(inside).isPositive();
+    }
+}
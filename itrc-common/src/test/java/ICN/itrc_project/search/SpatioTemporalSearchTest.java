@@ -0,0 +1,131 @@
+package ICN.itrc_project.search;
+
+import ICN.itrc_project.spatial.GeoMath;
+import ICN.itrc_project.trajectory.TrajectoryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SpatioTemporalSearchTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % HOUR;
+    private static final int USERS = 300;
+    private static final int HOURS = 4;
+    private static final long PERIOD = 30_000L;
+
+    @TempDir
+    Path dir;
+
+    private TrajectoryStore store;
+    private SpatioTemporalSearch search;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new TrajectoryStore(dir, Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(3650), Duration.ofHours(1));
+        search = new SpatioTemporalSearch(store, 2, new SimpleMeterRegistry());
+
+        // 사용자별로 도심 안 임의 지점에서 출발하는 랜덤 워크, 앞 3시간은 봉인 / 마지막 1시간은 열린 Segment
+        SplittableRandom random = new SplittableRandom(11);
+        for (int u = 0; u < USERS; u++) {
+            double lat = 1.25 + random.nextDouble(0.2), lng = 103.65 + random.nextDouble(0.35);
+            for (long ts = START; ts < START + HOURS * HOUR; ts += PERIOD) {
+                lat += random.nextDouble(-3e-4, 3e-4);
+                lng += random.nextDouble(-3e-4, 3e-4);
+                store.append("user-" + u, lat, lng, ts);
+            }
+        }
+        store.sealExpired(START + (HOURS - 1) * HOUR + HOUR / 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        search.close();
+        store.close();
+    }
+
+    @Test
+    void matchesBruteForceOverSealedAndOpenSegments() {
+        assertThat(store.sealedFiles(START, START + HOURS * HOUR)).hasSize(HOURS - 1);
+        assertThat(store.openPings()).isPositive();
+
+        SplittableRandom random = new SplittableRandom(5);
+        int visits = 0;
+        for (int q = 0; q < 30; q++) {
+            double lat = 1.25 + random.nextDouble(0.2), lng = 103.65 + random.nextDouble(0.35);
+            double radius = random.nextDouble(200, 1500);
+            long from = START + random.nextLong(HOURS * HOUR);
+            long to = from + random.nextLong(10 * 60_000L, 90 * 60_000L);
+
+            SpatioTemporalSearch.Result result = search.search(lat, lng, radius, from, to);
+            Map<String, SpatioTemporalSearch.Visit> expected = bruteForce(lat, lng, radius, from, to);
+
+            assertThat(result.visits()).hasSize(expected.size());
+            visits += expected.size();
+            for (SpatioTemporalSearch.Visit visit : result.visits()) {
+                SpatioTemporalSearch.Visit brute = expected.get(visit.userId());
+                assertThat(brute).as("unexpected visitor %s", visit.userId()).isNotNull();
+                assertThat(visit.firstSeen()).isEqualTo(brute.firstSeen());
+                assertThat(visit.lastSeen()).isEqualTo(brute.lastSeen());
+                assertThat(visit.pings()).isEqualTo(brute.pings());
+                assertThat(visit.closestMeter()).isCloseTo(brute.closestMeter(), within(1e-6));
+            }
+            assertThat(result.visits()).isSortedAccordingTo((a, b) -> Double.compare(a.closestMeter(), b.closestMeter()));
+            assertThat(result.prunedSegments() + result.decodedSegments()).isEqualTo(result.segments());
+        }
+        assertThat(visits).isGreaterThan(30);
+    }
+
+    @Test
+    void prunesSegmentsOutsideQueryBox() {
+        SpatioTemporalSearch.Result result = search.search(1.35, 103.8, 300, START, START + HOUR - 1);
+
+        assertThat(result.bucketFiles()).isEqualTo(1);
+        assertThat(result.segments()).isEqualTo(USERS);
+        assertThat(result.prunedSegments()).isGreaterThan(USERS / 2);
+        assertThat(result.decodedPings()).isLessThan((long) USERS * HOUR / PERIOD / 2);
+    }
+
+    @Test
+    void returnsNothingOutsideStoredInterval() {
+        SpatioTemporalSearch.Result result = search.search(1.35, 103.8, 5000, START - 2 * HOUR, START - 1);
+
+        assertThat(result.visits()).isEmpty();
+        assertThat(result.decodedSegments()).isZero();
+    }
+
+    /**
+     * 모든 사용자의 구간 궤적을 전부 읽어 Ping 단위로 판정 (Pruning 없음)
+     */
+    private Map<String, SpatioTemporalSearch.Visit> bruteForce(double lat, double lng, double radius, long from, long to) {
+        Map<String, SpatioTemporalSearch.Visit> visits = new HashMap<>();
+        for (int u = 0; u < USERS; u++) {
+            String userId = "user-" + u;
+            long first = Long.MAX_VALUE, last = Long.MIN_VALUE;
+            int pings = 0;
+            double closest = Double.MAX_VALUE;
+            for (TrajectoryStore.Point point : store.track(userId, from, to)) {
+                double distance = GeoMath.distanceMeter(lat, lng, point.latitude(), point.longitude());
+                if (distance > radius) continue;
+                first = Math.min(first, point.timestamp());
+                last = Math.max(last, point.timestamp());
+                closest = Math.min(closest, distance);
+                pings++;
+            }
+            if (pings > 0) visits.put(userId, new SpatioTemporalSearch.Visit(userId, first, last, pings, closest));
+        }
+        return visits;
+    }
+}
@@ -0,0 +1,174 @@
+package ICN.itrc_project.spatial;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GridSpatialIndex vs 기존 백엔드의 질의 형태(Query Shape) 비교 벤치마크
+ * - baseline*: 인덱스 없이 전체 후보를 거리 계산 후 필터/정렬하는 형태
+ *   (Range: ST_DWithin 전체 스캔, KNN: RedisLocationController의 5km 원 필터 + 정렬 + limit,
+ *   PIP: RedisLocationController의 Bounding Circle 조회 + Path2D.contains 필터)
+ * - index*: 동일 질의를 Grid Bucket 기반으로 수행
+ * 데이터: Grab-Posisi(싱가포르) 분포를 모사한 핫스팟 중심 가우시안 좌표
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SpatialIndexBenchmark {
+
+    private static final double[][] HOTSPOTS = {
+            {1.2834, 103.8607}, // Marina Bay
+            {1.3521, 103.8198}, // Central
+            {1.3331, 103.7420}, // Jurong East
+            {1.3691, 103.8454}, // Ang Mo Kio
+            {1.3404, 103.9590}, // Tampines
+            {1.4360, 103.7865}, // Woodlands
+    };
+
+    @Param({"100000"})
+    public int entities;
+
+    @Param({"1000", "5000"})
+    public double radiusMeter;
+
+    @Param({"10"})
+    public int k;
+
+    private GridSpatialIndex index;
+    private String[] userIds;
+    private double[] lats;
+    private double[] lngs;
+    private double[][] queryPoints;
+    private double[] polygonLats;
+    private double[] polygonLngs;
+    private Path2D polygonPath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new GridSpatialIndex();
+        userIds = new String[entities];
+        lats = new double[entities];
+        lngs = new double[entities];
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < entities; i++) {
+            double[] hotspot = HOTSPOTS[random.nextInt(HOTSPOTS.length)];
+            userIds[i] = "user_" + i;
+            lats[i] = hotspot[0] + gaussian(random) * 0.03;
+            lngs[i] = hotspot[1] + gaussian(random) * 0.04;
+            index.update(userIds[i], lats[i], lngs[i], now);
+        }
+
+        queryPoints = new double[256][];
+        for (int i = 0; i < queryPoints.length; i++) {
+            int sample = random.nextInt(entities);
+            queryPoints[i] = new double[]{lats[sample], lngs[sample]};
+        }
+
+        // 길고 좁은 다각형 (도심 간선도로 축)
+        polygonLats = new double[]{1.2800, 1.2850, 1.3600, 1.3550};
+        polygonLngs = new double[]{103.8500, 103.8550, 103.8300, 103.8250};
+        polygonPath = new Path2D.Double();
+        polygonPath.moveTo(polygonLngs[0], polygonLats[0]);
+        for (int i = 1; i < polygonLats.length; i++) {
+            polygonPath.lineTo(polygonLngs[i], polygonLats[i]);
+        }
+        polygonPath.closePath();
+    }
+
+    /* ------------------------------ Range ------------------------------ */
+
+    @Benchmark
+    public List<SpatialHit> indexRange() {
+        double[] q = nextQuery();
+        return index.range(q[0], q[1], radiusMeter);
+    }
+
+    @Benchmark
+    public List<SpatialHit> baselineRangeScan() {
+        double[] q = nextQuery();
+        List<SpatialHit> hits = new ArrayList<>();
+        for (int i = 0; i < entities; i++) {
+            double d = GeoMath.distanceMeter(q[0], q[1], lats[i], lngs[i]);
+            if (d <= radiusMeter) hits.add(new SpatialHit(userIds[i], lats[i], lngs[i], 0L, d));
+        }
+        hits.sort(Comparator.comparingDouble(SpatialHit::distanceMeter));
+        return hits;
+    }
+
+    /* ------------------------------ KNN ------------------------------ */
+
+    @Benchmark
+    public List<SpatialHit> indexKnn() {
+        double[] q = nextQuery();
+        return index.knn(q[0], q[1], k);
+    }
+
+    @Benchmark
+    public List<SpatialHit> baselineKnnFixedCircle() {
+        double[] q = nextQuery();
+        List<SpatialHit> hits = new ArrayList<>();
+        for (int i = 0; i < entities; i++) {
+            double d = GeoMath.distanceMeter(q[0], q[1], lats[i], lngs[i]);
+            if (d <= 5000) hits.add(new SpatialHit(userIds[i], lats[i], lngs[i], 0L, d));
+        }
+        hits.sort(Comparator.comparingDouble(SpatialHit::distanceMeter));
+        return hits.subList(0, Math.min(k, hits.size()));
+    }
+
+    /* ------------------------------ PIP ------------------------------ */
+
+    @Benchmark
+    public List<SpatialHit> indexPolygon() {
+        return index.polygon(polygonLats, polygonLngs);
+    }
+
+    @Benchmark
+    public List<SpatialHit> baselineCircleThenPath2D() {
+        double minLat = 1.2800, maxLat = 1.3600, minLng = 103.8250, maxLng = 103.8550;
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLng = (minLng + maxLng) / 2;
+        double radius = GeoMath.distanceMeter(minLat, minLng, maxLat, maxLng) * 1.1 / 2;
+
+        List<SpatialHit> hits = new ArrayList<>();
+        for (int i = 0; i < entities; i++) {
+            double d = GeoMath.distanceMeter(centerLat, centerLng, lats[i], lngs[i]);
+            if (d <= radius && polygonPath.contains(lngs[i], lats[i])) {
+                hits.add(new SpatialHit(userIds[i], lats[i], lngs[i], 0L, d));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(SpatialHit::distanceMeter));
+        return hits;
+    }
+
+    /* ------------------------------ Update ------------------------------ */
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void indexUpdate(Blackhole bh) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(entities);
+        double lat = lats[i] + (random.nextDouble() - 0.5) * 0.002;
+        double lng = lngs[i] + (random.nextDouble() - 0.5) * 0.002;
+        bh.consume(index.update(userIds[i], lat, lng, System.currentTimeMillis()));
+    }
+
+    private double[] nextQuery() {
+        return queryPoints[ThreadLocalRandom.current().nextInt(queryPoints.length)];
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = Math.max(random.nextDouble(), 1e-12);
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
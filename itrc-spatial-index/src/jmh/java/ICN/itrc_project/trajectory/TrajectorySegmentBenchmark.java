@@ -0,0 +1,89 @@
+package ICN.itrc_project.trajectory;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 궤적 Segment 압축률과 인코딩/디코딩 비용 (사용자 1명 × 1시간 Bucket)
+ * - 데이터: periodMillis 주기(±5% 지터)로 1시간, 도심 주행 속도 변화, GPS 잡음(σ≈1.1m)
+ * - Ping당 평균 바이트 수(원본 long + double 2개 = 24B 대비)는 Trial 시작 시 표준 출력으로 기록
+ * - decodeWindow: 1시간 중 20분 구간 조회 (구간 끝 이후 좌표 열은 디코딩하지 않음, 성능 가이드 6.17 표의 조회 조건)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TrajectorySegmentBenchmark {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Param({"1000", "4000"})
+    public int periodMillis;
+
+    private int pings;
+    private long[] timestamps;
+    private double[] lats;
+    private double[] lngs;
+    private TrajectorySegment.Encoded encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        pings = 3_600_000 / periodMillis;
+        timestamps = new long[pings];
+        lats = new double[pings];
+        lngs = new double[pings];
+
+        double lat = 1.3521, lng = 103.8198;
+        double seconds = periodMillis / 1000d;
+        double speed = 8; // m/s
+        double heading = random.nextDouble(2 * Math.PI);
+        long ts = START;
+        for (int i = 0; i < pings; i++) {
+            ts += periodMillis + random.nextInt(-periodMillis / 20, periodMillis / 20 + 1);
+            speed = Math.max(0, Math.min(20, speed + random.nextDouble(-1, 1)));
+            heading += random.nextDouble(-0.1, 0.1);
+            lat += Math.cos(heading) * speed * seconds / 111_320d;
+            lng += Math.sin(heading) * speed * seconds / 111_320d;
+            timestamps[i] = ts;
+            lats[i] = lat + gaussian(random) * 1e-5;
+            lngs[i] = lng + gaussian(random) * 1e-5;
+        }
+        encoded = encode();
+        System.out.printf("%n[bytes/ping] segment=%.2f | raw=24.00 (pings=%d, bytes=%d)%n",
+                (double) encoded.data().length / pings, pings, encoded.data().length);
+    }
+
+    @Benchmark
+    public TrajectorySegment.Encoded encode() {
+        TrajectorySegment.Builder builder = new TrajectorySegment.Builder();
+        for (int i = 0; i < pings; i++) builder.append(timestamps[i], lats[i], lngs[i]);
+        return builder.encode();
+    }
+
+    @Benchmark
+    public int decodeAll(Blackhole blackhole) {
+        return TrajectorySegment.decode(encoded, Long.MIN_VALUE, Long.MAX_VALUE, (ts, lat, lng) -> {
+            blackhole.consume(ts);
+            blackhole.consume(lat);
+            blackhole.consume(lng);
+        });
+    }
+
+    @Benchmark
+    public int decodeWindow(Blackhole blackhole) {
+        long from = timestamps[pings / 3];
+        return TrajectorySegment.decode(encoded, from, from + 1_200_000, (ts, lat, lng) -> {
+            blackhole.consume(ts);
+            blackhole.consume(lat);
+            blackhole.consume(lng);
+        });
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = Math.max(random.nextDouble(), 1e-12);
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
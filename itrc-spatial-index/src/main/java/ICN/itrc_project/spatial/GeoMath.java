@@ -0,0 +1,57 @@
+package ICN.itrc_project.spatial;
+
+/**
+ * 구면 거리 및 좌표 판별 유틸리티: 인덱스 내부 Hot Path에서 객체 할당 없이 사용
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_METER = 6371e3;
+
+    /**
+     * 위도 1도에 해당하는 거리(m)
+     */
+    public static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METER;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Haversine 공식 기반 두 좌표 간 거리(m)
+     */
+    public static double distanceMeter(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaPhi = Math.toRadians(lat2 - lat1);
+        double deltaLambda = Math.toRadians(lng2 - lng1);
+
+        double sinPhi = Math.sin(deltaPhi / 2);
+        double sinLambda = Math.sin(deltaLambda / 2);
+        double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS_METER * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * 반경(m)을 해당 위도에서의 경도 폭(degree)으로 환산 (극지방 발산 방지를 위해 cos 하한 적용)
+     */
+    public static double meterToLngDegree(double meter, double lat) {
+        return meter / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 1e-6));
+    }
+
+    public static double meterToLatDegree(double meter) {
+        return meter / METERS_PER_DEGREE;
+    }
+
+    /**
+     * Ray Casting 기반 Point-In-Polygon 판별 (닫힌 다각형, 꼭짓점 배열은 첫 점을 반복하지 않음)
+     */
+    public static boolean contains(double[] lats, double[] lngs, double lat, double lng) {
+        boolean inside = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > lat) != (lats[j] > lat)
+                    && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
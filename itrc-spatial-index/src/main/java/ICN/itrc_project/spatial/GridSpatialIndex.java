@@ -0,0 +1,477 @@
+package ICN.itrc_project.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-Process Spatial Index: 사용자별 최신 위치를 고정 크기 위경도 Grid Bucket에 보관하는 동시성 인덱스
+ * - Bucket: 좌표/시각을 Primitive 배열(double[], long[])로 보관하여 스캔 시 객체 역참조 최소화
+ * - Lock Striping: Bucket 단위 잠금을 고정 개수의 ReadWriteLock에 분산하여 쓰기 경합 완화
+ * - 질의: Range(반경), KNN(Ring 확장), PIP(다각형) 및 단건 조회를 외부 저장소 왕복 없이 수행
+ * - 경도 방향 Cell은 날짜변경선(±180)에서 이어짐 (Range/KNN이 반대편 Cell까지 탐색)
+ */
+public class GridSpatialIndex {
+
+    /**
+     * 기본 Cell 크기: 0.01도 (적도 기준 약 1.1km)
+     */
+    public static final double DEFAULT_CELL_SIZE_DEGREE = 0.01;
+    private static final int DEFAULT_STRIPES = 256;
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    private static final Comparator<SpatialHit> BY_DISTANCE = Comparator.comparingDouble(SpatialHit::distanceMeter);
+
+    private final double cellSizeDegree;
+    private final long columns;
+    private final int wrapColumns;       // [-180, 180]을 덮는 경도 Cell 수 (180은 마지막 Cell)
+    private final boolean exactWrap;     // 마지막 Cell이 온전한 폭인지 (360 / cellSizeDegree가 정수)
+    private final ReentrantReadWriteLock[] stripes;
+
+    private final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> cellByUser = new ConcurrentHashMap<>();
+
+    // 데이터가 존재하는 Grid 범위 (KNN Ring 확장 종료 조건)
+    private final AtomicInteger minRow = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger maxRow = new AtomicInteger(Integer.MIN_VALUE);
+    private final AtomicInteger minCol = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger maxCol = new AtomicInteger(Integer.MIN_VALUE);
+
+    public GridSpatialIndex() {
+        this(DEFAULT_CELL_SIZE_DEGREE, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param cellSizeDegree Grid Cell 한 변의 크기(degree)
+     * @param stripes        Lock Stripe 수 (2의 거듭제곱으로 올림)
+     */
+    public GridSpatialIndex(double cellSizeDegree, int stripes) {
+        if (cellSizeDegree <= 0 || cellSizeDegree > 10) {
+            throw new IllegalArgumentException("cellSizeDegree must be in (0, 10]: " + cellSizeDegree);
+        }
+        this.cellSizeDegree = cellSizeDegree;
+        this.columns = (long) Math.ceil(360.0 / cellSizeDegree) + 1;
+        this.wrapColumns = (int) Math.ceil(360.0 / cellSizeDegree - 1e-9);
+        this.exactWrap = Math.abs(wrapColumns * cellSizeDegree - 360.0) < 1e-9;
+
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /* ======================= 쓰기 (Point Update) ======================= */
+
+    /**
+     * 사용자의 최신 위치 반영 (Cell 이동 시 이전 Bucket에서 제거)
+     *
+     * @return 기존 위치보다 오래된 timestamp라서 무시된 경우 false
+     */
+    public boolean update(String userId, double lat, double lng, long timestamp) {
+        int row = rowOf(lat);
+        int col = colOf(lng);
+        long newCell = cellKey(row, col);
+        boolean[] applied = new boolean[1];
+
+        // 동일 사용자에 대한 갱신은 compute()의 키 단위 잠금으로 직렬화
+        cellByUser.compute(userId, (id, prevCell) -> {
+            if (prevCell == null || prevCell == newCell) {
+                Bucket bucket = buckets.computeIfAbsent(newCell, k -> new Bucket());
+                Lock lock = stripeOf(newCell).writeLock();
+                lock.lock();
+                try {
+                    applied[0] = bucket.put(id, lat, lng, timestamp);
+                } finally {
+                    lock.unlock();
+                }
+                return newCell;
+            }
+
+            Bucket from = buckets.get(prevCell);
+            Bucket to = buckets.computeIfAbsent(newCell, k -> new Bucket());
+            // 교착 방지를 위해 Stripe 인덱스 오름차순으로 잠금 획득
+            int fromStripe = stripeIndex(prevCell);
+            int toStripe = stripeIndex(newCell);
+            Lock first = stripes[Math.min(fromStripe, toStripe)].writeLock();
+            Lock second = stripes[Math.max(fromStripe, toStripe)].writeLock();
+            first.lock();
+            if (second != first) second.lock();
+            try {
+                if (from.timestampOf(id) > timestamp) return prevCell;
+                from.remove(id);
+                to.put(id, lat, lng, timestamp);
+                applied[0] = true;
+                return newCell;
+            } finally {
+                if (second != first) second.unlock();
+                first.unlock();
+            }
+        });
+
+        if (applied[0]) expandExtent(row, col);
+        return applied[0];
+    }
+
+    public boolean remove(String userId) {
+        boolean[] removed = new boolean[1];
+        cellByUser.computeIfPresent(userId, (id, cell) -> {
+            Lock lock = stripeOf(cell).writeLock();
+            lock.lock();
+            try {
+                removed[0] = buckets.get(cell).remove(id);
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * timestamp보다 오래된 위치만 제거 (같은 인덱스에 더 최신 위치가 이미 반영된 경우 유지)
+     */
+    public boolean removeIfOlderThan(String userId, long timestamp) {
+        boolean[] removed = new boolean[1];
+        cellByUser.computeIfPresent(userId, (id, cell) -> {
+            Lock lock = stripeOf(cell).writeLock();
+            lock.lock();
+            try {
+                Bucket bucket = buckets.get(cell);
+                if (bucket.timestampOf(id) >= timestamp) return cell;
+                removed[0] = bucket.remove(id);
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    /* ======================= 읽기 (Point / Range / KNN / PIP) ======================= */
+
+    public Optional<SpatialHit> get(String userId) {
+        Long cell = cellByUser.get(userId);
+        while (cell != null) {
+            Lock lock = stripeOf(cell).readLock();
+            lock.lock();
+            try {
+                Bucket bucket = buckets.get(cell);
+                Integer slot = bucket.slots.get(userId);
+                if (slot != null) return Optional.of(bucket.hit(slot, 0.0));
+            } finally {
+                lock.unlock();
+            }
+            // 조회 도중 다른 Cell로 이동한 경우 새 Cell 기준으로 재시도
+            Long moved = cellByUser.get(userId);
+            if (cell.equals(moved)) break;
+            cell = moved;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * [Range Query] 중심 좌표 반경(m) 내 사용자를 거리 오름차순으로 반환 (GEORADIUS ... ASC 형태)
+     */
+    public List<SpatialHit> range(double lat, double lng, double radiusMeter) {
+        double dLat = GeoMath.meterToLatDegree(radiusMeter);
+        double dLng = GeoMath.meterToLngDegree(radiusMeter, Math.abs(lat) + dLat);
+
+        int[] spans = columnSpans(lng - dLng, lng + dLng);
+
+        List<SpatialHit> hits = new ArrayList<>();
+        for (int row = rowOf(lat - dLat), maxR = rowOf(lat + dLat); row <= maxR; row++) {
+            for (int span = 0; span < spans.length; span += 2) {
+                for (int col = spans[span]; col <= spans[span + 1]; col++) {
+                    collectWithin(cellKey(row, col), lat, lng, radiusMeter, hits);
+                }
+            }
+        }
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    /**
+     * [KNN Query] 중심 Cell에서 정사각 Ring을 한 겹씩 확장하며 최근접 k명 탐색
+     * - 확보한 k번째 거리보다 다음 Ring의 최소 가능 거리가 멀어지면 즉시 종료
+     * - 고정 반경 필터와 달리 희소 지역에서도 데이터가 있는 한 k건을 보장
+     * - 열은 날짜변경선에서 이어지며, Ring이 경도 한 바퀴를 넘으면 같은 Cell을 다시 방문하지 않음
+     */
+    public List<SpatialHit> knn(double lat, double lng, int k) {
+        if (k <= 0 || cellByUser.isEmpty()) return List.of();
+
+        PriorityQueue<SpatialHit> farthestFirst = new PriorityQueue<>(k, BY_DISTANCE.reversed());
+        int centerRow = rowOf(lat);
+        int centerCol = colOf(lng);
+        int maxRing = maxRingFrom(centerRow, centerCol);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (farthestFirst.size() == k && ringLowerBoundMeter(ring, lat) > farthestFirst.peek().distanceMeter()) break;
+
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                if (edgeRow && 2 * ring + 1 >= wrapColumns) {
+                    for (int col = 0; col < wrapColumns; col++) collectNearest(cellKey(row, col), lat, lng, k, farthestFirst);
+                } else if (edgeRow) {
+                    for (int col = centerCol - ring; col <= centerCol + ring; col++) {
+                        collectNearest(cellKey(row, wrap(col)), lat, lng, k, farthestFirst);
+                    }
+                } else if (2 * ring <= wrapColumns) {
+                    // 중간 행은 Ring의 좌우 끝 열만 (한 바퀴의 절반에서는 두 열이 같은 Cell)
+                    collectNearest(cellKey(row, wrap(centerCol - ring)), lat, lng, k, farthestFirst);
+                    if (2 * ring != wrapColumns) collectNearest(cellKey(row, wrap(centerCol + ring)), lat, lng, k, farthestFirst);
+                }
+            }
+        }
+
+        List<SpatialHit> result = new ArrayList<>(farthestFirst);
+        result.sort(BY_DISTANCE);
+        return result;
+    }
+
+    /**
+     * [PIP Query] 다각형 내부 사용자 반환 (거리는 다각형 Bounding Box 중심 기준)
+     */
+    public List<SpatialHit> polygon(double[] lats, double[] lngs) {
+        if (lats.length != lngs.length || lats.length < 3) {
+            throw new IllegalArgumentException("polygon requires at least 3 vertices with matching lat/lng arrays");
+        }
+        double minLat = Arrays.stream(lats).min().getAsDouble();
+        double maxLat = Arrays.stream(lats).max().getAsDouble();
+        double minLng = Arrays.stream(lngs).min().getAsDouble();
+        double maxLng = Arrays.stream(lngs).max().getAsDouble();
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLng = (minLng + maxLng) / 2;
+
+        List<SpatialHit> hits = new ArrayList<>();
+        for (int row = rowOf(minLat), maxR = rowOf(maxLat); row <= maxR; row++) {
+            for (int col = colOf(minLng), maxC = colOf(maxLng); col <= maxC; col++) {
+                long cell = cellKey(row, col);
+                Bucket bucket = buckets.get(cell);
+                if (bucket == null) continue;
+
+                Lock lock = stripeOf(cell).readLock();
+                lock.lock();
+                try {
+                    for (int i = 0; i < bucket.size; i++) {
+                        if (GeoMath.contains(lats, lngs, bucket.lats[i], bucket.lngs[i])) {
+                            hits.add(bucket.hit(i, GeoMath.distanceMeter(centerLat, centerLng, bucket.lats[i], bucket.lngs[i])));
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    /**
+     * 전체 사용자 순회 (Bucket 단위 읽기 잠금, 순회 중 갱신은 반영 여부가 정해지지 않음)
+     */
+    public void forEach(Consumer<SpatialHit> action) {
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            Lock lock = stripeOf(entry.getKey()).readLock();
+            lock.lock();
+            try {
+                for (int i = 0; i < bucket.size; i++) {
+                    action.accept(bucket.hit(i, 0.0));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        return cellByUser.size();
+    }
+
+    public double getCellSizeDegree() {
+        return cellSizeDegree;
+    }
+
+    /* ======================= 내부 구현 ======================= */
+
+    private void collectWithin(long cell, double lat, double lng, double radiusMeter, List<SpatialHit> hits) {
+        Bucket bucket = buckets.get(cell);
+        if (bucket == null) return;
+
+        Lock lock = stripeOf(cell).readLock();
+        lock.lock();
+        try {
+            for (int i = 0; i < bucket.size; i++) {
+                double d = GeoMath.distanceMeter(lat, lng, bucket.lats[i], bucket.lngs[i]);
+                if (d <= radiusMeter) hits.add(bucket.hit(i, d));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 경도 구간 [fromLng, toLng]을 덮는 열 범위 (날짜변경선을 넘으면 두 구간, 한 바퀴 이상이면 전체)
+     *
+     * @return {시작 열, 끝 열, ...}
+     */
+    private int[] columnSpans(double fromLng, double toLng) {
+        int[] all = {0, wrapColumns - 1};
+        if (toLng - fromLng >= 360.0) return all;
+        if (fromLng < -180.0) {
+            int westEnd = colOf(toLng);
+            int eastStart = colOf(fromLng + 360.0);
+            return eastStart <= westEnd ? all : new int[]{0, westEnd, eastStart, wrapColumns - 1};
+        }
+        if (toLng > 180.0) {
+            int eastStart = colOf(fromLng);
+            int westEnd = colOf(toLng - 360.0);
+            return eastStart <= westEnd ? all : new int[]{eastStart, wrapColumns - 1, 0, westEnd};
+        }
+        return new int[]{colOf(fromLng), colOf(toLng)};
+    }
+
+    private void collectNearest(long cell, double lat, double lng, int k, PriorityQueue<SpatialHit> farthestFirst) {
+        Bucket bucket = buckets.get(cell);
+        if (bucket == null) return;
+
+        Lock lock = stripeOf(cell).readLock();
+        lock.lock();
+        try {
+            for (int i = 0; i < bucket.size; i++) {
+                double d = GeoMath.distanceMeter(lat, lng, bucket.lats[i], bucket.lngs[i]);
+                if (farthestFirst.size() < k) {
+                    farthestFirst.add(bucket.hit(i, d));
+                } else if (d < farthestFirst.peek().distanceMeter()) {
+                    farthestFirst.poll();
+                    farthestFirst.add(bucket.hit(i, d));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * ring번째 Ring에 속한 점이 가질 수 있는 최소 거리(m)의 보수적 하한
+     * - 마지막 열이 온전한 폭이 아니면 날짜변경선 너머의 열이 한 칸만큼 가까울 수 있으므로 한 Ring 덜 셈
+     */
+    private double ringLowerBoundMeter(int ring, double lat) {
+        int gap = exactWrap ? ring - 1 : ring - 2;
+        if (gap <= 0) return 0.0;
+        double farLat = Math.min(90.0, Math.abs(lat) + ring * cellSizeDegree);
+        double lngScale = Math.max(Math.cos(Math.toRadians(farLat)), 0.0);
+        return gap * cellSizeDegree * GeoMath.METERS_PER_DEGREE * Math.min(1.0, lngScale);
+    }
+
+    private int maxRingFrom(int row, int col) {
+        int rows = Math.max(Math.abs(row - minRow.get()), Math.abs(maxRow.get() - row));
+        int cols = Math.max(Math.abs(col - minCol.get()), Math.abs(maxCol.get() - col));
+        return Math.max(rows, Math.min(cols, wrapColumns / 2));
+    }
+
+    private void expandExtent(int row, int col) {
+        if (row < minRow.get()) minRow.accumulateAndGet(row, Math::min);
+        if (row > maxRow.get()) maxRow.accumulateAndGet(row, Math::max);
+        if (col < minCol.get()) minCol.accumulateAndGet(col, Math::min);
+        if (col > maxCol.get()) maxCol.accumulateAndGet(col, Math::max);
+    }
+
+    private int rowOf(double lat) {
+        return (int) Math.floor((Math.max(-90.0, Math.min(90.0, lat)) + 90.0) / cellSizeDegree);
+    }
+
+    private int colOf(double lng) {
+        int col = (int) Math.floor((Math.max(-180.0, Math.min(180.0, lng)) + 180.0) / cellSizeDegree);
+        return Math.min(col, wrapColumns - 1);
+    }
+
+    private int wrap(int col) {
+        return Math.floorMod(col, wrapColumns);
+    }
+
+    private long cellKey(int row, int col) {
+        return row * columns + col;
+    }
+
+    private ReentrantReadWriteLock stripeOf(long cell) {
+        return stripes[stripeIndex(cell)];
+    }
+
+    private int stripeIndex(long cell) {
+        return Long.hashCode(cell * 0x9E3779B97F4A7C15L) & (stripes.length - 1);
+    }
+
+    /**
+     * Grid Cell 1칸의 데이터: 병렬 Primitive 배열 + userId → slot 매핑 (삭제 시 마지막 원소로 채워 압축)
+     * 모든 접근은 해당 Cell의 Stripe Lock 하에서 수행
+     */
+    private static final class Bucket {
+        private final Map<String, Integer> slots = new HashMap<>();
+        private String[] userIds = new String[INITIAL_BUCKET_CAPACITY];
+        private double[] lats = new double[INITIAL_BUCKET_CAPACITY];
+        private double[] lngs = new double[INITIAL_BUCKET_CAPACITY];
+        private long[] timestamps = new long[INITIAL_BUCKET_CAPACITY];
+        private int size;
+
+        boolean put(String userId, double lat, double lng, long timestamp) {
+            Integer slot = slots.get(userId);
+            if (slot == null) {
+                if (size == userIds.length) grow();
+                slot = size++;
+                slots.put(userId, slot);
+                userIds[slot] = userId;
+            } else if (timestamps[slot] > timestamp) {
+                return false;
+            }
+            lats[slot] = lat;
+            lngs[slot] = lng;
+            timestamps[slot] = timestamp;
+            return true;
+        }
+
+        boolean remove(String userId) {
+            Integer slot = slots.remove(userId);
+            if (slot == null) return false;
+
+            int last = --size;
+            if (slot != last) {
+                userIds[slot] = userIds[last];
+                lats[slot] = lats[last];
+                lngs[slot] = lngs[last];
+                timestamps[slot] = timestamps[last];
+                slots.put(userIds[slot], slot);
+            }
+            userIds[last] = null;
+            return true;
+        }
+
+        long timestampOf(String userId) {
+            Integer slot = slots.get(userId);
+            return slot == null ? Long.MIN_VALUE : timestamps[slot];
+        }
+
+        SpatialHit hit(int i, double distanceMeter) {
+            return new SpatialHit(userIds[i], lats[i], lngs[i], timestamps[i], distanceMeter);
+        }
+
+        private void grow() {
+            int capacity = userIds.length * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            lngs = Arrays.copyOf(lngs, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+    }
+}
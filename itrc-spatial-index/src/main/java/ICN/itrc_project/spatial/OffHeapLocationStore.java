@@ -0,0 +1,357 @@
+package ICN.itrc_project.spatial;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Off-Heap Latest-Position Store: 사용자별 최신 위치를 Direct ByteBuffer Slab의 고정 크기 레코드로 보관
+ * - 레코드: [키 길이(1) | userId(ASCII, maxKeyBytes) | lat | lng | speed | accuracy | timestamp] (8byte 정렬)
+ * - 색인: Off-Heap Open Addressing 테이블 (Linear Probing, 항목 = 상위 32bit 해시 | 하위 32bit 슬롯+1, 삭제는 Backward Shift)
+ * - userId 문자열을 레코드 안에 직접 보관하므로 Heap에 남는 객체는 Slab/테이블 ByteBuffer 몇 개뿐 (개체 수와 무관, GC 추적 대상 없음)
+ * - 잠금: StampedLock 단일 Writer + Optimistic Read (조회는 검증 실패 시에만 읽기 잠금)
+ * 키는 ASCII maxKeyBytes 이하만 허용 (Consumer의 cleanUserId 결과는 [a-zA-Z0-9_]), 초과 키/용량 초과는 거부 건수로 집계
+ */
+public class OffHeapLocationStore {
+
+    public static final int DEFAULT_MAX_KEY_BYTES = 31;
+
+    private static final int SLAB_SHIFT = 20;                    // Slab당 레코드 수 2^20 (필요 시점에 할당)
+    private static final int SLAB_RECORDS = 1 << SLAB_SHIFT;
+    private static final int TABLE_CHUNK_SHIFT = 24;             // 테이블 Chunk당 항목 수 2^24 (128MB)
+    private static final int TABLE_CHUNK_ENTRIES = 1 << TABLE_CHUNK_SHIFT;
+    private static final long EMPTY = 0L;
+    private static final int NO_SLOT = -1;
+
+    /**
+     * 조회 결과 (speed/accuracy가 없던 이벤트는 NaN)
+     */
+    public record StoredLocation(String userId, double latitude, double longitude,
+                                 double speed, double accuracy, long timestamp) {
+    }
+
+    private final int capacity;
+    private final int maxKeyBytes;
+    private final int recordSize;
+    private final int latOffset;
+
+    private final ByteBuffer[] slabs;
+    private final ByteBuffer[] table;
+    private final long tableMask;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder rejected = new LongAdder();
+
+    // 아래 상태는 쓰기 잠금 하에서만 변경
+    private int allocatedSlots;      // 한 번이라도 사용된 슬롯 수 (재사용 전 신규 할당 위치)
+    private int freeHead = NO_SLOT;  // 삭제된 슬롯 목록 (다음 슬롯 번호는 레코드의 timestamp 자리에 기록)
+    private volatile int size;
+
+    public OffHeapLocationStore(int capacity) {
+        this(capacity, DEFAULT_MAX_KEY_BYTES);
+    }
+
+    /**
+     * @param capacity    최대 보관 사용자 수 (테이블은 생성 시 할당, Slab은 사용량에 따라 2^20 레코드 단위로 할당)
+     * @param maxKeyBytes userId 최대 길이 (1 ~ 255)
+     */
+    public OffHeapLocationStore(int capacity, int maxKeyBytes) {
+        if (capacity <= 0 || maxKeyBytes <= 0 || maxKeyBytes > 255) {
+            throw new IllegalArgumentException("capacity must be positive and maxKeyBytes in [1, 255]");
+        }
+        this.capacity = capacity;
+        this.maxKeyBytes = maxKeyBytes;
+        this.latOffset = align8(1 + maxKeyBytes);
+        this.recordSize = latOffset + 5 * Long.BYTES;
+        this.slabs = new ByteBuffer[(int) ((capacity + (long) SLAB_RECORDS - 1) >>> SLAB_SHIFT)];
+
+        // 부하율 0.75 이하가 되도록 2의 거듭제곱으로 올림 (가득 차도 빈 항목이 남아야 없는 키 탐색이 끝남)
+        long tableSize = Long.highestOneBit((long) capacity * 4 / 3) << 1;
+        this.tableMask = tableSize - 1;
+        this.table = new ByteBuffer[(int) Math.max(1, tableSize >>> TABLE_CHUNK_SHIFT)];
+        for (int i = 0; i < table.length; i++) {
+            int entries = (int) Math.min(tableSize, TABLE_CHUNK_ENTRIES);
+            table[i] = ByteBuffer.allocateDirect(entries * Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /* ======================= 쓰기 ======================= */
+
+    /**
+     * 최신 위치 반영 (기존 위치보다 오래된 timestamp는 무시)
+     *
+     * @param speed    없으면 NaN
+     * @param accuracy 없으면 NaN
+     * @return 반영 여부 (오래된 이벤트, 지원하지 않는 키, 용량 초과 시 false)
+     */
+    public boolean put(String userId, double lat, double lng, double speed, double accuracy, long timestamp) {
+        if (!acceptsKey(userId)) {
+            rejected.increment();
+            return false;
+        }
+        int hash = hash(userId);
+        long stamp = lock.writeLock();
+        try {
+            long index = find(userId, hash);
+            int slot;
+            if (index >= 0) {
+                slot = slotOf(tableEntry(index));
+                if (recordTimestamp(slot) > timestamp) return false;
+            } else {
+                slot = allocateSlot();
+                if (slot == NO_SLOT) {
+                    rejected.increment();
+                    return false;
+                }
+                writeKey(slot, userId);
+                setTableEntry(-index - 1, ((long) hash << 32) | (slot + 1L));
+                size++;
+            }
+            ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+            int offset = recordOffset(slot) + latOffset;
+            slab.putDouble(offset, lat);
+            slab.putDouble(offset + 8, lng);
+            slab.putDouble(offset + 16, speed);
+            slab.putDouble(offset + 24, accuracy);
+            slab.putLong(offset + 32, timestamp);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(String userId) {
+        return removeIfOlderThan(userId, Long.MAX_VALUE);
+    }
+
+    /**
+     * timestamp보다 오래된 위치만 제거 (이미 더 최신 위치가 반영된 경우 유지, GridSpatialIndex와 동일한 의미)
+     */
+    public boolean removeIfOlderThan(String userId, long timestamp) {
+        if (!acceptsKey(userId)) return false;
+        int hash = hash(userId);
+        long stamp = lock.writeLock();
+        try {
+            long index = find(userId, hash);
+            if (index < 0) return false;
+            int slot = slotOf(tableEntry(index));
+            if (recordTimestamp(slot) >= timestamp) return false;
+
+            deleteEntry(index);
+            slabs[slot >>> SLAB_SHIFT].put(recordOffset(slot), (byte) 0);
+            setRecordTimestamp(slot, freeHead);
+            freeHead = slot;
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /* ======================= 읽기 ======================= */
+
+    public Optional<StoredLocation> get(String userId) {
+        if (!acceptsKey(userId)) return Optional.empty();
+        int hash = hash(userId);
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                StoredLocation found = read(userId, hash);
+                if (lock.validate(stamp)) return Optional.ofNullable(found);
+            } catch (RuntimeException inconsistent) {
+                // 쓰기와 겹쳐 읽은 슬롯/Slab 상태가 어긋난 경우: 읽기 잠금으로 재시도
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(read(userId, hash));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 전체 레코드 순회 (읽기 잠금 유지, 순회 중 쓰기는 대기)
+     */
+    public void forEach(Consumer<StoredLocation> action) {
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < allocatedSlots; slot++) {
+                int keyLength = slabs[slot >>> SLAB_SHIFT].get(recordOffset(slot)) & 0xFF;
+                if (keyLength > 0) action.accept(record(slot, readKey(slot, keyLength)));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 지원하지 않는 키 또는 용량 초과로 거부된 쓰기 누적 건수
+     */
+    public long rejectedWrites() {
+        return rejected.sum();
+    }
+
+    /**
+     * 할당된 Direct Buffer 총량 (테이블 + 할당된 Slab)
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : table) bytes += chunk.capacity();
+        for (ByteBuffer slab : slabs) {
+            if (slab != null) bytes += slab.capacity();
+        }
+        return bytes;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /* ======================= 내부 구현 ======================= */
+
+    private StoredLocation read(String userId, int hash) {
+        long index = find(userId, hash);
+        return index >= 0 ? record(slotOf(tableEntry(index)), userId) : null;
+    }
+
+    private StoredLocation record(int slot, String userId) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = recordOffset(slot) + latOffset;
+        return new StoredLocation(userId, slab.getDouble(offset), slab.getDouble(offset + 8),
+                slab.getDouble(offset + 16), slab.getDouble(offset + 24), slab.getLong(offset + 32));
+    }
+
+    /**
+     * @return 키가 있으면 테이블 위치, 없으면 (-삽입 위치 - 1)
+     */
+    private long find(String userId, int hash) {
+        long index = hash & 0xFFFFFFFFL & tableMask;
+        for (long probes = 0; probes <= tableMask; probes++) {
+            long entry = tableEntry(index);
+            if (entry == EMPTY) return -index - 1;
+            if ((int) (entry >>> 32) == hash && keyEquals(slotOf(entry), userId)) return index;
+            index = (index + 1) & tableMask;
+        }
+        throw new IllegalStateException("Off-heap index table is full");
+    }
+
+    /**
+     * Linear Probing Backward Shift 삭제: 뒤따르는 항목 중 빈 자리 이전이 본래 위치인 항목을 당겨 탐색 경로 유지
+     */
+    private void deleteEntry(long hole) {
+        long index = hole;
+        while (true) {
+            index = (index + 1) & tableMask;
+            long entry = tableEntry(index);
+            if (entry == EMPTY) break;
+            long home = (entry >>> 32) & tableMask;
+            // home이 (hole, index] 순환 구간 안이면 제자리에서도 탐색 가능, 밖이면 hole로 당김
+            boolean inPlace = hole <= index ? (home > hole && home <= index) : (home > hole || home <= index);
+            if (!inPlace) {
+                setTableEntry(hole, entry);
+                hole = index;
+            }
+        }
+        setTableEntry(hole, EMPTY);
+    }
+
+    private int allocateSlot() {
+        if (freeHead != NO_SLOT) {
+            int slot = freeHead;
+            freeHead = (int) recordTimestamp(slot);
+            return slot;
+        }
+        if (allocatedSlots >= capacity) return NO_SLOT;
+        int slot = allocatedSlots++;
+        int slabIndex = slot >>> SLAB_SHIFT;
+        if (slabs[slabIndex] == null) {
+            int records = (int) Math.min(SLAB_RECORDS, capacity - ((long) slabIndex << SLAB_SHIFT));
+            slabs[slabIndex] = ByteBuffer.allocateDirect(records * recordSize).order(ByteOrder.nativeOrder());
+        }
+        return slot;
+    }
+
+    private boolean keyEquals(int slot, String userId) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = recordOffset(slot);
+        int length = userId.length();
+        if ((slab.get(offset) & 0xFF) != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (slab.get(offset + 1 + i) != (byte) userId.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private void writeKey(int slot, String userId) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = recordOffset(slot);
+        slab.put(offset, (byte) userId.length());
+        for (int i = 0; i < userId.length(); i++) {
+            slab.put(offset + 1 + i, (byte) userId.charAt(i));
+        }
+    }
+
+    private String readKey(int slot, int length) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = recordOffset(slot) + 1;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) slab.get(offset + i);
+        }
+        return new String(chars);
+    }
+
+    private long recordTimestamp(int slot) {
+        return slabs[slot >>> SLAB_SHIFT].getLong(recordOffset(slot) + latOffset + 32);
+    }
+
+    private void setRecordTimestamp(int slot, long value) {
+        slabs[slot >>> SLAB_SHIFT].putLong(recordOffset(slot) + latOffset + 32, value);
+    }
+
+    private long tableEntry(long index) {
+        return table[(int) (index >>> TABLE_CHUNK_SHIFT)].getLong((int) (index & (TABLE_CHUNK_ENTRIES - 1)) * Long.BYTES);
+    }
+
+    private void setTableEntry(long index, long entry) {
+        table[(int) (index >>> TABLE_CHUNK_SHIFT)].putLong((int) (index & (TABLE_CHUNK_ENTRIES - 1)) * Long.BYTES, entry);
+    }
+
+    private int recordOffset(int slot) {
+        return (slot & (SLAB_RECORDS - 1)) * recordSize;
+    }
+
+    private boolean acceptsKey(String userId) {
+        if (userId == null || userId.isEmpty() || userId.length() > maxKeyBytes) return false;
+        for (int i = 0; i < userId.length(); i++) {
+            if (userId.charAt(i) > 0x7F) return false;
+        }
+        return true;
+    }
+
+    private static int slotOf(long entry) {
+        return (int) entry - 1;
+    }
+
+    private static int hash(String userId) {
+        int h = userId.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int align8(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
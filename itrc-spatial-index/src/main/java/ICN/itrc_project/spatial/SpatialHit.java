@@ -0,0 +1,7 @@
+package ICN.itrc_project.spatial;
+
+/**
+ * 공간 질의 결과 1건: 사용자 식별자, 최신 좌표, 질의 기준점으로부터의 거리(m)
+ */
+public record SpatialHit(String userId, double latitude, double longitude, long timestamp, double distanceMeter) {
+}
@@ -0,0 +1,35 @@
+package ICN.itrc_project.trajectory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 비트 단위 순차 판독기 (ByteBuffer의 절대 위치 기준, Buffer 위치는 변경하지 않음)
+ */
+final class BitReader {
+
+    private final ByteBuffer buffer;
+    private long bitPosition;
+
+    BitReader(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.bitPosition = (long) offset << 3;
+    }
+
+    long read(int bits) {
+        long value = 0;
+        while (bits > 0) {
+            int current = buffer.get((int) (bitPosition >>> 3)) & 0xFF;
+            int available = 8 - (int) (bitPosition & 7);
+            int take = Math.min(available, bits);
+            int chunk = (current >>> (available - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            bitPosition += take;
+            bits -= take;
+        }
+        return value;
+    }
+
+    boolean readBit() {
+        return read(1) == 1;
+    }
+}
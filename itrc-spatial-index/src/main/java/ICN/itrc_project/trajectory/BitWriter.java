@@ -0,0 +1,45 @@
+package ICN.itrc_project.trajectory;
+
+import java.util.Arrays;
+
+/**
+ * 비트 단위 순차 기록기 (상위 비트부터 기록, 배열은 필요 시 2배 확장)
+ */
+final class BitWriter {
+
+    private byte[] bytes;
+    private long bitLength;
+
+    BitWriter(int initialBytes) {
+        this.bytes = new byte[Math.max(initialBytes, 8)];
+    }
+
+    /**
+     * value의 하위 bits개 비트를 기록 (bits ≤ 64)
+     */
+    void write(long value, int bits) {
+        ensure(bitLength + bits);
+        while (bits > 0) {
+            int index = (int) (bitLength >>> 3);
+            int free = 8 - (int) (bitLength & 7);
+            int take = Math.min(free, bits);
+            int chunk = (int) ((value >>> (bits - take)) & ((1 << take) - 1));
+            bytes[index] |= (byte) (chunk << (free - take));
+            bitLength += take;
+            bits -= take;
+        }
+    }
+
+    int byteLength() {
+        return (int) ((bitLength + 7) >>> 3);
+    }
+
+    void copyTo(byte[] target, int offset) {
+        System.arraycopy(bytes, 0, target, offset, byteLength());
+    }
+
+    private void ensure(long bits) {
+        int needed = (int) ((bits + 7) >>> 3);
+        if (needed > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length * 2));
+    }
+}
@@ -0,0 +1,215 @@
+package ICN.itrc_project.trajectory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 봉인된 시간 Bucket 파일 (Memory-Mapped, 읽기 전용)
+ * - 구성: [Header: magic | version | Bucket 시작 시각 | Segment 수] [Segment 데이터 ...] [Directory] [Footer: Directory 위치 | magic]
+ * - Directory 항목: userId, Segment 위치/길이, Ping 수, 시간 범위, 좌표 Bounding Box → 디코딩 전 시간/공간 Pruning
+ * - 사용자별 Segment가 연속 구간이므로 궤적 조회는 한 구간의 순차 읽기
+ *
+ * 파일 하나를 단일 Mapping(2GB 미만)으로 다루며, 큰 Bucket은 기록 시 여러 파일로 나뉨
+ */
+public final class TrajectoryBucketFile {
+
+    private static final long MAGIC = 0x4C4253545241434BL; // "LBSTRACK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int FOOTER_BYTES = 2 * Long.BYTES;
+    private static final int ENTRY_FIXED_BYTES = 1 + Long.BYTES + Integer.BYTES + Integer.BYTES + 2 * Long.BYTES + 4 * Double.BYTES;
+    static final long MAX_FILE_BYTES = 1L << 30;
+    static final int MAX_KEY_BYTES = 255;
+
+    private final Path path;
+    private final long bucketStart;
+    private final ByteBuffer buffer;
+    private final List<Entry> entries;
+    private final Map<String, Entry> byUser;
+    private final long pings;
+    private final Entry summary; // 파일 전체 시간 범위/Bounding Box (Bucket 단위 Pruning)
+
+    /**
+     * Directory 항목 1건 (디코딩 없이 시간/공간 조건으로 Segment를 걸러낼 때 사용)
+     */
+    public record Entry(String userId, long offset, int length, int count, long minTimestamp, long maxTimestamp,
+                        double minLat, double maxLat, double minLng, double maxLng) {
+
+        public boolean overlaps(long from, long to) {
+            return maxTimestamp >= from && minTimestamp <= to;
+        }
+
+        public boolean intersects(double minLat, double maxLat, double minLng, double maxLng) {
+            return this.maxLat >= minLat && this.minLat <= maxLat && this.maxLng >= minLng && this.minLng <= maxLng;
+        }
+    }
+
+    private TrajectoryBucketFile(Path path, long bucketStart, ByteBuffer buffer, List<Entry> entries) {
+        this.path = path;
+        this.bucketStart = bucketStart;
+        this.buffer = buffer;
+        this.entries = Collections.unmodifiableList(entries);
+        this.byUser = new HashMap<>(entries.size() * 2);
+        long total = 0;
+        long minTs = Long.MAX_VALUE, maxTs = Long.MIN_VALUE;
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLng = Double.POSITIVE_INFINITY, maxLng = Double.NEGATIVE_INFINITY;
+        for (Entry entry : entries) {
+            byUser.put(entry.userId(), entry);
+            total += entry.count();
+            minTs = Math.min(minTs, entry.minTimestamp());
+            maxTs = Math.max(maxTs, entry.maxTimestamp());
+            minLat = Math.min(minLat, entry.minLat());
+            maxLat = Math.max(maxLat, entry.maxLat());
+            minLng = Math.min(minLng, entry.minLng());
+            maxLng = Math.max(maxLng, entry.maxLng());
+        }
+        this.pings = total;
+        this.summary = new Entry(null, 0, 0, (int) Math.min(total, Integer.MAX_VALUE), minTs, maxTs, minLat, maxLat, minLng, maxLng);
+    }
+
+    /**
+     * Segment 묶음을 파일로 기록: 임시 파일에 Mapping하여 기록 후 force + 원자적 rename (실패 시 임시 파일 삭제)
+     *
+     * @param segments userId → 봉인된 Segment (빈 Segment 제외, 호출 측이 파일 크기 상한 이내로 분할)
+     */
+    public static TrajectoryBucketFile write(Path target, long bucketStart, Map<String, TrajectorySegment.Encoded> segments) throws IOException {
+        long size = HEADER_BYTES + FOOTER_BYTES;
+        for (Map.Entry<String, TrajectorySegment.Encoded> segment : segments.entrySet()) {
+            size += entryBytes(segment.getKey(), segment.getValue());
+        }
+        if (size >= Integer.MAX_VALUE) throw new IllegalArgumentException("Trajectory bucket file too large: " + size);
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            writeTemp(temp, size, bucketStart, segments);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return open(target);
+    }
+
+    private static void writeTemp(Path temp, long size, long bucketStart, Map<String, TrajectorySegment.Encoded> segments) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putLong(MAGIC).putInt(VERSION).putLong(bucketStart).putInt(segments.size());
+
+            List<Entry> entries = new ArrayList<>(segments.size());
+            for (Map.Entry<String, TrajectorySegment.Encoded> segment : segments.entrySet()) {
+                TrajectorySegment.Encoded encoded = segment.getValue();
+                entries.add(new Entry(segment.getKey(), out.position(), encoded.data().length, encoded.count(),
+                        encoded.minTimestamp(), encoded.maxTimestamp(),
+                        encoded.minLat(), encoded.maxLat(), encoded.minLng(), encoded.maxLng()));
+                out.put(encoded.data());
+            }
+
+            long directoryOffset = out.position();
+            for (Entry entry : entries) {
+                byte[] key = keyBytes(entry.userId());
+                out.put((byte) key.length).put(key)
+                        .putLong(entry.offset()).putInt(entry.length()).putInt(entry.count())
+                        .putLong(entry.minTimestamp()).putLong(entry.maxTimestamp())
+                        .putDouble(entry.minLat()).putDouble(entry.maxLat())
+                        .putDouble(entry.minLng()).putDouble(entry.maxLng());
+            }
+            out.putLong(directoryOffset).putLong(MAGIC);
+            out.force();
+        }
+    }
+
+    /**
+     * @throws IOException 파일 손상/형식 불일치
+     */
+    public static TrajectoryBucketFile open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES || size >= Integer.MAX_VALUE) {
+                throw new IOException("Invalid trajectory bucket file size: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        int size = buffer.capacity();
+        if (buffer.getLong(0) != MAGIC || buffer.getInt(Long.BYTES) != VERSION || buffer.getLong(size - Long.BYTES) != MAGIC) {
+            throw new IOException("Unsupported trajectory bucket file: " + path);
+        }
+        long bucketStart = buffer.getLong(Long.BYTES + Integer.BYTES);
+        int segmentCount = buffer.getInt(Long.BYTES + Integer.BYTES + Long.BYTES);
+
+        ByteBuffer directory = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        directory.position((int) buffer.getLong(size - FOOTER_BYTES));
+        List<Entry> entries = new ArrayList<>(segmentCount);
+        byte[] key = new byte[MAX_KEY_BYTES];
+        for (int i = 0; i < segmentCount; i++) {
+            int keyLength = directory.get() & 0xFF;
+            directory.get(key, 0, keyLength);
+            entries.add(new Entry(new String(key, 0, keyLength, StandardCharsets.UTF_8),
+                    directory.getLong(), directory.getInt(), directory.getInt(), directory.getLong(), directory.getLong(),
+                    directory.getDouble(), directory.getDouble(), directory.getDouble(), directory.getDouble()));
+        }
+        return new TrajectoryBucketFile(path, bucketStart, buffer, entries);
+    }
+
+    public Entry find(String userId) {
+        return byUser.get(userId);
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * 파일 내 모든 Segment를 합친 시간 범위/Bounding Box가 조건과 겹치는지 (Directory 순회 전 Pruning)
+     */
+    public boolean overlaps(long from, long to, double minLat, double maxLat, double minLng, double maxLng) {
+        return summary.overlaps(from, to) && summary.intersects(minLat, maxLat, minLng, maxLng);
+    }
+
+    public int decode(Entry entry, long from, long to, TrajectorySegment.PointHandler handler) {
+        return TrajectorySegment.decode(buffer, (int) entry.offset(), entry.count(), from, to, handler);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getPings() {
+        return pings;
+    }
+
+    public long sizeBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Directory 항목 크기 (파일 분할 시 예상 크기 계산용)
+     */
+    static long entryBytes(String userId, TrajectorySegment.Encoded encoded) {
+        return encoded.data().length + ENTRY_FIXED_BYTES + keyBytes(userId).length;
+    }
+
+    static byte[] keyBytes(String userId) {
+        return userId.getBytes(StandardCharsets.UTF_8);
+    }
+}
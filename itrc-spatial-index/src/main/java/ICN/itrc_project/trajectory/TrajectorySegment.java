@@ -0,0 +1,220 @@
+package ICN.itrc_project.trajectory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 사용자 1명 × 시간 Bucket 1개의 궤적 Segment (Gorilla 방식 Columnar 압축)
+ * - 열 구성: [timestamp 열 길이(int)] [lat 열 길이(int)] [timestamp 열] [lat 열] [lng 열]
+ * - timestamp: 첫 값 64bit, 이후 delta-of-delta를 가변 길이 비트 구간으로 기록 (일정 주기 Ping은 1bit)
+ * - lat/lng: 1e-6도(약 0.11m) 고정소수점 정수로 양자화 후 같은 delta-of-delta 인코딩
+ *   (잡음이 있는 GPS double은 XOR 시 유효 비트가 거의 줄지 않으므로, 등속 이동에서 0 근처가 되는 위치 2차 차분을 사용)
+ *
+ * delta-of-delta 비트 구간: 0 → '0' / [-64, 63] → '10'+7bit / [-256, 255] → '110'+9bit
+ *                           / [-2048, 2047] → '1110'+12bit / 그 외 → '1111'+32bit
+ */
+public final class TrajectorySegment {
+
+    static final double SCALE = 1_000_000d;
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private TrajectorySegment() {
+    }
+
+    /**
+     * 좌표 1건 수신 (할당 없이 디코딩 결과 전달)
+     */
+    @FunctionalInterface
+    public interface PointHandler {
+        void accept(long timestamp, double lat, double lng);
+    }
+
+    /**
+     * 봉인된 Segment: 인코딩 바이트와 시간/공간 요약 (Bucket 파일 Directory에 기록되어 디코딩 전 Pruning에 사용)
+     */
+    public record Encoded(byte[] data, int count, long minTimestamp, long maxTimestamp,
+                         double minLat, double maxLat, double minLng, double maxLng) {
+    }
+
+    /**
+     * 증분 인코더: 사용자의 Ping을 timestamp 오름차순으로 추가 (호출 측이 동기화)
+     */
+    public static final class Builder {
+
+        private final BitWriter timestamps = new BitWriter(64);
+        private final BitWriter lats = new BitWriter(64);
+        private final BitWriter lngs = new BitWriter(64);
+        private final DeltaState timestampState = new DeltaState();
+        private final DeltaState latState = new DeltaState();
+        private final DeltaState lngState = new DeltaState();
+
+        private int count;
+        private long minTimestamp;
+        private long lastTimestamp;
+        private double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        private double minLng = Double.POSITIVE_INFINITY, maxLng = Double.NEGATIVE_INFINITY;
+
+        /**
+         * @return false: 마지막 Ping보다 같거나 이전 timestamp (순서 역전/중복)
+         */
+        public boolean append(long timestamp, double lat, double lng) {
+            if (count > 0 && timestamp <= lastTimestamp) return false;
+            long latFixed = Math.round(lat * SCALE);
+            long lngFixed = Math.round(lng * SCALE);
+            if (count == 0) {
+                timestamps.write(timestamp, 64);
+                lats.write(latFixed, 32);
+                lngs.write(lngFixed, 32);
+                timestampState.reset(timestamp);
+                latState.reset(latFixed);
+                lngState.reset(lngFixed);
+                minTimestamp = timestamp;
+            } else {
+                writeDeltaOfDelta(timestamps, timestampState.next(timestamp));
+                writeDeltaOfDelta(lats, latState.next(latFixed));
+                writeDeltaOfDelta(lngs, lngState.next(lngFixed));
+            }
+            lastTimestamp = timestamp;
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLng = Math.min(minLng, lng);
+            maxLng = Math.max(maxLng, lng);
+            count++;
+            return true;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * 시간 구간과 영역(Bounding Box)이 모두 겹치는지 (디코딩 전 Pruning)
+         */
+        public boolean overlaps(long from, long to, double minLat, double maxLat, double minLng, double maxLng) {
+            return count > 0 && lastTimestamp >= from && minTimestamp <= to
+                    && maxLat >= minLat && this.minLat <= maxLat && maxLng >= minLng && this.minLng <= maxLng;
+        }
+
+        public Encoded encode() {
+            int tsBytes = timestamps.byteLength();
+            int latBytes = lats.byteLength();
+            byte[] data = new byte[HEADER_BYTES + tsBytes + latBytes + lngs.byteLength()];
+            ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).putInt(tsBytes).putInt(latBytes);
+            timestamps.copyTo(data, HEADER_BYTES);
+            lats.copyTo(data, HEADER_BYTES + tsBytes);
+            lngs.copyTo(data, HEADER_BYTES + tsBytes + latBytes);
+            return new Encoded(data, count, minTimestamp, lastTimestamp, minLat, maxLat, minLng, maxLng);
+        }
+    }
+
+    /**
+     * 메모리의 인코딩 사본 디코딩 (봉인 전 Segment 조회용)
+     */
+    public static int decode(Encoded encoded, long from, long to, PointHandler handler) {
+        return decode(ByteBuffer.wrap(encoded.data()).order(ByteOrder.LITTLE_ENDIAN), 0, encoded.count(), from, to, handler);
+    }
+
+    /**
+     * [from, to] 구간의 Ping만 전달: timestamp 열을 먼저 읽어 구간 끝 이후는 좌표 열을 디코딩하지 않음
+     * (buffer는 LITTLE_ENDIAN, 절대 위치로만 읽으므로 여러 스레드가 같은 Buffer를 공유 가능)
+     *
+     * @return 전달한 Ping 수
+     */
+    public static int decode(ByteBuffer buffer, int offset, int count, long from, long to, PointHandler handler) {
+        if (count == 0) return 0;
+        int tsBytes = buffer.getInt(offset);
+        int latBytes = buffer.getInt(offset + Integer.BYTES);
+        int tsOffset = offset + HEADER_BYTES;
+
+        BitReader tsReader = new BitReader(buffer, tsOffset);
+        long[] times = new long[count];
+        DeltaState tsState = new DeltaState();
+        times[0] = tsReader.read(64);
+        tsState.reset(times[0]);
+        int end = times[0] <= to ? 1 : 0;
+        for (int i = 1; i < count && end == i; i++) {
+            times[i] = tsState.apply(readDeltaOfDelta(tsReader));
+            if (times[i] <= to) end = i + 1;
+        }
+        if (end == 0) return 0;
+
+        BitReader latReader = new BitReader(buffer, tsOffset + tsBytes);
+        BitReader lngReader = new BitReader(buffer, tsOffset + tsBytes + latBytes);
+        DeltaState latState = new DeltaState();
+        DeltaState lngState = new DeltaState();
+        long latFixed = (int) latReader.read(32);
+        long lngFixed = (int) lngReader.read(32);
+        latState.reset(latFixed);
+        lngState.reset(lngFixed);
+
+        int emitted = 0;
+        for (int i = 0; i < end; i++) {
+            if (i > 0) {
+                latFixed = latState.apply(readDeltaOfDelta(latReader));
+                lngFixed = lngState.apply(readDeltaOfDelta(lngReader));
+            }
+            if (times[i] >= from) {
+                handler.accept(times[i], latFixed / SCALE, lngFixed / SCALE);
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    private static void writeDeltaOfDelta(BitWriter writer, long dod) {
+        if (dod == 0) {
+            writer.write(0, 1);
+        } else if (dod >= -64 && dod <= 63) {
+            writer.write(0b10, 2);
+            writer.write(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            writer.write(0b110, 3);
+            writer.write(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            writer.write(0b1110, 4);
+            writer.write(dod, 12);
+        } else {
+            writer.write(0b1111, 4);
+            writer.write(dod, 32);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader reader) {
+        if (!reader.readBit()) return 0;
+        if (!reader.readBit()) return signExtend(reader.read(7), 7);
+        if (!reader.readBit()) return signExtend(reader.read(9), 9);
+        if (!reader.readBit()) return signExtend(reader.read(12), 12);
+        return signExtend(reader.read(32), 32);
+    }
+
+    private static long signExtend(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+
+    /**
+     * 직전 값/직전 차분 (인코딩: 값 → delta-of-delta, 디코딩: delta-of-delta → 값)
+     */
+    private static final class DeltaState {
+        private long value;
+        private long delta;
+
+        void reset(long first) {
+            value = first;
+            delta = 0;
+        }
+
+        long next(long current) {
+            long currentDelta = current - value;
+            long dod = currentDelta - delta;
+            value = current;
+            delta = currentDelta;
+            return dod;
+        }
+
+        long apply(long dod) {
+            delta += dod;
+            value += delta;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package ICN.itrc_project.trajectory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only 궤적 이력 저장소: 수신 경로의 모든 Ping을 사용자 × 시간 Bucket Segment로 압축 보관
+ * - 열린 Bucket: 사용자별 TrajectorySegment.Builder에 메모리 내 증분 인코딩
+ *   순서가 역전된 Ping은 별도로 모았다가 조회/봉인 시 Segment를 다시 인코딩하여 시간순으로 합침 (같은 timestamp만 거부)
+ * - Bucket 종료 + sealGrace(지연 도착 허용)가 지나면 봉인하여 Bucket 파일(Memory-Mapped)로 기록
+ * - 봉인 후 도착한 같은 Bucket의 Ping(재시작/지연)은 새 열린 Bucket에 모였다가 같은 Bucket의 다음 파일로 기록
+ * - retention이 지난 Bucket 파일은 봉인 주기마다 삭제
+ * - 파일 기록이 실패한 Bucket은 열린 상태로 남아 다음 주기에 다시 봉인 (봉인 주기 작업은 실패해도 계속 실행)
+ *
+ * 조회는 요청 구간과 겹치는 Bucket의 파일(Directory 조회 후 연속 구간 디코딩)과 열린 Segment를 합쳐 시간순 반환
+ */
+public class TrajectoryStore implements Closeable {
+
+    private static final System.Logger LOG = System.getLogger(TrajectoryStore.class.getName());
+    private static final String FILE_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final long bucketMillis;
+    private final long sealGraceMillis;
+    private final long retentionMillis;
+
+    private final ConcurrentSkipListMap<Long, OpenBucket> open = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, List<TrajectoryBucketFile>> sealed = new ConcurrentSkipListMap<>();
+    private final Map<Long, AtomicInteger> nextSequence = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sealer;
+
+    private final AtomicLong openPings = new AtomicLong();
+    private final AtomicLong rejectedAppends = new AtomicLong();
+
+    /**
+     * 궤적 Ping 1건 (조회 결과)
+     */
+    public record Point(long timestamp, double latitude, double longitude) {
+    }
+
+    public TrajectoryStore(Path directory, Duration bucket, Duration sealGrace, Duration retention, Duration sealInterval) throws IOException {
+        // timestamp delta-of-delta는 32bit 구간 이내여야 하므로 Bucket은 1일 이하
+        if (bucket.isNegative() || bucket.isZero() || bucket.compareTo(Duration.ofDays(1)) > 0) {
+            throw new IllegalArgumentException("bucket must be between 1ms and 1 day");
+        }
+        this.directory = directory;
+        this.bucketMillis = bucket.toMillis();
+        this.sealGraceMillis = sealGrace.toMillis();
+        this.retentionMillis = retention.toMillis();
+        Files.createDirectories(directory);
+        loadSealed();
+
+        this.sealer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trajectory-sealer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sealInterval.toMillis();
+        sealer.scheduleWithFixedDelay(() -> {
+            // 예외가 전파되면 이후 주기가 모두 취소되므로 여기서 기록만 하고 다음 주기에 재시도
+            try {
+                sealExpired(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                LOG.log(System.Logger.Level.ERROR, "Trajectory seal cycle failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return false: 같은 사용자의 열린 Segment에 이미 있는 timestamp(중복) 또는 255byte 초과 키
+     */
+    public boolean append(String userId, double lat, double lng, long timestamp) {
+        if (userId.isEmpty() || TrajectoryBucketFile.keyBytes(userId).length > TrajectoryBucketFile.MAX_KEY_BYTES) {
+            rejectedAppends.incrementAndGet();
+            return false;
+        }
+        long start = bucketOf(timestamp);
+        while (true) {
+            OpenBucket bucket = open.computeIfAbsent(start, OpenBucket::new);
+            bucket.lock.readLock().lock();
+            try {
+                if (bucket.sealed) continue; // 봉인 직후: 같은 Bucket의 새 열린 Bucket으로 재시도
+                OpenSegment segment = bucket.segments.computeIfAbsent(userId, k -> new OpenSegment());
+                boolean appended;
+                synchronized (segment) {
+                    appended = segment.append(timestamp, lat, lng);
+                }
+                if (!appended) {
+                    rejectedAppends.incrementAndGet();
+                    return false;
+                }
+                openPings.incrementAndGet();
+                return true;
+            } finally {
+                bucket.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 사용자의 [from, to] 구간 궤적 (timestamp 오름차순, 여러 Segment에 걸친 같은 timestamp는 1건만)
+     */
+    public List<Point> track(String userId, long from, long to) {
+        List<List<Point>> parts = new ArrayList<>();
+        long firstBucket = bucketOf(from);
+        for (List<TrajectoryBucketFile> files : sealed.subMap(firstBucket, true, to, true).values()) {
+            for (TrajectoryBucketFile file : files) {
+                TrajectoryBucketFile.Entry entry = file.find(userId);
+                if (entry == null || !entry.overlaps(from, to)) continue;
+                List<Point> points = new ArrayList<>(entry.count());
+                file.decode(entry, from, to, (ts, lat, lng) -> points.add(new Point(ts, lat, lng)));
+                parts.add(points);
+            }
+        }
+        for (OpenBucket bucket : open.subMap(firstBucket, true, to, true).values()) {
+            OpenSegment segment = bucket.segments.get(userId);
+            if (segment == null) continue;
+            TrajectorySegment.Encoded encoded;
+            synchronized (segment) {
+                encoded = segment.encode();
+            }
+            List<Point> points = new ArrayList<>(encoded.count());
+            TrajectorySegment.decode(encoded, from, to, (ts, lat, lng) -> points.add(new Point(ts, lat, lng)));
+            parts.add(points);
+        }
+        return merge(parts);
+    }
+
+    /**
+     * 종료 + sealGrace가 지난 열린 Bucket 봉인 및 보존 기간이 지난 파일 삭제
+     */
+    public void sealExpired(long now) {
+        for (OpenBucket bucket : open.values()) {
+            if (bucket.start + bucketMillis + sealGraceMillis <= now) seal(bucket);
+        }
+        for (Map.Entry<Long, List<TrajectoryBucketFile>> expired : sealed.headMap(now - retentionMillis - bucketMillis).entrySet()) {
+            sealed.remove(expired.getKey());
+            nextSequence.remove(expired.getKey());
+            for (TrajectoryBucketFile file : expired.getValue()) {
+                try {
+                    Files.deleteIfExists(file.getPath());
+                } catch (IOException e) {
+                    // 목록에서는 제외, 남은 파일은 재시작 시 다시 읽혀 다음 주기에 삭제 재시도
+                    LOG.log(System.Logger.Level.WARNING, "Failed to delete expired trajectory file " + file.getPath(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 봉인된 Bucket 파일 목록 (시간 순, 시공간 질의의 Segment Pruning 대상)
+     */
+    public List<TrajectoryBucketFile> sealedFiles(long from, long to) {
+        List<TrajectoryBucketFile> files = new ArrayList<>();
+        sealed.subMap(bucketOf(from), true, to, true).values().forEach(files::addAll);
+        return files;
+    }
+
+    /**
+     * 봉인 전 Segment 중 시간 구간/영역이 겹치는 것의 인코딩 사본 (userId, Segment)
+     * - 같은 사용자가 여러 열린 Bucket에 있으면 각각 포함
+     */
+    public List<Map.Entry<String, TrajectorySegment.Encoded>> openSegments(long from, long to, double minLat, double maxLat,
+                                                                          double minLng, double maxLng) {
+        List<Map.Entry<String, TrajectorySegment.Encoded>> segments = new ArrayList<>();
+        for (OpenBucket bucket : open.subMap(bucketOf(from), true, to, true).values()) {
+            for (Map.Entry<String, OpenSegment> segment : bucket.segments.entrySet()) {
+                OpenSegment open = segment.getValue();
+                synchronized (open) {
+                    if (open.overlaps(from, to, minLat, maxLat, minLng, maxLng)) {
+                        segments.add(Map.entry(segment.getKey(), open.encode()));
+                    }
+                }
+            }
+        }
+        return segments;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public long openPings() {
+        return openPings.get();
+    }
+
+    public long sealedPings() {
+        return sealed.values().stream().flatMap(List::stream).mapToLong(TrajectoryBucketFile::getPings).sum();
+    }
+
+    public long sealedBytes() {
+        return sealed.values().stream().flatMap(List::stream).mapToLong(TrajectoryBucketFile::sizeBytes).sum();
+    }
+
+    public long rejectedAppends() {
+        return rejectedAppends.get();
+    }
+
+    /**
+     * 종료 시 열린 Bucket을 모두 봉인 (재시작 후 같은 Bucket의 Ping은 다음 파일로 이어짐)
+     */
+    @Override
+    public void close() {
+        sealer.shutdown();
+        try {
+            sealer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        open.values().forEach(this::seal);
+    }
+
+    /**
+     * 파일을 모두 기록한 뒤에만 봉인 목록에 추가하고 열린 Bucket에서 제거
+     * - 기록 중에는 쓰기 잠금으로 같은 Bucket의 추가를 대기시킴 (봉인 대상은 sealGrace가 지난 Bucket이라 추가는 드묾)
+     * - 실패 시 이번에 기록한 파일을 지우고 열린 상태 유지 → 다음 봉인 주기에 재시도
+     *
+     * @return 봉인 여부
+     */
+    private synchronized boolean seal(OpenBucket bucket) {
+        if (open.get(bucket.start) != bucket) return true;
+        bucket.lock.writeLock().lock();
+        try {
+            List<TrajectoryBucketFile> files = new ArrayList<>();
+            long pings = 0;
+            try {
+                // 파일 크기 상한(단일 Mapping) 이내로 나누어 기록
+                Map<String, TrajectorySegment.Encoded> batch = new LinkedHashMap<>();
+                long batchBytes = 0;
+                for (Map.Entry<String, OpenSegment> segment : bucket.segments.entrySet()) {
+                    TrajectorySegment.Encoded encoded;
+                    synchronized (segment.getValue()) {
+                        encoded = segment.getValue().encode();
+                    }
+                    long bytes = TrajectoryBucketFile.entryBytes(segment.getKey(), encoded);
+                    if (!batch.isEmpty() && batchBytes + bytes > TrajectoryBucketFile.MAX_FILE_BYTES) {
+                        files.add(writeFile(bucket.start, batch));
+                        batch = new LinkedHashMap<>();
+                        batchBytes = 0;
+                    }
+                    batch.put(segment.getKey(), encoded);
+                    batchBytes += bytes;
+                    pings += encoded.count();
+                }
+                if (!batch.isEmpty()) files.add(writeFile(bucket.start, batch));
+            } catch (IOException | RuntimeException e) {
+                LOG.log(System.Logger.Level.ERROR, "Failed to seal trajectory bucket " + bucket.start + " (retry next cycle)", e);
+                for (TrajectoryBucketFile file : files) {
+                    try {
+                        Files.deleteIfExists(file.getPath());
+                    } catch (IOException ignored) {
+                        // 재시작 시 남은 파일이 다시 읽히면 같은 Ping이 중복될 수 있으나 track은 timestamp 기준으로 병합
+                    }
+                }
+                return false;
+            }
+
+            sealed.computeIfAbsent(bucket.start, k -> new CopyOnWriteArrayList<>()).addAll(files);
+            open.remove(bucket.start, bucket);
+            bucket.sealed = true;
+            openPings.addAndGet(-pings);
+            return true;
+        } finally {
+            bucket.lock.writeLock().unlock();
+        }
+    }
+
+    private TrajectoryBucketFile writeFile(long bucketStart, Map<String, TrajectorySegment.Encoded> segments) throws IOException {
+        int sequence = nextSequence.computeIfAbsent(bucketStart, k -> new AtomicInteger()).getAndIncrement();
+        return TrajectoryBucketFile.write(directory.resolve(bucketStart + "-" + sequence + FILE_SUFFIX), bucketStart, segments);
+    }
+
+    private void loadSealed() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path path : files) {
+                TrajectoryBucketFile file = TrajectoryBucketFile.open(path);
+                sealed.computeIfAbsent(file.getBucketStart(), k -> new CopyOnWriteArrayList<>()).add(file);
+                String name = path.getFileName().toString();
+                int sequence = Integer.parseInt(name.substring(name.indexOf('-') + 1, name.length() - FILE_SUFFIX.length()));
+                nextSequence.computeIfAbsent(file.getBucketStart(), k -> new AtomicInteger())
+                        .accumulateAndGet(sequence + 1, Math::max);
+            }
+        }
+    }
+
+    private long bucketOf(long timestamp) {
+        return Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+    }
+
+    private static List<Point> merge(List<List<Point>> parts) {
+        if (parts.isEmpty()) return List.of();
+        if (parts.size() == 1) return parts.get(0);
+        List<Point> merged = new ArrayList<>();
+        parts.forEach(merged::addAll);
+        merged.sort(Comparator.comparingLong(Point::timestamp));
+        List<Point> distinct = new ArrayList<>(merged.size());
+        for (Point point : merged) {
+            if (distinct.isEmpty() || distinct.get(distinct.size() - 1).timestamp() != point.timestamp()) distinct.add(point);
+        }
+        return distinct;
+    }
+
+    /**
+     * 봉인 전 Bucket: 추가는 읽기 잠금(동시 다수), 봉인은 쓰기 잠금으로 진행 중인 추가를 기다린 뒤 차단
+     */
+    private static final class OpenBucket {
+        private final long start;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, OpenSegment> segments = new ConcurrentHashMap<>();
+        private volatile boolean sealed;
+
+        private OpenBucket(long start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * 사용자 1명의 열린 Segment (호출 측이 동기화)
+     * - 마지막 Ping 이후 timestamp는 Builder에 바로 증분 인코딩
+     * - 그 이전 timestamp(지연 도착/재처리)는 late에 모았다가 encode/overlaps 시 또는 LATE_COMPACT건마다 전체를 다시 인코딩
+     * - 이미 있는 timestamp인지는 인코딩된 Segment의 해당 시각만 디코딩하여 확인 (순서 역전 Ping에만 발생하는 비용)
+     */
+    private static final class OpenSegment {
+        private static final int LATE_COMPACT = 64;
+
+        private TrajectorySegment.Builder builder = new TrajectorySegment.Builder();
+        private final TreeMap<Long, double[]> late = new TreeMap<>();
+
+        private boolean append(long timestamp, double lat, double lng) {
+            if (builder.append(timestamp, lat, lng)) return true;
+            if (late.containsKey(timestamp) || contains(timestamp)) return false;
+            late.put(timestamp, new double[]{lat, lng});
+            if (late.size() >= LATE_COMPACT) compact();
+            return true;
+        }
+
+        private boolean overlaps(long from, long to, double minLat, double maxLat, double minLng, double maxLng) {
+            compact();
+            return builder.overlaps(from, to, minLat, maxLat, minLng, maxLng);
+        }
+
+        private TrajectorySegment.Encoded encode() {
+            compact();
+            return builder.encode();
+        }
+
+        private boolean contains(long timestamp) {
+            return TrajectorySegment.decode(builder.encode(), timestamp, timestamp, (ts, lat, lng) -> {
+            }) > 0;
+        }
+
+        /**
+         * 인코딩된 Ping과 late를 timestamp 순으로 병합하여 새 Builder로 다시 인코딩
+         */
+        private void compact() {
+            if (late.isEmpty()) return;
+            TrajectorySegment.Builder merged = new TrajectorySegment.Builder();
+            TrajectorySegment.decode(builder.encode(), Long.MIN_VALUE, Long.MAX_VALUE, (ts, lat, lng) -> {
+                for (Map.Entry<Long, double[]> head = late.firstEntry(); head != null && head.getKey() < ts; head = late.firstEntry()) {
+                    merged.append(head.getKey(), head.getValue()[0], head.getValue()[1]);
+                    late.pollFirstEntry();
+                }
+                merged.append(ts, lat, lng);
+            });
+            late.forEach((ts, point) -> merged.append(ts, point[0], point[1]));
+            late.clear();
+            builder = merged;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package ICN.itrc_project.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GridSpatialIndexTest {
+
+    private static final double CELL = GridSpatialIndex.DEFAULT_CELL_SIZE_DEGREE;
+
+    private GridSpatialIndex index = new GridSpatialIndex();
+    private final Map<String, SpatialHit> latest = new HashMap<>(); // 선형 탐색 기준 (사용자별 최신 위치)
+
+    @Test
+    void rangeMatchesLinearScan() {
+        SplittableRandom random = new SplittableRandom(1);
+        fill(random, 5_000, 1.25, 1.45, 103.6, 104.0);
+
+        for (int i = 0; i < 500; i++) {
+            double lat = random.nextDouble(1.2, 1.5);
+            double lng = random.nextDouble(103.55, 104.05);
+            double radius = i % 10 == 0 ? 0 : random.nextDouble(10, 8_000);
+            assertRange(lat, lng, radius);
+        }
+    }
+
+    @Test
+    void knnMatchesLinearScan() {
+        SplittableRandom random = new SplittableRandom(2);
+        fill(random, 3_000, 1.25, 1.45, 103.6, 104.0);
+        fill(random, 20, 35.5, 35.6, 139.6, 139.8); // 멀리 떨어진 소규모 군집
+
+        for (int i = 0; i < 300; i++) {
+            assertKnn(random.nextDouble(1.0, 1.7), random.nextDouble(103.4, 104.2), 1 + random.nextInt(50));
+        }
+        assertKnn(1.35, 103.8, 3_010);           // 전체보다 많은 k: 가장 먼 Ring까지 확장
+        assertKnn(35.55, 139.7, 40);             // 가까운 20명 이후 빈 Ring을 건너 다음 군집까지
+    }
+
+    @Test
+    void polygonMatchesLinearScan() {
+        SplittableRandom random = new SplittableRandom(3);
+        fill(random, 5_000, 1.25, 1.45, 103.6, 104.0);
+
+        for (int i = 0; i < 200; i++) {
+            // 중심 주변에 각도 순으로 꼭짓점을 두어 오목 다각형 포함
+            int vertices = 3 + random.nextInt(8);
+            double lat = random.nextDouble(1.25, 1.45);
+            double lng = random.nextDouble(103.6, 104.0);
+            double[] lats = new double[vertices];
+            double[] lngs = new double[vertices];
+            for (int v = 0; v < vertices; v++) {
+                double angle = 2 * Math.PI * v / vertices;
+                double r = random.nextDouble(0.005, 0.08);
+                lats[v] = lat + r * Math.sin(angle);
+                lngs[v] = lng + r * Math.cos(angle);
+            }
+            assertPolygon(lats, lngs);
+        }
+    }
+
+    @Test
+    void removeIfOlderThanMatchesLinearScan() {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int i = 0; i < 20_000; i++) {
+            String userId = "u" + random.nextInt(500);
+            long timestamp = random.nextLong(1_000);
+            if (random.nextInt(4) == 0) {
+                SpatialHit current = latest.get(userId);
+                boolean expected = current != null && current.timestamp() < timestamp;
+                if (expected) latest.remove(userId);
+                assertThat(index.removeIfOlderThan(userId, timestamp)).isEqualTo(expected);
+            } else {
+                // 오래된 timestamp의 갱신(Cell 이동 포함)은 무시
+                update(userId, random.nextDouble(1.30, 1.33), random.nextDouble(103.80, 103.83), timestamp);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(latest.size());
+        List<SpatialHit> all = new ArrayList<>();
+        index.forEach(all::add);
+        assertThat(all).extracting(SpatialHit::userId).containsExactlyInAnyOrderElementsOf(latest.keySet());
+        for (SpatialHit hit : all) {
+            SpatialHit expected = latest.get(hit.userId());
+            assertThat(hit.timestamp()).isEqualTo(expected.timestamp());
+            assertThat(index.get(hit.userId())).hasValueSatisfying(found -> assertThat(found.latitude()).isEqualTo(expected.latitude()));
+        }
+        assertRange(1.315, 103.815, 2_000);
+        assertKnn(1.315, 103.815, 50);
+        assertThat(index.removeIfOlderThan("missing", Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void queriesOnCellBoundaries() {
+        // Cell 경계 좌표(0.01도 배수)와 경계에서 정확히 반경만큼 떨어진 점
+        int id = 0;
+        for (int row = 0; row <= 10; row++) {
+            for (int col = 0; col <= 10; col++) {
+                update("b" + id++, 1.30 + row * CELL, 103.80 + col * CELL, 1);
+            }
+        }
+        double radius = 555;
+        update("edge-n", 1.35 + GeoMath.meterToLatDegree(radius), 103.85, 1);
+        update("edge-s", 1.35 - GeoMath.meterToLatDegree(radius), 103.85, 1);
+
+        for (int row = 0; row <= 10; row++) {
+            for (int col = 0; col <= 10; col++) {
+                double lat = 1.30 + row * CELL;
+                double lng = 103.80 + col * CELL;
+                assertRange(lat, lng, radius);
+                assertRange(lat, lng, 0);
+                assertKnn(lat, lng, 9);
+                assertPolygon(new double[]{lat - CELL, lat - CELL, lat + CELL, lat + CELL},
+                        new double[]{lng - CELL, lng + CELL, lng + CELL, lng - CELL});
+            }
+        }
+        assertRange(1.35, 103.85, radius);
+    }
+
+    @Test
+    void queriesAcrossTheAntimeridian() {
+        SplittableRandom random = new SplittableRandom(5);
+        fill(random, 1_000, -17.0, -16.0, 179.5, 180.0);
+        fill(random, 1_000, -17.0, -16.0, -180.0, -179.5);
+        update("east-edge", -16.5, 180.0, 1);
+        update("west-edge", -16.5, -180.0, 1);
+
+        for (int i = 0; i < 200; i++) {
+            double lat = random.nextDouble(-17.0, -16.0);
+            double lng = random.nextBoolean() ? random.nextDouble(179.8, 180.0) : random.nextDouble(-180.0, -179.8);
+            assertRange(lat, lng, random.nextDouble(100, 30_000));
+            assertKnn(lat, lng, 1 + random.nextInt(100));
+        }
+        // 경도 180과 -180은 같은 자오선
+        assertThat(index.range(-16.5, 180.0, 1).stream().map(SpatialHit::userId)).contains("east-edge", "west-edge");
+        assertThat(index.knn(-16.5, -180.0, 2)).extracting(SpatialHit::userId).containsExactlyInAnyOrder("east-edge", "west-edge");
+    }
+
+    @Test
+    void worldWideQueriesWithCellsThatDoNotTileTheGlobe() {
+        index = new GridSpatialIndex(0.7, 16); // 360 / 0.7이 정수가 아니므로 날짜변경선 앞 마지막 열이 좁음
+        SplittableRandom random = new SplittableRandom(7);
+        fill(random, 3_000, -89.9, 89.9, -180.0, 180.0);
+        fill(random, 200, 85.0, 90.0, -180.0, 180.0); // 극 주변: 경도 폭이 0으로 수렴
+
+        for (int i = 0; i < 200; i++) {
+            double lat = random.nextDouble(-90.0, 90.0);
+            double lng = random.nextDouble(-180.0, 180.0);
+            assertRange(lat, lng, random.nextDouble(1_000, 2_000_000));
+            assertKnn(lat, lng, 1 + random.nextInt(30));
+        }
+        assertKnn(0.0, 179.99, 5);
+        assertKnn(89.99, 0.0, 50);
+    }
+
+    @Test
+    void emptyIndexAndDegenerateQueries() {
+        assertThat(index.range(1.3, 103.8, 10_000)).isEmpty();
+        assertThat(index.knn(1.3, 103.8, 10)).isEmpty();
+        assertThat(index.polygon(new double[]{1.2, 1.2, 1.4}, new double[]{103.7, 103.9, 103.8})).isEmpty();
+
+        fill(new SplittableRandom(6), 500, 1.25, 1.45, 103.6, 104.0);
+        assertThat(index.knn(1.3, 103.8, 0)).isEmpty();
+        // 면적이 0인 Ring (한 직선 위의 꼭짓점)은 어떤 점도 포함하지 않음
+        assertPolygon(new double[]{1.30, 1.35, 1.40}, new double[]{103.70, 103.75, 103.80});
+        assertPolygon(new double[]{1.30, 1.30, 1.30}, new double[]{103.70, 103.80, 103.90});
+        assertThatThrownBy(() -> index.polygon(new double[]{1.3, 1.4}, new double[]{103.8, 103.9}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /* ======================= 선형 탐색 기준과 비교 ======================= */
+
+    private void fill(SplittableRandom random, int count, double minLat, double maxLat, double minLng, double maxLng) {
+        int offset = latest.size();
+        for (int i = 0; i < count; i++) {
+            update("p" + (offset + i), random.nextDouble(minLat, maxLat), random.nextDouble(minLng, maxLng), 1);
+        }
+    }
+
+    private void update(String userId, double lat, double lng, long timestamp) {
+        SpatialHit current = latest.get(userId);
+        boolean expected = current == null || current.timestamp() <= timestamp;
+        if (expected) latest.put(userId, new SpatialHit(userId, lat, lng, timestamp, 0));
+        assertThat(index.update(userId, lat, lng, timestamp)).isEqualTo(expected);
+    }
+
+    private void assertRange(double lat, double lng, double radiusMeter) {
+        List<String> expected = latest.values().stream()
+                .filter(p -> GeoMath.distanceMeter(lat, lng, p.latitude(), p.longitude()) <= radiusMeter)
+                .map(SpatialHit::userId)
+                .toList();
+        List<SpatialHit> actual = index.range(lat, lng, radiusMeter);
+
+        assertThat(actual).extracting(SpatialHit::userId).containsExactlyInAnyOrderElementsOf(expected);
+        assertDistances(actual, lat, lng);
+    }
+
+    private void assertKnn(double lat, double lng, int k) {
+        List<Double> expected = latest.values().stream()
+                .map(p -> GeoMath.distanceMeter(lat, lng, p.latitude(), p.longitude()))
+                .sorted()
+                .limit(k)
+                .toList();
+        List<SpatialHit> actual = index.knn(lat, lng, k);
+
+        // 같은 거리의 동점은 어느 쪽이든 허용하므로 거리 목록으로 비교
+        assertThat(actual).extracting(SpatialHit::distanceMeter).containsExactlyElementsOf(expected);
+        assertThat(actual).extracting(SpatialHit::userId).doesNotHaveDuplicates();
+        assertDistances(actual, lat, lng);
+    }
+
+    private void assertPolygon(double[] lats, double[] lngs) {
+        List<String> expected = latest.values().stream()
+                .filter(p -> GeoMath.contains(lats, lngs, p.latitude(), p.longitude()))
+                .map(SpatialHit::userId)
+                .toList();
+
+        assertThat(index.polygon(lats, lngs)).extracting(SpatialHit::userId).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private void assertDistances(List<SpatialHit> hits, double lat, double lng) {
+        assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(SpatialHit::distanceMeter));
+        for (SpatialHit hit : hits) {
+            SpatialHit stored = latest.get(hit.userId());
+            assertThat(hit.latitude()).isEqualTo(stored.latitude());
+            assertThat(hit.longitude()).isEqualTo(stored.longitude());
+            assertThat(hit.distanceMeter()).isEqualTo(GeoMath.distanceMeter(lat, lng, stored.latitude(), stored.longitude()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ICN.itrc_project.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapLocationStoreTest {
+
+    @Test
+    void roundTripsAllFields() {
+        OffHeapLocationStore store = new OffHeapLocationStore(16);
+
+        assertThat(store.put("driver_1", -33.8688197, 151.2092955, 42.5, 3.9, 1_700_000_000_000L)).isTrue();
+        assertThat(store.put("driver_2", 1.3, 103.8, Double.NaN, Double.NaN, 1L)).isTrue();
+
+        assertThat(store.get("driver_1")).contains(
+                new OffHeapLocationStore.StoredLocation("driver_1", -33.8688197, 151.2092955, 42.5, 3.9, 1_700_000_000_000L));
+        OffHeapLocationStore.StoredLocation second = store.get("driver_2").orElseThrow();
+        assertThat(second.speed()).isNaN();
+        assertThat(second.accuracy()).isNaN();
+        assertThat(store.get("driver_3")).isEmpty();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsNewestTimestamp() {
+        OffHeapLocationStore store = new OffHeapLocationStore(4);
+
+        assertThat(store.put("u", 1, 1, 0, 0, 200)).isTrue();
+        assertThat(store.put("u", 2, 2, 0, 0, 100)).isFalse();
+        assertThat(store.put("u", 3, 3, 0, 0, 200)).isTrue(); // 같은 timestamp는 재처리로 보고 반영
+        assertThat(store.get("u").orElseThrow().latitude()).isEqualTo(3);
+
+        assertThat(store.removeIfOlderThan("u", 200)).isFalse();
+        assertThat(store.removeIfOlderThan("u", 201)).isTrue();
+        assertThat(store.get("u")).isEmpty();
+        assertThat(store.remove("u")).isFalse();
+    }
+
+    @Test
+    void rejectsUnsupportedKeysAndCapacityOverflow() {
+        OffHeapLocationStore store = new OffHeapLocationStore(2, 8);
+
+        assertThat(store.put(null, 0, 0, 0, 0, 1)).isFalse();
+        assertThat(store.put("", 0, 0, 0, 0, 1)).isFalse();
+        assertThat(store.put("123456789", 0, 0, 0, 0, 1)).isFalse();
+        assertThat(store.put("기사", 0, 0, 0, 0, 1)).isFalse();
+        assertThat(store.put("a", 0, 0, 0, 0, 1)).isTrue();
+        assertThat(store.put("b", 0, 0, 0, 0, 1)).isTrue();
+        assertThat(store.put("c", 0, 0, 0, 0, 1)).isFalse();
+        assertThat(store.rejectedWrites()).isEqualTo(5);
+
+        // 삭제한 슬롯은 재사용
+        assertThat(store.remove("a")).isTrue();
+        assertThat(store.put("c", 0, 0, 0, 0, 1)).isTrue();
+        assertThat(store.get("b")).isPresent();
+        assertThat(store.get("c")).isPresent();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        // 작은 테이블에 키 공간을 더 크게 잡아 충돌/Backward Shift 삭제/슬롯 재사용을 반복
+        int capacity = 512;
+        OffHeapLocationStore store = new OffHeapLocationStore(capacity);
+        Map<String, OffHeapLocationStore.StoredLocation> model = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(19);
+
+        for (int op = 0; op < 200_000; op++) {
+            String userId = "user_" + random.nextInt(800);
+            long timestamp = random.nextLong(1, 1_000);
+            if (random.nextInt(3) == 0) {
+                OffHeapLocationStore.StoredLocation current = model.get(userId);
+                boolean expected = current != null && current.timestamp() < timestamp;
+                assertThat(store.removeIfOlderThan(userId, timestamp)).isEqualTo(expected);
+                if (expected) model.remove(userId);
+            } else {
+                double lat = random.nextDouble(-90, 90), lng = random.nextDouble(-180, 180);
+                OffHeapLocationStore.StoredLocation current = model.get(userId);
+                boolean expected = current != null ? current.timestamp() <= timestamp : model.size() < capacity;
+                assertThat(store.put(userId, lat, lng, 1, 2, timestamp)).isEqualTo(expected);
+                if (expected) model.put(userId, new OffHeapLocationStore.StoredLocation(userId, lat, lng, 1, 2, timestamp));
+            }
+            if (op % 1000 == 0) assertThat(store.get(userId)).isEqualTo(Optional.ofNullable(model.get(userId)));
+        }
+
+        assertThat(store.size()).isEqualTo(model.size());
+        Map<String, OffHeapLocationStore.StoredLocation> scanned = new HashMap<>();
+        store.forEach(location -> scanned.put(location.userId(), location));
+        assertThat(scanned).isEqualTo(model);
+        for (int i = 0; i < 800; i++) {
+            assertThat(store.get("user_" + i)).isEqualTo(Optional.ofNullable(model.get("user_" + i)));
+        }
+    }
+
+    @Test
+    void optimisticReadsNeverObserveTornRecords() throws InterruptedException {
+        OffHeapLocationStore store = new OffHeapLocationStore(1024);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(3);
+            for (long ts = 1; running.get(); ts++) {
+                String userId = "user_" + random.nextInt(2048);
+                // 레코드 내 필드가 모두 timestamp에서 파생되므로 섞여 읽히면 불일치
+                store.put(userId, ts % 90, -(ts % 90), ts % 1000, ts % 7, ts);
+                if (ts % 3 == 0) store.remove("user_" + random.nextInt(2048));
+            }
+        });
+        writer.start();
+        try {
+            SplittableRandom random = new SplittableRandom(4);
+            for (int i = 0; i < 500_000 && torn.get() == null; i++) {
+                String userId = "user_" + random.nextInt(2048);
+                store.get(userId).ifPresent(location -> {
+                    long ts = location.timestamp();
+                    boolean consistent = userId.equals(location.userId())
+                            && location.latitude() == ts % 90 && location.longitude() == -(ts % 90)
+                            && location.speed() == ts % 1000 && location.accuracy() == ts % 7;
+                    if (!consistent) torn.compareAndSet(null, location.toString());
+                });
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+
+        assertThat(torn.get()).isNull();
+    }
+}
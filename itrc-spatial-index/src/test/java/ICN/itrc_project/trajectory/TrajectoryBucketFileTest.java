@@ -0,0 +1,119 @@
+package ICN.itrc_project.trajectory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectoryBucketFileTest {
+
+    private static final long BUCKET_START = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesAndReopensDirectoryAndSegments() throws IOException {
+        Map<String, TrajectorySegment.Encoded> segments = new LinkedHashMap<>();
+        segments.put("driver-1", track(0, 100, 1.30, 103.80));
+        segments.put("기사-2", track(50_000, 200, -33.86, 151.20));
+        segments.put("driver-3", track(1_000_000, 10, 51.50, -0.12));
+        Path target = dir.resolve("bucket.trj");
+
+        TrajectoryBucketFile written = TrajectoryBucketFile.write(target, BUCKET_START, segments);
+        TrajectoryBucketFile reopened = TrajectoryBucketFile.open(target);
+
+        assertThat(Files.exists(target.resolveSibling("bucket.trj.tmp"))).isFalse();
+        for (TrajectoryBucketFile file : List.of(written, reopened)) {
+            assertThat(file.getBucketStart()).isEqualTo(BUCKET_START);
+            assertThat(file.getPings()).isEqualTo(310);
+            assertThat(file.sizeBytes()).isEqualTo(Files.size(target));
+            assertThat(file.entries()).extracting(TrajectoryBucketFile.Entry::userId)
+                    .containsExactly("driver-1", "기사-2", "driver-3");
+            segments.forEach((userId, expected) -> assertSegment(file, userId, expected));
+        }
+        assertThat(reopened.find("unknown")).isNull();
+    }
+
+    @Test
+    void decodesOnlyRequestedIntervalFromMappedFile() throws IOException {
+        TrajectoryBucketFile file = TrajectoryBucketFile.write(dir.resolve("bucket.trj"), BUCKET_START,
+                Map.of("driver-1", track(0, 100, 1.30, 103.80)));
+        TrajectoryBucketFile.Entry entry = file.find("driver-1");
+
+        List<Long> timestamps = new ArrayList<>();
+        int emitted = file.decode(entry, BUCKET_START + 20_000, BUCKET_START + 29_000, (ts, lat, lng) -> timestamps.add(ts));
+
+        assertThat(emitted).isEqualTo(10);
+        assertThat(timestamps).first().isEqualTo(BUCKET_START + 20_000);
+        assertThat(timestamps).last().isEqualTo(BUCKET_START + 29_000);
+    }
+
+    @Test
+    void summaryPrunesByTimeAndBoundingBox() throws IOException {
+        Map<String, TrajectorySegment.Encoded> segments = new LinkedHashMap<>();
+        segments.put("driver-1", track(0, 100, 1.30, 103.80));
+        segments.put("driver-2", track(0, 100, 1.40, 103.90));
+        TrajectoryBucketFile file = TrajectoryBucketFile.write(dir.resolve("bucket.trj"), BUCKET_START, segments);
+
+        long end = BUCKET_START + 99_000;
+        assertThat(file.overlaps(BUCKET_START, end, 1.29, 1.31, 103.79, 103.81)).isTrue();
+        assertThat(file.overlaps(end + 1, end + 10_000, 1.29, 1.31, 103.79, 103.81)).isFalse();
+        assertThat(file.overlaps(BUCKET_START, end, 10, 11, 103.79, 103.81)).isFalse();
+
+        TrajectoryBucketFile.Entry first = file.find("driver-1");
+        assertThat(first.intersects(1.29, 1.31, 103.79, 103.81)).isTrue();
+        assertThat(first.intersects(1.39, 1.41, 103.89, 103.91)).isFalse();
+        assertThat(first.overlaps(BUCKET_START - 10, BUCKET_START)).isTrue();
+    }
+
+    @Test
+    void rejectsCorruptOrForeignFiles() throws IOException {
+        Path truncated = dir.resolve("truncated.trj");
+        Files.write(truncated, new byte[8]);
+        Path foreign = dir.resolve("foreign.trj");
+        Files.write(foreign, new byte[64]);
+
+        assertThatThrownBy(() -> TrajectoryBucketFile.open(truncated)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> TrajectoryBucketFile.open(foreign)).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * 1초 간격 Ping 묶음 (Bucket 시작 기준 offsetMillis부터)
+     */
+    private static TrajectorySegment.Encoded track(long offsetMillis, int count, double lat, double lng) {
+        TrajectorySegment.Builder builder = new TrajectorySegment.Builder();
+        for (int i = 0; i < count; i++) {
+            builder.append(BUCKET_START + offsetMillis + i * 1000L, lat + i * 1e-5, lng - i * 1e-5);
+        }
+        return builder.encode();
+    }
+
+    private static void assertSegment(TrajectoryBucketFile file, String userId, TrajectorySegment.Encoded expected) {
+        TrajectoryBucketFile.Entry entry = file.find(userId);
+        assertThat(entry.count()).isEqualTo(expected.count());
+        assertThat(entry.minTimestamp()).isEqualTo(expected.minTimestamp());
+        assertThat(entry.maxTimestamp()).isEqualTo(expected.maxTimestamp());
+        assertThat(entry.minLat()).isEqualTo(expected.minLat());
+        assertThat(entry.maxLng()).isEqualTo(expected.maxLng());
+
+        List<double[]> fromFile = new ArrayList<>();
+        List<double[]> fromMemory = new ArrayList<>();
+        file.decode(entry, Long.MIN_VALUE, Long.MAX_VALUE, (ts, lat, lng) -> fromFile.add(new double[]{ts, lat, lng}));
+        TrajectorySegment.decode(expected, Long.MIN_VALUE, Long.MAX_VALUE, (ts, lat, lng) -> fromMemory.add(new double[]{ts, lat, lng}));
+        assertThat(fromFile).hasSize(expected.count());
+        for (int i = 0; i < fromMemory.size(); i++) {
+            assertThat(fromFile.get(i)).containsExactly(fromMemory.get(i), within(0.0));
+        }
+    }
+}
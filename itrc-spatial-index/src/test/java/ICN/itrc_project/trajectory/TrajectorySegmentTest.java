@@ -0,0 +1,153 @@
+package ICN.itrc_project.trajectory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectorySegmentTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final double QUANTUM = 1 / TrajectorySegment.SCALE;
+
+    private record Ping(long timestamp, double lat, double lng) {
+    }
+
+    @Test
+    void roundTripsRegularTrack() {
+        List<Ping> pings = new ArrayList<>();
+        for (int i = 0; i < 3600; i++) {
+            pings.add(new Ping(START + i * 1000L, 1.3 + i * 1e-5, 103.8 + i * 2e-5));
+        }
+
+        TrajectorySegment.Encoded encoded = encode(pings);
+
+        assertDecodesTo(encoded, pings);
+        assertThat(encoded.count()).isEqualTo(pings.size());
+        assertThat(encoded.minTimestamp()).isEqualTo(START);
+        assertThat(encoded.maxTimestamp()).isEqualTo(START + 3599 * 1000L);
+    }
+
+    @Test
+    void roundTripsEveryDeltaOfDeltaRangeIncluding32BitEscape() {
+        // 각 구간 경계 (0 / 7bit / 9bit / 12bit / 32bit) 를 timestamp와 좌표 모두에서 통과
+        long[] gaps = {1000, 1000, 1063, 937, 1255, 745, 3047, 0, 1_800_000, 1000, 60_000, 1};
+        List<Ping> pings = new ArrayList<>();
+        long ts = START;
+        double lat = 0, lng = 0;
+        for (int i = 0; i < gaps.length; i++) {
+            ts += Math.max(1, gaps[i]);
+            lat += (i % 2 == 0 ? 1 : -1) * gaps[i] * QUANTUM;
+            lng += gaps[i] * 5 * QUANTUM;
+            pings.add(new Ping(ts, lat, lng));
+        }
+        // 좌표 32bit escape: 한 번에 수십 도 이동
+        pings.add(new Ping(ts + 1000, -45.123456, 170.654321));
+        pings.add(new Ping(ts + 2000, 45.123456, -170.654321));
+
+        assertDecodesTo(encode(pings), pings);
+    }
+
+    @Test
+    void roundTripsNegativeCoordinatesAcrossHemispheres() {
+        List<Ping> pings = new ArrayList<>();
+        Random random = new Random(42);
+        double lat = -0.0005, lng = -0.0005;
+        for (int i = 0; i < 1000; i++) {
+            lat += 1e-6 + random.nextGaussian() * 3e-6;
+            lng += 1e-6 + random.nextGaussian() * 3e-6;
+            pings.add(new Ping(START + i * 1000L + random.nextInt(200), lat, lng));
+        }
+        pings.add(new Ping(START + 2_000_000, -89.999999, -179.999999));
+        pings.add(new Ping(START + 2_001_000, 89.999999, 179.999999));
+
+        TrajectorySegment.Encoded encoded = encode(pings);
+
+        assertDecodesTo(encoded, pings);
+        assertThat(encoded.minLat()).isEqualTo(-89.999999);
+        assertThat(encoded.maxLng()).isEqualTo(179.999999);
+    }
+
+    @Test
+    void decodesOnlyRequestedInterval() {
+        List<Ping> pings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) pings.add(new Ping(START + i * 1000L, -33.8 - i * 1e-5, 151.2 + i * 1e-5));
+        TrajectorySegment.Encoded encoded = encode(pings);
+
+        List<Ping> decoded = new ArrayList<>();
+        int emitted = TrajectorySegment.decode(encoded, START + 10_000, START + 19_000,
+                (ts, lat, lng) -> decoded.add(new Ping(ts, lat, lng)));
+
+        assertThat(emitted).isEqualTo(10);
+        assertPings(decoded, pings.subList(10, 20));
+        assertThat(TrajectorySegment.decode(encoded, START + 100_000, Long.MAX_VALUE, (ts, lat, lng) -> {
+        })).isZero();
+        assertThat(TrajectorySegment.decode(encoded, Long.MIN_VALUE, START - 1, (ts, lat, lng) -> {
+        })).isZero();
+    }
+
+    @Test
+    void rejectsOutOfOrderAndDuplicateTimestamps() {
+        TrajectorySegment.Builder builder = new TrajectorySegment.Builder();
+
+        assertThat(builder.append(START, 1, 1)).isTrue();
+        assertThat(builder.append(START, 1, 1)).isFalse();
+        assertThat(builder.append(START - 1, 1, 1)).isFalse();
+        assertThat(builder.append(START + 1, 1, 1)).isTrue();
+        assertThat(builder.count()).isEqualTo(2);
+    }
+
+    @Test
+    void compressesNoisyOneHertzTrackWellBelowRawSize() {
+        // 1Hz, 등속 + GPS 잡음 (약 ±2m): 원본 24 B/Ping (long + double 2개)
+        Random random = new Random(7);
+        List<Ping> pings = new ArrayList<>();
+        for (int i = 0; i < 3600; i++) {
+            pings.add(new Ping(START + i * 1000L,
+                    1.3 + i * 8e-5 + random.nextGaussian() * 1e-5,
+                    103.8 + i * 8e-5 + random.nextGaussian() * 1e-5));
+        }
+
+        TrajectorySegment.Encoded encoded = encode(pings);
+
+        assertDecodesTo(encoded, pings);
+        assertThat((double) encoded.data().length / pings.size()).isLessThan(4.0);
+    }
+
+    @Test
+    void emptySegmentDecodesNothing() {
+        TrajectorySegment.Encoded encoded = new TrajectorySegment.Builder().encode();
+
+        assertThat(encoded.count()).isZero();
+        assertThat(TrajectorySegment.decode(encoded, Long.MIN_VALUE, Long.MAX_VALUE, (ts, lat, lng) -> {
+        })).isZero();
+    }
+
+    private static TrajectorySegment.Encoded encode(List<Ping> pings) {
+        TrajectorySegment.Builder builder = new TrajectorySegment.Builder();
+        for (Ping ping : pings) assertThat(builder.append(ping.timestamp(), ping.lat(), ping.lng())).isTrue();
+        return builder.encode();
+    }
+
+    private static void assertDecodesTo(TrajectorySegment.Encoded encoded, List<Ping> expected) {
+        List<Ping> decoded = new ArrayList<>();
+        int emitted = TrajectorySegment.decode(encoded, Long.MIN_VALUE, Long.MAX_VALUE,
+                (ts, lat, lng) -> decoded.add(new Ping(ts, lat, lng)));
+        assertThat(emitted).isEqualTo(expected.size());
+        assertPings(decoded, expected);
+    }
+
+    private static void assertPings(List<Ping> actual, List<Ping> expected) {
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).timestamp()).isEqualTo(expected.get(i).timestamp());
+            // 1e-6도 양자화 (반올림) 오차 이내
+            assertThat(actual.get(i).lat()).isCloseTo(expected.get(i).lat(), within(QUANTUM / 2 + 1e-12));
+            assertThat(actual.get(i).lng()).isCloseTo(expected.get(i).lng(), within(QUANTUM / 2 + 1e-12));
+        }
+    }
+}
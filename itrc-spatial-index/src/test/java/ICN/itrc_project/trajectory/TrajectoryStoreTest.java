@@ -0,0 +1,112 @@
+package ICN.itrc_project.trajectory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectoryStoreTest {
+
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % 3_600_000L; // Bucket 경계
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsOutOfOrderPingsAndRejectsOnlyDuplicates() throws IOException {
+        List<Long> timestamps = new ArrayList<>();
+        for (int i = 0; i < 500; i++) timestamps.add(START + i * 1000L);
+        Collections.shuffle(timestamps, new Random(3));
+
+        try (TrajectoryStore store = newStore()) {
+            for (long ts : timestamps) assertThat(store.append("driver-1", latAt(ts), lngAt(ts), ts)).isTrue();
+            for (long ts : timestamps.subList(0, 100)) assertThat(store.append("driver-1", latAt(ts), lngAt(ts), ts)).isFalse();
+
+            assertThat(store.openPings()).isEqualTo(500);
+            assertThat(store.rejectedAppends()).isEqualTo(100);
+            assertTrack(store.track("driver-1", START, START + 499_000), 500);
+        }
+    }
+
+    @Test
+    void sealsExpiredBucketsAndReloadsThemOnRestart() throws IOException {
+        try (TrajectoryStore store = newStore()) {
+            for (int i = 0; i < 300; i++) {
+                long ts = START + i * 1000L;
+                store.append("driver-1", latAt(ts), lngAt(ts), ts);
+            }
+            store.sealExpired(START + 2 * 3_600_000L);
+
+            assertThat(store.openPings()).isZero();
+            assertThat(store.sealedPings()).isEqualTo(300);
+            assertThat(store.sealedFiles(START, START + 299_000)).hasSize(1);
+            assertTrack(store.track("driver-1", START, START + 299_000), 300);
+        }
+
+        try (TrajectoryStore reopened = newStore()) {
+            assertThat(reopened.sealedPings()).isEqualTo(300);
+            assertTrack(reopened.track("driver-1", START, START + 299_000), 300);
+            assertThat(reopened.track("driver-1", START + 100_000, START + 109_000)).hasSize(10);
+        }
+    }
+
+    @Test
+    void mergesSealedAndOpenSegmentsOfSameBucket() throws IOException {
+        try (TrajectoryStore store = newStore()) {
+            for (int i = 0; i < 100; i++) {
+                long ts = START + i * 1000L;
+                store.append("driver-1", latAt(ts), lngAt(ts), ts);
+            }
+            store.sealExpired(START + 2 * 3_600_000L);
+            // 봉인 이후 같은 Bucket에 늦게 도착한 Ping은 새 열린 Segment로 이어짐
+            for (int i = 100; i < 150; i++) {
+                long ts = START + i * 1000L;
+                store.append("driver-1", latAt(ts), lngAt(ts), ts);
+            }
+
+            assertThat(store.openSegments(START, START + 149_000, -90, 90, -180, 180)).hasSize(1);
+            assertTrack(store.track("driver-1", START, START + 149_000), 150);
+        }
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedKeys() throws IOException {
+        try (TrajectoryStore store = newStore()) {
+            assertThat(store.append("", 1, 1, START)).isFalse();
+            assertThat(store.append("x".repeat(TrajectoryBucketFile.MAX_KEY_BYTES + 1), 1, 1, START)).isFalse();
+            assertThat(store.rejectedAppends()).isEqualTo(2);
+        }
+    }
+
+    private TrajectoryStore newStore() throws IOException {
+        // 봉인은 테스트에서 sealExpired로 직접 호출 (주기 실행이 끼어들지 않도록 긴 간격)
+        return new TrajectoryStore(dir, Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(3650), Duration.ofHours(1));
+    }
+
+    private static double latAt(long ts) {
+        return 1.3 + (ts - START) / 1000 * 1e-5;
+    }
+
+    private static double lngAt(long ts) {
+        return 103.8 - (ts - START) / 1000 * 2e-5;
+    }
+
+    private static void assertTrack(List<TrajectoryStore.Point> track, int expected) {
+        assertThat(track).hasSize(expected);
+        for (int i = 0; i < expected; i++) {
+            TrajectoryStore.Point point = track.get(i);
+            assertThat(point.timestamp()).isEqualTo(START + i * 1000L);
+            assertThat(point.latitude()).isCloseTo(latAt(point.timestamp()), within(1e-6));
+            assertThat(point.longitude()).isCloseTo(lngAt(point.timestamp()), within(1e-6));
+        }
+    }
+}
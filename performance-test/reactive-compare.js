@@ -0,0 +1,74 @@
+import http from 'k6/http';
+import {check, sleep} from 'k6';
+import {SharedArray} from 'k6/data';
+import papaparse from 'https://jslib.k6.io/papaparse/5.1.1/index.js';
+
+/**
+ * Redis 조회 방식 비교 (Servlet vs Reactive): 같은 읽기 부하를 두 엔드포인트 그룹에 각각 실행하여 처리량/P99 비교
+ * - MODE=servlet: /api/v1/search/redis/*, MODE=reactive: /api/v1/search/redis/reactive/* (NDJSON 응답)
+ * - Range 40% / KNN 40% / PIP 20% 읽기 전용, 200 → 500 → 1000 → 2000 VU 단계별 유지
+ * - 서버는 플랫폼 스레드로 실행해야 Tomcat 스레드 수 제한에 따른 차이가 드러남 (--spring.threads.virtual.enabled=false)
+ *
+ * k6 run -e MODE=servlet reactive-compare.js
+ * k6 run -e MODE=reactive reactive-compare.js
+ */
+const data = new SharedArray('posisi_data', function () {
+    return papaparse.parse(open('./grab_posisi_data.csv'), {header: true}).data;
+});
+
+const MODE = __ENV.MODE || 'servlet';
+const BASE = MODE === 'reactive'
+    ? 'http://localhost:8082/api/v1/search/redis/reactive'
+    : 'http://localhost:8082/api/v1/search/redis';
+
+export const options = {
+    tags: {mode: MODE},
+    scenarios: {
+        reactive_compare: {
+            executor: 'ramping-vus',
+            stages: [
+                {duration: '30s', target: 200},
+                {duration: '1m', target: 200},
+                {duration: '30s', target: 500},
+                {duration: '1m', target: 500},
+                {duration: '30s', target: 1000},
+                {duration: '1m', target: 1000},
+                {duration: '30s', target: 2000},
+                {duration: '1m', target: 2000},
+                {duration: '30s', target: 0},
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const record = data[Math.floor(Math.random() * data.length)];
+    const params = {headers: {'Content-Type': 'application/json'}};
+    const lat = parseFloat(record.rawlat);
+    const lng = parseFloat(record.rawlng);
+    const dice = Math.random();
+
+    if (dice < 0.4) {
+        const radius = (Math.random() * 4500 + 500).toFixed(0);
+        const payload = JSON.stringify({latitude: lat, longitude: lng});
+        const res = http.post(`${BASE}/range?radiusMeter=${radius}`, payload, Object.assign({tags: {op: 'range'}}, params));
+        check(res, {'Range OK': (r) => r.status === 200});
+    } else if (dice < 0.8) {
+        const k = Math.floor(Math.random() * 41) + 10;
+        const payload = JSON.stringify({latitude: lat, longitude: lng});
+        const res = http.post(`${BASE}/knn?n=${k}`, payload, Object.assign({tags: {op: 'knn'}}, params));
+        check(res, {'KNN OK': (r) => r.status === 200});
+    } else {
+        // 중심 기준 약 1km 크기의 사각형
+        const d = 0.005;
+        const payload = JSON.stringify({
+            lats: [lat - d, lat - d, lat + d, lat + d],
+            lngs: [lng - d, lng + d, lng + d, lng - d],
+        });
+        const res = http.post(`${BASE}/pip`, payload, Object.assign({tags: {op: 'pip'}}, params));
+        check(res, {'PIP OK': (r) => r.status === 200});
+    }
+    sleep(0.1);
+}
@@ -0,0 +1,90 @@
+import http from 'k6/http';
+import {check, sleep} from 'k6';
+import {SharedArray} from 'k6/data';
+import papaparse from 'https://jslib.k6.io/papaparse/5.1.1/index.js';
+
+/**
+ * 스레드 모드 비교 (Platform vs Virtual): 같은 부하를 두 모드로 각각 실행하여 처리량/P99 비교
+ * - TARGET: rdbms(8081) | kafka(8082), THREADING: 결과 구분용 태그 (서버 지표는 threading 태그로 자동 구분)
+ * - 200 → 500 → 1000 → 2000 VU 단계별 유지 (Tomcat 기본 스레드 200개를 넘는 구간에서 차이 확인)
+ *
+ * k6 run -e TARGET=rdbms -e THREADING=platform threading-compare.js   (서버: --spring.threads.virtual.enabled=false)
+ * k6 run -e TARGET=rdbms -e THREADING=virtual threading-compare.js    (서버: Java 21 + --spring.threads.virtual.enabled=true)
+ */
+const data = new SharedArray('posisi_data', function () {
+    return papaparse.parse(open('./grab_posisi_data.csv'), {header: true}).data;
+});
+
+const TARGET = __ENV.TARGET || 'rdbms';
+const THREADING = __ENV.THREADING || 'unknown';
+
+const ENDPOINTS = {
+    rdbms: {
+        update: 'http://localhost:8081/api/v1/rdbms/update',
+        range: (radius) => `http://localhost:8081/api/v1/rdbms/search/range?radius=${radius}`,
+        knn: (k) => `http://localhost:8081/api/v1/rdbms/search/knn?k=${k}`,
+        writeStatus: 200,
+    },
+    kafka: {
+        update: 'http://localhost:8082/api/v1/update/kafka',
+        range: (radius) => `http://localhost:8082/api/v1/search/redis/range?radiusMeter=${radius}`,
+        knn: (k) => `http://localhost:8082/api/v1/search/redis/knn?n=${k}`,
+        writeStatus: 202,
+    },
+}[TARGET];
+
+export const options = {
+    tags: {target: TARGET, threading: THREADING},
+    scenarios: {
+        threading_compare: {
+            executor: 'ramping-vus',
+            stages: [
+                {duration: '30s', target: 200},
+                {duration: '1m', target: 200},
+                {duration: '30s', target: 500},
+                {duration: '1m', target: 500},
+                {duration: '30s', target: 1000},
+                {duration: '1m', target: 1000},
+                {duration: '30s', target: 2000},
+                {duration: '1m', target: 2000},
+                {duration: '30s', target: 0},
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const record = data[Math.floor(Math.random() * data.length)];
+    const params = {headers: {'Content-Type': 'application/json'}};
+    const lat = parseFloat(record.rawlat);
+    const lng = parseFloat(record.rawlng);
+
+    if (Math.random() < 0.5) { // [Write 50%]
+        const payload = JSON.stringify({
+            userId: `user_${Math.floor(Math.random() * 100000)}`,
+            latitude: lat,
+            longitude: lng,
+            speed: 0.0,
+            accuracy: 0.0,
+            serviceType: TARGET.toUpperCase(),
+            timestamp: Date.now()
+        });
+        const res = http.post(ENDPOINTS.update, payload, Object.assign({tags: {op: 'write'}}, params));
+        check(res, {'Write OK': (r) => r.status === ENDPOINTS.writeStatus});
+
+    } else { // [Read 50%] Range / KNN
+        const payload = JSON.stringify({latitude: lat, longitude: lng, serviceType: TARGET.toUpperCase()});
+        if (Math.random() < 0.5) {
+            const radius = (Math.random() * 4500 + 500).toFixed(0);
+            const res = http.post(ENDPOINTS.range(radius), payload, Object.assign({tags: {op: 'range'}}, params));
+            check(res, {'Range OK': (r) => r.status === 200});
+        } else {
+            const k = Math.floor(Math.random() * 41) + 10;
+            const res = http.post(ENDPOINTS.knn(k), payload, Object.assign({tags: {op: 'knn'}}, params));
+            check(res, {'KNN OK': (r) => r.status === 200});
+        }
+    }
+    sleep(0.1);
+}